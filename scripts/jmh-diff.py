@@ -0,0 +1,76 @@
+#!/usr/bin/env python3
+"""Compare two JMH JSON result files (-rf json).
+
+Usage: scripts/jmh-diff.py BASELINE.json CANDIDATE.json [--threshold PERCENT]
+
+Prints one row per benchmark/params combination. A change is flagged when it exceeds
+the threshold and the score difference is larger than the combined error margins.
+Exits with status 1 when any benchmark regressed, so it can gate CI.
+"""
+import argparse
+import json
+import sys
+
+# Modes where a lower score is better; throughput ("thrpt") is the only higher-is-better mode
+LOWER_IS_BETTER = {"avgt", "sample", "ss"}
+
+
+def load(path):
+    with open(path) as f:
+        results = {}
+        for entry in json.load(f):
+            params = ",".join(f"{k}={v}" for k, v in sorted((entry.get("params") or {}).items()))
+            name = entry["benchmark"].rsplit(".", 2)
+            key = (".".join(name[-2:]), params, entry["mode"])
+            metric = entry["primaryMetric"]
+            error = metric.get("scoreError")
+            results[key] = (metric["score"], error if isinstance(error, (int, float)) else 0.0, metric["scoreUnit"])
+        return results
+
+
+def main():
+    parser = argparse.ArgumentParser(description=__doc__, formatter_class=argparse.RawDescriptionHelpFormatter)
+    parser.add_argument("baseline")
+    parser.add_argument("candidate")
+    parser.add_argument("--threshold", type=float, default=5.0, help="minimum change in percent to flag")
+    args = parser.parse_args()
+
+    baseline = load(args.baseline)
+    candidate = load(args.candidate)
+    regressions = 0
+
+    rows = [("benchmark", "params", "mode", "baseline", "candidate", "unit", "change", "")]
+    for key in sorted(baseline.keys() | candidate.keys()):
+        name, params, mode = key
+        if key not in baseline or key not in candidate:
+            side = baseline.get(key) or candidate.get(key)
+            rows.append((name, params, mode,
+                         f"{side[0]:.3f}" if key in baseline else "-",
+                         f"{side[0]:.3f}" if key in candidate else "-",
+                         side[2], "", "added" if key in candidate else "removed"))
+            continue
+
+        base_score, base_error, unit = baseline[key]
+        new_score, new_error, _ = candidate[key]
+        change = (new_score - base_score) / base_score * 100 if base_score else 0.0
+        improved = change < 0 if mode in LOWER_IS_BETTER else change > 0
+        significant = abs(change) >= args.threshold and abs(new_score - base_score) > base_error + new_error
+
+        verdict = ""
+        if significant:
+            verdict = "improved" if improved else "REGRESSED"
+            regressions += 0 if improved else 1
+        rows.append((name, params, mode, f"{base_score:.3f}", f"{new_score:.3f}", unit, f"{change:+.1f}%", verdict))
+
+    widths = [max(len(row[i]) for row in rows) for i in range(len(rows[0]))]
+    for row in rows:
+        print("  ".join(cell.ljust(width) for cell, width in zip(row, widths)).rstrip())
+
+    if regressions:
+        print(f"\n{regressions} benchmark(s) regressed by more than {args.threshold}%", file=sys.stderr)
+        return 1
+    return 0
+
+
+if __name__ == "__main__":
+    sys.exit(main())
@@ -0,0 +1,47 @@
+#!/usr/bin/env bash
+# Measure time-to-first-request: from process launch until the first 200 response.
+#
+# Usage: scripts/time-to-first-request.sh [-n RUNS] [-u URL] -- COMMAND [ARGS...]
+#
+#   scripts/time-to-first-request.sh -n 5 -- java -jar target/CodyWar-0.0.1-SNAPSHOT.jar
+#
+# The app must pick up its database settings from the environment (DB_URL etc.).
+# /actuator/health on the management port is polled by default; it only answers 200 once the database is reachable.
+set -euo pipefail
+
+runs=5
+url="http://localhost:8001/actuator/health"
+while [[ $# -gt 0 && "$1" != "--" ]]; do
+    case "$1" in
+        -n) runs="$2"; shift 2 ;;
+        -u) url="$2"; shift 2 ;;
+        *) echo "unknown option $1" >&2; exit 2 ;;
+    esac
+done
+shift || true
+[[ $# -gt 0 ]] || { echo "missing command after --" >&2; exit 2; }
+
+results=()
+for ((run = 1; run <= runs; run++)); do
+    start=$(date +%s%N)
+    "$@" >/tmp/ttfr-$$.log 2>&1 &
+    pid=$!
+
+    until curl -sf -o /dev/null "$url"; do
+        if ! kill -0 "$pid" 2>/dev/null; then
+            echo "run $run: process exited before serving a request, see /tmp/ttfr-$$.log" >&2
+            exit 1
+        fi
+        sleep 0.02
+    done
+    elapsed=$(( ($(date +%s%N) - start) / 1000000 ))
+    results+=("$elapsed")
+    echo "run $run: ${elapsed} ms"
+
+    kill "$pid"
+    wait "$pid" 2>/dev/null || true
+done
+
+sorted=($(printf '%s\n' "${results[@]}" | sort -n))
+echo "min ${sorted[0]} ms, median ${sorted[$(( ${#sorted[@]} / 2 ))]} ms, max ${sorted[-1]} ms over $runs runs"
+rm -f /tmp/ttfr-$$.log
@@ -0,0 +1,136 @@
+package com.gourav.CodyWar;
+
+import com.gourav.CodyWar.Domain.Entity.Difficulty;
+import com.gourav.CodyWar.Domain.Entity.Language;
+import com.gourav.CodyWar.Domain.Entity.Problem;
+import com.gourav.CodyWar.Domain.Entity.Role;
+import com.gourav.CodyWar.Domain.Entity.User;
+
+import java.time.Instant;
+import java.util.Random;
+import java.util.Set;
+import java.util.UUID;
+
+// Deterministic synthetic entities shared by the benchmark suites
+public final class BenchmarkData {
+
+    private static final String[] WORDS = {
+            "array", "integer", "return", "given", "string", "maximum", "minimum", "number", "subarray",
+            "tree", "binary", "node", "graph", "edge", "vertex", "path", "shortest", "weight", "query",
+            "sum", "prefix", "suffix", "window", "sliding", "matrix", "grid", "cell", "row", "column",
+            "sort", "sorted", "order", "index", "element", "distinct", "pair", "triplet", "target",
+            "dynamic", "programming", "greedy", "interval", "merge", "overlap", "stack", "queue", "heap",
+            "priority", "hash", "map", "set", "count", "frequency", "character", "substring", "palindrome",
+            "anagram", "prime", "modulo", "bit", "mask", "xor", "parity", "digit", "permutation", "subset",
+            "combination", "backtracking", "recursion", "memoization", "bfs", "dfs", "cycle", "component",
+            "tournament", "battle", "player", "score", "round", "coin", "change", "knapsack", "capacity"
+    };
+
+    private static final String[] NAMES = {
+            "n", "m", "k", "i", "j", "a", "b", "arr", "nums", "total", "best", "ans", "res", "cnt", "lo", "hi",
+            "mid", "left", "right", "cur", "prev", "dp", "memo", "seen", "stack", "queue", "grid", "x", "y"
+    };
+    private static final String[] OPERATORS = {" + ", " - ", " * ", " // ", " % "};
+    private static final int STATEMENTS_PER_PROBLEM = 40;
+
+    private BenchmarkData() {
+    }
+
+    public static String text(Random random, int words) {
+        StringBuilder text = new StringBuilder(words * 8);
+        for (int i = 0; i < words; i++) {
+            // Skewed towards the front of the vocabulary, like natural text
+            int index = (int) (Math.pow(random.nextDouble(), 2) * WORDS.length);
+            text.append(WORDS[index]);
+            text.append(i % 12 == 11 ? ". " : " ");
+        }
+        return text.toString();
+    }
+
+    public static Problem problem(int seed) {
+        Random random = new Random(seed);
+        return Problem.builder()
+                .id(new UUID(0x5EED, seed))
+                .title(text(random, 3).trim() + " " + seed)
+                .description(text(random, 120))
+                .constraints("1 <= n <= 10^5, " + text(random, 8))
+                .exampleInput("5\n1 2 3 4 5")
+                .exampleOutput("15")
+                .difficulty(Difficulty.values()[seed % Difficulty.values().length])
+                .createdAt(Instant.parse("2026-01-01T00:00:00Z"))
+                .build();
+    }
+
+    /**
+     * Python solution to a problem: lines drawn from a pool of statement shapes the problem's
+     * solutions share, in an order and number set by variant, with identifiers named by names.
+     * The same problem and variant under other names is a renamed copy.
+     */
+    public static String solution(int problem, long variant, long names) {
+        Random shapes = new Random(problem * 7919L);
+        String[] pool = new String[STATEMENTS_PER_PROBLEM];
+        for (int i = 0; i < pool.length; i++) {
+            pool[i] = statement(shapes);
+        }
+
+        Random structure = new Random(variant);
+        Random naming = new Random(names);
+        StringBuilder code = new StringBuilder(512);
+        int lines = 12 + structure.nextInt(8);
+        for (int line = 0; line < lines; line++) {
+            String shape = pool[structure.nextInt(pool.length)];
+            for (int i = 0; i < shape.length(); i++) {
+                char c = shape.charAt(i);
+                if (c == '$') {
+                    code.append(NAMES[naming.nextInt(NAMES.length)]);
+                } else if (c == '#') {
+                    code.append(naming.nextInt(100));
+                } else {
+                    code.append(c);
+                }
+            }
+            code.append('\n');
+        }
+        return code.toString();
+    }
+
+    private static String statement(Random random) {
+        return switch (random.nextInt(6)) {
+            case 0 -> "$ = " + expression(random, 3);
+            case 1 -> "$ += " + expression(random, 3);
+            case 2 -> "if " + expression(random, 2) + " > " + expression(random, 2) + ":";
+            case 3 -> "for $ in range(" + expression(random, 2) + "):";
+            case 4 -> "$.append(" + expression(random, 2) + ")";
+            default -> "print(" + expression(random, 2) + ")";
+        };
+    }
+
+    private static String expression(Random random, int depth) {
+        int kind = random.nextInt(depth == 0 ? 3 : 8);
+        return switch (kind) {
+            case 0 -> "$";
+            case 1 -> "#";
+            case 2 -> "$[$]";
+            case 3, 4 -> "(" + expression(random, depth - 1) + OPERATORS[random.nextInt(OPERATORS.length)]
+                    + expression(random, depth - 1) + ")";
+            case 5 -> "max(" + expression(random, depth - 1) + ", " + expression(random, depth - 1) + ")";
+            case 6 -> "min(" + expression(random, depth - 1) + ", " + expression(random, depth - 1) + ")";
+            default -> "len(" + expression(random, depth - 1) + ")";
+        };
+    }
+
+    public static User user(int seed) {
+        return User.builder()
+                .id(new UUID(0xFEED, seed))
+                .username("player" + seed)
+                .email("player" + seed + "@codywar.dev")
+                .passwordHash("$2a$10$7EqJtq98hPqEX7fNZaFWoOhi5BWX4Z5Z6Q1Jj6j4N5F1s1Kq8m9cO")
+                .ratingScore(1000 + seed % 800)
+                .battlesPlayed(seed % 50)
+                .battlesWon(seed % 20)
+                .languagesUsed(Set.of(Language.JAVA, Language.PYTHON, Language.CPP))
+                .role(Role.PLAYER)
+                .createdAt(Instant.parse("2026-01-01T00:00:00Z"))
+                .build();
+    }
+}
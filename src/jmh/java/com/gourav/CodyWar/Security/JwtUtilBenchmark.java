@@ -0,0 +1,49 @@
+package com.gourav.CodyWar.Security;
+
+import com.gourav.CodyWar.BenchmarkData;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JwtUtilBenchmark {
+
+    private JwtUtil jwtUtil;
+    private CustomUserDetails userDetails;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        jwtUtil = new JwtUtil(new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(jwtUtil, "secretKey", "VGhpc0lzQVN1cGVyU2VjdXJlSldUU2VjcmV0S2V5MTIzNDU2Nzg5MA==");
+        ReflectionTestUtils.setField(jwtUtil, "jwtExpiration", 900_000L);
+        ReflectionTestUtils.setField(jwtUtil, "refreshExpiration", 604_800_000L);
+
+        userDetails = new CustomUserDetails(BenchmarkData.user(1));
+        token = jwtUtil.generateToken(userDetails);
+    }
+
+    @Benchmark
+    public String generateToken() {
+        return jwtUtil.generateToken(userDetails);
+    }
+
+    @Benchmark
+    public String extractEmail() {
+        return jwtUtil.extractEmail(token);
+    }
+
+    // What JwtAuthenticationFilter does per authenticated request
+    @Benchmark
+    public boolean authenticateRequest() {
+        String email = jwtUtil.extractEmail(token);
+        return email != null && jwtUtil.isTokenValid(token, userDetails);
+    }
+}
@@ -0,0 +1,36 @@
+package com.gourav.CodyWar.Security;
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PasswordEncoderBenchmark {
+
+    private PasswordEncoder passwordEncoder;
+    private String hash;
+
+    @Setup
+    public void setUp() {
+        // Same encoder and strength as SecurityConfig.passwordEncoder()
+        passwordEncoder = new BCryptPasswordEncoder();
+        hash = passwordEncoder.encode("correct horse battery staple");
+    }
+
+    @Benchmark
+    public String encode() {
+        return passwordEncoder.encode("correct horse battery staple");
+    }
+
+    @Benchmark
+    public boolean matches() {
+        return passwordEncoder.matches("correct horse battery staple", hash);
+    }
+}
@@ -0,0 +1,76 @@
+package com.gourav.CodyWar.Security;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.gourav.CodyWar.Configuration.RateLimitProperties;
+import jakarta.servlet.FilterChain;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Accept-path cost of RateLimitFilter with 100k distinct client keys already holding buckets,
+ * single-threaded and with contention.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx1g")
+public class RateLimitFilterBenchmark {
+
+    @Param({"100000"})
+    private int keys;
+
+    private RateLimitFilter filter;
+    private String[] addresses;
+    private final FilterChain chain = (request, response) -> { };
+
+    @Setup
+    public void setUp() throws Exception {
+        RateLimitProperties.Policy policy = new RateLimitProperties.Policy();
+        policy.setPathPrefix("/api/problems");
+        // Effectively unlimited so every call measures the accept path
+        policy.setCapacity(Integer.MAX_VALUE / 2);
+        policy.setRefillPerMinute(Integer.MAX_VALUE / 2);
+        policy.setPerIp(true);
+        RateLimitProperties properties = new RateLimitProperties();
+        properties.getPolicies().put("problems", policy);
+        filter = new RateLimitFilter(properties, new ObjectMapper());
+
+        addresses = new String[keys];
+        MockHttpServletRequest request = request();
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        for (int i = 0; i < keys; i++) {
+            addresses[i] = "10." + (i >>> 16) + "." + ((i >>> 8) & 0xFF) + "." + (i & 0xFF);
+            request.setRemoteAddr(addresses[i]);
+            filter.doFilter(request, response, chain);
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class Exchange {
+        private final MockHttpServletRequest request = request();
+        private final MockHttpServletResponse response = new MockHttpServletResponse();
+    }
+
+    @Benchmark
+    public int acceptKnownKey(Exchange exchange) throws Exception {
+        exchange.request.setRemoteAddr(addresses[ThreadLocalRandom.current().nextInt(keys)]);
+        filter.doFilter(exchange.request, exchange.response, chain);
+        return exchange.response.getStatus();
+    }
+
+    @Benchmark
+    @Threads(8)
+    public int acceptKnownKeyContended(Exchange exchange) throws Exception {
+        return acceptKnownKey(exchange);
+    }
+
+    private static MockHttpServletRequest request() {
+        return new MockHttpServletRequest("GET", "/api/problems/search");
+    }
+}
@@ -0,0 +1,49 @@
+package com.gourav.CodyWar.Service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.gourav.CodyWar.BenchmarkData;
+import com.gourav.CodyWar.Domain.Dto.ApiResponse;
+import com.gourav.CodyWar.Domain.Dto.AuthResponse;
+import com.gourav.CodyWar.Domain.Dto.UserDto;
+import com.gourav.CodyWar.Domain.Entity.User;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AuthResponseBenchmark {
+
+    private AuthService authService;
+    private ObjectMapper objectMapper;
+    private User user;
+    private AuthResponse authResponse;
+
+    @Setup
+    public void setUp() {
+        authService = new AuthService(null, null, null, null);
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        user = BenchmarkData.user(7);
+        authResponse = AuthResponse.builder()
+                .accessToken("a".repeat(180))
+                .refreshToken("r".repeat(180))
+                .user(authService.mapToUserDto(user))
+                .build();
+    }
+
+    @Benchmark
+    public UserDto mapToUserDto() {
+        return authService.mapToUserDto(user);
+    }
+
+    @Benchmark
+    public byte[] serializeLoginResponse() throws IOException {
+        return objectMapper.writeValueAsBytes(ApiResponse.success(authResponse, "Login successful"));
+    }
+}
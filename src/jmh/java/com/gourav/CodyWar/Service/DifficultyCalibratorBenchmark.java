@@ -0,0 +1,77 @@
+package com.gourav.CodyWar.Service;
+
+import com.gourav.CodyWar.Domain.Entity.Difficulty;
+import com.gourav.CodyWar.Domain.Entity.SubmissionStatus;
+import com.gourav.CodyWar.Domain.Event.SubmissionJudgedEvent;
+import com.gourav.CodyWar.Repository.ProblemRepository;
+import org.openjdk.jmh.annotations.*;
+
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Choosing a battle's problem by rating, what matchmaking does for every battle created without
+ * one, over a catalogue whose ratings have been spread by a few verdicts each. The playable-ids
+ * query is stubbed to keep every candidate, so only the in-memory part is measured.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DifficultyCalibratorBenchmark {
+
+    @Param({"2000", "20000"})
+    private int problems;
+
+    private DifficultyCalibrator calibrator;
+    private int[] playerRatings;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        ProblemRepository problemRepository = (ProblemRepository) Proxy.newProxyInstance(
+                ProblemRepository.class.getClassLoader(), new Class<?>[]{ProblemRepository.class},
+                (proxy, method, args) -> {
+                    if (method.getName().equals("findPlayableIds")) {
+                        return new ArrayList<>((Collection<?>) args[0]);
+                    }
+                    throw new UnsupportedOperationException(method.getName());
+                });
+        calibrator = new DifficultyCalibrator(problemRepository, null, null, 32, 0.5, 20, 150);
+
+        Random random = new Random(42);
+        List<UUID> ids = new ArrayList<>(problems);
+        for (int i = 0; i < problems; i++) {
+            UUID id = new UUID(0xD1FF, i);
+            ids.add(id);
+            calibrator.register(id, Difficulty.values()[i % Difficulty.values().length]);
+        }
+        for (UUID id : ids) {
+            for (int i = 0; i < 10; i++) {
+                calibrator.onSubmissionJudged(SubmissionJudgedEvent.builder()
+                        .problemId(id)
+                        .status(random.nextBoolean() ? SubmissionStatus.ACCEPTED : SubmissionStatus.WRONG_ANSWER)
+                        .userRating(800 + random.nextInt(1000))
+                        .build());
+            }
+        }
+
+        playerRatings = new int[1024];
+        for (int i = 0; i < playerRatings.length; i++) {
+            playerRatings[i] = 800 + random.nextInt(1000);
+        }
+    }
+
+    @Benchmark
+    public UUID pickProblem() {
+        next = (next + 1) & (playerRatings.length - 1);
+        return calibrator.pickProblem(playerRatings[next]);
+    }
+}
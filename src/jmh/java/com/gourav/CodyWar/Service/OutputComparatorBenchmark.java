@@ -0,0 +1,69 @@
+package com.gourav.CodyWar.Service;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Checking one test case's output, a line of numbers per query: an exact match, a match that
+ * differs only in CRLF and trailing whitespace, and a wrong answer on the last line. The split
+ * and strip comparison is the straightforward way to get the same result, for reference.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class OutputComparatorBenchmark {
+
+    @Param({"100", "100000"})
+    private int lines;
+
+    private String expected;
+    private String identical;
+    private String sloppy;
+    private String wrongLastLine;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        StringBuilder exact = new StringBuilder(lines * 12);
+        StringBuilder loose = new StringBuilder(lines * 14);
+        for (int i = 0; i < lines; i++) {
+            String line = random.nextInt(1_000_000) + " " + random.nextInt(1_000_000);
+            exact.append(line).append('\n');
+            loose.append(line).append(i % 3 == 0 ? "  \r\n" : "\r\n");
+        }
+        expected = exact.toString();
+        identical = new String(expected.toCharArray());
+        sloppy = loose.append("\r\n\r\n").toString();
+        wrongLastLine = expected.substring(0, expected.length() - 2) + "x\n";
+    }
+
+    @Benchmark
+    public boolean identical() {
+        return OutputComparator.matches(expected, identical);
+    }
+
+    @Benchmark
+    public boolean crlfAndTrailingWhitespace() {
+        return OutputComparator.matches(expected, sloppy);
+    }
+
+    @Benchmark
+    public boolean wrongLastLine() {
+        return OutputComparator.matches(expected, wrongLastLine);
+    }
+
+    @Benchmark
+    public boolean splitAndStrip() {
+        return Arrays.equals(normalize(expected), normalize(sloppy));
+    }
+
+    private static String[] normalize(String output) {
+        return Arrays.stream(output.strip().split("\n")).map(String::stripTrailing).toArray(String[]::new);
+    }
+}
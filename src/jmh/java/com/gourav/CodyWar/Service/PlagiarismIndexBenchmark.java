@@ -0,0 +1,108 @@
+package com.gourav.CodyWar.Service;
+
+import com.gourav.CodyWar.BenchmarkData;
+import com.gourav.CodyWar.Domain.Entity.Language;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Near-duplicate lookup for one accepted submission against a million stored ones, through the
+ * plagiarism index, against comparing it with every stored submission of the same problem.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class PlagiarismIndexBenchmark {
+
+    private static final int QUERIES = 256;
+
+    @Param({"1000000"})
+    private int submissions;
+
+    @Param({"1000"})
+    private int problems;
+
+    private CodeFingerprinter fingerprinter;
+    private PlagiarismIndex index;
+    // Every stored submission of problem 0, for the pairwise baseline
+    private int[][] problemZero;
+    private int[][] originals;
+    private int[][] copies;
+    private String[] codes;
+    private UUID checker;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        fingerprinter = new CodeFingerprinter(8, 8);
+        index = new PlagiarismIndex(0.2, 50);
+        problemZero = new int[(submissions + problems - 1) / problems][];
+        for (int i = 0; i < submissions; i++) {
+            int problem = i % problems;
+            int[] fingerprints = fingerprinter.fingerprint(Language.PYTHON, BenchmarkData.solution(problem, i, i));
+            index.add(problemId(problem), Language.PYTHON, new UUID(0xC0DE, i), new UUID(0xFEED, i % 50_000), fingerprints);
+            if (problem == 0) {
+                problemZero[i / problems] = fingerprints;
+            }
+        }
+
+        // Fresh solutions, and stored ones with every identifier renamed, all to problem 0
+        originals = new int[QUERIES][];
+        copies = new int[QUERIES][];
+        codes = new String[QUERIES];
+        for (int q = 0; q < QUERIES; q++) {
+            codes[q] = BenchmarkData.solution(0, submissions + q, submissions + q);
+            originals[q] = fingerprinter.fingerprint(Language.PYTHON, codes[q]);
+            long stored = (long) q * 37 % problemZero.length * problems;
+            copies[q] = fingerprinter.fingerprint(Language.PYTHON, BenchmarkData.solution(0, stored, stored + 1));
+        }
+        checker = new UUID(0xFEED, -1);
+    }
+
+    @Benchmark
+    public int fingerprint() {
+        return fingerprinter.fingerprint(Language.PYTHON, codes[next++ & (QUERIES - 1)]).length;
+    }
+
+    @Benchmark
+    public PlagiarismIndex.Match lookupOriginal() {
+        return index.findMostSimilar(problemId(0), Language.PYTHON, checker, originals[next++ & (QUERIES - 1)], 0.8, 10);
+    }
+
+    @Benchmark
+    public PlagiarismIndex.Match lookupCopy() {
+        return index.findMostSimilar(problemId(0), Language.PYTHON, checker, copies[next++ & (QUERIES - 1)], 0.8, 10);
+    }
+
+    // Merge the query's sorted fingerprints with each stored submission's, as a scan without the index would
+    @Benchmark
+    public double pairwiseScan() {
+        int[] query = originals[next++ & (QUERIES - 1)];
+        double best = 0;
+        for (int[] stored : problemZero) {
+            int shared = 0;
+            for (int a = 0, b = 0; a < query.length && b < stored.length; ) {
+                if (query[a] == stored[b]) {
+                    shared++;
+                    a++;
+                    b++;
+                } else if (query[a] < stored[b]) {
+                    a++;
+                } else {
+                    b++;
+                }
+            }
+            best = Math.max(best, (double) shared / Math.max(1, Math.min(query.length, stored.length)));
+        }
+        return best;
+    }
+
+    private static UUID problemId(int problem) {
+        return new UUID(0x5EED, problem);
+    }
+}
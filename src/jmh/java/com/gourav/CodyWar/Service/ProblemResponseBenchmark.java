@@ -0,0 +1,85 @@
+package com.gourav.CodyWar.Service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.gourav.CodyWar.BenchmarkData;
+import com.gourav.CodyWar.Domain.Dto.ProblemResponseDto;
+import com.gourav.CodyWar.Domain.Entity.Problem;
+import com.gourav.CodyWar.Domain.Entity.SubmissionStatus;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Problem detail response: the ResponseEntity&lt;ProblemResponseDto&gt; path (map, then Jackson)
+ * against the pre-serialized bytes served from ProblemResponseCache.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ProblemResponseBenchmark {
+
+    private ProblemService problemService;
+    private ProblemStatsService problemStatsService;
+    private ProblemResponseCache problemResponseCache;
+    private DifficultyCalibrator difficultyCalibrator;
+    private ObjectMapper objectMapper;
+    private Problem problem;
+    private ByteArrayOutputStream out;
+
+    @Setup
+    public void setUp() {
+        // Same configuration Spring Boot applies to the MVC message converter
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        problemStatsService = new ProblemStatsService(null, null);
+        problemResponseCache = new ProblemResponseCache(objectMapper);
+        ReflectionTestUtils.setField(problemResponseCache, "maxEntries", 10_000);
+        ReflectionTestUtils.setField(problemResponseCache, "gzipMinBytes", 1024);
+        difficultyCalibrator = new DifficultyCalibrator(null, null, null, 32, 0.5, 20, 150);
+        problemService = new ProblemService(null, null, null, null, null, problemStatsService, problemResponseCache, null,
+                difficultyCalibrator, null);
+
+        problem = BenchmarkData.problem(42);
+        problemStatsService.recordVerdict(problem.getId(), SubmissionStatus.ACCEPTED);
+        problemResponseCache.put(problem.getId(), problem.getCreatedAt(), problemService.mapToResponseDto(problem),
+                difficultyCalibrator.getRating(problem.getId()));
+        out = new ByteArrayOutputStream(8192);
+    }
+
+    @Benchmark
+    public ProblemResponseDto mapToResponseDto() {
+        return problemService.mapToResponseDto(problem);
+    }
+
+    @Benchmark
+    public int mapAndSerialize() throws IOException {
+        out.reset();
+        objectMapper.writeValue(out, problemService.mapToResponseDto(problem));
+        return out.size();
+    }
+
+    @Benchmark
+    public int cachedBytes() throws IOException {
+        ProblemResponseCache.CachedResponse cached = problemResponseCache.get(
+                problem.getId(), problem.getCreatedAt(), problemStatsService.getStats(problem.getId()),
+                difficultyCalibrator.getRating(problem.getId()));
+        out.reset();
+        out.write(cached.getJson());
+        return out.size();
+    }
+
+    @Benchmark
+    public void cachedGzip(Blackhole blackhole) {
+        ProblemResponseCache.CachedResponse cached = problemResponseCache.get(
+                problem.getId(), problem.getCreatedAt(), problemStatsService.getStats(problem.getId()),
+                difficultyCalibrator.getRating(problem.getId()));
+        blackhole.consume(cached.getGzip());
+    }
+}
@@ -0,0 +1,58 @@
+package com.gourav.CodyWar.Service;
+
+import com.gourav.CodyWar.BenchmarkData;
+import com.gourav.CodyWar.Domain.Dto.ProblemSearchResponseDto;
+import com.gourav.CodyWar.Domain.Entity.Difficulty;
+import com.gourav.CodyWar.Domain.Entity.Problem;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class ProblemSearchBenchmark {
+
+    @Param({"100000"})
+    private int problems;
+
+    private ProblemSearchIndex index;
+    private Problem[] updates;
+    private int nextUpdate;
+
+    @Setup
+    public void setUp() {
+        index = new ProblemSearchIndex(null);
+        for (int i = 0; i < problems; i++) {
+            index.index(BenchmarkData.problem(i));
+        }
+        updates = new Problem[1024];
+        for (int i = 0; i < updates.length; i++) {
+            updates[i] = BenchmarkData.problem(i * 97 % problems);
+        }
+    }
+
+    @Benchmark
+    public ProblemSearchResponseDto rareTerms() {
+        return index.search("knapsack capacity", null, 0, 20);
+    }
+
+    @Benchmark
+    public ProblemSearchResponseDto commonTerms() {
+        return index.search("given array integer", null, 0, 20);
+    }
+
+    @Benchmark
+    public ProblemSearchResponseDto filteredDeepPage() {
+        return index.search("shortest path graph", Difficulty.HARD, 10, 20);
+    }
+
+    // Re-index an existing problem, as ProblemService does after an update commits
+    @Benchmark
+    public void reindex() {
+        index.index(updates[nextUpdate++ & (updates.length - 1)]);
+    }
+}
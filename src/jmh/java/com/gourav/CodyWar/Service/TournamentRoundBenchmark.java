@@ -0,0 +1,107 @@
+package com.gourav.CodyWar.Service;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The in-memory part of a tournament round transition, pairing the next round, for a field of
+ * a couple of thousand players: a Swiss round halfway through with the rematch history to avoid,
+ * and a whole simulated tournament played to the end with random results.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TournamentRoundBenchmark {
+
+    @Param({"2000"})
+    private int players;
+
+    private List<UUID> field;
+    private List<UUID> standings;
+    private Map<UUID, Set<UUID>> opponents;
+    private Set<UUID> hadBye;
+    private List<UUID> winners;
+
+    @Setup
+    public void setUp() {
+        field = new ArrayList<>(players);
+        for (int i = 0; i < players; i++) {
+            field.add(new UUID(0x7041, i));
+        }
+
+        // Five Swiss rounds played with random results
+        Random random = new Random(42);
+        Map<UUID, Integer> points = new HashMap<>();
+        opponents = new HashMap<>();
+        hadBye = new HashSet<>();
+        standings = new ArrayList<>(field);
+        for (int round = 0; round < 5; round++) {
+            play(TournamentPairing.swiss(standings, opponents, hadBye), points, opponents, hadBye, random);
+            standings.sort(Comparator.comparingInt((UUID player) -> points.getOrDefault(player, 0)).reversed());
+        }
+
+        winners = new ArrayList<>(1024);
+        for (int i = 0; i < 1024; i++) {
+            winners.add(field.get(i));
+        }
+    }
+
+    @Benchmark
+    public List<TournamentPairing.Pairing> swissRound() {
+        return TournamentPairing.swiss(standings, opponents, hadBye);
+    }
+
+    @Benchmark
+    public List<TournamentPairing.Pairing> firstBracketRound() {
+        return TournamentPairing.bracket(field);
+    }
+
+    @Benchmark
+    public List<TournamentPairing.Pairing> nextBracketRound() {
+        return TournamentPairing.nextBracketRound(winners);
+    }
+
+    // Every round of an eleven round Swiss tournament, standings included
+    @Benchmark
+    public int simulateSwissTournament() {
+        Random random = new Random(7);
+        Map<UUID, Integer> points = new HashMap<>();
+        Map<UUID, Set<UUID>> played = new HashMap<>();
+        Set<UUID> byes = new HashSet<>();
+        List<UUID> table = new ArrayList<>(field);
+        int rounds = TournamentPairing.eliminationRounds(players);
+        for (int round = 0; round < rounds; round++) {
+            play(TournamentPairing.swiss(table, played, byes), points, played, byes, random);
+            table.sort(Comparator.comparingInt((UUID player) -> points.getOrDefault(player, 0)).reversed());
+        }
+        return points.getOrDefault(table.get(0), 0);
+    }
+
+    // A coin flip decides each match
+    private static void play(List<TournamentPairing.Pairing> pairings, Map<UUID, Integer> points,
+                             Map<UUID, Set<UUID>> opponents, Set<UUID> hadBye, Random random) {
+        for (TournamentPairing.Pairing pairing : pairings) {
+            if (pairing.isBye()) {
+                hadBye.add(pairing.getPlayerOne());
+                points.merge(pairing.getPlayerOne(), 2, Integer::sum);
+                continue;
+            }
+            opponents.computeIfAbsent(pairing.getPlayerOne(), id -> new HashSet<>()).add(pairing.getPlayerTwo());
+            opponents.computeIfAbsent(pairing.getPlayerTwo(), id -> new HashSet<>()).add(pairing.getPlayerOne());
+            points.merge(random.nextBoolean() ? pairing.getPlayerOne() : pairing.getPlayerTwo(), 2, Integer::sum);
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package com.gourav.CodyWar.LoadTest;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+// Collects raw latencies for one scenario/endpoint pair; percentiles are computed once at the end
+final class LatencyRecorder {
+
+    private final String scenario;
+    private final String endpoint;
+    private long[] latenciesNanos = new long[1024];
+    private int count;
+    private int errors;
+
+    LatencyRecorder(String scenario, String endpoint) {
+        this.scenario = scenario;
+        this.endpoint = endpoint;
+    }
+
+    synchronized void record(long nanos, boolean success) {
+        if (count == latenciesNanos.length) {
+            latenciesNanos = Arrays.copyOf(latenciesNanos, count * 2);
+        }
+        latenciesNanos[count++] = nanos;
+        if (!success) {
+            errors++;
+        }
+    }
+
+    synchronized Map<String, Object> summary(long scenarioNanos) {
+        long[] sorted = Arrays.copyOf(latenciesNanos, count);
+        Arrays.sort(sorted);
+
+        Map<String, Object> summary = new LinkedHashMap<>();
+        summary.put("scenario", scenario);
+        summary.put("endpoint", endpoint);
+        summary.put("requests", count);
+        summary.put("errors", errors);
+        summary.put("throughputPerSecond", round(count / (scenarioNanos / 1e9)));
+        summary.put("p50Ms", percentile(sorted, 0.50));
+        summary.put("p95Ms", percentile(sorted, 0.95));
+        summary.put("p99Ms", percentile(sorted, 0.99));
+        summary.put("maxMs", count == 0 ? 0.0 : round(sorted[count - 1] / 1e6));
+        return summary;
+    }
+
+    private static double percentile(long[] sorted, double percentile) {
+        if (sorted.length == 0) {
+            return 0.0;
+        }
+        int index = (int) Math.ceil(percentile * sorted.length) - 1;
+        return round(sorted[Math.max(0, index)] / 1e6);
+    }
+
+    private static double round(double value) {
+        return Math.round(value * 100) / 100.0;
+    }
+}
@@ -0,0 +1,422 @@
+package com.gourav.CodyWar.LoadTest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.gourav.CodyWar.CodyWarApplication;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Replays the load-test scenarios against the app and reports throughput and latency
+ * percentiles per scenario and endpoint.
+ *
+ * Without -Dloadtest.base-url the app is started in-process with the loadtest profile
+ * (H2 stand-in plus LoadTestSeeder), and the tournament scenario also reports the server's own
+ * round transition timer. Other knobs: loadtest.concurrency, loadtest.users (must match the
+ * seeded count), loadtest.requests.&lt;scenario&gt;, loadtest.tournament-rounds and loadtest.report.
+ */
+public final class LoadTestRunner {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private final String baseUrl;
+    private final int concurrency;
+    private final int users;
+    // Only when the app runs in-process
+    private final MeterRegistry meterRegistry;
+    private final HttpClient client = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(5))
+            .build();
+    private final List<Map<String, Object>> report = new ArrayList<>();
+
+    private String[] tokens;
+    private String[] userIds;
+    // Tokens of the users that logged in successfully, handed out round-robin
+    private String[] sessions = new String[0];
+    private List<String> problemIds = new ArrayList<>();
+
+    private LoadTestRunner(String baseUrl, int concurrency, int users, MeterRegistry meterRegistry) {
+        this.baseUrl = baseUrl;
+        this.concurrency = concurrency;
+        this.users = users;
+        this.meterRegistry = meterRegistry;
+    }
+
+    public static void main(String[] args) throws Exception {
+        String baseUrl = System.getProperty("loadtest.base-url");
+        ConfigurableApplicationContext context = null;
+        if (baseUrl == null) {
+            long start = System.nanoTime();
+            context = new SpringApplicationBuilder(CodyWarApplication.class).profiles("loadtest").run(args);
+            baseUrl = "http://localhost:" + context.getEnvironment().getProperty("local.server.port");
+            System.out.printf("Application started and seeded in %.1f s at %s%n", (System.nanoTime() - start) / 1e9, baseUrl);
+        }
+
+        LoadTestRunner runner = new LoadTestRunner(baseUrl,
+                Integer.getInteger("loadtest.concurrency", 32),
+                Integer.getInteger("loadtest.users", 200),
+                context != null ? context.getBean(MeterRegistry.class) : null);
+        try {
+            runner.loginStorm(Integer.getInteger("loadtest.requests.login-storm", 400));
+            runner.problemListScan(Integer.getInteger("loadtest.requests.problem-list-scan", 200));
+            runner.battleStartBurst(Integer.getInteger("loadtest.requests.battle-start-burst", 5000));
+            runner.submissionFlood(Integer.getInteger("loadtest.requests.submission-flood", 200),
+                    Integer.getInteger("loadtest.judge-timeout-seconds", 600));
+            runner.tournamentRounds(Integer.getInteger("loadtest.tournament-rounds", 3),
+                    Integer.getInteger("loadtest.judge-timeout-seconds", 600));
+            runner.writeReport(System.getProperty("loadtest.report", "target/loadtest-report.json"));
+        } finally {
+            if (context != null) {
+                context.close();
+            }
+        }
+        System.exit(0);
+    }
+
+    /**
+     * Every seeded user logs in, repeatedly; keeps one access token per user for later scenarios
+     */
+    private void loginStorm(int requests) throws Exception {
+        tokens = new String[users];
+        userIds = new String[users];
+        String password = System.getProperty("loadtest.password", "loadtest-password");
+        LatencyRecorder login = new LatencyRecorder("login-storm", "POST /api/auth/login");
+
+        long nanos = run(requests, i -> {
+            int user = i % users;
+            String body = "{\"email\":\"" + LoadTestSeeder.email(user) + "\",\"password\":\"" + password + "\"}";
+            HttpResponse<String> response = send(login, HttpRequest.newBuilder(uri("/api/auth/login"))
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString(body)));
+            if (response.statusCode() == 200) {
+                JsonNode data = MAPPER.readTree(response.body()).path("data");
+                tokens[user] = data.path("access_token").asText();
+                userIds[user] = data.path("user").path("id").asText();
+            }
+        });
+        report.add(login.summary(nanos));
+        sessions = Arrays.stream(tokens).filter(Objects::nonNull).toArray(String[]::new);
+    }
+
+    /**
+     * Full problem list plus keyword searches, as a lobby page would issue them
+     */
+    private void problemListScan(int requests) throws Exception {
+        String[] queries = {"binary tree", "shortest path graph", "subarray sum", "palindrome substring", "greedy interval"};
+        LatencyRecorder list = new LatencyRecorder("problem-list-scan", "GET /api/problems");
+        LatencyRecorder search = new LatencyRecorder("problem-list-scan", "GET /api/problems/search");
+
+        long nanos = run(requests, i -> {
+            if (i % 2 == 0) {
+                HttpResponse<String> response = send(list, authorized("/api/problems", i).GET());
+                if (problemIds.isEmpty() && response.statusCode() == 200) {
+                    List<String> ids = new ArrayList<>();
+                    for (JsonNode problem : MAPPER.readTree(response.body())) {
+                        ids.add(problem.path("id").asText());
+                    }
+                    problemIds = ids;
+                }
+            } else {
+                String query = queries[i / 2 % queries.length].replace(" ", "+");
+                send(search, authorized("/api/problems/search?q=" + query, i).GET());
+            }
+        });
+        report.add(list.summary(nanos));
+        report.add(search.summary(nanos));
+    }
+
+    /**
+     * Everyone in a starting battle fetches the same problem at the same moment
+     */
+    private void battleStartBurst(int requests) throws Exception {
+        if (problemIds.isEmpty()) {
+            throw new IllegalStateException("No problems found; did the problem list scan fail?");
+        }
+        String problemId = problemIds.get(0);
+        LatencyRecorder detail = new LatencyRecorder("battle-start-burst", "GET /api/problems/{id}");
+
+        long nanos = run(requests, i -> send(detail, authorized("/api/problems/" + problemId, i)
+                .header("Accept-Encoding", "gzip")
+                .GET()));
+        report.add(detail.summary(nanos));
+    }
+
+    /**
+     * Burst of practice submissions, then wait for the judge to drain them and record time to verdict
+     */
+    private void submissionFlood(int requests, int judgeTimeoutSeconds) throws Exception {
+        // Seeded problems all sum the numbers after the count on the first line
+        String solution = "import sys\nn, *values = map(int, sys.stdin.read().split())\nprint(sum(values))\n";
+        LatencyRecorder submit = new LatencyRecorder("submission-flood", "POST /api/submissions");
+        Map<String, Integer> submissions = new ConcurrentHashMap<>();
+
+        long nanos = run(requests, i -> {
+            Map<String, Object> body = new LinkedHashMap<>();
+            body.put("problemId", problemIds.get(i % problemIds.size()));
+            body.put("language", "PYTHON");
+            body.put("code", solution);
+            HttpResponse<String> response = send(submit, authorized("/api/submissions", i)
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString(MAPPER.writeValueAsString(body))));
+            if (response.statusCode() == 202) {
+                submissions.put(MAPPER.readTree(response.body()).path("id").asText(), i);
+            }
+        });
+        report.add(submit.summary(nanos));
+
+        LatencyRecorder verdict = new LatencyRecorder("submission-flood", "time to verdict");
+        Map<String, Integer> verdicts = new TreeMap<>();
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(judgeTimeoutSeconds);
+        long start = System.nanoTime();
+        while (!submissions.isEmpty() && System.nanoTime() < deadline) {
+            for (Map.Entry<String, Integer> submission : List.copyOf(submissions.entrySet())) {
+                HttpResponse<String> response = client.send(authorized("/api/submissions/" + submission.getKey(),
+                        submission.getValue()).GET().build(), HttpResponse.BodyHandlers.ofString());
+                JsonNode status = MAPPER.readTree(response.body());
+                String state = status.path("status").asText();
+                if (!state.equals("PENDING") && !state.equals("RUNNING")) {
+                    long judgedNanos = Duration.between(Instant.parse(status.path("submittedAt").asText()),
+                            Instant.parse(status.path("judgedAt").asText())).toNanos();
+                    verdict.record(judgedNanos, state.equals("ACCEPTED"));
+                    verdicts.merge(state, 1, Integer::sum);
+                    submissions.remove(submission.getKey());
+                }
+            }
+            Thread.sleep(500);
+        }
+        report.add(verdict.summary(System.nanoTime() - start));
+        System.out.println("Verdicts: " + verdicts + (submissions.isEmpty() ? "" : ", still queued: " + submissions.size()));
+    }
+
+    /**
+     * A Swiss tournament of every logged-in user, played through: in each round the first player
+     * of every match submits a correct solution, so the battles finish on their verdicts and the
+     * round's last verdict starts the next round. In-process, each round transition is also read
+     * off codywar.tournament.round.transition, from the last battle finishing to the next round's
+     * battles committed
+     */
+    private void tournamentRounds(int rounds, int roundTimeoutSeconds) throws Exception {
+        String solution = "import sys\nn, *values = map(int, sys.stdin.read().split())\nprint(sum(values))\n";
+        Map<String, String> tokenByUser = new LinkedHashMap<>();
+        for (int user = 0; user < users; user++) {
+            if (tokens[user] != null) {
+                tokenByUser.put(userIds[user], tokens[user]);
+            }
+        }
+        String[] players = tokenByUser.values().toArray(String[]::new);
+        if (players.length < 2) {
+            throw new IllegalStateException("A tournament needs at least 2 logged-in users; did the login storm fail?");
+        }
+        LatencyRecorder create = new LatencyRecorder("tournament-rounds", "POST /api/tournaments");
+        LatencyRecorder join = new LatencyRecorder("tournament-rounds", "POST /api/tournaments/{id}/join");
+        LatencyRecorder start = new LatencyRecorder("tournament-rounds", "POST /api/tournaments/{id}/start");
+        LatencyRecorder submit = new LatencyRecorder("tournament-rounds", "POST /api/submissions");
+        LatencyRecorder round = new LatencyRecorder("tournament-rounds", "first submission to next round");
+        LatencyRecorder transition = new LatencyRecorder("tournament-rounds", "round transition (server)");
+        long scenarioStart = System.nanoTime();
+
+        Map<String, Object> request = new LinkedHashMap<>();
+        request.put("name", "Load test");
+        request.put("format", "SWISS");
+        request.put("maxPlayers", players.length);
+        // Long enough that every battle is won on a verdict rather than run out
+        request.put("durationSeconds", 3600);
+        request.put("rounds", rounds);
+        HttpResponse<String> created = send(create, withToken("/api/tournaments", players[0])
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(MAPPER.writeValueAsString(request))));
+        if (created.statusCode() != 201) {
+            throw new IllegalStateException("Could not create the tournament: " + created.body());
+        }
+        String tournamentId = MAPPER.readTree(created.body()).path("id").asText();
+
+        long joinNanos = run(players.length - 1, i -> send(join,
+                withToken("/api/tournaments/" + tournamentId + "/join", players[i + 1])
+                        .POST(HttpRequest.BodyPublishers.noBody())));
+        HttpResponse<String> started = send(start, withToken("/api/tournaments/" + tournamentId + "/start", players[0])
+                .POST(HttpRequest.BodyPublishers.noBody()));
+        if (started.statusCode() != 200) {
+            throw new IllegalStateException("Could not start the tournament: " + started.body());
+        }
+        int totalRounds = MAPPER.readTree(started.body()).path("totalRounds").asInt();
+
+        Timer serverTimer = meterRegistry != null ? meterRegistry.timer("codywar.tournament.round.transition") : null;
+        long submitNanos = 0;
+        for (int number = 1; number <= totalRounds; number++) {
+            long transitions = serverTimer != null ? serverTimer.count() : 0;
+            double transitionNanos = serverTimer != null ? serverTimer.totalTime(TimeUnit.NANOSECONDS) : 0;
+            List<JsonNode> battles = new ArrayList<>();
+            HttpResponse<String> matches = client.send(withToken("/api/tournaments/" + tournamentId + "/rounds/" + number,
+                    players[0]).GET().build(), HttpResponse.BodyHandlers.ofString());
+            for (JsonNode match : MAPPER.readTree(matches.body())) {
+                if (match.hasNonNull("battleId")) {
+                    battles.add(match);
+                }
+            }
+
+            long roundStart = System.nanoTime();
+            submitNanos += run(battles.size(), i -> {
+                Map<String, Object> body = new LinkedHashMap<>();
+                body.put("battleId", battles.get(i).path("battleId").asText());
+                body.put("language", "PYTHON");
+                body.put("code", solution);
+                send(submit, withToken("/api/submissions", tokenByUser.get(battles.get(i).path("playerOneId").asText()))
+                        .header("Content-Type", "application/json")
+                        .POST(HttpRequest.BodyPublishers.ofString(MAPPER.writeValueAsString(body))));
+            });
+
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(roundTimeoutSeconds);
+            if (!awaitRoundEnd(tournamentId, number, players[0], deadline)) {
+                System.out.println("Tournament round " + number + " did not finish within " + roundTimeoutSeconds + " s");
+                break;
+            }
+            round.record(System.nanoTime() - roundStart, true);
+
+            // Recorded right after the next round commits, which the poll may have seen first
+            while (serverTimer != null && serverTimer.count() == transitions && System.nanoTime() < deadline) {
+                Thread.sleep(10);
+            }
+            if (serverTimer != null && serverTimer.count() > transitions) {
+                transition.record((long) ((serverTimer.totalTime(TimeUnit.NANOSECONDS) - transitionNanos)
+                        / (serverTimer.count() - transitions)), true);
+            }
+        }
+        long nanos = System.nanoTime() - scenarioStart;
+        report.add(create.summary(nanos));
+        report.add(join.summary(joinNanos));
+        report.add(start.summary(nanos));
+        report.add(submit.summary(submitNanos));
+        report.add(round.summary(nanos));
+        if (serverTimer != null) {
+            report.add(transition.summary(nanos));
+        } else {
+            System.out.println("Round transition timer not reported: the app is not running in-process");
+        }
+    }
+
+    // Until the tournament has moved past the round or completed; false at the deadline
+    private boolean awaitRoundEnd(String tournamentId, int round, String token, long deadline) throws Exception {
+        while (System.nanoTime() < deadline) {
+            JsonNode tournament = MAPPER.readTree(client.send(withToken("/api/tournaments/" + tournamentId, token)
+                    .GET().build(), HttpResponse.BodyHandlers.ofString()).body());
+            if (tournament.path("currentRound").asInt() > round || tournament.path("status").asText().equals("COMPLETED")) {
+                return true;
+            }
+            Thread.sleep(100);
+        }
+        return false;
+    }
+
+    private HttpRequest.Builder withToken(String path, String token) {
+        return HttpRequest.newBuilder(uri(path)).header("Authorization", "Bearer " + token);
+    }
+
+    private HttpRequest.Builder authorized(String path, int request) {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(uri(path));
+        if (sessions.length > 0) {
+            builder.header("Authorization", "Bearer " + sessions[request % sessions.length]);
+        }
+        return builder;
+    }
+
+    private HttpResponse<String> send(LatencyRecorder recorder, HttpRequest.Builder request) throws IOException, InterruptedException {
+        long start = System.nanoTime();
+        HttpResponse<String> response = client.send(request.timeout(Duration.ofSeconds(30)).build(),
+                HttpResponse.BodyHandlers.ofString());
+        recorder.record(System.nanoTime() - start, response.statusCode() < 400);
+        return response;
+    }
+
+    /**
+     * Run the requests on a fixed pool released all at once; returns the wall-clock duration
+     */
+    private long run(int requests, Request request) throws InterruptedException {
+        ExecutorService pool = Executors.newFixedThreadPool(concurrency);
+        CountDownLatch startGate = new CountDownLatch(1);
+        AtomicInteger next = new AtomicInteger();
+        AtomicInteger failures = new AtomicInteger();
+
+        for (int worker = 0; worker < concurrency; worker++) {
+            pool.execute(() -> {
+                try {
+                    startGate.await();
+                    int i;
+                    while ((i = next.getAndIncrement()) < requests) {
+                        try {
+                            request.send(i);
+                        } catch (IOException e) {
+                            failures.incrementAndGet();
+                        }
+                    }
+                } catch (Exception e) {
+                    Thread.currentThread().interrupt();
+                }
+            });
+        }
+
+        long start = System.nanoTime();
+        startGate.countDown();
+        pool.shutdown();
+        pool.awaitTermination(1, TimeUnit.HOURS);
+        if (failures.get() > 0) {
+            System.out.println(failures.get() + " requests failed at the transport level");
+        }
+        return System.nanoTime() - start;
+    }
+
+    private void writeReport(String path) throws IOException {
+        System.out.printf("%n%-20s %-28s %8s %7s %10s %9s %9s %9s %9s%n",
+                "scenario", "endpoint", "requests", "errors", "req/s", "p50 ms", "p95 ms", "p99 ms", "max ms");
+        for (Map<String, Object> row : report) {
+            System.out.printf("%-20s %-28s %8s %7s %10s %9s %9s %9s %9s%n",
+                    row.get("scenario"), row.get("endpoint"), row.get("requests"), row.get("errors"),
+                    row.get("throughputPerSecond"), row.get("p50Ms"), row.get("p95Ms"), row.get("p99Ms"), row.get("maxMs"));
+        }
+
+        Map<String, Object> document = new LinkedHashMap<>();
+        document.put("baseUrl", baseUrl);
+        document.put("concurrency", concurrency);
+        document.put("results", report);
+        File file = new File(path);
+        if (file.getParentFile() != null) {
+            file.getParentFile().mkdirs();
+        }
+        MAPPER.enable(SerializationFeature.INDENT_OUTPUT).writeValue(file, document);
+        System.out.println("\nReport written to " + file.getAbsolutePath());
+    }
+
+    private URI uri(String path) {
+        return URI.create(baseUrl + path);
+    }
+
+    @FunctionalInterface
+    private interface Request {
+        void send(int index) throws IOException, InterruptedException;
+    }
+}
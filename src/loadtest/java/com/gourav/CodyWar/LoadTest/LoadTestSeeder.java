@@ -0,0 +1,142 @@
+package com.gourav.CodyWar.LoadTest;
+
+import com.gourav.CodyWar.Domain.Entity.Difficulty;
+import com.gourav.CodyWar.Domain.Entity.Problem;
+import com.gourav.CodyWar.Domain.Entity.Role;
+import com.gourav.CodyWar.Domain.Entity.Status;
+import com.gourav.CodyWar.Domain.Entity.TestCase;
+import com.gourav.CodyWar.Domain.Entity.User;
+import com.gourav.CodyWar.Repository.ProblemRepository;
+import com.gourav.CodyWar.Repository.TestCaseRepository;
+import com.gourav.CodyWar.Repository.UserRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.context.annotation.Profile;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Collectors;
+
+/**
+ * Fills the stand-in database before the application reports ready, so the search index
+ * and statistics are built over the seeded data.
+ */
+@Slf4j
+@Component
+@Profile("loadtest")
+@RequiredArgsConstructor
+public class LoadTestSeeder implements ApplicationRunner {
+
+    private static final int BATCH_SIZE = 500;
+    private static final String[] WORDS = {
+            "array", "integer", "given", "string", "maximum", "minimum", "subarray", "tree", "binary",
+            "graph", "edge", "path", "shortest", "query", "prefix", "window", "matrix", "grid", "sort",
+            "index", "distinct", "pair", "target", "dynamic", "greedy", "interval", "stack", "queue",
+            "heap", "hash", "frequency", "substring", "palindrome", "prime", "modulo", "xor", "subset"
+    };
+
+    private final UserRepository userRepository;
+    private final ProblemRepository problemRepository;
+    private final TestCaseRepository testCaseRepository;
+    private final PasswordEncoder passwordEncoder;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${loadtest.seed.users}")
+    private int users;
+
+    @Value("${loadtest.seed.problems}")
+    private int problems;
+
+    @Value("${loadtest.seed.test-cases-per-problem}")
+    private int testCasesPerProblem;
+
+    @Value("${loadtest.seed.password}")
+    private String password;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        long start = System.currentTimeMillis();
+        seedUsers();
+        seedProblems();
+        log.info("Seeded {} users, {} problems and {} test cases in {} ms",
+                users, problems, (long) problems * testCasesPerProblem, System.currentTimeMillis() - start);
+    }
+
+    public static String email(int user) {
+        return "player" + user + "@loadtest.local";
+    }
+
+    private void seedUsers() {
+        // One hash for everyone: seeding should not spend minutes in BCrypt
+        String passwordHash = passwordEncoder.encode(password);
+        List<User> batch = new ArrayList<>(BATCH_SIZE);
+        for (int i = 0; i < users; i++) {
+            batch.add(User.builder()
+                    .username("player" + i)
+                    .email(email(i))
+                    .passwordHash(passwordHash)
+                    .role(Role.PLAYER)
+                    .status(Status.ACTIVE)
+                    .ratingScore(800 + i % 1200)
+                    .build());
+            if (batch.size() == BATCH_SIZE || i == users - 1) {
+                List<User> chunk = List.copyOf(batch);
+                transactionTemplate.executeWithoutResult(status -> userRepository.saveAll(chunk));
+                batch.clear();
+            }
+        }
+    }
+
+    private void seedProblems() {
+        Random random = new Random(42);
+        int problemsPerBatch = Math.max(1, BATCH_SIZE / Math.max(1, testCasesPerProblem));
+        for (int first = 0; first < problems; first += problemsPerBatch) {
+            int last = Math.min(problems, first + problemsPerBatch);
+            List<Problem> chunk = new ArrayList<>();
+            for (int i = first; i < last; i++) {
+                Problem problem = Problem.builder()
+                        .title(words(random, 3) + " " + i)
+                        .description(words(random, 120))
+                        .constraints("1 <= n <= 10^5, " + words(random, 6))
+                        .exampleInput("5\n1 2 3 4 5")
+                        .exampleOutput("15")
+                        .difficulty(Difficulty.values()[i % Difficulty.values().length])
+                        .build();
+                for (int t = 0; t < testCasesPerProblem; t++) {
+                    // Every problem is "sum n numbers", so the load test can submit a correct solution
+                    int[] values = random.ints(50, 0, 1000).toArray();
+                    problem.getTestCases().add(TestCase.builder()
+                            .problem(problem)
+                            .input(Arrays.stream(values).mapToObj(Integer::toString)
+                                    .collect(Collectors.joining(" ", values.length + "\n", "\n")))
+                            .expectedOutput(Integer.toString(Arrays.stream(values).sum()))
+                            .isHidden(t > 1)
+                            .orderIndex(t)
+                            .build());
+                }
+                chunk.add(problem);
+            }
+            transactionTemplate.executeWithoutResult(status -> problemRepository.saveAll(chunk));
+        }
+        log.info("Test cases stored: {}", testCaseRepository.count());
+    }
+
+    private static String words(Random random, int count) {
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < count; i++) {
+            if (i > 0) {
+                text.append(' ');
+            }
+            text.append(WORDS[(int) (Math.pow(random.nextDouble(), 2) * WORDS.length)]);
+        }
+        return text.toString();
+    }
+}
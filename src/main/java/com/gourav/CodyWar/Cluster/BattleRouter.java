@@ -0,0 +1,242 @@
+package com.gourav.CodyWar.Cluster;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.gourav.CodyWar.Configuration.ClusterProperties;
+import com.gourav.CodyWar.Domain.Dto.BattleEventDto;
+import com.gourav.CodyWar.Domain.Entity.Battle;
+import com.gourav.CodyWar.Domain.Entity.BattleParticipant;
+import com.gourav.CodyWar.Domain.Entity.BattleStatus;
+import com.gourav.CodyWar.Domain.Event.BattleEvent;
+import com.gourav.CodyWar.Domain.Event.BattleEventType;
+import com.gourav.CodyWar.Repository.BattleRepository;
+import com.gourav.CodyWar.Service.LiveBattleRegistry;
+import com.gourav.CodyWar.Service.RoomCodeAllocator;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Decides which node owns each live battle: the owner of its id on a consistent hash ring of
+ * the current members.
+ *
+ * The owner is the only node that changes a battle, so its in-memory state (live registry, room
+ * code, event log) stays authoritative. New battles get an id this node owns, so the creating node
+ * is the owner. When members change, battles that moved away are dropped and battles that moved
+ * here are rebuilt from the database.
+ */
+@Slf4j
+@Service
+public class BattleRouter {
+
+    private static final List<BattleStatus> UNFINISHED = List.of(BattleStatus.WAITING, BattleStatus.IN_PROGRESS);
+    private static final TypeReference<List<BattleEventDto>> EVENTS = new TypeReference<>() {
+    };
+
+    private final ClusterMembership membership;
+    private final ClusterTransport transport;
+    private final ClusterProperties properties;
+    private final BattleRepository battleRepository;
+    private final LiveBattleRegistry liveBattleRegistry;
+    private final RoomCodeAllocator roomCodeAllocator;
+    private final TransactionTemplate readOnlyTransactionTemplate;
+
+    private volatile ConsistentHashRing ring;
+    private boolean started;
+
+    public BattleRouter(ClusterMembership membership,
+                        ClusterTransport transport,
+                        ClusterProperties properties,
+                        BattleRepository battleRepository,
+                        LiveBattleRegistry liveBattleRegistry,
+                        RoomCodeAllocator roomCodeAllocator,
+                        PlatformTransactionManager transactionManager) {
+        this.membership = membership;
+        this.transport = transport;
+        this.properties = properties;
+        this.battleRepository = battleRepository;
+        this.liveBattleRegistry = liveBattleRegistry;
+        this.roomCodeAllocator = roomCodeAllocator;
+        this.readOnlyTransactionTemplate = new TransactionTemplate(transactionManager);
+        this.readOnlyTransactionTemplate.setReadOnly(true);
+    }
+
+    @PostConstruct
+    public void start() {
+        rebalance(membership.members());
+        started = true;
+        membership.onChange(this::rebalance);
+    }
+
+    public ClusterNode self() {
+        return membership.self();
+    }
+
+    public boolean isClustered() {
+        return ring.nodes().size() > 1;
+    }
+
+    /**
+     * The live member with this id, if any
+     */
+    public Optional<ClusterNode> member(String nodeId) {
+        return ring.nodes().stream().filter(node -> node.getId().equals(nodeId)).findFirst();
+    }
+
+    public ClusterNode ownerOf(UUID battleId) {
+        return ring.ownerOf(battleId);
+    }
+
+    public boolean isLocal(UUID battleId) {
+        return ring.ownerOf(battleId).equals(membership.self());
+    }
+
+    /**
+     * Whether this node should run a job that must only run once in the cluster
+     */
+    public boolean ownsSingleton(String name) {
+        return ring.ownerOf(name).equals(membership.self());
+    }
+
+    /**
+     * A random id for a new battle that this node owns; with n nodes about n tries
+     */
+    public UUID newBattleId() {
+        ConsistentHashRing current = ring;
+        UUID id = UUID.randomUUID();
+        for (int i = 0; i < 64 * current.nodes().size() && !current.ownerOf(id).equals(membership.self()); i++) {
+            id = UUID.randomUUID();
+        }
+        return id;
+    }
+
+    /**
+     * The parts of a battle's timeline logged by the other nodes, e.g. before it changed owner
+     */
+    public List<BattleEventDto> peerEvents(UUID battleId) {
+        List<BattleEventDto> events = new ArrayList<>();
+        for (ClusterNode node : ring.nodes()) {
+            if (node.equals(membership.self())) {
+                continue;
+            }
+            try {
+                events.addAll(transport.get(node, "/internal/cluster/battles/" + battleId + "/events", EVENTS));
+            } catch (IOException e) {
+                log.warn("Timeline of battle {} is missing the events logged by {}: {}", battleId, node.getId(), e.getMessage());
+            }
+        }
+        return events;
+    }
+
+    /**
+     * Safety net for battles created while the ring was changing, which no membership change will move
+     */
+    @Scheduled(fixedDelayString = "${cluster.reconcile-interval-ms:30000}")
+    public void reconcile() {
+        if (isClustered()) {
+            rebalance(ring.nodes());
+        }
+    }
+
+    private synchronized void rebalance(List<ClusterNode> members) {
+        // A node that was or is clustered may have battles to take over, including the last one left
+        boolean clustered = members.size() > 1 || (ring != null && ring.nodes().size() > 1);
+        ring = new ConsistentHashRing(members, properties.getVirtualNodes());
+
+        int released = 0;
+        for (UUID battleId : liveBattleRegistry.battleIds()) {
+            if (!isLocal(battleId)) {
+                liveBattleRegistry.forget(battleId);
+                roomCodeAllocator.release(battleId);
+                released++;
+            }
+        }
+        // Codes loaded from the database at startup include other nodes' battles, which never end here
+        for (UUID battleId : roomCodeAllocator.battleIds()) {
+            if (!isLocal(battleId)) {
+                roomCodeAllocator.release(battleId);
+            }
+        }
+
+        int adopted = clustered ? adoptUnfinishedBattles() : 0;
+        if (released > 0 || adopted > 0) {
+            log.info("Rebalanced {} nodes: handed over {} battles, took over {}", members.size(), released, adopted);
+        }
+    }
+
+    private int adoptUnfinishedBattles() {
+        // Taken before the query, so a battle created meanwhile is not mistaken for a finished one
+        Set<UUID> tracked = liveBattleRegistry.battleIds();
+        // At startup this node's own log may be behind for battles others ran while it was down
+        Set<UUID> current = started ? tracked : Set.of();
+        Integer adopted = readOnlyTransactionTemplate.execute(status -> {
+            // Ids only: the battles to take over are rare, and only those are loaded with their participants
+            Set<UUID> unfinished = new HashSet<>(battleRepository.findIdsByStatusIn(UNFINISHED));
+            List<UUID> moved = unfinished.stream()
+                    .filter(battleId -> isLocal(battleId) && !current.contains(battleId))
+                    .toList();
+            if (!moved.isEmpty()) {
+                for (Battle battle : battleRepository.findWithParticipantsByIdIn(moved)) {
+                    liveBattleRegistry.adopt(battle.getId(), replay(battle));
+                    if (battle.getRoomCode() != null) {
+                        roomCodeAllocator.adopt(battle.getRoomCode(), battle.getId());
+                    }
+                }
+            }
+            // Finished by another node while this one was away, so this node's log never saw the end
+            for (UUID battleId : tracked) {
+                if (!unfinished.contains(battleId)) {
+                    liveBattleRegistry.forget(battleId);
+                    roomCodeAllocator.release(battleId);
+                }
+            }
+            return moved.size();
+        });
+        return adopted == null ? 0 : adopted;
+    }
+
+    // The events that would have produced the battle's current state in the registry
+    private static List<BattleEvent> replay(Battle battle) {
+        List<BattleEvent> events = new ArrayList<>();
+        events.add(event(BattleEventType.CREATED, battle, null, 0));
+        for (BattleParticipant participant : battle.getParticipants()) {
+            UUID userId = participant.getUser().getId();
+            events.add(event(BattleEventType.JOINED, battle, userId, 0));
+            if (participant.isReady()) {
+                events.add(event(BattleEventType.READY, battle, userId, 0));
+            }
+            if (participant.isHasSubmitted()) {
+                events.add(event(BattleEventType.SUBMITTED, battle, userId, 0));
+            }
+            if (participant.getScore() > 0) {
+                events.add(event(BattleEventType.VERDICT, battle, userId, participant.getScore()));
+            }
+        }
+        if (battle.getStatus() == BattleStatus.IN_PROGRESS) {
+            events.add(event(BattleEventType.STARTED, battle, null, battle.getDurationSeconds()).toBuilder()
+                    .occurredAt(battle.getStartedAt())
+                    .build());
+        }
+        return events;
+    }
+
+    private static BattleEvent event(BattleEventType type, Battle battle, UUID userId, int value) {
+        return BattleEvent.builder()
+                .type(type)
+                .battleId(battle.getId())
+                .userId(userId)
+                .value(value)
+                .occurredAt(battle.getCreatedAt())
+                .build();
+    }
+}
@@ -0,0 +1,28 @@
+package com.gourav.CodyWar.Cluster;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Which nodes are currently part of the cluster
+ */
+public interface ClusterMembership {
+
+    ClusterNode self();
+
+    /**
+     * Live members including this node, ordered by id
+     */
+    List<ClusterNode> members();
+
+    /**
+     * Called with the new member list whenever a node joins or leaves
+     */
+    void onChange(Consumer<List<ClusterNode>> listener);
+
+    /**
+     * Stop being a member; the others rebalance this node's battles among themselves once they notice
+     */
+    void leave() throws IOException;
+}
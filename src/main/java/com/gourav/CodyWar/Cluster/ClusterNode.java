@@ -0,0 +1,31 @@
+package com.gourav.CodyWar.Cluster;
+
+import com.gourav.CodyWar.Configuration.ClusterProperties;
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.ToString;
+
+import java.util.UUID;
+
+// One application instance: a stable id and the base URL peers forward requests to
+@Getter
+@ToString
+@EqualsAndHashCode
+@AllArgsConstructor
+public class ClusterNode {
+
+    private final String id;
+    private final String url;
+
+    /**
+     * This instance, as configured or derived from the port it listens on
+     */
+    static ClusterNode local(ClusterProperties properties, int port) {
+        String id = properties.getNodeId() == null || properties.getNodeId().isBlank()
+                ? UUID.randomUUID().toString() : properties.getNodeId();
+        String url = properties.getAdvertisedUrl() == null || properties.getAdvertisedUrl().isBlank()
+                ? "http://localhost:" + port : properties.getAdvertisedUrl();
+        return new ClusterNode(id, url.endsWith("/") ? url.substring(0, url.length() - 1) : url);
+    }
+}
@@ -0,0 +1,229 @@
+package com.gourav.CodyWar.Cluster;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.gourav.CodyWar.Configuration.ClusterProperties;
+import com.gourav.CodyWar.Domain.Dto.ApiResponse;
+import com.gourav.CodyWar.Domain.Entity.SubmissionStatus;
+import com.gourav.CodyWar.Repository.BattleRepository;
+import com.gourav.CodyWar.Repository.SubmissionRepository;
+import com.gourav.CodyWar.Service.RoomCodeAllocator;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.NonNull;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.ByteArrayInputStream;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.UUID;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Sends every request about a live battle to the node that owns it: the battle's own endpoints,
+ * joining by room code and battle submissions. A submission's event stream goes to the node
+ * that will report its progress: the one it is queued on or being judged by, which after a
+ * requeue need not be the battle's owner, and practice submissions have none. Everything else, and every
+ * request already forwarded once by a peer, is handled where it arrives. A forwarded request
+ * only counts as one when it carries the cluster secret, so clients cannot skip the routing by
+ * setting the header themselves.
+ *
+ * Runs before authentication; the owner authenticates the forwarded request itself. Bodies it
+ * has to read for that are capped, and larger ones refused before they are buffered.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ClusterRoutingFilter extends OncePerRequestFilter {
+
+    private static final String UUID_PATTERN = "[0-9a-fA-F]{8}-[0-9a-fA-F]{4}-[0-9a-fA-F]{4}-[0-9a-fA-F]{4}-[0-9a-fA-F]{12}";
+    private static final Pattern BATTLE = Pattern.compile("^/api/battles/(" + UUID_PATTERN + ")(/.*)?$");
+    private static final Pattern ROOM = Pattern.compile("^/api/battles/rooms/([^/]+)/join$");
+    private static final Pattern SUBMISSION_EVENTS = Pattern.compile("^/api/submissions/(" + UUID_PATTERN + ")/events$");
+    private static final String SUBMISSIONS = "/api/submissions";
+    private static final List<SubmissionStatus> UNJUDGED = List.of(SubmissionStatus.PENDING, SubmissionStatus.RUNNING);
+
+    private final BattleRouter battleRouter;
+    private final ClusterTransport transport;
+    private final RoomCodeAllocator roomCodeAllocator;
+    private final BattleRepository battleRepository;
+    private final SubmissionRepository submissionRepository;
+    private final ObjectMapper objectMapper;
+    private final ClusterProperties properties;
+
+    @Override
+    protected void doFilterInternal(
+            @NonNull HttpServletRequest request,
+            @NonNull HttpServletResponse response,
+            @NonNull FilterChain filterChain
+    ) throws ServletException, IOException {
+
+        if (!battleRouter.isClustered()
+                || (request.getHeader(ClusterTransport.FORWARDED_BY) != null && transport.isTrusted(request))) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        String uri = request.getRequestURI();
+        byte[] body = null;
+        ClusterNode owner = null;
+
+        Matcher matcher;
+        if ((matcher = BATTLE.matcher(uri)).matches()) {
+            owner = battleRouter.ownerOf(UUID.fromString(matcher.group(1)));
+        } else if ((matcher = ROOM.matcher(uri)).matches()) {
+            owner = ownerOf(findRoomBattle(matcher.group(1)));
+        } else if ((matcher = SUBMISSION_EVENTS.matcher(uri)).matches()) {
+            owner = findSubmissionNode(UUID.fromString(matcher.group(1)));
+        } else if (uri.equals(SUBMISSIONS) && "POST".equals(request.getMethod())) {
+            // The battle is in the body: keep it so the request can still be handled here
+            body = readBody(request);
+            if (body == null) {
+                rejectTooLarge(response);
+                return;
+            }
+            owner = ownerOf(readBattleId(body));
+            request = new CachedBodyRequest(request, body);
+        }
+
+        if (owner == null || owner.equals(battleRouter.self())) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        if (body == null && (body = readBody(request)) == null) {
+            rejectTooLarge(response);
+            return;
+        }
+        try {
+            transport.forward(owner, request, body, response);
+        } catch (IOException e) {
+            if (response.isCommitted()) {
+                // The owner went away mid-stream; nothing more can be told to the client
+                log.debug("Forwarded response from {} ended early: {}", owner.getId(), e.getMessage());
+                return;
+            }
+            log.warn("Could not forward {} to {}: {}", uri, owner.getId(), e.getMessage());
+            response.resetBuffer();
+            response.setHeader(HttpHeaders.RETRY_AFTER, "5");
+            reject(response, HttpStatus.SERVICE_UNAVAILABLE, "The node running this battle is unavailable");
+        }
+    }
+
+    // Null when the body is over the cap, read no further than needed to tell
+    private byte[] readBody(HttpServletRequest request) throws IOException {
+        int max = properties.getMaxBodyBytes();
+        if (request.getContentLengthLong() > max) {
+            return null;
+        }
+        byte[] body = request.getInputStream().readNBytes(max + 1);
+        return body.length > max ? null : body;
+    }
+
+    private void rejectTooLarge(HttpServletResponse response) throws IOException {
+        reject(response, HttpStatus.PAYLOAD_TOO_LARGE, "Request body exceeds " + properties.getMaxBodyBytes() + " bytes");
+    }
+
+    private void reject(HttpServletResponse response, HttpStatus status, String message) throws IOException {
+        response.setStatus(status.value());
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        objectMapper.writeValue(response.getOutputStream(), ApiResponse.error(message));
+    }
+
+    private ClusterNode ownerOf(UUID battleId) {
+        return battleId != null ? battleRouter.ownerOf(battleId) : null;
+    }
+
+    // Once judged, or while no live node has it, any node can answer from the database
+    private ClusterNode findSubmissionNode(UUID submissionId) {
+        return submissionRepository.findJudgeNode(submissionId, UNJUDGED)
+                .flatMap(battleRouter::member)
+                .orElse(null);
+    }
+
+    private UUID findRoomBattle(String roomCode) {
+        UUID battleId = roomCodeAllocator.find(roomCode);
+        return battleId != null ? battleId : battleRepository.findIdByRoomCode(roomCode.toUpperCase()).orElse(null);
+    }
+
+    private UUID readBattleId(byte[] body) {
+        try {
+            JsonNode battleId = objectMapper.readTree(body).path("battleId");
+            return battleId.isTextual() ? UUID.fromString(battleId.asText()) : null;
+        } catch (IOException | IllegalArgumentException e) {
+            // Malformed: let the local handler reject it with the usual validation error
+            return null;
+        }
+    }
+
+    private static final class CachedBodyRequest extends HttpServletRequestWrapper {
+
+        private final byte[] body;
+
+        private CachedBodyRequest(HttpServletRequest request, byte[] body) {
+            super(request);
+            this.body = body;
+        }
+
+        @Override
+        public ServletInputStream getInputStream() {
+            ByteArrayInputStream in = new ByteArrayInputStream(body);
+            return new ServletInputStream() {
+                @Override
+                public boolean isFinished() {
+                    return in.available() == 0;
+                }
+
+                @Override
+                public boolean isReady() {
+                    return true;
+                }
+
+                @Override
+                public void setReadListener(ReadListener listener) {
+                    throw new UnsupportedOperationException();
+                }
+
+                @Override
+                public int read() {
+                    return in.read();
+                }
+
+                @Override
+                public int read(byte[] b, int off, int len) {
+                    return in.read(b, off, len);
+                }
+            };
+        }
+
+        @Override
+        public BufferedReader getReader() {
+            return new BufferedReader(new InputStreamReader(getInputStream(), StandardCharsets.UTF_8));
+        }
+
+        @Override
+        public int getContentLength() {
+            return body.length;
+        }
+
+        @Override
+        public long getContentLengthLong() {
+            return body.length;
+        }
+    }
+}
@@ -0,0 +1,35 @@
+package com.gourav.CodyWar.Cluster;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+import java.io.IOException;
+
+/**
+ * How nodes talk to each other: forwarding client requests to the node that owns them, and
+ * internal calls between nodes
+ */
+public interface ClusterTransport {
+
+    // Set on forwarded requests so the receiving node handles them even if its view of the ring differs
+    String FORWARDED_BY = "X-Cluster-Forwarded-By";
+
+    // Carries the shared secret on internal calls
+    String SECRET = "X-Cluster-Secret";
+
+    /**
+     * Replay a client request on another node and stream its response back, as it arrives
+     */
+    void forward(ClusterNode node, HttpServletRequest request, byte[] body, HttpServletResponse response) throws IOException;
+
+    /**
+     * GET one of another node's internal endpoints and read the JSON it returns
+     */
+    <T> T get(ClusterNode node, String path, TypeReference<T> type) throws IOException;
+
+    /**
+     * Whether an internal call carries the cluster's secret
+     */
+    boolean isTrusted(HttpServletRequest request);
+}
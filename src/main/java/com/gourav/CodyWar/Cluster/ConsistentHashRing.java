@@ -0,0 +1,86 @@
+package com.gourav.CodyWar.Cluster;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Immutable hash ring: each node is placed at several pseudo-random points and a key belongs to
+ * the first point at or after its own hash, wrapping around.
+ *
+ * When a node joins or leaves only the keys between its points and their predecessors move, about
+ * 1/n of them, and the virtual points spread that share over every other node instead of one neighbour.
+ */
+public class ConsistentHashRing {
+
+    private final long[] points;
+    private final ClusterNode[] owners;
+    private final List<ClusterNode> nodes;
+
+    public ConsistentHashRing(List<ClusterNode> nodes, int virtualNodes) {
+        if (nodes.isEmpty()) {
+            throw new IllegalArgumentException("A hash ring needs at least one node");
+        }
+        this.nodes = List.copyOf(nodes);
+
+        int size = nodes.size() * virtualNodes;
+        long[][] placed = new long[size][];
+        int i = 0;
+        for (int n = 0; n < nodes.size(); n++) {
+            for (int v = 0; v < virtualNodes; v++) {
+                placed[i++] = new long[]{hash(nodes.get(n).getId() + "#" + v), n};
+            }
+        }
+        // Ties are broken by node order so every member builds the same ring from the same list
+        Arrays.sort(placed, (a, b) -> a[0] != b[0] ? Long.compare(a[0], b[0]) : Long.compare(a[1], b[1]));
+
+        this.points = new long[size];
+        this.owners = new ClusterNode[size];
+        for (int p = 0; p < size; p++) {
+            points[p] = placed[p][0];
+            owners[p] = nodes.get((int) placed[p][1]);
+        }
+    }
+
+    public List<ClusterNode> nodes() {
+        return nodes;
+    }
+
+    public ClusterNode ownerOf(UUID key) {
+        return ownerOf(mix(key.getMostSignificantBits() ^ Long.rotateLeft(key.getLeastSignificantBits(), 32)));
+    }
+
+    public ClusterNode ownerOf(String key) {
+        return ownerOf(hash(key));
+    }
+
+    private ClusterNode ownerOf(long hash) {
+        int index = Arrays.binarySearch(points, hash);
+        if (index < 0) {
+            index = -index - 1;
+        }
+        return owners[index == points.length ? 0 : index];
+    }
+
+    // The finalizer of MurmurHash3: random UUIDs are already uniform, this only removes structure from others
+    private static long mix(long h) {
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        return h ^ (h >>> 33);
+    }
+
+    private static long hash(String value) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(value.getBytes(StandardCharsets.UTF_8));
+            return ByteBuffer.wrap(digest).getLong();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+}
@@ -0,0 +1,131 @@
+package com.gourav.CodyWar.Cluster;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.gourav.CodyWar.Configuration.ClusterProperties;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Node to node traffic over plain HTTP, which on one machine is loopback
+ */
+@Component
+public class HttpClusterTransport implements ClusterTransport {
+
+    // Connection-level headers that must not be copied across a hop; the client sets its own
+    private static final Set<String> HOP_BY_HOP = Set.of("connection", "content-length", "expect", "host", "keep-alive",
+            "proxy-authenticate", "proxy-authorization", "te", "trailer", "transfer-encoding", "upgrade");
+
+    // Set by this node on the way out; whatever the client sent for them is dropped
+    private static final Set<String> CLUSTER_HEADERS = Set.of(FORWARDED_BY.toLowerCase(), SECRET.toLowerCase());
+
+    private final ClusterMembership membership;
+    private final ObjectMapper objectMapper;
+    private final HttpClient client;
+    private final Duration requestTimeout;
+    private final byte[] secret;
+
+    public HttpClusterTransport(ClusterMembership membership, ClusterProperties properties, ObjectMapper objectMapper) {
+        boolean clustered = !(membership instanceof StandaloneMembership);
+        if (clustered && (properties.getSecret() == null || properties.getSecret().isBlank())) {
+            throw new IllegalStateException("cluster.secret must be set when cluster.membership is " + properties.getMembership());
+        }
+        this.membership = membership;
+        this.objectMapper = objectMapper;
+        this.client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofMillis(properties.getConnectTimeoutMs()))
+                .build();
+        this.requestTimeout = Duration.ofMillis(properties.getRequestTimeoutMs());
+        this.secret = properties.getSecret() == null ? new byte[0] : properties.getSecret().getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Override
+    public void forward(ClusterNode node, HttpServletRequest request, byte[] body, HttpServletResponse response) throws IOException {
+        String target = node.getUrl() + request.getRequestURI()
+                + (request.getQueryString() != null ? "?" + request.getQueryString() : "");
+        HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(target))
+                .method(request.getMethod(), body.length == 0
+                        ? HttpRequest.BodyPublishers.noBody()
+                        : HttpRequest.BodyPublishers.ofByteArray(body));
+        for (String name : Collections.list(request.getHeaderNames())) {
+            if (!HOP_BY_HOP.contains(name.toLowerCase()) && !CLUSTER_HEADERS.contains(name.toLowerCase())) {
+                for (String value : Collections.list(request.getHeaders(name))) {
+                    try {
+                        builder.header(name, value);
+                    } catch (IllegalArgumentException e) {
+                        // A header the HTTP client manages itself, such as Date or Via
+                    }
+                }
+            }
+        }
+        builder.header(FORWARDED_BY, membership.self().getId());
+        builder.header(SECRET, new String(secret, StandardCharsets.UTF_8));
+
+        HttpResponse<InputStream> forwarded = send(builder.build(), HttpResponse.BodyHandlers.ofInputStream());
+        response.setStatus(forwarded.statusCode());
+        for (Map.Entry<String, List<String>> header : forwarded.headers().map().entrySet()) {
+            if (!HOP_BY_HOP.contains(header.getKey().toLowerCase()) && !header.getKey().startsWith(":")) {
+                header.getValue().forEach(value -> response.addHeader(header.getKey(), value));
+            }
+        }
+
+        // Flush every chunk so event streams reach the client as the owner writes them
+        try (InputStream in = forwarded.body()) {
+            ServletOutputStream out = response.getOutputStream();
+            byte[] buffer = new byte[8192];
+            int read;
+            while ((read = in.read(buffer)) != -1) {
+                out.write(buffer, 0, read);
+                out.flush();
+            }
+        }
+    }
+
+    @Override
+    public <T> T get(ClusterNode node, String path, TypeReference<T> type) throws IOException {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(node.getUrl() + path))
+                .timeout(requestTimeout)
+                .header(SECRET, new String(secret, StandardCharsets.UTF_8))
+                .header(FORWARDED_BY, membership.self().getId())
+                .GET()
+                .build();
+        HttpResponse<byte[]> response = send(request, HttpResponse.BodyHandlers.ofByteArray());
+        if (response.statusCode() != 200) {
+            throw new IOException("GET " + path + " on " + node.getId() + " returned " + response.statusCode());
+        }
+        return objectMapper.readValue(response.body(), type);
+    }
+
+    @Override
+    public boolean isTrusted(HttpServletRequest request) {
+        String presented = request.getHeader(SECRET);
+        return secret.length > 0 && presented != null
+                && MessageDigest.isEqual(secret, presented.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private <T> HttpResponse<T> send(HttpRequest request, HttpResponse.BodyHandler<T> handler) throws IOException {
+        try {
+            return client.send(request, handler);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while calling " + request.uri(), e);
+        }
+    }
+}
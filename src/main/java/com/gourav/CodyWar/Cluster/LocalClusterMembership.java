@@ -0,0 +1,144 @@
+package com.gourav.CodyWar.Cluster;
+
+import com.gourav.CodyWar.Configuration.ClusterProperties;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.regex.Pattern;
+
+/**
+ * Membership for several instances on one machine, through a directory they all share.
+ *
+ * Every node keeps a {@code <node-id>.node} file holding its URL and rewrites it each heartbeat.
+ * A node whose file has not been touched within the failure timeout is considered gone, and a node
+ * that shuts down cleanly deletes its file so the others rebalance on their next heartbeat.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "cluster.membership", havingValue = "local")
+public class LocalClusterMembership implements ClusterMembership {
+
+    private static final String SUFFIX = ".node";
+    private static final Pattern NODE_ID = Pattern.compile("[A-Za-z0-9._-]+");
+
+    private final ClusterNode self;
+    private final Path directory;
+    private final Path file;
+    private final long failureTimeoutMs;
+    private final ScheduledExecutorService scheduler;
+    private final List<Consumer<List<ClusterNode>>> listeners = new CopyOnWriteArrayList<>();
+    private volatile List<ClusterNode> members;
+
+    public LocalClusterMembership(ClusterProperties properties, @Value("${server.port:8080}") int port) throws IOException {
+        this.self = ClusterNode.local(properties, port);
+        if (!NODE_ID.matcher(self.getId()).matches()) {
+            throw new IllegalArgumentException("cluster.node-id may only contain letters, digits, '.', '_' and '-'");
+        }
+        this.directory = Path.of(properties.getLocalDir());
+        this.file = directory.resolve(self.getId() + SUFFIX);
+        this.failureTimeoutMs = properties.getFailureTimeoutMs();
+
+        Files.createDirectories(directory);
+        writeHeartbeat();
+        this.members = scan();
+        log.info("Joined local cluster in {} as {}, members {}", directory.toAbsolutePath(), self, members);
+
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(new CustomizableThreadFactory("cluster-membership-"));
+        scheduler.scheduleWithFixedDelay(this::heartbeat, properties.getHeartbeatIntervalMs(),
+                properties.getHeartbeatIntervalMs(), TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public ClusterNode self() {
+        return self;
+    }
+
+    @Override
+    public List<ClusterNode> members() {
+        return members;
+    }
+
+    @Override
+    public void onChange(Consumer<List<ClusterNode>> listener) {
+        listeners.add(listener);
+    }
+
+    @Override
+    @PreDestroy
+    public void leave() throws IOException {
+        if (scheduler.isShutdown()) {
+            return;  // Already left when the node drained
+        }
+        scheduler.shutdownNow();
+        Files.deleteIfExists(file);
+        log.info("Left local cluster as {}", self.getId());
+    }
+
+    private void heartbeat() {
+        try {
+            writeHeartbeat();
+            List<ClusterNode> current = scan();
+            if (current.equals(members)) {
+                return;
+            }
+            log.info("Cluster membership changed from {} to {}", members, current);
+            members = current;
+            for (Consumer<List<ClusterNode>> listener : listeners) {
+                listener.accept(current);
+            }
+        } catch (IOException | RuntimeException e) {
+            // Keep beating: a missed heartbeat only matters once it lasts longer than the failure timeout
+            log.warn("Cluster heartbeat failed: {}", e.getMessage(), e);
+        }
+    }
+
+    private void writeHeartbeat() throws IOException {
+        Path temp = directory.resolve(self.getId() + SUFFIX + ".tmp");
+        Files.writeString(temp, self.getUrl(), StandardCharsets.UTF_8);
+        Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private List<ClusterNode> scan() throws IOException {
+        long cutoff = System.currentTimeMillis() - failureTimeoutMs;
+        List<ClusterNode> found = new ArrayList<>();
+        found.add(self);
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, "*" + SUFFIX)) {
+            for (Path path : files) {
+                String name = path.getFileName().toString();
+                String id = name.substring(0, name.length() - SUFFIX.length());
+                if (id.equals(self.getId())) {
+                    continue;
+                }
+                try {
+                    if (Files.getLastModifiedTime(path).toMillis() >= cutoff) {
+                        found.add(new ClusterNode(id, Files.readString(path, StandardCharsets.UTF_8).trim()));
+                    }
+                } catch (IOException | UncheckedIOException e) {
+                    // Deleted by a node leaving while we listed the directory
+                    log.debug("Skipping cluster member file {}: {}", path, e.getMessage());
+                }
+            }
+        }
+        found.sort(Comparator.comparing(ClusterNode::getId));
+        return List.copyOf(found);
+    }
+}
@@ -0,0 +1,43 @@
+package com.gourav.CodyWar.Cluster;
+
+import com.gourav.CodyWar.Configuration.ClusterProperties;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * A cluster of one: this node owns every battle and nothing is forwarded
+ */
+@Component
+@ConditionalOnProperty(name = "cluster.membership", havingValue = "standalone", matchIfMissing = true)
+public class StandaloneMembership implements ClusterMembership {
+
+    private final ClusterNode self;
+
+    public StandaloneMembership(ClusterProperties properties, @Value("${server.port:8080}") int port) {
+        this.self = ClusterNode.local(properties, port);
+    }
+
+    @Override
+    public ClusterNode self() {
+        return self;
+    }
+
+    @Override
+    public List<ClusterNode> members() {
+        return List.of(self);
+    }
+
+    @Override
+    public void onChange(Consumer<List<ClusterNode>> listener) {
+        // Membership never changes
+    }
+
+    @Override
+    public void leave() {
+        // Nobody to hand battles to; they wait in the database and the event log for the restart
+    }
+}
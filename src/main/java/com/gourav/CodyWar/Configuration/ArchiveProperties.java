@@ -0,0 +1,19 @@
+package com.gourav.CodyWar.Configuration;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Getter
+@Setter
+@Component
+@ConfigurationProperties(prefix = "archive")
+public class ArchiveProperties {
+
+    private boolean enabled = true;
+    private int afterDays = 30;             // Age of a finished battle or practice submission before it moves
+    private int batchSize = 200;            // Battles or submissions per transaction
+    private long batchPauseMs = 500;        // Throttle between batches
+    private int maxBatchesPerRun = 100;
+}
@@ -0,0 +1,27 @@
+package com.gourav.CodyWar.Configuration;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Getter
+@Setter
+@Component
+@ConfigurationProperties(prefix = "cluster")
+public class ClusterProperties {
+
+    // standalone: this node owns every battle; local: nodes on one machine find each other through a shared directory
+    private String membership = "standalone";
+    private String nodeId;                  // Random per start when unset
+    private String advertisedUrl;           // How peers reach this node; http://localhost:{server.port} when unset
+    private String secret;                  // Shared by all nodes, guards the internal endpoints
+    private int virtualNodes = 128;         // Points per node on the hash ring
+    private long heartbeatIntervalMs = 1000;
+    private long failureTimeoutMs = 5000;   // A node silent for this long leaves the ring
+    private long reconcileIntervalMs = 30000;
+    private long connectTimeoutMs = 2000;
+    private long requestTimeoutMs = 10000;  // Internal calls; forwarded requests may stream for longer
+    private int maxBodyBytes = 524288;      // Bodies read before authentication to route or forward a request
+    private String localDir = "data/cluster";
+}
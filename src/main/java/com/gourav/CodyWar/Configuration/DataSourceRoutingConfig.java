@@ -0,0 +1,68 @@
+package com.gourav.CodyWar.Configuration;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Replaces Boot's single pool with the primary plus read replicas when
+ * datasource.routing.enabled=true; the JPA layer sees one DataSource either way.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "datasource.routing", name = "enabled", havingValue = "true")
+public class DataSourceRoutingConfig {
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties dataSourceProperties) {
+        HikariDataSource dataSource = dataSourceProperties.initializeDataSourceBuilder()
+                .type(HikariDataSource.class)
+                .build();
+        dataSource.setPoolName("primary");
+        return dataSource;
+    }
+
+    @Bean
+    public ReplicaRoutingDataSource replicaRoutingDataSource(HikariDataSource primaryDataSource,
+                                                            DataSourceProperties dataSourceProperties,
+                                                            DataSourceRoutingProperties routingProperties,
+                                                            MeterRegistry meterRegistry) {
+        List<ReplicaRoutingDataSource.Replica> replicas = new ArrayList<>();
+        for (int i = 0; i < routingProperties.getReplicas().size(); i++) {
+            DataSourceRoutingProperties.Replica replica = routingProperties.getReplicas().get(i);
+            String name = "replica-" + i;
+
+            HikariDataSource dataSource = new HikariDataSource();
+            dataSource.setPoolName(name);
+            dataSource.setJdbcUrl(replica.getUrl());
+            dataSource.setUsername(replica.getUsername() != null ? replica.getUsername() : dataSourceProperties.getUsername());
+            dataSource.setPassword(replica.getPassword() != null ? replica.getPassword() : dataSourceProperties.getPassword());
+            dataSource.setDriverClassName(dataSourceProperties.getDriverClassName());
+            dataSource.setMaximumPoolSize(replica.getMaximumPoolSize());
+            dataSource.setConnectionTimeout(replica.getConnectionTimeoutMs());
+            dataSource.setReadOnly(true);
+            // Let the application start while a replica is down; the health check picks it up later
+            dataSource.setInitializationFailTimeout(-1);
+            replicas.add(new ReplicaRoutingDataSource.Replica(name, dataSource));
+        }
+
+        return new ReplicaRoutingDataSource(primaryDataSource, replicas,
+                routingProperties.getMaxReplicationLagMs(), routingProperties.getReadYourWritesWindowMs(), meterRegistry);
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(ReplicaRoutingDataSource replicaRoutingDataSource) {
+        return new LazyConnectionDataSourceProxy(replicaRoutingDataSource);
+    }
+}
@@ -0,0 +1,38 @@
+package com.gourav.CodyWar.Configuration;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Getter
+@Setter
+@Component
+@ConfigurationProperties(prefix = "datasource.routing")
+public class DataSourceRoutingProperties {
+
+    private boolean enabled = false;
+
+    private List<Replica> replicas = new ArrayList<>();
+
+    private long healthCheckIntervalMs = 5000;
+
+    // Replicas further behind the primary are taken out of rotation; 0 disables the lag check
+    private long maxReplicationLagMs = 10000;
+
+    // After a user's own write commits, their reads stay on the primary for this long
+    private long readYourWritesWindowMs = 5000;
+
+    @Getter
+    @Setter
+    public static class Replica {
+        private String url;
+        private String username;            // Defaults to spring.datasource.username
+        private String password;            // Defaults to spring.datasource.password
+        private int maximumPoolSize = 10;
+        private long connectionTimeoutMs = 2000;
+    }
+}
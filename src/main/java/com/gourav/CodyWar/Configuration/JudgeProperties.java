@@ -0,0 +1,65 @@
+package com.gourav.CodyWar.Configuration;
+
+import com.gourav.CodyWar.Domain.Entity.Language;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+@Getter
+@Setter
+@Component
+@ConfigurationProperties(prefix = "judge")
+public class JudgeProperties {
+
+    // Only set on nodes inside an isolated container or VM; until then no language is judged
+    private boolean sandboxed = false;
+
+    private int workers = Runtime.getRuntime().availableProcessors();
+
+    // Submissions beyond this are refused instead of queued
+    private int queueCapacity = 1000;
+
+    // A practice submission waiting this long is judged ahead of battle submissions
+    private long agingMs = 10000;
+
+    // Test cases read per round trip; only one page is held in memory per running judgment
+    private int testCasePageSize = 20;
+
+    private long compileTimeoutMs = 30000;
+
+    // How long running judgments may finish when the node drains, before they are interrupted and requeued
+    private long drainTimeoutMs = 20000;
+
+    private int maxOutputBytes = 8 * 1024 * 1024;
+
+    // Parent directory for per-submission working directories; the system temp dir when unset
+    private String workDir;
+
+    // Languages without an entry are rejected at submission time
+    private Map<Language, Toolchain> languages = new EnumMap<>(Language.class);
+
+    private VerdictCache verdictCache = new VerdictCache();
+
+    @Getter
+    @Setter
+    public static class Toolchain {
+        private String sourceFile;              // e.g. Main.java
+        private String compile;                 // Optional, run once in the working directory
+        private String run;                     // {memoryMb} is replaced by the problem's memory limit
+        private boolean limitAddressSpace = true;  // ulimit -v; off for runtimes that reserve large heaps up front
+        private int maxConcurrent;              // Submissions judged at once in this language; 0 for no cap
+        private double cost = 1.0;              // Share of a user's fair share one submission uses up
+    }
+
+    @Getter
+    @Setter
+    public static class VerdictCache {
+        private boolean enabled = true;
+        private long maxBytes = 16 * 1024 * 1024;  // Estimated heap held by entries, least recently used evicted first
+        private int maxMessageBytes = 4096;        // Verdicts with longer judge output are not cached
+    }
+}
@@ -0,0 +1,24 @@
+package com.gourav.CodyWar.Configuration;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Getter
+@Setter
+@Component
+@ConfigurationProperties(prefix = "plagiarism")
+public class PlagiarismProperties {
+
+    private boolean enabled = true;
+    private int kgramSize = 8;              // Tokens hashed into one fingerprint
+    private int window = 8;                 // Hashes a fingerprint is chosen from; matches of k + window - 1 tokens are always seen
+    private double minSimilarity = 0.8;     // Share of the smaller submission's fingerprints that must be shared
+    private int minFingerprints = 10;       // Shorter solutions look alike anyway and are not compared
+    private double commonFraction = 0.2;    // Fingerprints in more of a problem's submissions than this are boilerplate
+    private int commonMinimum = 50;
+    private int queueCapacity = 10000;      // Accepted submissions waiting to be checked; more are skipped
+    private int rebuildPageSize = 1000;
+    private long refreshOverlapMs = 60000;  // Commit delay and clock skew allowed for when picking up other nodes' fingerprints
+}
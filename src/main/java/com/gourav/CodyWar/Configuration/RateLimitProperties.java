@@ -0,0 +1,31 @@
+package com.gourav.CodyWar.Configuration;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+@Getter
+@Setter
+@Component
+@ConfigurationProperties(prefix = "rate-limit")
+public class RateLimitProperties {
+
+    private boolean enabled = true;
+
+    // Route groups, checked in declaration order; the first matching path prefix (and method) wins
+    private Map<String, Policy> policies = new LinkedHashMap<>();
+
+    @Getter
+    @Setter
+    public static class Policy {
+        private String pathPrefix;
+        private String method;          // Only requests with this HTTP method; any method when unset
+        private int capacity;           // Burst size
+        private int refillPerMinute;    // Sustained rate
+        private boolean perIp = false;  // Key by client IP even for authenticated requests
+    }
+}
@@ -0,0 +1,219 @@
+package com.gourav.CodyWar.Configuration;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Sends connections for read-only transactions to a healthy replica, round-robin, and
+ * everything else to the primary.
+ *
+ * Must sit behind a LazyConnectionDataSourceProxy: the transaction manager asks for a
+ * connection before the read-only flag is bound to the thread, the proxy defers that
+ * until the first statement. A user whose write committed within the read-your-writes
+ * window keeps reading from the primary.
+ */
+@Slf4j
+public class ReplicaRoutingDataSource extends AbstractDataSource implements AutoCloseable {
+
+    // pg_last_xact_replay_timestamp() is NULL on a primary or a standby that has replayed nothing
+    private static final String REPLICATION_LAG_QUERY =
+            "SELECT CAST(EXTRACT(EPOCH FROM (now() - pg_last_xact_replay_timestamp())) * 1000 AS BIGINT)";
+
+    private final DataSource primary;
+    private final List<Replica> replicas;
+    private final long maxReplicationLagMs;
+    private final long readYourWritesWindowNanos;
+
+    private final AtomicInteger nextReplica = new AtomicInteger();
+    // Username -> System.nanoTime() until which their reads go to the primary
+    private final Map<String, Long> recentWriters = new ConcurrentHashMap<>();
+    private final Counter primaryConnections;
+
+    public ReplicaRoutingDataSource(DataSource primary, List<Replica> replicas, long maxReplicationLagMs,
+                                    long readYourWritesWindowMs, MeterRegistry meterRegistry) {
+        this.primary = primary;
+        this.replicas = replicas;
+        this.maxReplicationLagMs = maxReplicationLagMs;
+        this.readYourWritesWindowNanos = TimeUnit.MILLISECONDS.toNanos(readYourWritesWindowMs);
+
+        this.primaryConnections = connectionCounter(meterRegistry, "primary");
+        for (Replica replica : replicas) {
+            replica.connections = connectionCounter(meterRegistry, replica.name);
+            Gauge.builder("codywar.datasource.replica.healthy", replica, r -> r.healthy ? 1 : 0)
+                    .description("Whether the replica is in the read rotation")
+                    .tag("target", replica.name)
+                    .register(meterRegistry);
+        }
+        checkReplicas();
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        Replica replica = chooseReplica();
+        if (replica != null) {
+            try {
+                Connection connection = replica.dataSource.getConnection();
+                replica.connections.increment();
+                return connection;
+            } catch (SQLException e) {
+                markDown(replica, e.getMessage());
+            }
+        }
+
+        trackWriter();
+        primaryConnections.increment();
+        return primary.getConnection();
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        primaryConnections.increment();
+        return primary.getConnection(username, password);
+    }
+
+    /**
+     * Probe every replica: a valid connection and, where the database reports it, bounded lag
+     */
+    @Scheduled(fixedDelayString = "${datasource.routing.health-check-interval-ms:5000}")
+    public void checkReplicas() {
+        for (Replica replica : replicas) {
+            try (Connection connection = replica.dataSource.getConnection()) {
+                long lagMs = replicationLagMs(connection);
+                if (maxReplicationLagMs > 0 && lagMs > maxReplicationLagMs) {
+                    markDown(replica, "replication lag " + lagMs + " ms");
+                } else if (!replica.healthy) {
+                    replica.healthy = true;
+                    log.info("Replica {} is back in the read rotation", replica.name);
+                }
+            } catch (SQLException e) {
+                markDown(replica, e.getMessage());
+            }
+        }
+
+        long now = System.nanoTime();
+        recentWriters.values().removeIf(until -> until - now < 0);
+    }
+
+    @Override
+    public void close() {
+        for (Replica replica : replicas) {
+            replica.dataSource.close();
+        }
+    }
+
+    private Replica chooseReplica() {
+        if (replicas.isEmpty()
+                || !TransactionSynchronizationManager.isActualTransactionActive()
+                || !TransactionSynchronizationManager.isCurrentTransactionReadOnly()
+                || isRecentWriter()) {
+            return null;
+        }
+
+        int start = Math.floorMod(nextReplica.getAndIncrement(), replicas.size());
+        for (int i = 0; i < replicas.size(); i++) {
+            Replica replica = replicas.get((start + i) % replicas.size());
+            if (replica.healthy) {
+                return replica;
+            }
+        }
+        return null;
+    }
+
+    private boolean isRecentWriter() {
+        String user = currentUser();
+        if (user == null) {
+            return false;
+        }
+        Long until = recentWriters.get(user);
+        return until != null && until - System.nanoTime() > 0;
+    }
+
+    /**
+     * Start the read-your-writes window once the current write transaction commits
+     */
+    private void trackWriter() {
+        String user = currentUser();
+        if (user == null
+                || readYourWritesWindowNanos <= 0
+                || !TransactionSynchronizationManager.isSynchronizationActive()
+                || TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            return;
+        }
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                recentWriters.put(user, System.nanoTime() + readYourWritesWindowNanos);
+            }
+        });
+    }
+
+    private void markDown(Replica replica, String reason) {
+        if (replica.healthy) {
+            replica.healthy = false;
+            log.warn("Replica {} taken out of the read rotation: {}", replica.name, reason);
+        }
+    }
+
+    /**
+     * Zero where the database has no pg_last_xact_replay_timestamp() to ask
+     */
+    private static long replicationLagMs(Connection connection) {
+        try (Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery(REPLICATION_LAG_QUERY)) {
+            return resultSet.next() ? Math.max(0, resultSet.getLong(1)) : 0;
+        } catch (SQLException e) {
+            return 0;
+        }
+    }
+
+    private static String currentUser() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null || !authentication.isAuthenticated()
+                || authentication instanceof AnonymousAuthenticationToken) {
+            return null;
+        }
+        return authentication.getName();
+    }
+
+    private static Counter connectionCounter(MeterRegistry meterRegistry, String target) {
+        return Counter.builder("codywar.datasource.connections")
+                .description("Connections handed out per routing target")
+                .tag("target", target)
+                .register(meterRegistry);
+    }
+
+    public static class Replica {
+        private final String name;
+        private final HikariDataSource dataSource;
+        // Optimistic until the first probe; a failed getConnection also takes it out
+        private volatile boolean healthy = true;
+        private Counter connections;
+
+        public Replica(String name, HikariDataSource dataSource) {
+            this.name = name;
+            this.dataSource = dataSource;
+        }
+    }
+}
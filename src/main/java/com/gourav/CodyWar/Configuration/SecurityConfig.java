@@ -1,7 +1,13 @@
 package com.gourav.CodyWar.Configuration;
 
+import com.gourav.CodyWar.Cluster.ClusterRoutingFilter;
 import com.gourav.CodyWar.Security.JwtAuthenticationFilter;
+import com.gourav.CodyWar.Security.RateLimitFilter;
+import com.gourav.CodyWar.Security.TimedPasswordEncoder;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.DispatcherType;
 import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.autoconfigure.security.servlet.EndpointRequest;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.authentication.AuthenticationManager;
@@ -26,19 +32,28 @@ import org.springframework.security.web.authentication.UsernamePasswordAuthentic
 public class SecurityConfig {
 
     private final JwtAuthenticationFilter jwtAuthFilter;
+    private final RateLimitFilter rateLimitFilter;
+    private final ClusterRoutingFilter clusterRoutingFilter;
     private final UserDetailsService userDetailsService;
+    private final MeterRegistry meterRegistry;
 
     @Bean
     public SecurityFilterChain securityFilterChain(HttpSecurity http) throws Exception {
         http
                 .csrf(AbstractHttpConfigurer::disable)
                 .authorizeHttpRequests(auth -> auth
+                        // The request was authorized before it went async (event streams); the JWT filter skips redispatches
+                        .dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
                         .requestMatchers(
                                 "/api/auth/**",
                                 "/swagger-ui/**",
                                 "/v3/api-docs/**",
                                 "/error"
                         ).permitAll()
+                        // Matches on the management port only, which listens on loopback by default
+                        .requestMatchers(EndpointRequest.to("health", "prometheus")).permitAll()
+                        // Checked against the cluster secret by the controller
+                        .requestMatchers("/internal/cluster/**").permitAll()
                         .requestMatchers("/api/admin/**").hasRole("ADMIN")
                         .anyRequest().authenticated()
                 )
@@ -46,7 +61,10 @@ public class SecurityConfig {
                         .sessionCreationPolicy(SessionCreationPolicy.STATELESS)
                 )
                 .authenticationProvider(authenticationProvider())
-                .addFilterBefore(jwtAuthFilter, UsernamePasswordAuthenticationFilter.class);
+                .addFilterBefore(jwtAuthFilter, UsernamePasswordAuthenticationFilter.class)
+                .addFilterAfter(rateLimitFilter, JwtAuthenticationFilter.class)
+                // Requests for battles another node owns are forwarded before anything is checked here
+                .addFilterBefore(clusterRoutingFilter, JwtAuthenticationFilter.class);
 
         return http.build();
     }
@@ -66,6 +84,6 @@ public class SecurityConfig {
 
     @Bean
     public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+        return new TimedPasswordEncoder(new BCryptPasswordEncoder(), meterRegistry);
     }
 }
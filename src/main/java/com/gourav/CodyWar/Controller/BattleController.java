@@ -0,0 +1,96 @@
+package com.gourav.CodyWar.Controller;
+
+import com.gourav.CodyWar.Domain.Dto.BattleEventDto;
+import com.gourav.CodyWar.Domain.Dto.BattleRequestDto;
+import com.gourav.CodyWar.Domain.Dto.BattleResponseDto;
+import com.gourav.CodyWar.Security.CustomUserDetails;
+import com.gourav.CodyWar.Service.BattleService;
+import com.gourav.CodyWar.Service.BattleSpectatorHub;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.List;
+import java.util.UUID;
+
+@Slf4j
+@RestController
+@RequestMapping("/api/battles")
+@RequiredArgsConstructor
+@Validated
+public class BattleController {
+
+    private final BattleService battleService;
+    private final BattleSpectatorHub battleSpectatorHub;
+
+    @PostMapping
+    public ResponseEntity<BattleResponseDto> createBattle(
+            @Valid @RequestBody BattleRequestDto requestDto,
+            @AuthenticationPrincipal CustomUserDetails principal) {
+        log.debug("Creating battle for problem {}", requestDto.getProblemId());
+        BattleResponseDto battle = battleService.createBattle(requestDto, principal.getUser().getId());
+        return ResponseEntity.status(HttpStatus.CREATED).body(battle);
+    }
+
+    @GetMapping("/{id}")
+    public ResponseEntity<BattleResponseDto> getBattle(
+            @PathVariable UUID id,
+            @AuthenticationPrincipal CustomUserDetails principal) {
+        log.debug("Fetching battle with ID: {}", id);
+        return ResponseEntity.ok(battleService.getBattle(id, principal.getUser().getId()));
+    }
+
+    @PostMapping("/{id}/join")
+    public ResponseEntity<BattleResponseDto> joinBattle(
+            @PathVariable UUID id,
+            @AuthenticationPrincipal CustomUserDetails principal) {
+        return ResponseEntity.ok(battleService.joinBattle(id, principal.getUser().getId()));
+    }
+
+    @PostMapping("/rooms/{roomCode}/join")
+    public ResponseEntity<BattleResponseDto> joinByRoomCode(
+            @PathVariable String roomCode,
+            @AuthenticationPrincipal CustomUserDetails principal) {
+        return ResponseEntity.ok(battleService.joinByRoomCode(roomCode, principal.getUser().getId()));
+    }
+
+    @PostMapping("/{id}/ready")
+    public ResponseEntity<BattleResponseDto> markReady(
+            @PathVariable UUID id,
+            @AuthenticationPrincipal CustomUserDetails principal) {
+        return ResponseEntity.ok(battleService.markReady(id, principal.getUser().getId()));
+    }
+
+    @PostMapping("/{id}/leave")
+    public ResponseEntity<BattleResponseDto> leaveBattle(
+            @PathVariable UUID id,
+            @AuthenticationPrincipal CustomUserDetails principal) {
+        return ResponseEntity.ok(battleService.leaveBattle(id, principal.getUser().getId()));
+    }
+
+    @GetMapping("/{id}/timeline")
+    public ResponseEntity<List<BattleEventDto>> getTimeline(
+            @PathVariable UUID id,
+            @AuthenticationPrincipal CustomUserDetails principal) {
+        log.debug("Replaying timeline of battle {}", id);
+        return ResponseEntity.ok(battleService.getTimeline(id, principal.getUser().getId()));
+    }
+
+    /**
+     * Server-sent events: a snapshot of the live battle, then a delta for every change until it ends
+     */
+    @GetMapping(value = "/{id}/spectate", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter spectate(
+            @PathVariable UUID id,
+            @AuthenticationPrincipal CustomUserDetails principal) {
+        log.debug("Opening spectator stream for battle {}", id);
+        return battleSpectatorHub.subscribe(id, principal.getUser().getId());
+    }
+}
@@ -0,0 +1,36 @@
+package com.gourav.CodyWar.Controller;
+
+import com.gourav.CodyWar.Cluster.ClusterTransport;
+import com.gourav.CodyWar.Domain.Dto.BattleEventDto;
+import com.gourav.CodyWar.Service.BattleService;
+import jakarta.servlet.http.HttpServletRequest;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Endpoints the nodes of a cluster call on each other, authenticated by the shared cluster secret
+ */
+@RestController
+@RequestMapping("/internal/cluster")
+@RequiredArgsConstructor
+public class ClusterController {
+
+    private final ClusterTransport transport;
+    private final BattleService battleService;
+
+    @GetMapping("/battles/{id}/events")
+    public ResponseEntity<List<BattleEventDto>> getLocalEvents(@PathVariable UUID id, HttpServletRequest request) {
+        if (!transport.isTrusted(request)) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+        }
+        return ResponseEntity.ok(battleService.getLocalTimeline(id));
+    }
+}
@@ -0,0 +1,36 @@
+package com.gourav.CodyWar.Controller;
+
+import com.gourav.CodyWar.Domain.Dto.DrainReportDto;
+import com.gourav.CodyWar.Service.NodeDrainer;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * Drains the node that receives the request, ahead of stopping it; stopping drains it anyway
+ */
+@Slf4j
+@RestController
+@RequestMapping("/api/admin/drain")
+@RequiredArgsConstructor
+@PreAuthorize("hasRole('ADMIN')")
+public class DrainController {
+
+    private final NodeDrainer nodeDrainer;
+
+    @GetMapping
+    public ResponseEntity<DrainReportDto> getStatus() {
+        return ResponseEntity.ok(nodeDrainer.status());
+    }
+
+    @PostMapping
+    public ResponseEntity<DrainReportDto> drain() {
+        log.info("Drain requested");
+        return ResponseEntity.ok(nodeDrainer.drain());
+    }
+}
@@ -1,11 +1,18 @@
 package com.gourav.CodyWar.Controller;
 
+import com.gourav.CodyWar.Domain.Dto.ProblemImportResultDto;
 import com.gourav.CodyWar.Domain.Dto.ProblemRequestDto;
 import com.gourav.CodyWar.Domain.Dto.ProblemResponseDto;
+import com.gourav.CodyWar.Domain.Dto.ProblemSearchResponseDto;
+import com.gourav.CodyWar.Domain.Dto.TestCaseSampleDto;
+import com.gourav.CodyWar.Service.ProblemImportService;
+import com.gourav.CodyWar.Service.ProblemResponseCache;
 import com.gourav.CodyWar.Service.ProblemService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.validation.annotation.Validated;
@@ -13,6 +20,7 @@ import org.springframework.web.bind.annotation.*;
 
 import jakarta.validation.Valid;
 
+import java.io.InputStream;
 import java.util.List;
 import java.util.UUID;
 
@@ -24,37 +32,71 @@ import java.util.UUID;
 public class ProblemController {
 
     private final ProblemService problemService;
+    private final ProblemImportService problemImportService;
 
     @PostMapping
     @PreAuthorize("hasRole('ADMIN')")
     public ResponseEntity<ProblemResponseDto> createProblem(
             @Valid @RequestBody ProblemRequestDto requestDto) {
-        log.info("Creating new problem with title: {}", requestDto.getTitle());
+        log.debug("Creating new problem with title: {}", requestDto.getTitle());
         ProblemResponseDto createdProblem = problemService.createProblem(requestDto);
         return ResponseEntity.status(HttpStatus.CREATED).body(createdProblem);
     }
 
-    @GetMapping("/{id}")
-    public ResponseEntity<ProblemResponseDto> getProblemById(
-            @PathVariable UUID id) {
-        log.info("Fetching problem with ID: {}", id);
-        ProblemResponseDto problem = problemService.getProblemById(id);
-        return ResponseEntity.ok(problem);
+    @PostMapping(value = "/import", consumes = {"application/zip", MediaType.APPLICATION_OCTET_STREAM_VALUE})
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<ProblemImportResultDto> importProblems(InputStream archive) {
+        log.debug("Importing problem archive");
+        ProblemImportResultDto result = problemImportService.importArchive(archive);
+        return ResponseEntity.ok(result);
+    }
+
+    @GetMapping(value = "/{id}", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<byte[]> getProblemById(
+            @PathVariable UUID id,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        log.debug("Fetching problem with ID: {}", id);
+        ProblemResponseCache.CachedResponse problem = problemService.getSerializedProblem(id);
+
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        if (problem.getGzip() != null && acceptEncoding != null && acceptEncoding.contains("gzip")) {
+            return response.header(HttpHeaders.CONTENT_ENCODING, "gzip").body(problem.getGzip());
+        }
+        return response.body(problem.getJson());
+    }
+
+    @GetMapping("/{id}/samples")
+    public ResponseEntity<List<TestCaseSampleDto>> getSamples(@PathVariable UUID id) {
+        log.debug("Fetching samples for problem with ID: {}", id);
+        return ResponseEntity.ok(problemService.getSamples(id));
     }
 
     @GetMapping
     public ResponseEntity<List<ProblemResponseDto>> getAllProblems() {
-        log.info("Fetching all problems");
+        log.debug("Fetching all problems");
         List<ProblemResponseDto> problems = problemService.getAllProblems();
         return ResponseEntity.ok(problems);
     }
 
+    @GetMapping("/search")
+    public ResponseEntity<ProblemSearchResponseDto> searchProblems(
+            @RequestParam("q") String query,
+            @RequestParam(required = false) String difficulty,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "20") int size) {
+        log.debug("Searching problems for: {}", query);
+        ProblemSearchResponseDto results = problemService.searchProblems(query, difficulty, page, size);
+        return ResponseEntity.ok(results);
+    }
+
     @PutMapping("/{id}")
     @PreAuthorize("hasRole('ADMIN')")
     public ResponseEntity<ProblemResponseDto> updateProblem(
             @PathVariable UUID id,
             @Valid @RequestBody ProblemRequestDto requestDto) {
-        log.info("Updating problem with ID: {}", id);
+        log.debug("Updating problem with ID: {}", id);
         ProblemResponseDto updatedProblem = problemService.updateProblem(id, requestDto);
         return ResponseEntity.ok(updatedProblem);
     }
@@ -63,7 +105,7 @@ public class ProblemController {
     @PreAuthorize("hasRole('ADMIN')")
     public ResponseEntity<String> deleteProblem(
             @PathVariable UUID id) {
-        log.info("Deleting problem with ID: {}", id);
+        log.debug("Deleting problem with ID: {}", id);
         problemService.deleteProblem(id);
         return ResponseEntity.ok("Problem deleted successfully");
     }
@@ -0,0 +1,71 @@
+package com.gourav.CodyWar.Controller;
+
+import com.gourav.CodyWar.Domain.Dto.SubmissionPageDto;
+import com.gourav.CodyWar.Domain.Dto.SubmissionRequestDto;
+import com.gourav.CodyWar.Domain.Dto.SubmissionResponseDto;
+import com.gourav.CodyWar.Security.CustomUserDetails;
+import com.gourav.CodyWar.Service.SubmissionProgressHub;
+import com.gourav.CodyWar.Service.SubmissionService;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.UUID;
+
+@Slf4j
+@RestController
+@RequestMapping("/api/submissions")
+@RequiredArgsConstructor
+@Validated
+public class SubmissionController {
+
+    private final SubmissionService submissionService;
+    private final SubmissionProgressHub submissionProgressHub;
+
+    @PostMapping
+    public ResponseEntity<SubmissionResponseDto> createSubmission(
+            @Valid @RequestBody SubmissionRequestDto requestDto,
+            @AuthenticationPrincipal CustomUserDetails principal) {
+        log.debug("Submission from user {} in {}", principal.getUser().getId(), requestDto.getLanguage());
+        SubmissionResponseDto submission = submissionService.createSubmission(requestDto, principal.getUser().getId());
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(submission);
+    }
+
+    @GetMapping
+    public ResponseEntity<SubmissionPageDto> listSubmissions(
+            @RequestParam(required = false) UUID battleId,
+            @RequestParam(required = false) UUID problemId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size,
+            @AuthenticationPrincipal CustomUserDetails principal) {
+        log.debug("Listing submissions: battle={}, problem={}", battleId, problemId);
+        return ResponseEntity.ok(submissionService.listSubmissions(
+                principal.getUser().getId(), battleId, problemId, cursor, size));
+    }
+
+    @GetMapping("/{id}")
+    public ResponseEntity<SubmissionResponseDto> getSubmission(
+            @PathVariable UUID id,
+            @AuthenticationPrincipal CustomUserDetails principal) {
+        log.debug("Fetching submission with ID: {}", id);
+        return ResponseEntity.ok(submissionService.getSubmission(id, principal.getUser().getId()));
+    }
+
+    /**
+     * Server-sent events: progress while the submission is judged, then the verdict, then the stream closes
+     */
+    @GetMapping(value = "/{id}/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamSubmission(
+            @PathVariable UUID id,
+            @AuthenticationPrincipal CustomUserDetails principal) {
+        log.debug("Opening event stream for submission {}", id);
+        return submissionProgressHub.subscribe(id, principal.getUser().getId());
+    }
+}
@@ -0,0 +1,34 @@
+package com.gourav.CodyWar.Controller;
+
+import com.gourav.CodyWar.Domain.Dto.SubmissionStorageReportDto;
+import com.gourav.CodyWar.Service.SubmissionStorageMigrator;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+@Slf4j
+@RestController
+@RequestMapping("/api/admin/submissions/storage")
+@RequiredArgsConstructor
+@PreAuthorize("hasRole('ADMIN')")
+public class SubmissionStorageController {
+
+    private final SubmissionStorageMigrator submissionStorageMigrator;
+
+    @GetMapping
+    public ResponseEntity<SubmissionStorageReportDto> getReport() {
+        return ResponseEntity.ok(submissionStorageMigrator.report());
+    }
+
+    @PostMapping("/migrate")
+    public ResponseEntity<SubmissionStorageReportDto> startMigration() {
+        log.info("Starting submission storage migration");
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(submissionStorageMigrator.start());
+    }
+}
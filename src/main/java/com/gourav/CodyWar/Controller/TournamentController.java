@@ -0,0 +1,67 @@
+package com.gourav.CodyWar.Controller;
+
+import com.gourav.CodyWar.Domain.Dto.TournamentMatchDto;
+import com.gourav.CodyWar.Domain.Dto.TournamentRequestDto;
+import com.gourav.CodyWar.Domain.Dto.TournamentResponseDto;
+import com.gourav.CodyWar.Domain.Dto.TournamentStandingDto;
+import com.gourav.CodyWar.Security.CustomUserDetails;
+import com.gourav.CodyWar.Service.TournamentService;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+import java.util.UUID;
+
+@Slf4j
+@RestController
+@RequestMapping("/api/tournaments")
+@RequiredArgsConstructor
+@Validated
+public class TournamentController {
+
+    private final TournamentService tournamentService;
+
+    @PostMapping
+    public ResponseEntity<TournamentResponseDto> createTournament(
+            @Valid @RequestBody TournamentRequestDto requestDto,
+            @AuthenticationPrincipal CustomUserDetails principal) {
+        log.debug("Creating {} tournament {}", requestDto.getFormat(), requestDto.getName());
+        TournamentResponseDto tournament = tournamentService.createTournament(requestDto, principal.getUser().getId());
+        return ResponseEntity.status(HttpStatus.CREATED).body(tournament);
+    }
+
+    @GetMapping("/{id}")
+    public ResponseEntity<TournamentResponseDto> getTournament(@PathVariable UUID id) {
+        return ResponseEntity.ok(tournamentService.getTournament(id));
+    }
+
+    @PostMapping("/{id}/join")
+    public ResponseEntity<TournamentResponseDto> joinTournament(
+            @PathVariable UUID id,
+            @AuthenticationPrincipal CustomUserDetails principal) {
+        return ResponseEntity.ok(tournamentService.joinTournament(id, principal.getUser().getId()));
+    }
+
+    @PostMapping("/{id}/start")
+    public ResponseEntity<TournamentResponseDto> startTournament(
+            @PathVariable UUID id,
+            @AuthenticationPrincipal CustomUserDetails principal) {
+        return ResponseEntity.ok(tournamentService.startTournament(id, principal.getUser().getId()));
+    }
+
+    @GetMapping("/{id}/standings")
+    public ResponseEntity<List<TournamentStandingDto>> getStandings(@PathVariable UUID id) {
+        return ResponseEntity.ok(tournamentService.getStandings(id));
+    }
+
+    @GetMapping("/{id}/rounds/{round}")
+    public ResponseEntity<List<TournamentMatchDto>> getRound(@PathVariable UUID id, @PathVariable int round) {
+        return ResponseEntity.ok(tournamentService.getRound(id, round));
+    }
+}
@@ -0,0 +1,26 @@
+package com.gourav.CodyWar.Domain.Dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+import java.util.UUID;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class BattleEventDto {
+
+    private long sequence;
+    private String type;
+    private UUID userId;
+    private UUID submissionId;
+    private String status;
+    private int value;
+    private Instant occurredAt;
+}
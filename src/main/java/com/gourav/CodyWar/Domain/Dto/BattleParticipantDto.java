@@ -0,0 +1,21 @@
+package com.gourav.CodyWar.Domain.Dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.UUID;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BattleParticipantDto {
+
+    private UUID userId;
+    private String username;
+    private boolean ready;
+    private boolean submitted;
+    private int score;
+}
@@ -0,0 +1,32 @@
+package com.gourav.CodyWar.Domain.Dto;
+
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.UUID;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BattleRequestDto {
+
+    // Left out to be matched with a problem rated near the creator's rating
+    private UUID problemId;
+
+    @Min(value = 2, message = "A battle needs at least 2 participants")
+    @Max(value = 10, message = "A battle can have at most 10 participants")
+    @Builder.Default
+    private int maxParticipants = 2;
+
+    @Min(value = 60, message = "Duration must be at least 60 seconds")
+    @Max(value = 7200, message = "Duration must be at most 7200 seconds")
+    @Builder.Default
+    private int durationSeconds = 1800;
+
+    private boolean isPrivate;
+}
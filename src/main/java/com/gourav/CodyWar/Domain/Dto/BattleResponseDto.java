@@ -0,0 +1,33 @@
+package com.gourav.CodyWar.Domain.Dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class BattleResponseDto {
+
+    private UUID id;
+    private String roomCode;
+    private UUID problemId;
+    private String status;
+    private int maxParticipants;
+    private int durationSeconds;
+    private boolean isPrivate;
+    private UUID winnerId;
+    private boolean winnerSuspected;
+    private List<BattleParticipantDto> participants;
+    private Instant createdAt;
+    private Instant startedAt;
+    private Instant finishedAt;
+}
@@ -0,0 +1,15 @@
+package com.gourav.CodyWar.Domain.Dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.UUID;
+
+// Room code held by a battle, read when the room code pool is rebuilt
+@Getter
+@AllArgsConstructor
+public class BattleRoomCode {
+
+    private final UUID battleId;
+    private final String roomCode;
+}
@@ -0,0 +1,29 @@
+package com.gourav.CodyWar.Domain.Dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class DrainReportDto {
+
+    private boolean drained;
+    private Instant startedAt;
+    private Instant finishedAt;
+    private Long durationMs;
+
+    private Integer queuedSubmissions;     // Dropped from the judge queue, still PENDING
+    private Integer finishedJudgments;     // Running at the start and finished in time
+    private Integer requeuedJudgments;     // Running at the start, interrupted and back to PENDING
+    private Integer liveBattles;           // Left on disk in the event log for the restart or a peer
+    private Boolean eventLogFlushed;
+    private Boolean leftCluster;
+}
@@ -0,0 +1,21 @@
+package com.gourav.CodyWar.Domain.Dto;
+
+import com.gourav.CodyWar.Domain.Entity.SubmissionStatus;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class JudgeResult {
+
+    private SubmissionStatus status;
+    private Integer executionTimeMs;
+    private Integer memoryUsedKb;
+    private Integer testCasesPassed;
+    private Integer totalTestCases;
+    private String errorMessage;
+}
@@ -0,0 +1,17 @@
+package com.gourav.CodyWar.Domain.Dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.UUID;
+
+// Test case as read by the judge, one keyset page at a time
+@Getter
+@AllArgsConstructor
+public class JudgeTestCase {
+
+    private final UUID id;
+    private final int orderIndex;
+    private final String input;
+    private final String expectedOutput;
+}
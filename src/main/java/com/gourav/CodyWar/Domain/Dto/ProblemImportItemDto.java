@@ -0,0 +1,24 @@
+package com.gourav.CodyWar.Domain.Dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.UUID;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class ProblemImportItemDto {
+
+    private String source;  // Top-level directory of the problem inside the archive
+    private UUID problemId;
+    private String title;
+    private boolean imported;
+    private int testCasesImported;
+    private String error;
+}
@@ -0,0 +1,23 @@
+package com.gourav.CodyWar.Domain.Dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProblemImportResultDto {
+
+    private int importedProblems;
+    private int failedProblems;
+    private long importedTestCases;
+
+    @Builder.Default
+    private List<ProblemImportItemDto> items = new ArrayList<>();
+}
@@ -0,0 +1,16 @@
+package com.gourav.CodyWar.Domain.Dto;
+
+import com.gourav.CodyWar.Domain.Entity.Difficulty;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.UUID;
+
+// A problem's hand-set difficulty, read when difficulty calibration starts
+@Getter
+@AllArgsConstructor
+public class ProblemLevel {
+
+    private final UUID problemId;
+    private final Difficulty difficulty;
+}
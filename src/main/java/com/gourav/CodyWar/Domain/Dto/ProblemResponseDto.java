@@ -55,4 +55,15 @@ public class ProblemResponseDto {
 
     @JsonProperty("acceptanceRate")
     private Double acceptanceRate;
+
+    // Rating at which a solver is expected to solve it half the time, calibrated from verdicts
+    @JsonProperty("difficultyScore")
+    private Integer difficultyScore;
+
+    // Set once enough verdicts have been seen to trust the score
+    @JsonProperty("calibratedDifficulty")
+    private String calibratedDifficulty;
+
+    @JsonProperty("averageSolveSeconds")
+    private Long averageSolveSeconds;
 }
\ No newline at end of file
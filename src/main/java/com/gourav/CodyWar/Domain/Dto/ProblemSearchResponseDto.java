@@ -0,0 +1,21 @@
+package com.gourav.CodyWar.Domain.Dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProblemSearchResponseDto {
+
+    private String query;
+    private int page;
+    private int size;
+    private long totalResults;
+    private List<ProblemSearchResultDto> results;
+}
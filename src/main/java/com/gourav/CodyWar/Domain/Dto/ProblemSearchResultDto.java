@@ -0,0 +1,21 @@
+package com.gourav.CodyWar.Domain.Dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.UUID;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProblemSearchResultDto {
+
+    private UUID id;
+    private String title;
+    private String difficulty;
+    private double score;
+    private String snippet;  // HTML-escaped excerpt with matches wrapped in <mark>
+}
@@ -0,0 +1,28 @@
+package com.gourav.CodyWar.Domain.Dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+import java.util.UUID;
+
+// One change to a spectated battle, applied in frame order on top of the snapshot
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class SpectatorDeltaDto {
+
+    private long frame;
+    private String type;        // Battle event type: JOINED, LEFT, READY, STARTED, SUBMITTED, VERDICT, FINISHED, CANCELLED
+    private UUID userId;
+    private String username;    // JOINED
+    private String verdict;     // VERDICT
+    private Integer score;      // VERDICT, the participant's best score so far
+    private Instant deadline;   // STARTED
+    private Instant occurredAt;
+}
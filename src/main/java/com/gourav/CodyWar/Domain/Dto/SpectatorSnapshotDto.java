@@ -0,0 +1,40 @@
+package com.gourav.CodyWar.Domain.Dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+// Full state of a live battle as of a frame, shared by every spectator of the battle
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class SpectatorSnapshotDto {
+
+    private UUID battleId;
+    private long frame;  // Deltas with a higher frame number apply on top of this
+    private String status;
+    private Instant startedAt;
+    private Instant deadline;
+    private List<Participant> participants;
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    public static class Participant {
+        private UUID userId;
+        private String username;
+        private boolean ready;
+        private boolean submitted;
+        private int score;
+    }
+}
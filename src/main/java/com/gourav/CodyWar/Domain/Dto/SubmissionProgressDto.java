@@ -0,0 +1,26 @@
+package com.gourav.CodyWar.Domain.Dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.gourav.CodyWar.Domain.Entity.SubmissionStatus;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.UUID;
+
+// Pushed on a submission's event stream while it is judged and once more with the verdict
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class SubmissionProgressDto {
+
+    private UUID submissionId;
+    private SubmissionStatus status;
+    private Integer testCasesPassed;
+    private Integer totalTestCases;
+    private Integer executionTimeMs;
+    private Integer memoryUsedKb;
+}
@@ -0,0 +1,31 @@
+package com.gourav.CodyWar.Domain.Dto;
+
+import com.gourav.CodyWar.Domain.Entity.Language;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.UUID;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class SubmissionRequestDto {
+
+    // Required for practice; inside a battle the battle's problem is used
+    private UUID problemId;
+
+    private UUID battleId;
+
+    @NotNull(message = "Language is required")
+    private Language language;
+
+    @NotBlank(message = "Code is required")
+    @Size(max = 65536, message = "Code must be at most 65536 characters")
+    private String code;
+}
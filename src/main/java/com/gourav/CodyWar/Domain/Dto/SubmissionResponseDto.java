@@ -0,0 +1,32 @@
+package com.gourav.CodyWar.Domain.Dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+import java.util.UUID;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class SubmissionResponseDto {
+
+    private UUID id;
+    private UUID problemId;
+    private UUID battleId;
+    private String language;
+    private String status;
+    private Integer executionTimeMs;
+    private Integer memoryUsedKb;
+    private Integer testCasesPassed;
+    private Integer totalTestCases;
+    private String errorMessage;
+    private String code;  // Only on the detail fetch
+    private Instant submittedAt;
+    private Instant judgedAt;
+}
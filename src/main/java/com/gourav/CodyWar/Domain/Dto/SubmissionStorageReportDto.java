@@ -0,0 +1,31 @@
+package com.gourav.CodyWar.Domain.Dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class SubmissionStorageReportDto {
+
+    private boolean compressedWrites;
+    private long plainBytes;            // Still in the code/error_message TEXT columns
+    private long contentRows;
+    private long storedBytes;           // Compressed, deduplicated bytes in submission_contents
+    private long referencedBytes;       // What those submissions would take as uncompressed copies
+    private long savedBytes;
+    private double savedPercent;
+
+    private boolean migrationRunning;
+    private long migratedSubmissions;   // By the current or last migration run
+    private Instant migrationStartedAt;
+    private Instant migrationFinishedAt;
+    private String migrationError;
+}
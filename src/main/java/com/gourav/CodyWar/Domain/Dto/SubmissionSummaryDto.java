@@ -0,0 +1,34 @@
+package com.gourav.CodyWar.Domain.Dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.gourav.CodyWar.Domain.Entity.Language;
+import com.gourav.CodyWar.Domain.Entity.SubmissionStatus;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+import java.util.UUID;
+
+// One row of a submission list; code and error output are only returned by the detail fetch
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class SubmissionSummaryDto {
+
+    private UUID id;
+    private UUID problemId;
+    private UUID battleId;
+    private UUID userId;
+    private Language language;
+    private SubmissionStatus status;
+    private Integer executionTimeMs;
+    private Integer memoryUsedKb;
+    private Integer testCasesPassed;
+    private Integer totalTestCases;
+    private Instant submittedAt;
+    private Instant judgedAt;
+}
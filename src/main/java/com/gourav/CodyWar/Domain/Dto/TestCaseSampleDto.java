@@ -0,0 +1,18 @@
+package com.gourav.CodyWar.Domain.Dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// Visible sample case shown to players; hidden cases never leave the judge
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class TestCaseSampleDto {
+
+    private int orderIndex;
+    private String input;
+    private String expectedOutput;
+}
@@ -0,0 +1,27 @@
+package com.gourav.CodyWar.Domain.Dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+import java.util.UUID;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class TournamentMatchDto {
+
+    private int round;
+    private int slot;
+    private UUID battleId;      // Absent for a bye
+    private UUID playerOneId;
+    private UUID playerTwoId;   // Absent for a bye
+    private UUID winnerId;
+    private boolean finished;
+    private Instant finishedAt;
+}
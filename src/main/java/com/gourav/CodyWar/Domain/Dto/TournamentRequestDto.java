@@ -0,0 +1,46 @@
+package com.gourav.CodyWar.Domain.Dto;
+
+import com.gourav.CodyWar.Domain.Entity.TournamentFormat;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.UUID;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class TournamentRequestDto {
+
+    @NotBlank(message = "Name is required")
+    @Size(max = 255, message = "Name must be at most 255 characters")
+    private String name;
+
+    @NotNull(message = "Format is required")
+    private TournamentFormat format;
+
+    // Left out to pick a problem for each round, rated near its players
+    private UUID problemId;
+
+    @Min(value = 2, message = "A tournament needs at least 2 players")
+    @Max(value = 4096, message = "A tournament can have at most 4096 players")
+    @Builder.Default
+    private int maxPlayers = 64;
+
+    @Min(value = 60, message = "Duration must be at least 60 seconds")
+    @Max(value = 7200, message = "Duration must be at most 7200 seconds")
+    @Builder.Default
+    private int durationSeconds = 1800;
+
+    // Swiss only; left out for as many rounds as a bracket of the same field would take
+    @Min(value = 1, message = "A tournament needs at least 1 round")
+    @Max(value = 32, message = "A tournament can have at most 32 rounds")
+    private Integer rounds;
+}
@@ -0,0 +1,34 @@
+package com.gourav.CodyWar.Domain.Dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+import java.util.UUID;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class TournamentResponseDto {
+
+    private UUID id;
+    private String name;
+    private String format;
+    private String status;
+    private UUID problemId;
+    private UUID createdBy;
+    private int maxPlayers;
+    private int players;
+    private int durationSeconds;
+    private int totalRounds;
+    private int currentRound;
+    private UUID winnerId;
+    private Instant createdAt;
+    private Instant startedAt;
+    private Instant finishedAt;
+}
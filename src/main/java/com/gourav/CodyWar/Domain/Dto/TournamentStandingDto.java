@@ -0,0 +1,22 @@
+package com.gourav.CodyWar.Domain.Dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.UUID;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class TournamentStandingDto {
+
+    private int rank;
+    private UUID userId;
+    private String username;
+    private int seed;
+    private int points;
+    private boolean eliminated;
+}
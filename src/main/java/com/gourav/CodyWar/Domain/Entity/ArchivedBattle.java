@@ -0,0 +1,52 @@
+package com.gourav.CodyWar.Domain.Entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.annotations.Immutable;
+
+import java.time.Instant;
+import java.util.UUID;
+
+// A finished battle moved out of the battles table by the archiver; read-only
+@Entity
+@Immutable
+@Table(name = "archived_battles")
+@Getter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ArchivedBattle {
+
+    @Id
+    private UUID id;
+
+    private String roomCode;
+
+    @Column(nullable = false)
+    private UUID problemId;
+
+    private UUID winnerId;
+
+    @Column(nullable = false)
+    private boolean winnerSuspected;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private BattleStatus status;
+
+    @Column(nullable = false)
+    private int maxParticipants;
+
+    @Column(nullable = false)
+    private int durationSeconds;
+
+    @Column(nullable = false)
+    private boolean isPrivate;
+
+    @Column(nullable = false)
+    private Instant createdAt;
+
+    private Instant startedAt;
+
+    private Instant finishedAt;
+}
@@ -0,0 +1,40 @@
+package com.gourav.CodyWar.Domain.Entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.annotations.Immutable;
+
+import java.time.Instant;
+import java.util.UUID;
+
+@Entity
+@Immutable
+@Table(name = "archived_battle_participants", indexes = {
+    @Index(name = "idx_archived_battle_participants_battle", columnList = "battle_id")
+})
+@Getter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ArchivedBattleParticipant {
+
+    @Id
+    private UUID id;
+
+    @Column(nullable = false)
+    private UUID battleId;
+
+    @Column(nullable = false)
+    private UUID userId;
+
+    @Column(nullable = false)
+    private boolean isReady;
+
+    @Column(nullable = false)
+    private boolean hasSubmitted;
+
+    @Column(nullable = false)
+    private int score;
+
+    private Instant joinedAt;
+}
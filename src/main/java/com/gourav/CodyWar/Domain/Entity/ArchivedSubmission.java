@@ -0,0 +1,65 @@
+package com.gourav.CodyWar.Domain.Entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.annotations.Immutable;
+
+import java.time.Instant;
+import java.util.UUID;
+
+// A submission moved out of the submissions table by the archiver; read-only
+@Entity
+@Immutable
+@Table(name = "archived_submissions", indexes = {
+    @Index(name = "idx_archived_submissions_user_submitted", columnList = "user_id, submitted_at, id"),
+    @Index(name = "idx_archived_submissions_battle_submitted", columnList = "battle_id, submitted_at, id"),
+    @Index(name = "idx_archived_submissions_problem_submitted", columnList = "problem_id, submitted_at, id")
+})
+@Getter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ArchivedSubmission {
+
+    @Id
+    private UUID id;
+
+    private UUID battleId;
+
+    @Column(nullable = false)
+    private UUID problemId;
+
+    @Column(nullable = false)
+    private UUID userId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private Language language;
+
+    @Column(columnDefinition = "TEXT")
+    private String code;
+
+    private UUID codeContentId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private SubmissionStatus status;
+
+    private Integer executionTimeMs;
+
+    private Integer memoryUsedKb;
+
+    private Integer testCasesPassed;
+
+    private Integer totalTestCases;
+
+    @Column(columnDefinition = "TEXT")
+    private String errorMessage;
+
+    private UUID errorContentId;
+
+    @Column(nullable = false)
+    private Instant submittedAt;
+
+    private Instant judgedAt;
+}
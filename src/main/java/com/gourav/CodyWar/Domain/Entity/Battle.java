@@ -17,8 +17,8 @@ import java.util.UUID;
 @Builder
 public class Battle {
 
+    // Assigned by the battle router so the node creating a battle is also its owner
     @Id
-    @GeneratedValue(strategy = GenerationType.UUID)
     private UUID id;
 
     @Column(unique = true)
@@ -53,6 +53,10 @@ public class Battle {
     @JoinColumn(name = "winner_id")
     private User winner;
 
+    @Column(nullable = false)
+    @Builder.Default
+    private boolean winnerSuspected = false;  // The winner's solution matched another user's
+
     @OneToMany(mappedBy = "battle", cascade = CascadeType.ALL, orphanRemoval = true)
     @Builder.Default
     private Set<Submission> submissions = new HashSet<>();
@@ -0,0 +1,6 @@
+package com.gourav.CodyWar.Domain.Entity;
+
+public enum ContentEncoding {
+    RAW,
+    DEFLATE
+}
@@ -0,0 +1,8 @@
+package com.gourav.CodyWar.Domain.Entity;
+
+public enum JudgeStage {
+    QUEUE,
+    COMPILE,
+    RUN,
+    COMPARE
+}
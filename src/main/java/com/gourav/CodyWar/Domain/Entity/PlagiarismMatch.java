@@ -0,0 +1,45 @@
+package com.gourav.CodyWar.Domain.Entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.Instant;
+import java.util.UUID;
+
+// An accepted submission found to be a near-duplicate of an earlier one by another user
+@Entity
+@Table(name = "plagiarism_matches")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class PlagiarismMatch {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.UUID)
+    private UUID id;
+
+    @Column(nullable = false)
+    private UUID submissionId;
+
+    @Column(nullable = false)
+    private UUID matchedSubmissionId;
+
+    @Column(nullable = false)
+    private UUID problemId;
+
+    private UUID battleId;  // Null for practice submissions
+
+    @Column(nullable = false)
+    private UUID userId;
+
+    @Column(nullable = false)
+    private UUID matchedUserId;
+
+    @Column(nullable = false)
+    private double similarity;  // Share of the smaller submission's fingerprints found in the other
+
+    @Column(nullable = false, updatable = false)
+    private Instant createdAt;
+}
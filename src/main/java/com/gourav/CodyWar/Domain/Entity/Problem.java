@@ -52,6 +52,10 @@ public class Problem {
     @Builder.Default
     private Set<TestCase> testCases = new HashSet<>();
 
+    @Column(nullable = false)
+    @Builder.Default
+    private int testSetVersion = 0;  // Incremented whenever test cases are added or removed
+
     @OneToMany(mappedBy = "problem")
     @Builder.Default
     private Set<Battle> battles = new HashSet<>();
@@ -59,9 +63,16 @@ public class Problem {
     @Column(nullable = false, updatable = false)
     private Instant createdAt;
 
+    private Instant updatedAt;
+
     @PrePersist
     protected void onCreate() {
         createdAt = Instant.now();
     }
+
+    @PreUpdate
+    protected void onUpdate() {
+        updatedAt = Instant.now();
+    }
 }
 
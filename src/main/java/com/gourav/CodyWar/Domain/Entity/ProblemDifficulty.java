@@ -0,0 +1,35 @@
+package com.gourav.CodyWar.Domain.Entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.Instant;
+import java.util.UUID;
+
+@Entity
+@Table(name = "problem_difficulty")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ProblemDifficulty {
+
+    @Id
+    @Column(name = "problem_id")
+    private UUID problemId;
+
+    @Column(nullable = false)
+    private double ratingDelta;  // Calibrated rating minus the starting rating of the problem's difficulty
+
+    @Column(nullable = false)
+    private long samples;  // Verdicts that moved the rating
+
+    @Column(nullable = false)
+    private long solves;  // Accepted battle submissions, timed from the battle start
+
+    @Column(nullable = false)
+    private double solveSecondsSum;
+
+    private Instant updatedAt;
+}
@@ -0,0 +1,29 @@
+package com.gourav.CodyWar.Domain.Entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.Instant;
+import java.util.UUID;
+
+@Entity
+@Table(name = "problem_stats")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ProblemStats {
+
+    @Id
+    @Column(name = "problem_id")
+    private UUID problemId;
+
+    @Column(nullable = false)
+    private long totalSubmissions;
+
+    @Column(nullable = false)
+    private long acceptedSubmissions;
+
+    private Instant updatedAt;
+}
@@ -7,7 +7,11 @@ import java.time.Instant;
 import java.util.UUID;
 
 @Entity
-@Table(name = "submissions")
+@Table(name = "submissions", indexes = {
+    @Index(name = "idx_submissions_user_submitted", columnList = "user_id, submitted_at, id"),
+    @Index(name = "idx_submissions_battle_submitted", columnList = "battle_id, submitted_at, id"),
+    @Index(name = "idx_submissions_problem_submitted", columnList = "problem_id, submitted_at, id")
+})
 @Getter
 @Setter
 @NoArgsConstructor
@@ -20,8 +24,12 @@ public class Submission {
     private UUID id;
 
     @ManyToOne(fetch = FetchType.LAZY)
-    @JoinColumn(name = "battle_id", nullable = false)
-    private Battle battle;
+    @JoinColumn(name = "battle_id")
+    private Battle battle;  // Null for practice submissions
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "problem_id", nullable = false)
+    private Problem problem;
 
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "user_id", nullable = false)
@@ -31,8 +39,12 @@ public class Submission {
     @Column(nullable = false)
     private Language language;
 
-    @Column(nullable = false, columnDefinition = "TEXT")
-    private String code;
+    @Column(columnDefinition = "TEXT")
+    private String code;  // Plain storage; null once stored in codeContent
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "code_content_id")
+    private SubmissionContent codeContent;
 
     @Enumerated(EnumType.STRING)
     @Column(nullable = false)
@@ -48,13 +60,19 @@ public class Submission {
     private Integer totalTestCases;
 
     @Column(columnDefinition = "TEXT")
-    private String errorMessage;  // Compilation/runtime error message
+    private String errorMessage;  // Compilation/runtime error message, plain storage
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "error_content_id")
+    private SubmissionContent errorContent;
 
     @Column(nullable = false, updatable = false)
     private Instant submittedAt;
 
     private Instant judgedAt;
 
+    private String judgeNode;  // Cluster node it is queued on or claimed by for judging
+
     @PrePersist
     protected void onCreate() {
         submittedAt = Instant.now();
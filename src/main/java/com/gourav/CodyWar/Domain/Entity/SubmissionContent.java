@@ -0,0 +1,34 @@
+package com.gourav.CodyWar.Domain.Entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.Instant;
+import java.util.UUID;
+
+// Source code or judge output, shared by every submission with the same text
+@Entity
+@Table(name = "submission_contents")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class SubmissionContent {
+
+    @Id
+    private UUID id;  // First 128 bits of the SHA-256 of the UTF-8 text
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private ContentEncoding encoding;
+
+    @Column(nullable = false)
+    private int originalBytes;
+
+    @Column(nullable = false)
+    private byte[] data;
+
+    @Column(nullable = false, updatable = false)
+    private Instant createdAt;
+}
@@ -0,0 +1,37 @@
+package com.gourav.CodyWar.Domain.Entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.Instant;
+import java.util.UUID;
+
+// Winnowed fingerprints of an accepted submission, for the plagiarism index
+@Entity
+@Table(name = "submission_fingerprints")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class SubmissionFingerprint {
+
+    @Id
+    private UUID submissionId;
+
+    @Column(nullable = false)
+    private UUID problemId;
+
+    @Column(nullable = false)
+    private UUID userId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private Language language;
+
+    @Column(nullable = false)
+    private byte[] fingerprints;  // Sorted distinct 32 bit hashes, big-endian
+
+    @Column(nullable = false, updatable = false)
+    private Instant createdAt;
+}
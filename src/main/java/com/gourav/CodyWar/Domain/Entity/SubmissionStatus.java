@@ -8,6 +8,10 @@ public enum SubmissionStatus {
     TIME_LIMIT_EXCEEDED,
     MEMORY_LIMIT_EXCEEDED,
     RUNTIME_ERROR,
-    COMPILATION_ERROR
+    COMPILATION_ERROR;
+
+    public boolean isFinal() {
+        return this != PENDING && this != RUNNING;
+    }
 }
 
@@ -6,7 +6,9 @@ import lombok.*;
 import java.util.UUID;
 
 @Entity
-@Table(name = "test_cases")
+@Table(name = "test_cases", indexes = {
+    @Index(name = "idx_test_cases_problem_hidden_order", columnList = "problem_id, is_hidden, order_index")
+})
 @Getter
 @Setter
 @NoArgsConstructor
@@ -0,0 +1,68 @@
+package com.gourav.CodyWar.Domain.Entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.Instant;
+import java.util.UUID;
+
+@Entity
+@Table(name = "tournaments")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class Tournament {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.UUID)
+    private UUID id;
+
+    @Column(nullable = false)
+    private String name;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private TournamentFormat format;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    @Builder.Default
+    private TournamentStatus status = TournamentStatus.REGISTERING;
+
+    private UUID problemId;  // Every round's problem; null to pick one per round by the players' rating
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "created_by", nullable = false)
+    private User createdBy;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "winner_id")
+    private User winner;
+
+    @Column(nullable = false)
+    private int maxPlayers;
+
+    @Column(nullable = false)
+    private int durationSeconds;  // Of each round's battles
+
+    @Column(nullable = false)
+    private int totalRounds;  // Fixed when the tournament starts; requested up front for Swiss
+
+    @Column(nullable = false)
+    @Builder.Default
+    private int currentRound = 0;
+
+    @Column(nullable = false, updatable = false)
+    private Instant createdAt;
+
+    private Instant startedAt;
+
+    private Instant finishedAt;
+
+    @PrePersist
+    protected void onCreate() {
+        createdAt = Instant.now();
+    }
+}
@@ -0,0 +1,6 @@
+package com.gourav.CodyWar.Domain.Entity;
+
+public enum TournamentFormat {
+    SINGLE_ELIMINATION,  // Losers are out; the bracket halves every round
+    SWISS                // Everyone plays every round against players on the same points
+}
@@ -0,0 +1,50 @@
+package com.gourav.CodyWar.Domain.Entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.Instant;
+import java.util.UUID;
+
+// One pairing of a tournament round, played as a battle; a bye has no second player and no battle
+@Entity
+@Table(name = "tournament_matches")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class TournamentMatch {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.UUID)
+    private UUID id;
+
+    @Column(nullable = false)
+    private UUID tournamentId;
+
+    @Column(nullable = false)
+    private int round;
+
+    @Column(nullable = false)
+    private int slot;  // Position in the round; in a bracket, slots 2i and 2i + 1 feed slot i of the next round
+
+    @Column(unique = true)
+    private UUID battleId;
+
+    @Column(nullable = false)
+    private UUID playerOneId;
+
+    private UUID playerTwoId;
+
+    private UUID winnerId;  // Null for a Swiss draw
+
+    @Column(nullable = false)
+    @Builder.Default
+    private boolean finished = false;
+
+    @Column(nullable = false)
+    private Instant createdAt;
+
+    private Instant finishedAt;
+}
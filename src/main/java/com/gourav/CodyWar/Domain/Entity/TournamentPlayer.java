@@ -0,0 +1,50 @@
+package com.gourav.CodyWar.Domain.Entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.Instant;
+import java.util.UUID;
+
+@Entity
+@Table(name = "tournament_players", uniqueConstraints = {
+    @UniqueConstraint(columnNames = {"tournament_id", "user_id"})
+})
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class TournamentPlayer {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.UUID)
+    private UUID id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "tournament_id", nullable = false)
+    private Tournament tournament;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "user_id", nullable = false)
+    private User user;
+
+    @Column(nullable = false)
+    @Builder.Default
+    private int seed = 0;  // 1 is the highest rated; assigned when the tournament starts
+
+    @Column(nullable = false)
+    @Builder.Default
+    private int points = 0;  // 2 for a win or a bye, 1 for a draw
+
+    @Column(nullable = false)
+    @Builder.Default
+    private boolean eliminated = false;
+
+    private Instant joinedAt;
+
+    @PrePersist
+    protected void onCreate() {
+        joinedAt = Instant.now();
+    }
+}
@@ -0,0 +1,7 @@
+package com.gourav.CodyWar.Domain.Entity;
+
+public enum TournamentStatus {
+    REGISTERING,
+    IN_PROGRESS,
+    COMPLETED
+}
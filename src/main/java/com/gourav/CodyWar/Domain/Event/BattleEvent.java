@@ -0,0 +1,24 @@
+package com.gourav.CodyWar.Domain.Event;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+
+import java.time.Instant;
+import java.util.UUID;
+
+// One entry of a battle's timeline, as stored in the battle event log
+@Getter
+@Builder(toBuilder = true)
+@AllArgsConstructor
+public class BattleEvent {
+
+    private final long sequence;        // Assigned by the log when the event is written
+    private final BattleEventType type;
+    private final UUID battleId;
+    private final UUID userId;          // Participant concerned; the winner for FINISHED
+    private final UUID submissionId;    // SUBMITTED and VERDICT
+    private final String status;        // Verdict for VERDICT
+    private final int value;            // Score for VERDICT, duration in seconds for STARTED
+    private final Instant occurredAt;
+}
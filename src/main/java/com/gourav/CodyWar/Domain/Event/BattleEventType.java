@@ -0,0 +1,18 @@
+package com.gourav.CodyWar.Domain.Event;
+
+// Stored by ordinal in the battle event log: only append new types at the end
+public enum BattleEventType {
+    CREATED,
+    JOINED,
+    LEFT,
+    READY,
+    STARTED,
+    SUBMITTED,
+    VERDICT,
+    FINISHED,
+    CANCELLED;
+
+    public boolean isTerminal() {
+        return this == FINISHED || this == CANCELLED;
+    }
+}
@@ -0,0 +1,17 @@
+package com.gourav.CodyWar.Domain.Event;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.time.Instant;
+import java.util.UUID;
+
+// Published when a battle is marked completed, in the transaction that does so
+@Getter
+@AllArgsConstructor
+public class BattleFinishedEvent {
+
+    private final UUID battleId;
+    private final UUID winnerId;  // Null for a draw
+    private final Instant finishedAt;
+}
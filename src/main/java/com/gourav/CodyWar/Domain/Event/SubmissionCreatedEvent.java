@@ -0,0 +1,23 @@
+package com.gourav.CodyWar.Domain.Event;
+
+import com.gourav.CodyWar.Domain.Entity.Language;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+
+import java.time.Instant;
+import java.util.UUID;
+
+// Published when a submission is stored as PENDING; the judge picks it up after commit
+@Getter
+@Builder
+@AllArgsConstructor
+public class SubmissionCreatedEvent {
+
+    private final UUID submissionId;
+    private final UUID problemId;
+    private final UUID battleId;  // Null for practice submissions
+    private final UUID userId;
+    private final Language language;
+    private final Instant submittedAt;
+}
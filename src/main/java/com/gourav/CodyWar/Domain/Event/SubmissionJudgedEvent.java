@@ -0,0 +1,33 @@
+package com.gourav.CodyWar.Domain.Event;
+
+import com.gourav.CodyWar.Domain.Entity.Language;
+import com.gourav.CodyWar.Domain.Entity.SubmissionStatus;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+
+import java.time.Instant;
+import java.util.UUID;
+
+// Published once a final verdict has been written to a submission
+@Getter
+@Builder
+@AllArgsConstructor
+public class SubmissionJudgedEvent {
+
+    private final UUID submissionId;
+    private final UUID problemId;
+    private final UUID battleId;
+    private final UUID userId;
+    private final Language language;
+    private final SubmissionStatus status;
+    private final Integer executionTimeMs;
+    private final Integer memoryUsedKb;
+    private final Integer testCasesPassed;
+    private final Integer totalTestCases;
+    private final Instant submittedAt;
+    private final Instant judgedAt;
+    private final int userRating;           // The submitter's rating when the verdict was written
+    private final Instant battleStartedAt;  // Null for practice submissions
+    private final Integer battleDurationSeconds;
+}
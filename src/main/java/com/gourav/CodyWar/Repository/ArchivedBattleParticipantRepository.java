@@ -0,0 +1,25 @@
+package com.gourav.CodyWar.Repository;
+
+import com.gourav.CodyWar.Domain.Entity.ArchivedBattleParticipant;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+public interface ArchivedBattleParticipantRepository extends JpaRepository<ArchivedBattleParticipant, UUID> {
+
+    String COLUMNS = "id, battle_id, user_id, score, is_ready, has_submitted, joined_at";
+
+    List<ArchivedBattleParticipant> findByBattleIdOrderByJoinedAt(UUID battleId);
+
+    @Modifying
+    @Query(value = "INSERT INTO archived_battle_participants (" + COLUMNS + ") SELECT " + COLUMNS +
+            " FROM battle_participants WHERE battle_id IN (:battleIds)", nativeQuery = true)
+    int copyFromBattleParticipants(@Param("battleIds") Collection<UUID> battleIds);
+}
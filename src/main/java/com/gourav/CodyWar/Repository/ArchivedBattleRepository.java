@@ -0,0 +1,23 @@
+package com.gourav.CodyWar.Repository;
+
+import com.gourav.CodyWar.Domain.Entity.ArchivedBattle;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.UUID;
+
+@Repository
+public interface ArchivedBattleRepository extends JpaRepository<ArchivedBattle, UUID> {
+
+    String COLUMNS = "id, room_code, problem_id, winner_id, winner_suspected, status, is_private, max_participants, duration_seconds, " +
+            "created_at, started_at, finished_at";
+
+    @Modifying
+    @Query(value = "INSERT INTO archived_battles (" + COLUMNS + ") SELECT " + COLUMNS +
+            " FROM battles WHERE id IN (:ids)", nativeQuery = true)
+    int copyFromBattles(@Param("ids") Collection<UUID> ids);
+}
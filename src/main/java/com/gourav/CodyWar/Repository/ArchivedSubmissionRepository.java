@@ -0,0 +1,65 @@
+package com.gourav.CodyWar.Repository;
+
+import com.gourav.CodyWar.Domain.Dto.SubmissionProgressDto;
+import com.gourav.CodyWar.Domain.Dto.SubmissionSummaryDto;
+import com.gourav.CodyWar.Domain.Entity.ArchivedSubmission;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+@Repository
+public interface ArchivedSubmissionRepository extends JpaRepository<ArchivedSubmission, UUID> {
+
+    String COLUMNS = "id, battle_id, problem_id, user_id, language, code, code_content_id, status, execution_time_ms, " +
+            "memory_used_kb, test_cases_passed, total_test_cases, error_message, error_content_id, submitted_at, judged_at";
+
+    // Same projection and keyset order as SubmissionRepository, so pages from both tables merge
+    String SUMMARY = "SELECT new com.gourav.CodyWar.Domain.Dto.SubmissionSummaryDto(" +
+            "s.id, s.problemId, s.battleId, s.userId, s.language, s.status, s.executionTimeMs, s.memoryUsedKb, " +
+            "s.testCasesPassed, s.totalTestCases, s.submittedAt, s.judgedAt) FROM ArchivedSubmission s ";
+
+    String AFTER_CURSOR = "AND (s.submittedAt < :afterTime OR (s.submittedAt = :afterTime AND s.id < :afterId)) " +
+            "ORDER BY s.submittedAt DESC, s.id DESC";
+
+    // Status of one of the user's submissions, read once when its event stream opens
+    @Query("SELECT new com.gourav.CodyWar.Domain.Dto.SubmissionProgressDto(s.id, s.status, s.testCasesPassed, " +
+            "s.totalTestCases, s.executionTimeMs, s.memoryUsedKb) FROM ArchivedSubmission s WHERE s.id = :id AND s.userId = :userId")
+    Optional<SubmissionProgressDto> findProgress(@Param("id") UUID id, @Param("userId") UUID userId);
+
+    @Query(SUMMARY + "WHERE s.userId = :userId " + AFTER_CURSOR)
+    List<SubmissionSummaryDto> findUserPage(@Param("userId") UUID userId,
+                                            @Param("afterTime") Instant afterTime,
+                                            @Param("afterId") UUID afterId,
+                                            Limit limit);
+
+    @Query(SUMMARY + "WHERE s.battleId = :battleId " + AFTER_CURSOR)
+    List<SubmissionSummaryDto> findBattlePage(@Param("battleId") UUID battleId,
+                                              @Param("afterTime") Instant afterTime,
+                                              @Param("afterId") UUID afterId,
+                                              Limit limit);
+
+    @Query(SUMMARY + "WHERE s.problemId = :problemId " + AFTER_CURSOR)
+    List<SubmissionSummaryDto> findProblemPage(@Param("problemId") UUID problemId,
+                                               @Param("afterTime") Instant afterTime,
+                                               @Param("afterId") UUID afterId,
+                                               Limit limit);
+
+    @Modifying
+    @Query(value = "INSERT INTO archived_submissions (" + COLUMNS + ") SELECT " + COLUMNS +
+            " FROM submissions WHERE battle_id IN (:battleIds)", nativeQuery = true)
+    int copyFromBattleSubmissions(@Param("battleIds") Collection<UUID> battleIds);
+
+    @Modifying
+    @Query(value = "INSERT INTO archived_submissions (" + COLUMNS + ") SELECT " + COLUMNS +
+            " FROM submissions WHERE id IN (:ids)", nativeQuery = true)
+    int copyFromSubmissions(@Param("ids") Collection<UUID> ids);
+}
@@ -0,0 +1,42 @@
+package com.gourav.CodyWar.Repository;
+
+import com.gourav.CodyWar.Domain.Entity.BattleParticipant;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+@Repository
+public interface BattleParticipantRepository extends JpaRepository<BattleParticipant, UUID> {
+
+    boolean existsByBattleIdAndUserId(UUID battleId, UUID userId);
+
+    Optional<BattleParticipant> findByBattleIdAndUserId(UUID battleId, UUID userId);
+
+    long countByBattleId(UUID battleId);
+
+    @Query("SELECT p FROM BattleParticipant p JOIN FETCH p.user WHERE p.battle.id = :battleId ORDER BY p.joinedAt")
+    List<BattleParticipant> findWithUserByBattleId(@Param("battleId") UUID battleId);
+
+    List<BattleParticipant> findByBattleIdIn(Collection<UUID> battleIds);
+
+    @Modifying
+    @Query("UPDATE BattleParticipant p SET p.hasSubmitted = true WHERE p.battle.id = :battleId AND p.user.id = :userId")
+    int markSubmitted(@Param("battleId") UUID battleId, @Param("userId") UUID userId);
+
+    @Modifying
+    @Query("DELETE FROM BattleParticipant p WHERE p.battle.id IN :battleIds")
+    int deleteAllByBattleIdIn(@Param("battleIds") Collection<UUID> battleIds);
+
+    // A participant keeps their best score of the battle
+    @Modifying
+    @Query("UPDATE BattleParticipant p SET p.score = :score " +
+            "WHERE p.battle.id = :battleId AND p.user.id = :userId AND p.score < :score")
+    int raiseScore(@Param("battleId") UUID battleId, @Param("userId") UUID userId, @Param("score") int score);
+}
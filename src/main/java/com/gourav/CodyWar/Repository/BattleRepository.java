@@ -0,0 +1,73 @@
+package com.gourav.CodyWar.Repository;
+
+import com.gourav.CodyWar.Domain.Dto.BattleRoomCode;
+import com.gourav.CodyWar.Domain.Entity.Battle;
+import com.gourav.CodyWar.Domain.Entity.BattleStatus;
+import com.gourav.CodyWar.Domain.Entity.User;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+@Repository
+public interface BattleRepository extends JpaRepository<Battle, UUID> {
+
+    boolean existsByProblemId(UUID problemId);
+
+    long countByStatus(BattleStatus status);
+
+    // Only battles that have not finished keep their room code
+    @Query("SELECT new com.gourav.CodyWar.Domain.Dto.BattleRoomCode(b.id, b.roomCode) FROM Battle b WHERE b.roomCode IS NOT NULL")
+    List<BattleRoomCode> findRoomCodes();
+
+    @Query("SELECT b.id FROM Battle b WHERE b.roomCode = :roomCode")
+    Optional<UUID> findIdByRoomCode(@Param("roomCode") String roomCode);
+
+    @Query("SELECT b.id FROM Battle b WHERE b.status IN :statuses")
+    List<UUID> findIdsByStatusIn(@Param("statuses") Collection<BattleStatus> statuses);
+
+    // Battles with their participants, for a node taking them over after a rebalance
+    @Query("SELECT DISTINCT b FROM Battle b LEFT JOIN FETCH b.participants WHERE b.id IN :ids")
+    List<Battle> findWithParticipantsByIdIn(@Param("ids") Collection<UUID> ids);
+
+    // Serializes join/leave/ready on one battle so participant limits and the start hold
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT b FROM Battle b WHERE b.id = :id")
+    Optional<Battle> findByIdForUpdate(@Param("id") UUID id);
+
+    // Only the first caller wins the IN_PROGRESS -> finished transition; the room code is freed for reuse
+    @Modifying
+    @Query("UPDATE Battle b SET b.status = :status, b.winner = :winner, b.finishedAt = :finishedAt, b.roomCode = NULL " +
+            "WHERE b.id = :id AND b.status = com.gourav.CodyWar.Domain.Entity.BattleStatus.IN_PROGRESS")
+    int finish(@Param("id") UUID id,
+               @Param("status") BattleStatus status,
+               @Param("winner") User winner,
+               @Param("finishedAt") Instant finishedAt);
+
+    // Set once the winner is known and one of their accepted submissions in the battle was flagged, whichever comes last
+    @Modifying
+    @Query(value = "UPDATE battles SET winner_suspected = TRUE WHERE id = :id AND NOT winner_suspected AND EXISTS (" +
+            "SELECT 1 FROM plagiarism_matches m WHERE m.battle_id = battles.id AND m.user_id = battles.winner_id)",
+            nativeQuery = true)
+    int markWinnerSuspected(@Param("id") UUID id);
+
+    // Oldest finished battles first, for the archiver
+    @Query("SELECT b.id FROM Battle b WHERE b.status IN :statuses AND b.finishedAt < :cutoff ORDER BY b.finishedAt")
+    List<UUID> findFinishedBefore(@Param("statuses") Collection<BattleStatus> statuses,
+                                  @Param("cutoff") Instant cutoff,
+                                  Limit limit);
+
+    @Modifying
+    @Query("DELETE FROM Battle b WHERE b.id IN :ids")
+    int deleteAllByIdIn(@Param("ids") Collection<UUID> ids);
+}
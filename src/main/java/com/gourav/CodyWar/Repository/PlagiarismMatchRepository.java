@@ -0,0 +1,11 @@
+package com.gourav.CodyWar.Repository;
+
+import com.gourav.CodyWar.Domain.Entity.PlagiarismMatch;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.UUID;
+
+@Repository
+public interface PlagiarismMatchRepository extends JpaRepository<PlagiarismMatch, UUID> {
+}
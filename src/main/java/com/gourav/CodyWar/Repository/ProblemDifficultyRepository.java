@@ -0,0 +1,26 @@
+package com.gourav.CodyWar.Repository;
+
+import com.gourav.CodyWar.Domain.Entity.ProblemDifficulty;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.UUID;
+
+@Repository
+public interface ProblemDifficultyRepository extends JpaRepository<ProblemDifficulty, UUID> {
+
+    @Modifying
+    @Query("UPDATE ProblemDifficulty d SET d.ratingDelta = d.ratingDelta + :ratingDelta, d.samples = d.samples + :samples, " +
+            "d.solves = d.solves + :solves, d.solveSecondsSum = d.solveSecondsSum + :solveSeconds, d.updatedAt = :now " +
+            "WHERE d.problemId = :problemId")
+    int increment(@Param("problemId") UUID problemId,
+                  @Param("ratingDelta") double ratingDelta,
+                  @Param("samples") long samples,
+                  @Param("solves") long solves,
+                  @Param("solveSeconds") double solveSeconds,
+                  @Param("now") Instant now);
+}
@@ -1,13 +1,20 @@
 package com.gourav.CodyWar.Repository;
 
+import com.gourav.CodyWar.Domain.Dto.ProblemLevel;
 import com.gourav.CodyWar.Domain.Entity.Problem;
 import com.gourav.CodyWar.Domain.Entity.Difficulty;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 
 @Repository
@@ -20,4 +27,20 @@ public interface ProblemRepository extends JpaRepository<Problem, UUID> {
     Page<Problem> findByDifficulty(Difficulty difficulty, Pageable pageable);
 
     boolean existsByTitle(String title);
+
+    // Last modification time, used to validate cached responses without loading the entity
+    @Query("SELECT COALESCE(p.updatedAt, p.createdAt) FROM Problem p WHERE p.id = :id")
+    Optional<Instant> findVersionById(@Param("id") UUID id);
+
+    @Query("SELECT new com.gourav.CodyWar.Domain.Dto.ProblemLevel(p.id, p.difficulty) FROM Problem p")
+    List<ProblemLevel> findLevels();
+
+    // Of the given problems, those that have test cases and can be played
+    @Query("SELECT p.id FROM Problem p WHERE p.id IN :ids AND EXISTS (SELECT t.id FROM TestCase t WHERE t.problem = p)")
+    List<UUID> findPlayableIds(@Param("ids") Collection<UUID> ids);
+
+    // Invalidates verdicts cached for the previous test set
+    @Modifying
+    @Query("UPDATE Problem p SET p.testSetVersion = p.testSetVersion + 1 WHERE p.id = :id")
+    int incrementTestSetVersion(@Param("id") UUID id);
 }
\ No newline at end of file
@@ -0,0 +1,24 @@
+package com.gourav.CodyWar.Repository;
+
+import com.gourav.CodyWar.Domain.Entity.ProblemStats;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.UUID;
+
+@Repository
+public interface ProblemStatsRepository extends JpaRepository<ProblemStats, UUID> {
+
+    @Modifying
+    @Query("UPDATE ProblemStats s SET s.totalSubmissions = s.totalSubmissions + :total, " +
+            "s.acceptedSubmissions = s.acceptedSubmissions + :accepted, s.updatedAt = :now " +
+            "WHERE s.problemId = :problemId")
+    int increment(@Param("problemId") UUID problemId,
+                  @Param("total") long total,
+                  @Param("accepted") long accepted,
+                  @Param("now") Instant now);
+}
@@ -0,0 +1,41 @@
+package com.gourav.CodyWar.Repository;
+
+import com.gourav.CodyWar.Domain.Entity.SubmissionContent;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.UUID;
+
+@Repository
+public interface SubmissionContentRepository extends JpaRepository<SubmissionContent, UUID> {
+
+    // Returns 0 when the same text is already stored, without failing the surrounding transaction
+    @Modifying
+    @Query(value = "INSERT INTO submission_contents (id, encoding, original_bytes, data, created_at) " +
+            "VALUES (:id, :encoding, :originalBytes, :data, :createdAt) ON CONFLICT DO NOTHING",
+            nativeQuery = true)
+    int insertIfAbsent(@Param("id") UUID id,
+                       @Param("encoding") String encoding,
+                       @Param("originalBytes") int originalBytes,
+                       @Param("data") byte[] data,
+                       @Param("createdAt") Instant createdAt);
+
+    @Query("SELECT COUNT(c) FROM SubmissionContent c")
+    long countContents();
+
+    @Query(value = "SELECT COALESCE(SUM(OCTET_LENGTH(data)), 0) FROM submission_contents", nativeQuery = true)
+    long sumStoredBytes();
+
+    // Size of all referenced texts as if every submission stored its own uncompressed copy
+    @Query(value = "SELECT COALESCE(SUM(c.original_bytes), 0) FROM submissions s " +
+            "JOIN submission_contents c ON c.id = s.code_content_id OR c.id = s.error_content_id", nativeQuery = true)
+    long sumReferencedBytes();
+
+    @Query(value = "SELECT COALESCE(SUM(OCTET_LENGTH(code)), 0) + COALESCE(SUM(OCTET_LENGTH(error_message)), 0) " +
+            "FROM submissions", nativeQuery = true)
+    long sumPlainBytes();
+}
@@ -0,0 +1,29 @@
+package com.gourav.CodyWar.Repository;
+
+import com.gourav.CodyWar.Domain.Entity.SubmissionFingerprint;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+public interface SubmissionFingerprintRepository extends JpaRepository<SubmissionFingerprint, UUID> {
+
+    // Keyset pages in id order, for rebuilding the plagiarism index
+    @Query("SELECT f FROM SubmissionFingerprint f WHERE f.submissionId > :after ORDER BY f.submissionId")
+    List<SubmissionFingerprint> findPage(@Param("after") UUID after, Pageable pageable);
+
+    // Fingerprints of a problem stored since the given time, by any node
+    @Query("SELECT f FROM SubmissionFingerprint f WHERE f.problemId = :problemId AND f.createdAt >= :since")
+    List<SubmissionFingerprint> findByProblemSince(@Param("problemId") UUID problemId, @Param("since") Instant since);
+
+    @Modifying
+    @Query("DELETE FROM SubmissionFingerprint f WHERE f.problemId = :problemId")
+    int deleteAllByProblemId(@Param("problemId") UUID problemId);
+}
@@ -0,0 +1,128 @@
+package com.gourav.CodyWar.Repository;
+
+import com.gourav.CodyWar.Domain.Dto.SubmissionProgressDto;
+import com.gourav.CodyWar.Domain.Dto.SubmissionSummaryDto;
+import com.gourav.CodyWar.Domain.Entity.BattleStatus;
+import com.gourav.CodyWar.Domain.Entity.Submission;
+import com.gourav.CodyWar.Domain.Entity.SubmissionStatus;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+@Repository
+public interface SubmissionRepository extends JpaRepository<Submission, UUID> {
+
+    boolean existsByProblemId(UUID problemId);
+
+    // Narrow projection: never touches the code and error_message TEXT columns
+    String SUMMARY = "SELECT new com.gourav.CodyWar.Domain.Dto.SubmissionSummaryDto(" +
+            "s.id, s.problem.id, s.battle.id, s.user.id, s.language, s.status, s.executionTimeMs, s.memoryUsedKb, " +
+            "s.testCasesPassed, s.totalTestCases, s.submittedAt, s.judgedAt) FROM Submission s ";
+
+    // Newest first, continuing after (afterTime, afterId)
+    String AFTER_CURSOR = "AND (s.submittedAt < :afterTime OR (s.submittedAt = :afterTime AND s.id < :afterId)) " +
+            "ORDER BY s.submittedAt DESC, s.id DESC";
+
+    // Routes an unjudged submission's event stream to the node it is queued on or being judged by
+    @Query("SELECT s.judgeNode FROM Submission s WHERE s.id = :id AND s.status IN :unjudged")
+    Optional<String> findJudgeNode(@Param("id") UUID id, @Param("unjudged") Collection<SubmissionStatus> unjudged);
+
+    // Of the given submissions, those judged before judgedBefore or taken over by another node
+    @Query("SELECT s.id FROM Submission s WHERE s.id IN :ids " +
+            "AND ((s.status NOT IN :unjudged AND s.judgedAt < :judgedBefore) OR s.judgeNode <> :node)")
+    List<UUID> findJudgedOrMovedAway(@Param("ids") Collection<UUID> ids,
+                                     @Param("node") String node,
+                                     @Param("unjudged") Collection<SubmissionStatus> unjudged,
+                                     @Param("judgedBefore") Instant judgedBefore);
+
+    // Status of one of the user's submissions, read once when its event stream opens
+    @Query("SELECT new com.gourav.CodyWar.Domain.Dto.SubmissionProgressDto(s.id, s.status, s.testCasesPassed, " +
+            "s.totalTestCases, s.executionTimeMs, s.memoryUsedKb) FROM Submission s WHERE s.id = :id AND s.user.id = :userId")
+    Optional<SubmissionProgressDto> findProgress(@Param("id") UUID id, @Param("userId") UUID userId);
+
+    @Query(SUMMARY + "WHERE s.user.id = :userId " + AFTER_CURSOR)
+    List<SubmissionSummaryDto> findUserPage(@Param("userId") UUID userId,
+                                            @Param("afterTime") Instant afterTime,
+                                            @Param("afterId") UUID afterId,
+                                            Limit limit);
+
+    @Query(SUMMARY + "WHERE s.battle.id = :battleId " + AFTER_CURSOR)
+    List<SubmissionSummaryDto> findBattlePage(@Param("battleId") UUID battleId,
+                                              @Param("afterTime") Instant afterTime,
+                                              @Param("afterId") UUID afterId,
+                                              Limit limit);
+
+    // Others' submissions in a battle that is still running stay hidden until it ends
+    @Query(SUMMARY + "LEFT JOIN s.battle b WHERE s.problem.id = :problemId " +
+            "AND (s.user.id = :userId OR b IS NULL OR b.status IN :ended) " + AFTER_CURSOR)
+    List<SubmissionSummaryDto> findProblemPage(@Param("problemId") UUID problemId,
+                                               @Param("userId") UUID userId,
+                                               @Param("ended") Collection<BattleStatus> ended,
+                                               @Param("afterTime") Instant afterTime,
+                                               @Param("afterId") UUID afterId,
+                                               Limit limit);
+
+    // Oldest judged practice submissions first, for the archiver
+    @Query("SELECT s.id FROM Submission s WHERE s.battle IS NULL AND s.submittedAt < :cutoff " +
+            "AND s.status NOT IN :active ORDER BY s.submittedAt")
+    List<UUID> findPracticeBefore(@Param("cutoff") Instant cutoff,
+                                  @Param("active") Collection<SubmissionStatus> active,
+                                  Limit limit);
+
+    // Submissions waiting for the judge, oldest first, continuing after (afterTime, afterId)
+    @Query(SUMMARY + "WHERE s.status = :status " +
+            "AND (s.submittedAt > :afterTime OR (s.submittedAt = :afterTime AND s.id > :afterId)) " +
+            "ORDER BY s.submittedAt, s.id")
+    List<SubmissionSummaryDto> findWaitingPage(@Param("status") SubmissionStatus status,
+                                               @Param("afterTime") Instant afterTime,
+                                               @Param("afterId") UUID afterId,
+                                               Limit limit);
+
+    // Moves a PENDING submission to RUNNING for one node; 0 when another judge got there first
+    @Modifying
+    @Query("UPDATE Submission s SET s.status = :running, s.judgeNode = :node WHERE s.id = :id AND s.status = :pending")
+    int claim(@Param("id") UUID id,
+              @Param("node") String node,
+              @Param("pending") SubmissionStatus pending,
+              @Param("running") SubmissionStatus running);
+
+    // Puts RUNNING submissions of the given ids back to PENDING
+    @Modifying
+    @Query("UPDATE Submission s SET s.status = :pending, s.judgeNode = NULL WHERE s.id IN :ids AND s.status = :running")
+    int release(@Param("ids") Collection<UUID> ids,
+                @Param("pending") SubmissionStatus pending,
+                @Param("running") SubmissionStatus running);
+
+    // Puts RUNNING submissions back to PENDING unless a live node is judging them; a restarted node's old claims count as gone
+    @Modifying
+    @Query("UPDATE Submission s SET s.status = :pending, s.judgeNode = NULL WHERE s.status = :running " +
+            "AND (s.judgeNode IS NULL OR s.judgeNode NOT IN :liveNodes OR s.judgeNode = :restartedNode)")
+    int releaseAbandoned(@Param("liveNodes") Collection<String> liveNodes,
+                         @Param("restartedNode") String restartedNode,
+                         @Param("pending") SubmissionStatus pending,
+                         @Param("running") SubmissionStatus running);
+
+    @Modifying
+    @Query("DELETE FROM Submission s WHERE s.battle.id IN :battleIds")
+    int deleteAllByBattleIdIn(@Param("battleIds") Collection<UUID> battleIds);
+
+    @Modifying
+    @Query("DELETE FROM Submission s WHERE s.id IN :ids")
+    int deleteAllByIdIn(@Param("ids") Collection<UUID> ids);
+
+    // Judged submissions still using the plain TEXT columns, in id order for the storage migration job
+    @Query("SELECT s FROM Submission s WHERE (s.code IS NOT NULL OR s.errorMessage IS NOT NULL) " +
+            "AND s.status NOT IN :active AND s.id > :afterId ORDER BY s.id")
+    List<Submission> findPlainPage(@Param("afterId") UUID afterId,
+                                   @Param("active") Collection<SubmissionStatus> active,
+                                   Limit limit);
+}
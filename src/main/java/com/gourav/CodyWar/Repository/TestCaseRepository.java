@@ -0,0 +1,41 @@
+package com.gourav.CodyWar.Repository;
+
+import com.gourav.CodyWar.Domain.Dto.JudgeTestCase;
+import com.gourav.CodyWar.Domain.Dto.TestCaseSampleDto;
+import com.gourav.CodyWar.Domain.Entity.TestCase;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+public interface TestCaseRepository extends JpaRepository<TestCase, UUID> {
+
+    @Modifying
+    @Query("DELETE FROM TestCase t WHERE t.problem.id = :problemId")
+    int deleteAllByProblemId(@Param("problemId") UUID problemId);
+
+    long countByProblemId(UUID problemId);
+
+    @Query("SELECT new com.gourav.CodyWar.Domain.Dto.TestCaseSampleDto(t.orderIndex, t.input, t.expectedOutput) " +
+            "FROM TestCase t WHERE t.problem.id = :problemId AND t.isHidden = false ORDER BY t.orderIndex, t.id")
+    List<TestCaseSampleDto> findSamplesByProblemId(@Param("problemId") UUID problemId);
+
+    /**
+     * Next page of test cases after (afterIndex, afterId), in judging order
+     */
+    @Query("SELECT new com.gourav.CodyWar.Domain.Dto.JudgeTestCase(t.id, t.orderIndex, t.input, t.expectedOutput) " +
+            "FROM TestCase t WHERE t.problem.id = :problemId AND t.isHidden = :hidden " +
+            "AND (t.orderIndex > :afterIndex OR (t.orderIndex = :afterIndex AND t.id > :afterId)) " +
+            "ORDER BY t.orderIndex, t.id")
+    List<JudgeTestCase> findJudgePage(@Param("problemId") UUID problemId,
+                                      @Param("hidden") boolean hidden,
+                                      @Param("afterIndex") int afterIndex,
+                                      @Param("afterId") UUID afterId,
+                                      Limit limit);
+}
@@ -0,0 +1,36 @@
+package com.gourav.CodyWar.Repository;
+
+import com.gourav.CodyWar.Domain.Entity.TournamentMatch;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+public interface TournamentMatchRepository extends JpaRepository<TournamentMatch, UUID> {
+
+    List<TournamentMatch> findByBattleIdIn(Collection<UUID> battleIds);
+
+    // Who has played whom, for Swiss pairing; a bye has no second player
+    @Query("SELECT m.playerOneId AS playerOneId, m.playerTwoId AS playerTwoId FROM TournamentMatch m " +
+            "WHERE m.tournamentId = :tournamentId")
+    List<Opponents> findOpponents(@Param("tournamentId") UUID tournamentId);
+
+    List<TournamentMatch> findByTournamentIdAndRoundOrderBySlot(UUID tournamentId, int round);
+
+    long countByTournamentIdAndRoundAndFinishedFalse(UUID tournamentId, int round);
+
+    @Query("SELECT m FROM TournamentMatch m WHERE m.tournamentId = :tournamentId AND m.round = :round " +
+            "AND m.finished = false AND m.battleId IS NOT NULL")
+    List<TournamentMatch> findUnfinished(@Param("tournamentId") UUID tournamentId, @Param("round") int round);
+
+    interface Opponents {
+        UUID getPlayerOneId();
+
+        UUID getPlayerTwoId();
+    }
+}
@@ -0,0 +1,62 @@
+package com.gourav.CodyWar.Repository;
+
+import com.gourav.CodyWar.Domain.Entity.TournamentPlayer;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+public interface TournamentPlayerRepository extends JpaRepository<TournamentPlayer, UUID> {
+
+    boolean existsByTournamentIdAndUserId(UUID tournamentId, UUID userId);
+
+    long countByTournamentId(UUID tournamentId);
+
+    // Standings order: points, then seed
+    @Query("SELECT p FROM TournamentPlayer p JOIN FETCH p.user WHERE p.tournament.id = :tournamentId " +
+            "ORDER BY p.points DESC, p.seed, p.joinedAt")
+    List<TournamentPlayer> findStandings(@Param("tournamentId") UUID tournamentId);
+
+    // Ranking order without loading the players
+    @Query("SELECT p.user.id FROM TournamentPlayer p WHERE p.tournament.id = :tournamentId " +
+            "ORDER BY p.points DESC, p.seed, p.joinedAt")
+    List<UUID> findRanking(@Param("tournamentId") UUID tournamentId);
+
+    @Query("SELECT AVG(p.user.ratingScore) FROM TournamentPlayer p WHERE p.tournament.id = :tournamentId AND p.eliminated = false")
+    Double findAverageRating(@Param("tournamentId") UUID tournamentId);
+
+    // Seed 1 is the highest rated, earlier registration breaking ties; one statement for the whole field
+    @Modifying
+    @Query(value = "UPDATE tournament_players SET seed = ranked.seed FROM (" +
+            "SELECT p.id, ROW_NUMBER() OVER (ORDER BY u.rating_score DESC, p.joined_at, p.id) AS seed " +
+            "FROM tournament_players p JOIN users u ON u.id = p.user_id WHERE p.tournament_id = :tournamentId) ranked " +
+            "WHERE tournament_players.id = ranked.id", nativeQuery = true)
+    int assignSeeds(@Param("tournamentId") UUID tournamentId);
+
+    @Query("SELECT p.user.id AS userId, p.seed AS seed FROM TournamentPlayer p " +
+            "WHERE p.tournament.id = :tournamentId AND p.user.id IN :userIds")
+    List<Seed> findSeeds(@Param("tournamentId") UUID tournamentId, @Param("userIds") Collection<UUID> userIds);
+
+    @Modifying
+    @Query("UPDATE TournamentPlayer p SET p.points = p.points + :points " +
+            "WHERE p.tournament.id = :tournamentId AND p.user.id IN :userIds")
+    int addPoints(@Param("tournamentId") UUID tournamentId, @Param("userIds") Collection<UUID> userIds,
+                  @Param("points") int points);
+
+    @Modifying
+    @Query("UPDATE TournamentPlayer p SET p.eliminated = true " +
+            "WHERE p.tournament.id = :tournamentId AND p.user.id IN :userIds")
+    int eliminate(@Param("tournamentId") UUID tournamentId, @Param("userIds") Collection<UUID> userIds);
+
+    interface Seed {
+        UUID getUserId();
+
+        int getSeed();
+    }
+}
@@ -0,0 +1,26 @@
+package com.gourav.CodyWar.Repository;
+
+import com.gourav.CodyWar.Domain.Entity.Tournament;
+import com.gourav.CodyWar.Domain.Entity.TournamentStatus;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+@Repository
+public interface TournamentRepository extends JpaRepository<Tournament, UUID> {
+
+    // Serializes registration and round changes, across nodes too
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT t FROM Tournament t WHERE t.id = :id")
+    Optional<Tournament> findByIdForUpdate(@Param("id") UUID id);
+
+    @Query("SELECT t.id FROM Tournament t WHERE t.status = :status")
+    List<UUID> findIdsByStatus(@Param("status") TournamentStatus status);
+}
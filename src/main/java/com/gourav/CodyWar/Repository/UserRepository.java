@@ -2,6 +2,9 @@ package com.gourav.CodyWar.Repository;
 
 import com.gourav.CodyWar.Domain.Entity.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.Optional;
@@ -17,5 +20,13 @@ public interface UserRepository extends JpaRepository<User, UUID> {
     boolean existsByEmail(String email);
 
     boolean existsByUsername(String username);
-}
 
+    @Modifying
+    @Query("UPDATE User u SET u.battlesPlayed = u.battlesPlayed + 1 " +
+            "WHERE u.id IN (SELECT p.user.id FROM BattleParticipant p WHERE p.battle.id = :battleId)")
+    int incrementBattlesPlayed(@Param("battleId") UUID battleId);
+
+    @Modifying
+    @Query("UPDATE User u SET u.battlesWon = u.battlesWon + 1 WHERE u.id = :userId")
+    int incrementBattlesWon(@Param("userId") UUID userId);
+}
@@ -4,6 +4,8 @@ import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.io.Decoders;
 import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Component;
@@ -26,6 +28,18 @@ public class JwtUtil {
     @Value("${jwt.refresh-expiration}")
     private long refreshExpiration;
 
+    private final Timer generateTimer;
+    private final Timer parseTimer;
+
+    public JwtUtil(MeterRegistry meterRegistry) {
+        this.generateTimer = Timer.builder("codywar.jwt.generate")
+                .description("JWT signing time")
+                .register(meterRegistry);
+        this.parseTimer = Timer.builder("codywar.jwt.parse")
+                .description("JWT signature verification and claim parsing time")
+                .register(meterRegistry);
+    }
+
     public String extractEmail(String token) {
         return extractClaim(token, Claims::getSubject);
     }
@@ -48,13 +62,13 @@ public class JwtUtil {
     }
 
     private String buildToken(Map<String, Object> extraClaims, UserDetails userDetails, long expiration) {
-        return Jwts.builder()
+        return generateTimer.record(() -> Jwts.builder()
                 .claims(extraClaims)
                 .subject(userDetails.getUsername())
                 .issuedAt(new Date(System.currentTimeMillis()))
                 .expiration(new Date(System.currentTimeMillis() + expiration))
                 .signWith(getSigningKey(), Jwts.SIG.HS256)
-                .compact();
+                .compact());
     }
 
     public boolean isTokenValid(String token, UserDetails userDetails) {
@@ -71,11 +85,11 @@ public class JwtUtil {
     }
 
     private Claims extractAllClaims(String token) {
-        return Jwts.parser()
+        return parseTimer.record(() -> Jwts.parser()
                 .verifyWith(getSigningKey())
                 .build()
                 .parseSignedClaims(token)
-                .getPayload();
+                .getPayload());
     }
 
     private SecretKey getSigningKey() {
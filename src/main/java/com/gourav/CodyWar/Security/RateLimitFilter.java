@@ -0,0 +1,141 @@
+package com.gourav.CodyWar.Security;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.gourav.CodyWar.Configuration.RateLimitProperties;
+import com.gourav.CodyWar.Domain.Dto.ApiResponse;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.lang.NonNull;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per route group token-bucket throttling, keyed by the authenticated subject or the client IP.
+ *
+ * Runs after JwtAuthenticationFilter so authenticated callers get their own bucket. The accept
+ * path is a map lookup plus a CAS; buckets are only allocated for unseen keys.
+ */
+@Component
+public class RateLimitFilter extends OncePerRequestFilter {
+
+    private final boolean enabled;
+    private final Route[] routes;
+    private final ObjectMapper objectMapper;
+
+    public RateLimitFilter(RateLimitProperties properties, ObjectMapper objectMapper) {
+        this.enabled = properties.isEnabled();
+        this.objectMapper = objectMapper;
+        this.routes = properties.getPolicies().entrySet().stream()
+                .map(entry -> new Route(entry.getKey(), entry.getValue()))
+                .toArray(Route[]::new);
+    }
+
+    @Override
+    protected void doFilterInternal(
+            @NonNull HttpServletRequest request,
+            @NonNull HttpServletResponse response,
+            @NonNull FilterChain filterChain
+    ) throws ServletException, IOException {
+
+        Route route = enabled ? match(request.getMethod(), request.getRequestURI()) : null;
+        if (route == null) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        String key = null;
+        if (!route.perIp) {
+            Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+            if (authentication != null && authentication.isAuthenticated()) {
+                key = authentication.getName();
+            }
+        }
+        if (key == null) {
+            key = request.getRemoteAddr();
+        }
+
+        long now = System.nanoTime();
+        TokenBucket bucket = route.buckets.get(key);
+        if (bucket == null) {
+            bucket = route.buckets.computeIfAbsent(key, k -> new TokenBucket(now));
+        }
+
+        long waitNanos = bucket.tryConsume(now, route.emissionIntervalNanos, route.capacityNanos);
+        if (waitNanos == 0) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        reject(response, route, waitNanos);
+    }
+
+    /**
+     * Drop buckets that have refilled completely; they carry no state a fresh bucket would not
+     */
+    @Scheduled(fixedDelayString = "${rate-limit.idle-eviction-interval-ms:60000}")
+    public void evictIdleBuckets() {
+        long now = System.nanoTime();
+        for (Route route : routes) {
+            route.buckets.values().removeIf(bucket -> bucket.isIdle(now));
+        }
+    }
+
+    private Route match(String method, String uri) {
+        for (Route route : routes) {
+            if (uri.startsWith(route.pathPrefix) && (route.method == null || route.method.equals(method))) {
+                return route;
+            }
+        }
+        return null;
+    }
+
+    private void reject(HttpServletResponse response, Route route, long waitNanos) throws IOException {
+        long retryAfterSeconds = Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos + 999_999_999L));
+
+        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, Long.toString(retryAfterSeconds));
+        response.setHeader("X-RateLimit-Limit", Integer.toString(route.capacity));
+        response.setHeader("X-RateLimit-Remaining", "0");
+        response.setHeader("X-RateLimit-Policy", route.name);
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        objectMapper.writeValue(response.getOutputStream(), ApiResponse.error("Too many requests"));
+    }
+
+    private static final class Route {
+        private final String name;
+        private final String pathPrefix;
+        private final String method;
+        private final boolean perIp;
+        private final int capacity;
+        private final long emissionIntervalNanos;
+        private final long capacityNanos;
+        private final Map<String, TokenBucket> buckets = new ConcurrentHashMap<>();
+
+        private Route(String name, RateLimitProperties.Policy policy) {
+            if (policy.getPathPrefix() == null || policy.getCapacity() < 1 || policy.getRefillPerMinute() < 1) {
+                throw new IllegalArgumentException("Invalid rate-limit policy: " + name);
+            }
+            this.name = name;
+            this.pathPrefix = policy.getPathPrefix();
+            this.method = policy.getMethod() != null ? policy.getMethod().toUpperCase(Locale.ROOT) : null;
+            this.perIp = policy.isPerIp();
+            this.capacity = policy.getCapacity();
+            this.emissionIntervalNanos = TimeUnit.MINUTES.toNanos(1) / policy.getRefillPerMinute();
+            this.capacityNanos = emissionIntervalNanos * policy.getCapacity();
+        }
+    }
+}
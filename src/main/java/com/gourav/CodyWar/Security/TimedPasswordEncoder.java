@@ -0,0 +1,39 @@
+package com.gourav.CodyWar.Security;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+// Records how long hashing and verification take; BCrypt is deliberately the slowest step of auth
+public class TimedPasswordEncoder implements PasswordEncoder {
+
+    private final PasswordEncoder delegate;
+    private final Timer encodeTimer;
+    private final Timer matchesTimer;
+
+    public TimedPasswordEncoder(PasswordEncoder delegate, MeterRegistry meterRegistry) {
+        this.delegate = delegate;
+        this.encodeTimer = Timer.builder("codywar.password.encode")
+                .description("Password hashing time")
+                .register(meterRegistry);
+        this.matchesTimer = Timer.builder("codywar.password.matches")
+                .description("Password verification time")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+        return encodeTimer.record(() -> delegate.encode(rawPassword));
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        Boolean matches = matchesTimer.record(() -> delegate.matches(rawPassword, encodedPassword));
+        return Boolean.TRUE.equals(matches);
+    }
+
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        return delegate.upgradeEncoding(encodedPassword);
+    }
+}
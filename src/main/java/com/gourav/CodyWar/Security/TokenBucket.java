@@ -0,0 +1,42 @@
+package com.gourav.CodyWar.Security;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Lock-free token bucket stored as a single "theoretical arrival time" (GCRA).
+ *
+ * Each accepted request pushes the arrival time forward by one emission interval; a request
+ * is rejected when that would put it more than a full bucket ahead of now. An idle bucket
+ * (arrival time in the past) is indistinguishable from a fresh one, so it can be dropped.
+ */
+public final class TokenBucket {
+
+    private final AtomicLong theoreticalArrival;
+
+    public TokenBucket(long nowNanos) {
+        this.theoreticalArrival = new AtomicLong(nowNanos);
+    }
+
+    /**
+     * Try to take one token.
+     *
+     * @return 0 when accepted, otherwise the nanoseconds until a token becomes available
+     */
+    public long tryConsume(long nowNanos, long emissionIntervalNanos, long capacityNanos) {
+        while (true) {
+            long current = theoreticalArrival.get();
+            long next = Math.max(current, nowNanos) + emissionIntervalNanos;
+            long wait = next - nowNanos - capacityNanos;
+            if (wait > 0) {
+                return wait;
+            }
+            if (theoreticalArrival.compareAndSet(current, next)) {
+                return 0;
+            }
+        }
+    }
+
+    public boolean isIdle(long nowNanos) {
+        return theoreticalArrival.get() - nowNanos <= 0;
+    }
+}
@@ -128,7 +128,7 @@ public class AuthService {
         return mapToUserDto(user);
     }
 
-    private UserDto mapToUserDto(User user) {
+    UserDto mapToUserDto(User user) {
         return UserDto.builder()
                 .id(user.getId())
                 .username(user.getUsername())
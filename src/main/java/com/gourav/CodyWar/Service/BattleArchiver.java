@@ -0,0 +1,168 @@
+package com.gourav.CodyWar.Service;
+
+import com.gourav.CodyWar.Cluster.BattleRouter;
+import com.gourav.CodyWar.Configuration.ArchiveProperties;
+import com.gourav.CodyWar.Domain.Entity.BattleStatus;
+import com.gourav.CodyWar.Domain.Entity.SubmissionStatus;
+import com.gourav.CodyWar.Repository.ArchivedBattleParticipantRepository;
+import com.gourav.CodyWar.Repository.ArchivedBattleRepository;
+import com.gourav.CodyWar.Repository.ArchivedSubmissionRepository;
+import com.gourav.CodyWar.Repository.BattleParticipantRepository;
+import com.gourav.CodyWar.Repository.BattleRepository;
+import com.gourav.CodyWar.Repository.SubmissionRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Moves finished battles, with their participants and submissions, and old practice submissions
+ * from the hot tables into the archived_* tables.
+ *
+ * Runs on a schedule in bounded batches: each batch is copied and deleted in one transaction,
+ * with a pause between batches and a cap on batches per run so archiving never competes with
+ * live traffic for long. Reads fall back to the archive when a row is not in the hot tables.
+ * A run sleeps through its pauses on a thread of its own, not on the shared scheduler thread
+ * that expires battles and flushes counters.
+ */
+@Slf4j
+@Service
+public class BattleArchiver {
+
+    private static final List<BattleStatus> FINISHED = List.of(BattleStatus.COMPLETED, BattleStatus.CANCELLED);
+    private static final List<SubmissionStatus> ACTIVE = List.of(SubmissionStatus.PENDING, SubmissionStatus.RUNNING);
+
+    private final BattleRepository battleRepository;
+    private final BattleParticipantRepository battleParticipantRepository;
+    private final SubmissionRepository submissionRepository;
+    private final ArchivedBattleRepository archivedBattleRepository;
+    private final ArchivedBattleParticipantRepository archivedBattleParticipantRepository;
+    private final ArchivedSubmissionRepository archivedSubmissionRepository;
+    private final ArchiveProperties archiveProperties;
+    private final TransactionTemplate transactionTemplate;
+    private final BattleRouter battleRouter;
+    private final Counter archivedBattles;
+    private final Counter archivedSubmissions;
+    // One run at a time; a tick that finds the previous run still going is dropped
+    private final ThreadPoolExecutor worker = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS,
+            new SynchronousQueue<>(), new CustomizableThreadFactory("battle-archiver-"), new ThreadPoolExecutor.DiscardPolicy());
+
+    public BattleArchiver(BattleRepository battleRepository,
+                          BattleParticipantRepository battleParticipantRepository,
+                          SubmissionRepository submissionRepository,
+                          ArchivedBattleRepository archivedBattleRepository,
+                          ArchivedBattleParticipantRepository archivedBattleParticipantRepository,
+                          ArchivedSubmissionRepository archivedSubmissionRepository,
+                          ArchiveProperties archiveProperties,
+                          TransactionTemplate transactionTemplate,
+                          BattleRouter battleRouter,
+                          MeterRegistry meterRegistry) {
+        this.battleRepository = battleRepository;
+        this.battleParticipantRepository = battleParticipantRepository;
+        this.submissionRepository = submissionRepository;
+        this.archivedBattleRepository = archivedBattleRepository;
+        this.archivedBattleParticipantRepository = archivedBattleParticipantRepository;
+        this.archivedSubmissionRepository = archivedSubmissionRepository;
+        this.archiveProperties = archiveProperties;
+        this.transactionTemplate = transactionTemplate;
+        this.battleRouter = battleRouter;
+        this.archivedBattles = Counter.builder("codywar.archive.rows").tag("table", "battles")
+                .description("Rows moved to the archive tables")
+                .register(meterRegistry);
+        this.archivedSubmissions = Counter.builder("codywar.archive.rows").tag("table", "submissions")
+                .description("Rows moved to the archive tables")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${archive.interval-ms:3600000}", initialDelayString = "${archive.initial-delay-ms:60000}")
+    public void archive() {
+        // One node archives for the whole cluster
+        if (!archiveProperties.isEnabled() || !battleRouter.ownsSingleton("battle-archiver")) {
+            return;
+        }
+        worker.execute(this::archiveNow);
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        // Interrupts the pause between batches; a batch already in its transaction completes
+        worker.shutdownNow();
+        worker.awaitTermination(10, TimeUnit.SECONDS);
+    }
+
+    private void archiveNow() {
+        long start = System.nanoTime();
+        Instant cutoff = Instant.now().minus(Duration.ofDays(archiveProperties.getAfterDays()));
+        int battles = runBatches(this::archiveBattles, cutoff);
+        int practice = runBatches(this::archivePracticeSubmissions, cutoff);
+        if (battles > 0 || practice > 0) {
+            log.info("Archived {} battles and {} practice submissions finished before {} in {} ms",
+                    battles, practice, cutoff, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+        }
+    }
+
+    private int runBatches(Function<Instant, Integer> batch, Instant cutoff) {
+        int total = 0;
+        for (int i = 0; i < archiveProperties.getMaxBatchesPerRun(); i++) {
+            Integer moved = transactionTemplate.execute(status -> batch.apply(cutoff));
+            if (moved == null || moved == 0) {
+                break;
+            }
+            total += moved;
+            try {
+                Thread.sleep(archiveProperties.getBatchPauseMs());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+        return total;
+    }
+
+    /**
+     * Copy one batch of finished battles with their participants and submissions, then delete the originals
+     */
+    private int archiveBattles(Instant cutoff) {
+        List<UUID> ids = battleRepository.findFinishedBefore(FINISHED, cutoff, Limit.of(archiveProperties.getBatchSize()));
+        if (ids.isEmpty()) {
+            return 0;
+        }
+
+        archivedBattleRepository.copyFromBattles(ids);
+        archivedBattleParticipantRepository.copyFromBattleParticipants(ids);
+        int submissions = archivedSubmissionRepository.copyFromBattleSubmissions(ids);
+        submissionRepository.deleteAllByBattleIdIn(ids);
+        battleParticipantRepository.deleteAllByBattleIdIn(ids);
+        battleRepository.deleteAllByIdIn(ids);
+
+        archivedBattles.increment(ids.size());
+        archivedSubmissions.increment(submissions);
+        return ids.size();
+    }
+
+    private int archivePracticeSubmissions(Instant cutoff) {
+        List<UUID> ids = submissionRepository.findPracticeBefore(cutoff, ACTIVE, Limit.of(archiveProperties.getBatchSize()));
+        if (ids.isEmpty()) {
+            return 0;
+        }
+
+        archivedSubmissionRepository.copyFromSubmissions(ids);
+        submissionRepository.deleteAllByIdIn(ids);
+        archivedSubmissions.increment(ids.size());
+        return ids.size();
+    }
+}
@@ -0,0 +1,643 @@
+package com.gourav.CodyWar.Service;
+
+import com.gourav.CodyWar.Domain.Event.BattleEvent;
+import com.gourav.CodyWar.Domain.Event.BattleEventType;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+/**
+ * Append-only log of battle events, stored as length-prefixed, CRC-checked binary records
+ * in numbered segment files.
+ *
+ * Appends are queued and return immediately; a single writer thread drains whatever has
+ * queued up, writes it in one call and fsyncs once per batch (group commit), then completes
+ * the futures and notifies subscribers in sequence order. Every battle has an in-memory list
+ * of record positions; when a segment is rolled its part of that index is written next to it
+ * as a .idx file, so startup only scans the active segment. A torn record at the end of the
+ * active segment, left by a crash mid-write, is truncated away on recovery.
+ *
+ * Sealed segments older than the retention are deleted unless an unfinished battle has events
+ * in them; the timelines of older battles lose those events. A record position carries the
+ * number of its segment, so a deleted segment keeps its slot in the segment list, empty, until
+ * the next start numbers the remaining files afresh.
+ */
+@Slf4j
+@Component
+public class BattleEventLog {
+
+    private static final String SEGMENT_PREFIX = "segment-";
+    private static final String LOG_SUFFIX = ".log";
+    private static final String INDEX_SUFFIX = ".idx";
+    private static final int HEADER_BYTES = 8;            // payload length + CRC32
+    private static final int MAX_PAYLOAD_BYTES = 64 * 1024;
+    private static final int INDEX_ENTRY_BYTES = 25;      // battle id, offset, type
+    private static final int OFFSET_BITS = 40;
+    private static final long OFFSET_MASK = (1L << OFFSET_BITS) - 1;
+    private static final PendingEvent SHUTDOWN = new PendingEvent(null);
+
+    private static final int HAS_USER = 1;
+    private static final int HAS_SUBMISSION = 2;
+    private static final int HAS_STATUS = 4;
+
+    @Value("${battle.event-log.dir:data/battle-events}")
+    private Path directory;
+
+    @Value("${battle.event-log.segment-bytes:67108864}")
+    private long segmentBytes;
+
+    @Value("${battle.event-log.max-batch-size:1024}")
+    private int maxBatchSize;
+
+    @Value("${battle.event-log.fsync:true}")
+    private boolean fsync;
+
+    @Value("${battle.event-log.retention-days:90}")
+    private int retentionDays;
+
+    private final Timer flushTimer;
+    private final DistributionSummary batchSizes;
+
+    private final LinkedBlockingQueue<PendingEvent> queue = new LinkedBlockingQueue<>();
+    // Null where a segment was deleted
+    private final List<Segment> segments = new CopyOnWriteArrayList<>();
+    private final ConcurrentHashMap<UUID, BattleIndex> index = new ConcurrentHashMap<>();
+    private final List<Consumer<BattleEvent>> subscribers = new CopyOnWriteArrayList<>();
+    private volatile boolean accepting;
+    private Thread writer;
+
+    // Owned by the writer thread once it has started
+    private FileChannel active;
+    private long activeSize;
+    private long nextSequence = 1;
+    private ByteBuffer buffer = ByteBuffer.allocate(64 * 1024);
+    private ByteArrayOutputStream activeIndex = new ByteArrayOutputStream();
+
+    public BattleEventLog(MeterRegistry meterRegistry) {
+        this.flushTimer = Timer.builder("codywar.battle.eventlog.flush")
+                .description("Time to write and fsync one batch of battle events")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        this.batchSizes = DistributionSummary.builder("codywar.battle.eventlog.batch.size")
+                .description("Battle events made durable per fsync")
+                .register(meterRegistry);
+        Gauge.builder("codywar.battle.eventlog.pending", queue, LinkedBlockingQueue::size)
+                .description("Battle events waiting for the writer")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void open() throws IOException {
+        Files.createDirectories(directory);
+        long start = System.nanoTime();
+
+        List<Path> files;
+        try (Stream<Path> listing = Files.list(directory)) {
+            files = listing.filter(p -> p.getFileName().toString().startsWith(SEGMENT_PREFIX)
+                            && p.getFileName().toString().endsWith(LOG_SUFFIX))
+                    .sorted()
+                    .collect(Collectors.toList());
+        }
+
+        for (int i = 0; i < files.size(); i++) {
+            Path file = files.get(i);
+            boolean last = i == files.size() - 1;
+            Segment segment = new Segment(file);
+            segments.add(segment);
+            // Sealed segments are not scanned, and the last one may be empty
+            nextSequence = Math.max(nextSequence, firstSequence(file));
+
+            Path indexFile = indexPath(file);
+            if (!last && Files.exists(indexFile)) {
+                loadIndex(i, indexFile);
+            } else {
+                long validEnd = scan(i, segment, last);
+                if (last) {
+                    active = FileChannel.open(file, StandardOpenOption.WRITE);
+                    if (validEnd < active.size()) {
+                        log.warn("Truncating torn battle event record at {}:{}", file.getFileName(), validEnd);
+                        active.truncate(validEnd);
+                        active.force(true);
+                    }
+                    active.position(validEnd);
+                    activeSize = validEnd;
+                } else {
+                    Files.write(indexFile, activeIndex.toByteArray());
+                    activeIndex = new ByteArrayOutputStream();
+                }
+            }
+        }
+        if (segments.isEmpty()) {
+            openSegment();
+        }
+
+        accepting = true;
+        writer = new Thread(this::writeLoop, "battle-event-log");
+        writer.start();
+        log.info("Battle event log opened with {} segments and {} battles in {} ms",
+                segments.size(), index.size(), TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+    }
+
+    @PreDestroy
+    public void close() throws InterruptedException, IOException {
+        accepting = false;
+        queue.add(SHUTDOWN);
+        writer.join(TimeUnit.SECONDS.toMillis(30));
+        for (Segment segment : segments) {
+            if (segment != null) {
+                segment.channel.close();
+            }
+        }
+    }
+
+    /**
+     * Queue an event; the future completes with its sequence number once it is on disk
+     */
+    public CompletableFuture<Long> append(BattleEvent event) {
+        PendingEvent pending = new PendingEvent(event);
+        if (!accepting) {
+            pending.future.completeExceptionally(new IllegalStateException("Battle event log is closed"));
+            return pending.future;
+        }
+        queue.add(pending);
+        return pending.future;
+    }
+
+    /**
+     * Append once the surrounding transaction commits, so the log never holds rolled-back events
+     */
+    public void appendAfterCommit(BattleEvent event) {
+        Transactions.afterCommit(() -> append(event));
+    }
+
+    /**
+     * Wait until every event queued before the call has been written; false if that takes longer than the timeout
+     */
+    public boolean flush(long timeout, TimeUnit unit) throws InterruptedException {
+        if (!accepting) {
+            return true;
+        }
+        PendingEvent barrier = new PendingEvent(null);
+        queue.add(barrier);
+        try {
+            barrier.future.get(timeout, unit);
+            return true;
+        } catch (TimeoutException e) {
+            return false;
+        } catch (ExecutionException e) {
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    /**
+     * Called on the writer thread, in sequence order, after each event is durable; must not block
+     */
+    public void subscribe(Consumer<BattleEvent> subscriber) {
+        subscribers.add(subscriber);
+    }
+
+    /**
+     * Every stored event of a battle, in the order they were written
+     */
+    public List<BattleEvent> replay(UUID battleId) throws IOException {
+        BattleIndex battleIndex = index.get(battleId);
+        if (battleIndex == null) {
+            return List.of();
+        }
+
+        long[] positions = battleIndex.positions();
+        List<BattleEvent> events = new ArrayList<>(positions.length);
+        for (long position : positions) {
+            Segment segment = segments.get((int) (position >>> OFFSET_BITS));
+            // Deleted since the positions were read
+            if (segment != null) {
+                events.add(read(segment.channel, position & OFFSET_MASK));
+            }
+        }
+        return events;
+    }
+
+    /**
+     * Battles without a FINISHED or CANCELLED event
+     */
+    public Set<UUID> unfinishedBattles() {
+        return index.entrySet().stream()
+                .filter(entry -> !entry.getValue().finished)
+                .map(java.util.Map.Entry::getKey)
+                .collect(Collectors.toSet());
+    }
+
+    /**
+     * Delete the sealed segments past the retention that hold no event of an unfinished battle;
+     * returns how many were deleted
+     */
+    @Scheduled(fixedDelayString = "${battle.event-log.retention-check-interval-ms:3600000}")
+    public int deleteExpiredSegments() {
+        if (retentionDays <= 0) {
+            return 0;
+        }
+        Instant cutoff = Instant.now().minus(retentionDays, ChronoUnit.DAYS);
+        Set<Integer> pinned = new HashSet<>();
+        index.values().stream()
+                .filter(battleIndex -> !battleIndex.finished)
+                .forEach(battleIndex -> {
+                    for (long position : battleIndex.positions()) {
+                        pinned.add((int) (position >>> OFFSET_BITS));
+                    }
+                });
+
+        int deleted = 0;
+        // The last segment is the active one
+        for (int segmentNumber = 0; segmentNumber < segments.size() - 1; segmentNumber++) {
+            Segment segment = segments.get(segmentNumber);
+            if (segment == null || pinned.contains(segmentNumber)) {
+                continue;
+            }
+            try {
+                if (Files.getLastModifiedTime(segment.path).toInstant().isAfter(cutoff)) {
+                    continue;
+                }
+                int number = segmentNumber;
+                for (UUID battleId : index.keySet()) {
+                    index.computeIfPresent(battleId, (id, battleIndex) -> battleIndex.removeSegment(number) ? null : battleIndex);
+                }
+                segments.set(segmentNumber, null);
+                segment.channel.close();
+                Files.deleteIfExists(segment.path);
+                Files.deleteIfExists(indexPath(segment.path));
+                deleted++;
+            } catch (IOException e) {
+                log.warn("Could not delete battle event segment {}: {}", segment.path.getFileName(), e.getMessage());
+            }
+        }
+        if (deleted > 0) {
+            log.info("Deleted {} battle event segments older than {} days", deleted, retentionDays);
+        }
+        return deleted;
+    }
+
+    private void writeLoop() {
+        List<PendingEvent> batch = new ArrayList<>(maxBatchSize);
+        boolean stopping = false;
+        while (!stopping || !queue.isEmpty()) {
+            try {
+                batch.add(queue.take());
+            } catch (InterruptedException e) {
+                continue;
+            }
+            queue.drainTo(batch, maxBatchSize - 1);
+            if (batch.remove(SHUTDOWN)) {
+                stopping = true;
+            }
+            List<PendingEvent> barriers = batch.stream().filter(pending -> pending.event == null).toList();
+            batch.removeAll(barriers);
+            if (!batch.isEmpty()) {
+                writeBatch(batch);
+            }
+            barriers.forEach(barrier -> barrier.future.complete(nextSequence - 1));
+            batch.clear();
+        }
+        try {
+            writeIndexFile(segments.size() - 1);
+            active.close();
+        } catch (IOException e) {
+            log.warn("Could not write the battle event index on shutdown: {}", e.getMessage());
+        }
+    }
+
+    private void writeBatch(List<PendingEvent> batch) {
+        long start = System.nanoTime();
+        long batchStart = activeSize;
+        long firstSequence = nextSequence;
+        BattleEvent[] events = new BattleEvent[batch.size()];
+        long[] offsets = new long[batch.size()];
+
+        try {
+            if (activeSize >= segmentBytes) {
+                rollSegment();
+                batchStart = 0;
+            }
+
+            buffer.clear();
+            for (int i = 0; i < events.length; i++) {
+                events[i] = batch.get(i).event.toBuilder().sequence(nextSequence++).build();
+                offsets[i] = batchStart + buffer.position();
+                encode(events[i]);
+            }
+            buffer.flip();
+            while (buffer.hasRemaining()) {
+                active.write(buffer);
+            }
+            if (fsync) {
+                active.force(false);
+            }
+            activeSize = active.position();
+        } catch (IOException | RuntimeException e) {
+            log.error("Failed to write {} battle events", batch.size(), e);
+            nextSequence = firstSequence;
+            try {
+                active.truncate(batchStart);
+                active.position(batchStart);
+            } catch (IOException truncateFailure) {
+                log.error("Could not roll back a partial battle event batch", truncateFailure);
+            }
+            batch.forEach(pending -> pending.future.completeExceptionally(e));
+            return;
+        }
+
+        int segmentNumber = segments.size() - 1;
+        for (int i = 0; i < events.length; i++) {
+            BattleEvent event = events[i];
+            addToIndex(segmentNumber, offsets[i], event.getBattleId(), event.getType());
+            batch.get(i).future.complete(event.getSequence());
+            for (Consumer<BattleEvent> subscriber : subscribers) {
+                try {
+                    subscriber.accept(event);
+                } catch (RuntimeException e) {
+                    log.error("Battle event subscriber failed on {} {}", event.getType(), event.getBattleId(), e);
+                }
+            }
+        }
+        flushTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        batchSizes.record(events.length);
+    }
+
+    private void rollSegment() throws IOException {
+        writeIndexFile(segments.size() - 1);
+        active.close();
+        openSegment();
+    }
+
+    private void openSegment() throws IOException {
+        Path file = directory.resolve(String.format("%s%020d%s", SEGMENT_PREFIX, nextSequence, LOG_SUFFIX));
+        active = FileChannel.open(file, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE);
+        activeSize = 0;
+        activeIndex = new ByteArrayOutputStream();
+        segments.add(new Segment(file));
+    }
+
+    private void writeIndexFile(int segmentNumber) throws IOException {
+        Path indexFile = indexPath(segments.get(segmentNumber).path);
+        Files.write(indexFile, activeIndex.toByteArray());
+    }
+
+    /**
+     * Read records from the start of a segment until the end or the first torn or corrupt one
+     */
+    private long scan(int segmentNumber, Segment segment, boolean last) throws IOException {
+        long size = segment.channel.size();
+        long offset = 0;
+        ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+
+        while (offset + HEADER_BYTES <= size) {
+            header.clear();
+            readFully(segment.channel, header, offset);
+            header.flip();
+            int length = header.getInt();
+            int checksum = header.getInt();
+            if (length <= 0 || length > MAX_PAYLOAD_BYTES || offset + HEADER_BYTES + length > size) {
+                break;
+            }
+
+            ByteBuffer payload = ByteBuffer.allocate(length);
+            readFully(segment.channel, payload, offset + HEADER_BYTES);
+            payload.flip();
+            if (crc(payload) != checksum) {
+                break;
+            }
+
+            BattleEvent event = decode(payload);
+            addToIndex(segmentNumber, offset, event.getBattleId(), event.getType());
+            nextSequence = Math.max(nextSequence, event.getSequence() + 1);
+            offset += HEADER_BYTES + length;
+        }
+
+        if (offset < size && !last) {
+            log.error("Corrupt battle event record in sealed segment {} at {}; the rest of it is skipped",
+                    segment.path.getFileName(), offset);
+        }
+        return offset;
+    }
+
+    private void loadIndex(int segmentNumber, Path indexFile) throws IOException {
+        ByteBuffer entries = ByteBuffer.wrap(Files.readAllBytes(indexFile));
+        while (entries.remaining() >= INDEX_ENTRY_BYTES) {
+            UUID battleId = new UUID(entries.getLong(), entries.getLong());
+            long offset = entries.getLong();
+            BattleEventType type = BattleEventType.values()[entries.get()];
+            addToIndex(segmentNumber, offset, battleId, type);
+        }
+        activeIndex = new ByteArrayOutputStream();
+    }
+
+    private void addToIndex(int segmentNumber, long offset, UUID battleId, BattleEventType type) {
+        // Under the map's lock, so a segment deletion cannot drop the battle in between
+        index.compute(battleId, (id, battleIndex) -> {
+            BattleIndex target = battleIndex != null ? battleIndex : new BattleIndex();
+            target.add(((long) segmentNumber << OFFSET_BITS) | offset, type);
+            return target;
+        });
+
+        try {
+            DataOutputStream out = new DataOutputStream(activeIndex);
+            out.writeLong(battleId.getMostSignificantBits());
+            out.writeLong(battleId.getLeastSignificantBits());
+            out.writeLong(offset);
+            out.writeByte(type.ordinal());
+        } catch (IOException e) {
+            throw new IllegalStateException(e);  // ByteArrayOutputStream does not throw
+        }
+    }
+
+    private void encode(BattleEvent event) {
+        byte[] status = event.getStatus() != null ? event.getStatus().getBytes(StandardCharsets.UTF_8) : null;
+        int maxRecordBytes = HEADER_BYTES + 96 + (status != null ? status.length : 0);
+        if (buffer.remaining() < maxRecordBytes) {
+            ByteBuffer larger = ByteBuffer.allocate(Math.max(buffer.capacity() * 2, buffer.position() + maxRecordBytes));
+            buffer.flip();
+            larger.put(buffer);
+            buffer = larger;
+        }
+
+        int start = buffer.position();
+        buffer.position(start + HEADER_BYTES);
+        buffer.put((byte) event.getType().ordinal());
+        buffer.putLong(event.getSequence());
+        buffer.putLong(event.getOccurredAt().toEpochMilli());
+        putUuid(event.getBattleId());
+        buffer.put((byte) ((event.getUserId() != null ? HAS_USER : 0)
+                | (event.getSubmissionId() != null ? HAS_SUBMISSION : 0)
+                | (status != null ? HAS_STATUS : 0)));
+        if (event.getUserId() != null) {
+            putUuid(event.getUserId());
+        }
+        if (event.getSubmissionId() != null) {
+            putUuid(event.getSubmissionId());
+        }
+        if (status != null) {
+            buffer.putShort((short) status.length);
+            buffer.put(status);
+        }
+        buffer.putInt(event.getValue());
+
+        int end = buffer.position();
+        buffer.putInt(start, end - start - HEADER_BYTES);
+        buffer.putInt(start + 4, crc(buffer.duplicate().position(start + HEADER_BYTES).limit(end)));
+    }
+
+    private void putUuid(UUID id) {
+        buffer.putLong(id.getMostSignificantBits());
+        buffer.putLong(id.getLeastSignificantBits());
+    }
+
+    private static BattleEvent decode(ByteBuffer payload) {
+        BattleEvent.BattleEventBuilder event = BattleEvent.builder()
+                .type(BattleEventType.values()[payload.get()])
+                .sequence(payload.getLong())
+                .occurredAt(Instant.ofEpochMilli(payload.getLong()))
+                .battleId(new UUID(payload.getLong(), payload.getLong()));
+        int flags = payload.get();
+        if ((flags & HAS_USER) != 0) {
+            event.userId(new UUID(payload.getLong(), payload.getLong()));
+        }
+        if ((flags & HAS_SUBMISSION) != 0) {
+            event.submissionId(new UUID(payload.getLong(), payload.getLong()));
+        }
+        if ((flags & HAS_STATUS) != 0) {
+            byte[] status = new byte[payload.getShort()];
+            payload.get(status);
+            event.status(new String(status, StandardCharsets.UTF_8));
+        }
+        return event.value(payload.getInt()).build();
+    }
+
+    private static BattleEvent read(FileChannel channel, long offset) throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+        readFully(channel, header, offset);
+        header.flip();
+        int length = header.getInt();
+        int checksum = header.getInt();
+
+        ByteBuffer payload = ByteBuffer.allocate(length);
+        readFully(channel, payload, offset + HEADER_BYTES);
+        payload.flip();
+        if (crc(payload) != checksum) {
+            throw new IOException("Corrupt battle event record at offset " + offset);
+        }
+        return decode(payload);
+    }
+
+    private static void readFully(FileChannel channel, ByteBuffer target, long position) throws IOException {
+        while (target.hasRemaining()) {
+            int read = channel.read(target, position + target.position());
+            if (read < 0) {
+                throw new EOFException();
+            }
+        }
+    }
+
+    private static int crc(ByteBuffer data) {
+        CRC32 crc = new CRC32();
+        crc.update(data.duplicate());
+        return (int) crc.getValue();
+    }
+
+    // A segment is named after the sequence number it was opened at
+    private static long firstSequence(Path segment) {
+        String name = segment.getFileName().toString();
+        return Long.parseLong(name.substring(SEGMENT_PREFIX.length(), name.length() - LOG_SUFFIX.length()));
+    }
+
+    private static Path indexPath(Path segment) {
+        String name = segment.getFileName().toString();
+        return segment.resolveSibling(name.substring(0, name.length() - LOG_SUFFIX.length()) + INDEX_SUFFIX);
+    }
+
+    private static final class Segment {
+        private final Path path;
+        // Positional reads only, safe to share between threads
+        private final FileChannel channel;
+
+        private Segment(Path path) throws IOException {
+            this.path = path;
+            this.channel = FileChannel.open(path, StandardOpenOption.READ);
+        }
+    }
+
+    private static final class BattleIndex {
+        private long[] positions = new long[8];
+        private int size;
+        // Late events, such as verdicts arriving after the battle ended, do not reopen it
+        private volatile boolean finished;
+
+        private synchronized void add(long position, BattleEventType type) {
+            if (size == positions.length) {
+                positions = Arrays.copyOf(positions, size * 2);
+            }
+            positions[size++] = position;
+            finished |= type.isTerminal();
+        }
+
+        private synchronized long[] positions() {
+            return Arrays.copyOf(positions, size);
+        }
+
+        // Drops the positions in a segment; true if none are left
+        private synchronized boolean removeSegment(int segmentNumber) {
+            int kept = 0;
+            for (int i = 0; i < size; i++) {
+                if ((int) (positions[i] >>> OFFSET_BITS) != segmentNumber) {
+                    positions[kept++] = positions[i];
+                }
+            }
+            size = kept;
+            return size == 0;
+        }
+    }
+
+    private static final class PendingEvent {
+        private final BattleEvent event;
+        private final CompletableFuture<Long> future = new CompletableFuture<>();
+
+        private PendingEvent(BattleEvent event) {
+            this.event = event;
+        }
+    }
+}
@@ -0,0 +1,544 @@
+package com.gourav.CodyWar.Service;
+
+import com.gourav.CodyWar.Cluster.BattleRouter;
+import com.gourav.CodyWar.Domain.Dto.BattleEventDto;
+import com.gourav.CodyWar.Domain.Dto.BattleParticipantDto;
+import com.gourav.CodyWar.Domain.Dto.BattleRequestDto;
+import com.gourav.CodyWar.Domain.Dto.BattleResponseDto;
+import com.gourav.CodyWar.Domain.Entity.ArchivedBattle;
+import com.gourav.CodyWar.Domain.Entity.ArchivedBattleParticipant;
+import com.gourav.CodyWar.Domain.Entity.Battle;
+import com.gourav.CodyWar.Domain.Entity.BattleParticipant;
+import com.gourav.CodyWar.Domain.Entity.BattleStatus;
+import com.gourav.CodyWar.Domain.Entity.Problem;
+import com.gourav.CodyWar.Domain.Entity.SubmissionStatus;
+import com.gourav.CodyWar.Domain.Entity.User;
+import com.gourav.CodyWar.Domain.Event.BattleEvent;
+import com.gourav.CodyWar.Domain.Event.BattleFinishedEvent;
+import com.gourav.CodyWar.Domain.Event.BattleEventType;
+import com.gourav.CodyWar.Domain.Event.SubmissionCreatedEvent;
+import com.gourav.CodyWar.Domain.Event.SubmissionJudgedEvent;
+import com.gourav.CodyWar.Repository.ArchivedBattleParticipantRepository;
+import com.gourav.CodyWar.Repository.ArchivedBattleRepository;
+import com.gourav.CodyWar.Repository.BattleParticipantRepository;
+import com.gourav.CodyWar.Repository.BattleRepository;
+import com.gourav.CodyWar.Repository.ProblemRepository;
+import com.gourav.CodyWar.Repository.UserRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityNotFoundException;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.Session;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+/**
+ * Battle lifecycle: create, join, ready up, leave, and finish on the first accepted
+ * submission or when time runs out. Every transition is also appended to the battle
+ * event log once its transaction commits.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+@Transactional
+public class BattleService {
+
+    private final BattleRepository battleRepository;
+    private final BattleParticipantRepository battleParticipantRepository;
+    private final ProblemRepository problemRepository;
+    private final UserRepository userRepository;
+    private final ArchivedBattleRepository archivedBattleRepository;
+    private final ArchivedBattleParticipantRepository archivedBattleParticipantRepository;
+    private final BattleEventLog battleEventLog;
+    private final LiveBattleRegistry liveBattleRegistry;
+    private final TransactionTemplate transactionTemplate;
+    private final RoomCodeAllocator roomCodeAllocator;
+    private final BattleRouter battleRouter;
+    private final DrainGate drainGate;
+    private final DifficultyCalibrator difficultyCalibrator;
+    private final ApplicationEventPublisher eventPublisher;
+    private final EntityManager entityManager;
+
+    @Value("${battle.expiry-batch-size:100}")
+    private int expiryBatchSize;
+
+    public BattleResponseDto createBattle(BattleRequestDto request, UUID userId) {
+        drainGate.checkOpen();
+        UUID problemId = request.getProblemId() != null ? request.getProblemId() : pickProblem(userId);
+        Problem problem = problemRepository.findById(problemId)
+                .orElseThrow(() -> new EntityNotFoundException("Problem not found with ID: " + problemId));
+
+        Battle battle = Battle.builder()
+                .id(battleRouter.newBattleId())
+                .problem(problem)
+                .maxParticipants(request.getMaxParticipants())
+                .durationSeconds(request.getDurationSeconds())
+                .isPrivate(request.isPrivate())
+                .roomCode(request.isPrivate() ? allocateRoomCode() : null)
+                .build();
+        battle.getParticipants().add(BattleParticipant.builder()
+                .battle(battle)
+                .user(userRepository.getReferenceById(userId))
+                .build());
+        battle = battleRepository.save(battle);
+        if (battle.getRoomCode() != null) {
+            roomCodeAllocator.bind(battle.getRoomCode(), battle.getId());
+        }
+
+        Instant now = battle.getCreatedAt();
+        record(event(BattleEventType.CREATED, battle.getId(), userId, now));
+        record(event(BattleEventType.JOINED, battle.getId(), userId, now));
+        log.debug("Battle {} created by {}", battle.getId(), userId);
+        return mapToResponseDto(battle, userId);
+    }
+
+    /**
+     * Create battles that start right away, one per lineup, e.g. a tournament round. They are inserted
+     * as one JDBC batch per table rather than a statement each; the ids come back in lineup order.
+     */
+    public List<UUID> startBattles(UUID problemId, int durationSeconds, List<List<UUID>> lineups) {
+        drainGate.checkOpen();
+        Problem problem = problemRepository.getReferenceById(problemId);
+        Instant now = Instant.now();
+        List<Battle> battles = new ArrayList<>(lineups.size());
+        for (List<UUID> lineup : lineups) {
+            Battle battle = Battle.builder()
+                    .id(battleRouter.newBattleId())
+                    .problem(problem)
+                    .status(BattleStatus.IN_PROGRESS)
+                    .maxParticipants(lineup.size())
+                    .durationSeconds(durationSeconds)
+                    .startedAt(now)
+                    .build();
+            for (UUID userId : lineup) {
+                battle.getParticipants().add(BattleParticipant.builder()
+                        .battle(battle)
+                        .user(userRepository.getReferenceById(userId))
+                        .isReady(true)
+                        .build());
+            }
+            battles.add(battle);
+        }
+
+        // persist rather than save: the ids are assigned, so save would look each battle up first
+        Session session = entityManager.unwrap(Session.class);
+        Integer batchSize = session.getJdbcBatchSize();
+        session.setJdbcBatchSize(Math.max(1, lineups.stream().mapToInt(List::size).sum()));
+        try {
+            battles.forEach(entityManager::persist);
+            entityManager.flush();
+        } finally {
+            session.setJdbcBatchSize(batchSize);
+        }
+        // Not changed again here; left managed, every later flush of the transaction would check them all
+        battles.forEach(entityManager::detach);
+
+        List<UUID> ids = new ArrayList<>(battles.size());
+        for (int i = 0; i < battles.size(); i++) {
+            UUID battleId = battles.get(i).getId();
+            record(event(BattleEventType.CREATED, battleId, null, now));
+            for (UUID userId : lineups.get(i)) {
+                record(event(BattleEventType.JOINED, battleId, userId, now));
+                record(event(BattleEventType.READY, battleId, userId, now));
+            }
+            record(event(BattleEventType.STARTED, battleId, null, now).value(durationSeconds));
+            ids.add(battleId);
+        }
+        log.debug("Started {} battles on problem {}", ids.size(), problemId);
+        return ids;
+    }
+
+    /**
+     * Get a battle, falling back to the archive for battles that finished long ago. Like spectating,
+     * a private battle does not exist for anyone outside it
+     */
+    @Transactional(readOnly = true)
+    public BattleResponseDto getBattle(UUID battleId, UUID userId) {
+        BattleResponseDto battle = battleRepository.findById(battleId)
+                .map(found -> mapToResponseDto(found, userId))
+                .orElseGet(() -> mapToResponseDto(findArchivedBattle(battleId), userId));
+        if (battle.isPrivate() && !isParticipant(battle.getParticipants(), userId)) {
+            throw new EntityNotFoundException("Battle not found with ID: " + battleId);
+        }
+        return battle;
+    }
+
+    public BattleResponseDto joinBattle(UUID battleId, UUID userId) {
+        drainGate.checkOpen();
+        Battle battle = lockBattle(battleId);
+        if (battle.isPrivate()) {
+            throw new IllegalArgumentException("Private battles can only be joined with their room code");
+        }
+        return join(battle, userId);
+    }
+
+    public BattleResponseDto joinByRoomCode(String roomCode, UUID userId) {
+        drainGate.checkOpen();
+        UUID battleId = roomCodeAllocator.find(roomCode);
+        if (battleId == null && battleRouter.isClustered() && roomCode != null) {
+            // Another node's code; only reached if the code was allocated after routing looked it up
+            battleId = battleRepository.findIdByRoomCode(roomCode.toUpperCase()).orElse(null);
+        }
+        if (battleId == null) {
+            throw new EntityNotFoundException("No battle with room code: " + roomCode);
+        }
+        return join(lockBattle(battleId), userId);
+    }
+
+    /**
+     * Mark the caller ready; the battle starts once at least two participants are all ready
+     */
+    public BattleResponseDto markReady(UUID battleId, UUID userId) {
+        drainGate.checkOpen();
+        Battle battle = lockBattle(battleId);
+        requireWaiting(battle);
+        BattleParticipant participant = findParticipant(battleId, userId);
+        if (participant.isReady()) {
+            return mapToResponseDto(battle, userId);
+        }
+
+        Instant now = Instant.now();
+        participant.setReady(true);
+        record(event(BattleEventType.READY, battleId, userId, now));
+
+        List<BattleParticipant> participants = battleParticipantRepository.findWithUserByBattleId(battleId);
+        if (participants.size() >= 2 && participants.stream().allMatch(BattleParticipant::isReady)) {
+            battle.setStatus(BattleStatus.IN_PROGRESS);
+            battle.setStartedAt(now);
+            record(event(BattleEventType.STARTED, battleId, null, now).value(battle.getDurationSeconds()));
+            log.debug("Battle {} started with {} participants", battleId, participants.size());
+        }
+        return mapToResponseDto(battle, userId);
+    }
+
+    /**
+     * Leave a battle that has not started; it is cancelled when the last participant leaves
+     */
+    public BattleResponseDto leaveBattle(UUID battleId, UUID userId) {
+        drainGate.checkOpen();
+        Battle battle = lockBattle(battleId);
+        requireWaiting(battle);
+        BattleParticipant participant = findParticipant(battleId, userId);
+
+        Instant now = Instant.now();
+        battle.getParticipants().remove(participant);
+        battleParticipantRepository.delete(participant);
+        record(event(BattleEventType.LEFT, battleId, userId, now));
+
+        if (battleParticipantRepository.countByBattleId(battleId) == 0) {
+            battle.setStatus(BattleStatus.CANCELLED);
+            battle.setFinishedAt(now);
+            battle.setRoomCode(null);
+            record(event(BattleEventType.CANCELLED, battleId, null, now));
+        }
+        return mapToResponseDto(battle, userId);
+    }
+
+    /**
+     * Everything that happened in a finished battle, in order, read back from the event log
+     */
+    @Transactional(readOnly = true)
+    public List<BattleEventDto> getTimeline(UUID battleId, UUID userId) {
+        String status = getBattle(battleId, userId).getStatus();
+        if (!status.equals(BattleStatus.COMPLETED.name()) && !status.equals(BattleStatus.CANCELLED.name())) {
+            throw new IllegalArgumentException("The timeline is available once the battle has finished");
+        }
+
+        List<BattleEventDto> timeline = new ArrayList<>(getLocalTimeline(battleId));
+        if (battleRouter.isClustered()) {
+            // A battle that changed owner has its events split across the nodes that ran it
+            timeline.addAll(battleRouter.peerEvents(battleId));
+            timeline.sort(Comparator.comparing(BattleEventDto::getOccurredAt));
+        }
+        return timeline;
+    }
+
+    /**
+     * The events of a battle logged by this node only
+     */
+    @Transactional(readOnly = true)
+    public List<BattleEventDto> getLocalTimeline(UUID battleId) {
+        try {
+            return battleEventLog.replay(battleId).stream()
+                    .map(this::mapToEventDto)
+                    .toList();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not read the timeline of battle " + battleId, e);
+        }
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT)
+    public void onSubmissionCreated(SubmissionCreatedEvent event) {
+        if (event.getBattleId() == null) {
+            return;
+        }
+        record(event(BattleEventType.SUBMITTED, event.getBattleId(), event.getUserId(), event.getSubmittedAt())
+                .submissionId(event.getSubmissionId()));
+    }
+
+    /**
+     * Score a battle submission in the verdict's transaction; the first accepted one wins the battle
+     */
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT)
+    public void onSubmissionJudged(SubmissionJudgedEvent event) {
+        if (event.getBattleId() == null) {
+            return;
+        }
+
+        int total = event.getTotalTestCases() != null ? event.getTotalTestCases() : 0;
+        int passed = event.getTestCasesPassed() != null ? event.getTestCasesPassed() : 0;
+        int score = total > 0 ? passed * 100 / total : 0;
+        battleParticipantRepository.raiseScore(event.getBattleId(), event.getUserId(), score);
+        record(event(BattleEventType.VERDICT, event.getBattleId(), event.getUserId(), event.getJudgedAt())
+                .submissionId(event.getSubmissionId())
+                .status(event.getStatus().name())
+                .value(score));
+
+        if (event.getStatus() == SubmissionStatus.ACCEPTED
+                && finish(event.getBattleId(), event.getUserId(), event.getJudgedAt())) {
+            log.debug("Battle {} won by {}", event.getBattleId(), event.getUserId());
+        }
+    }
+
+    /**
+     * Finish running battles whose time is up; the best score wins, a tie at the top is a draw
+     */
+    @Scheduled(fixedDelayString = "${battle.expiry-check-interval-ms:1000}")
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public void expireBattles() {
+        Instant now = Instant.now();
+        List<UUID> expired = liveBattleRegistry.expiredAt(now);
+        // Battles started together, like a tournament round, run out together: one commit per chunk
+        for (int from = 0; from < expired.size(); from += expiryBatchSize) {
+            List<UUID> chunk = expired.subList(from, Math.min(expired.size(), from + expiryBatchSize));
+            try {
+                transactionTemplate.executeWithoutResult(status -> chunk.forEach(battleId -> finishOnTimeout(battleId, now)));
+            } catch (RuntimeException e) {
+                // One at a time, so a battle that cannot be finished does not hold up the others
+                for (UUID battleId : chunk) {
+                    try {
+                        transactionTemplate.executeWithoutResult(status -> finishOnTimeout(battleId, now));
+                    } catch (RuntimeException retryFailure) {
+                        log.error("Failed to finish expired battle {}", battleId, retryFailure);
+                    }
+                }
+            }
+        }
+    }
+
+    private void finishOnTimeout(UUID battleId, Instant now) {
+        List<BattleParticipant> ranked = battleParticipantRepository.findWithUserByBattleId(battleId).stream()
+                .sorted(Comparator.comparingInt(BattleParticipant::getScore).reversed())
+                .toList();
+        UUID winnerId = null;
+        if (!ranked.isEmpty() && ranked.get(0).getScore() > 0
+                && (ranked.size() == 1 || ranked.get(1).getScore() < ranked.get(0).getScore())) {
+            winnerId = ranked.get(0).getUser().getId();
+        }
+
+        if (finish(battleId, winnerId, now)) {
+            log.debug("Battle {} ran out of time, winner {}", battleId, winnerId);
+            return;
+        }
+
+        // Finished in the database but the log missed it, e.g. a crash right after commit
+        Battle battle = battleRepository.findById(battleId).orElse(null);
+        if (battle == null || battle.getStatus() == BattleStatus.CANCELLED) {
+            record(event(BattleEventType.CANCELLED, battleId, null, now));
+        } else if (battle.getStatus() == BattleStatus.COMPLETED) {
+            record(event(BattleEventType.FINISHED, battleId,
+                    battle.getWinner() != null ? battle.getWinner().getId() : null, battle.getFinishedAt()));
+        }
+    }
+
+    private boolean finish(UUID battleId, UUID winnerId, Instant finishedAt) {
+        int updated = battleRepository.finish(battleId, BattleStatus.COMPLETED,
+                winnerId != null ? userRepository.getReferenceById(winnerId) : null, finishedAt);
+        if (updated == 0) {
+            return false;
+        }
+
+        userRepository.incrementBattlesPlayed(battleId);
+        if (winnerId != null) {
+            userRepository.incrementBattlesWon(winnerId);
+            battleRepository.markWinnerSuspected(battleId);
+        }
+        record(event(BattleEventType.FINISHED, battleId, winnerId, finishedAt));
+        eventPublisher.publishEvent(new BattleFinishedEvent(battleId, winnerId, finishedAt));
+        return true;
+    }
+
+    private BattleResponseDto join(Battle battle, UUID userId) {
+        requireWaiting(battle);
+        if (battleParticipantRepository.existsByBattleIdAndUserId(battle.getId(), userId)) {
+            return mapToResponseDto(battle, userId);
+        }
+        if (battleParticipantRepository.countByBattleId(battle.getId()) >= battle.getMaxParticipants()) {
+            throw new IllegalArgumentException("Battle is full");
+        }
+
+        battleParticipantRepository.save(BattleParticipant.builder()
+                .battle(battle)
+                .user(userRepository.getReferenceById(userId))
+                .build());
+        record(event(BattleEventType.JOINED, battle.getId(), userId, Instant.now()));
+        return mapToResponseDto(battle, userId);
+    }
+
+    private ArchivedBattle findArchivedBattle(UUID battleId) {
+        return archivedBattleRepository.findById(battleId)
+                .orElseThrow(() -> new EntityNotFoundException("Battle not found with ID: " + battleId));
+    }
+
+    private static boolean isParticipant(List<BattleParticipantDto> participants, UUID userId) {
+        return participants.stream().anyMatch(p -> p.getUserId().equals(userId));
+    }
+
+    private Battle lockBattle(UUID battleId) {
+        return battleRepository.findByIdForUpdate(battleId)
+                .orElseThrow(() -> new EntityNotFoundException("Battle not found with ID: " + battleId));
+    }
+
+    private BattleParticipant findParticipant(UUID battleId, UUID userId) {
+        return battleParticipantRepository.findByBattleIdAndUserId(battleId, userId)
+                .orElseThrow(() -> new IllegalArgumentException("You are not a participant of this battle"));
+    }
+
+    private void requireWaiting(Battle battle) {
+        if (battle.getStatus() != BattleStatus.WAITING) {
+            throw new IllegalArgumentException("Battle has already " +
+                    (battle.getStatus() == BattleStatus.IN_PROGRESS ? "started" : "finished"));
+        }
+    }
+
+    // A problem rated near the creator, for a battle created without one
+    private UUID pickProblem(UUID userId) {
+        User user = userRepository.findById(userId)
+                .orElseThrow(() -> new EntityNotFoundException("User not found with ID: " + userId));
+        UUID problemId = difficultyCalibrator.pickProblem(user.getRatingScore());
+        if (problemId == null) {
+            throw new EntityNotFoundException("No problem available for a battle");
+        }
+        return problemId;
+    }
+
+    // The code goes back to the pool if the battle is never committed
+    private String allocateRoomCode() {
+        String code = roomCodeAllocator.allocate();
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status != STATUS_COMMITTED) {
+                    roomCodeAllocator.discard(code);
+                }
+            }
+        });
+        return code;
+    }
+
+    private static BattleEvent.BattleEventBuilder event(BattleEventType type, UUID battleId, UUID userId, Instant at) {
+        return BattleEvent.builder()
+                .type(type)
+                .battleId(battleId)
+                .userId(userId)
+                .occurredAt(at != null ? at : Instant.now());
+    }
+
+    private void record(BattleEvent.BattleEventBuilder event) {
+        battleEventLog.appendAfterCommit(event.build());
+    }
+
+    // The room code is for the participants to share; nobody else sees it
+    private BattleResponseDto mapToResponseDto(Battle battle, UUID viewerId) {
+        List<BattleParticipantDto> participants = battleParticipantRepository.findWithUserByBattleId(battle.getId())
+                .stream()
+                .map(p -> BattleParticipantDto.builder()
+                        .userId(p.getUser().getId())
+                        .username(p.getUser().getUsername())
+                        .ready(p.isReady())
+                        .submitted(p.isHasSubmitted())
+                        .score(p.getScore())
+                        .build())
+                .toList();
+
+        return BattleResponseDto.builder()
+                .id(battle.getId())
+                .roomCode(isParticipant(participants, viewerId) ? battle.getRoomCode() : null)
+                .problemId(battle.getProblem().getId())
+                .status(battle.getStatus().name())
+                .maxParticipants(battle.getMaxParticipants())
+                .durationSeconds(battle.getDurationSeconds())
+                .isPrivate(battle.isPrivate())
+                .winnerId(battle.getWinner() != null ? battle.getWinner().getId() : null)
+                .winnerSuspected(battle.isWinnerSuspected())
+                .participants(participants)
+                .createdAt(battle.getCreatedAt())
+                .startedAt(battle.getStartedAt())
+                .finishedAt(battle.getFinishedAt())
+                .build();
+    }
+
+    private BattleResponseDto mapToResponseDto(ArchivedBattle battle, UUID viewerId) {
+        List<ArchivedBattleParticipant> archived =
+                archivedBattleParticipantRepository.findByBattleIdOrderByJoinedAt(battle.getId());
+        Map<UUID, String> usernames = userRepository.findAllById(
+                        archived.stream().map(ArchivedBattleParticipant::getUserId).toList()).stream()
+                .collect(Collectors.toMap(User::getId, User::getUsername));
+        List<BattleParticipantDto> participants = archived.stream()
+                .map(p -> BattleParticipantDto.builder()
+                        .userId(p.getUserId())
+                        .username(usernames.get(p.getUserId()))
+                        .ready(p.isReady())
+                        .submitted(p.isHasSubmitted())
+                        .score(p.getScore())
+                        .build())
+                .toList();
+
+        return BattleResponseDto.builder()
+                .id(battle.getId())
+                .roomCode(isParticipant(participants, viewerId) ? battle.getRoomCode() : null)
+                .problemId(battle.getProblemId())
+                .status(battle.getStatus().name())
+                .maxParticipants(battle.getMaxParticipants())
+                .durationSeconds(battle.getDurationSeconds())
+                .isPrivate(battle.isPrivate())
+                .winnerId(battle.getWinnerId())
+                .winnerSuspected(battle.isWinnerSuspected())
+                .participants(participants)
+                .createdAt(battle.getCreatedAt())
+                .startedAt(battle.getStartedAt())
+                .finishedAt(battle.getFinishedAt())
+                .build();
+    }
+
+    private BattleEventDto mapToEventDto(BattleEvent event) {
+        return BattleEventDto.builder()
+                .sequence(event.getSequence())
+                .type(event.getType().name())
+                .userId(event.getUserId())
+                .submissionId(event.getSubmissionId())
+                .status(event.getStatus())
+                .value(event.getValue())
+                .occurredAt(event.getOccurredAt())
+                .build();
+    }
+}
@@ -0,0 +1,463 @@
+package com.gourav.CodyWar.Service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.gourav.CodyWar.Domain.Dto.SpectatorDeltaDto;
+import com.gourav.CodyWar.Domain.Dto.SpectatorSnapshotDto;
+import com.gourav.CodyWar.Domain.Entity.Battle;
+import com.gourav.CodyWar.Domain.Entity.BattleStatus;
+import com.gourav.CodyWar.Domain.Entity.User;
+import com.gourav.CodyWar.Domain.Event.BattleEvent;
+import com.gourav.CodyWar.Domain.Event.BattleEventType;
+import com.gourav.CodyWar.Repository.BattleParticipantRepository;
+import com.gourav.CodyWar.Repository.BattleRepository;
+import com.gourav.CodyWar.Repository.UserRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityNotFoundException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Spectator feeds of live battles, one room per watched battle.
+ *
+ * A room keeps its own copy of the battle's state, folded from the battle event log. Each
+ * event becomes a delta frame that is serialized once and written as the same bytes to every
+ * viewer, so the per-room work is the same for one viewer or ten thousand, apart from the writes
+ * themselves. The room's state is serialized as a snapshot every few seconds while it changes, and
+ * the deltas it covers are dropped; a viewer joining late is sent the snapshot and the deltas
+ * since it. All of a room's sending happens on one sender thread at a time, so a late joiner
+ * never sees a delta before the snapshot it applies to. A viewer whose write has been stuck for
+ * longer than the write timeout is dropped so its room carries on; see {@link StreamSender}.
+ */
+@Slf4j
+@Service
+public class BattleSpectatorHub {
+
+    private final LiveBattleRegistry liveBattleRegistry;
+    private final BattleEventLog battleEventLog;
+    private final BattleRepository battleRepository;
+    private final BattleParticipantRepository battleParticipantRepository;
+    private final UserRepository userRepository;
+    private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
+    private final long timeoutMs;
+    private final int maxViewers;
+    private final StreamSender sender;
+    private final Counter slowDropped;
+
+    private final Map<UUID, Room> rooms = new ConcurrentHashMap<>();
+    private final AtomicInteger viewers = new AtomicInteger();
+
+    public BattleSpectatorHub(LiveBattleRegistry liveBattleRegistry,
+                              BattleEventLog battleEventLog,
+                              BattleRepository battleRepository,
+                              BattleParticipantRepository battleParticipantRepository,
+                              UserRepository userRepository,
+                              ObjectMapper objectMapper,
+                              MeterRegistry meterRegistry,
+                              @Value("${battle.spectate.timeout-ms:7800000}") long timeoutMs,
+                              @Value("${battle.spectate.max-viewers:10000}") int maxViewers,
+                              @Value("${battle.spectate.sender-threads:2}") int senderThreads,
+                              @Value("${battle.spectate.write-timeout-ms:5000}") long writeTimeoutMs) {
+        this.liveBattleRegistry = liveBattleRegistry;
+        this.battleEventLog = battleEventLog;
+        this.battleRepository = battleRepository;
+        this.battleParticipantRepository = battleParticipantRepository;
+        this.userRepository = userRepository;
+        this.objectMapper = objectMapper;
+        this.meterRegistry = meterRegistry;
+        this.timeoutMs = timeoutMs;
+        this.maxViewers = maxViewers;
+        this.sender = new StreamSender("battle-spectate-", senderThreads, writeTimeoutMs);
+        this.slowDropped = Counter.builder("codywar.battles.spectators.slow.dropped")
+                .description("Spectators dropped because a write to them got stuck")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void start() {
+        battleEventLog.subscribe(this::onEvent);
+        Gauge.builder("codywar.battles.spectators", viewers, AtomicInteger::get)
+                .description("Open spectator streams")
+                .register(meterRegistry);
+        Gauge.builder("codywar.battles.spectated", rooms, Map::size)
+                .description("Live battles with at least one spectator")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Watch a live battle: a snapshot, the deltas since it, then every delta as it happens until the battle ends
+     */
+    public SseEmitter subscribe(UUID battleId, UUID userId) {
+        LiveBattleRegistry.LiveBattle live = liveBattleRegistry.get(battleId)
+                .orElseThrow(() -> new EntityNotFoundException("No live battle with ID: " + battleId));
+        boolean hidden = battleRepository.findById(battleId).map(Battle::isPrivate).orElse(true)
+                && !battleParticipantRepository.existsByBattleIdAndUserId(battleId, userId);
+        if (hidden) {
+            throw new EntityNotFoundException("No live battle with ID: " + battleId);
+        }
+
+        if (viewers.incrementAndGet() > maxViewers) {
+            viewers.decrementAndGet();
+            throw new RejectedExecutionException("Too many spectators, please retry shortly");
+        }
+        SseEmitter emitter = createEmitter();
+        // Registered before its state is read, so no event in between is missed; replaying one twice is harmless
+        Room room = rooms.compute(battleId, (id, existing) -> {
+            Room target = existing != null ? existing : new Room(id);
+            target.joining.add(emitter);
+            return target;
+        });
+        if (room.initializing.compareAndSet(false, true)) {
+            try {
+                room.initialize(live, usernames(live));
+            } catch (RuntimeException e) {
+                room.initializing.set(false);
+                unsubscribe(room, emitter);
+                throw e;
+            }
+        }
+        emitter.onCompletion(() -> unsubscribe(room, emitter));
+        emitter.onTimeout(emitter::complete);
+        emitter.onError(e -> unsubscribe(room, emitter));
+        schedule(room);
+        return emitter;
+    }
+
+    /**
+     * Serialize a fresh snapshot for every room that changed since its last one
+     */
+    @Scheduled(fixedDelayString = "${battle.spectate.snapshot-interval-ms:5000}")
+    public void refreshSnapshots() {
+        for (Room room : rooms.values()) {
+            room.refresh = true;
+            schedule(room);
+        }
+    }
+
+    /**
+     * Drop the viewers whose write has been stuck past the write timeout; each is closed once its write returns
+     */
+    @Scheduled(fixedDelayString = "${battle.spectate.slow-check-interval-ms:1000}")
+    public void dropSlowViewers() {
+        long now = System.nanoTime();
+        for (Room room : rooms.values()) {
+            StreamSender.Write write = room.writing;
+            if (sender.expire(write, now)) {
+                slowDropped.increment();
+                log.debug("Dropping a slow spectator of battle {}", room.battleId);
+                unsubscribe(room, write.getEmitter());
+            }
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        sender.shutdownNow();
+        rooms.values().forEach(room -> {
+            room.viewers.forEach(SseEmitter::complete);
+            room.joining.forEach(SseEmitter::complete);
+        });
+        rooms.clear();
+    }
+
+    // On the event log's writer thread: only queue
+    private void onEvent(BattleEvent event) {
+        Room room = rooms.get(event.getBattleId());
+        if (room != null) {
+            room.events.add(event);
+            schedule(room);
+        }
+    }
+
+    private void schedule(Room room) {
+        if (room.draining.compareAndSet(false, true)) {
+            try {
+                sender.execute(() -> drain(room));
+            } catch (RejectedExecutionException e) {
+                // Shutting down
+                room.draining.set(false);
+            }
+        }
+    }
+
+    private void drain(Room room) {
+        while (true) {
+            // The subscriber initializing the room drains once it is done
+            if (!room.initialized) {
+                room.draining.set(false);
+                return;
+            }
+            boolean worked = false;
+            BattleEvent event;
+            while ((event = room.events.poll()) != null) {
+                worked = true;
+                Set<ResponseBodyEmitter.DataWithMediaType> frame = room.apply(event, this::username, this::serialize);
+                if (frame != null) {
+                    room.viewers.forEach(emitter -> send(room, emitter, frame));
+                }
+            }
+            if (room.refresh) {
+                room.refresh = false;
+                room.takeSnapshot(this::serialize);
+            }
+
+            SseEmitter joiner;
+            while ((joiner = room.joining.peek()) != null) {
+                worked = true;
+                // A viewer from here on, so a failed or stuck send below unsubscribes it like any other
+                room.viewers.add(joiner);
+                if (!room.joining.remove(joiner)) {
+                    // Unsubscribed meanwhile
+                    room.viewers.remove(joiner);
+                    continue;
+                }
+                if (room.snapshot == null) {
+                    room.takeSnapshot(this::serialize);
+                }
+                boolean sent = send(room, joiner, room.snapshot);
+                for (int i = 0; sent && i < room.deltas.size(); i++) {
+                    sent = send(room, joiner, room.deltas.get(i));
+                }
+            }
+
+            if (room.ended) {
+                rooms.remove(room.battleId, room);
+                room.viewers.forEach(SseEmitter::complete);
+                // Anyone who joined while the room was being dropped
+                room.joining.forEach(SseEmitter::complete);
+                return;
+            }
+            if (!worked) {
+                room.draining.set(false);
+                // Something may have been queued after the last poll but seen the flag still set
+                if ((room.events.isEmpty() && room.joining.isEmpty() && !room.refresh) || !room.draining.compareAndSet(false, true)) {
+                    return;
+                }
+            }
+        }
+    }
+
+    private boolean send(Room room, SseEmitter emitter, Set<ResponseBodyEmitter.DataWithMediaType> frame) {
+        StreamSender.Write write = sender.begin(emitter);
+        room.writing = write;
+        boolean sent = false;
+        try {
+            emitter.send(frame);
+            sent = true;
+        } catch (IOException e) {
+            log.debug("Dropping spectator of battle {}: {}", room.battleId, e.getMessage());
+            emitter.completeWithError(e);
+        } catch (IllegalStateException e) {
+            // Timed out or completed concurrently
+        } finally {
+            room.writing = null;
+        }
+        if (sender.end(write)) {
+            // Dropped while the write was stuck
+            if (sent) {
+                emitter.complete();
+            }
+            return false;
+        }
+        if (!sent) {
+            unsubscribe(room, emitter);
+        }
+        return sent;
+    }
+
+    // Overridden in tests to stand in for a viewer
+    SseEmitter createEmitter() {
+        return new SseEmitter(timeoutMs);
+    }
+
+    private void unsubscribe(Room room, SseEmitter emitter) {
+        // Under the map's lock for the key, so a viewer is never added to a room being dropped
+        AtomicBoolean removed = new AtomicBoolean();
+        rooms.computeIfPresent(room.battleId, (id, existing) -> {
+            if (existing != room) {
+                return existing;
+            }
+            removed.set(room.viewers.remove(emitter) | room.joining.remove(emitter));
+            return room.viewers.isEmpty() && room.joining.isEmpty() ? null : room;
+        });
+        if (removed.get() || room.viewers.remove(emitter) | room.joining.remove(emitter)) {
+            viewers.decrementAndGet();
+        }
+    }
+
+    private Map<UUID, String> usernames(LiveBattleRegistry.LiveBattle live) {
+        Map<UUID, String> usernames = new ConcurrentHashMap<>();
+        userRepository.findAllById(live.getParticipants().stream().map(LiveBattleRegistry.LiveParticipant::getUserId).toList())
+                .forEach(user -> usernames.put(user.getId(), user.getUsername()));
+        return usernames;
+    }
+
+    private String username(UUID userId) {
+        return userRepository.findById(userId).map(User::getUsername).orElse(null);
+    }
+
+    private Set<ResponseBodyEmitter.DataWithMediaType> serialize(String name, long frame, Object body) {
+        try {
+            // Written as is by the string converter: the JSON is produced once for all viewers
+            return SseEmitter.event()
+                    .id(Long.toString(frame))
+                    .name(name)
+                    .data(objectMapper.writeValueAsString(body), MediaType.APPLICATION_JSON)
+                    .build();
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize spectator frame", e);
+        }
+    }
+
+    @FunctionalInterface
+    private interface Serializer {
+        Set<ResponseBodyEmitter.DataWithMediaType> serialize(String name, long frame, Object body);
+    }
+
+    @FunctionalInterface
+    private interface Usernames {
+        String find(UUID userId);
+    }
+
+    private static final class Room {
+        private final UUID battleId;
+        private final List<SseEmitter> viewers = new CopyOnWriteArrayList<>();
+        private final ConcurrentLinkedQueue<SseEmitter> joining = new ConcurrentLinkedQueue<>();
+        private final ConcurrentLinkedQueue<BattleEvent> events = new ConcurrentLinkedQueue<>();
+        private final AtomicBoolean draining = new AtomicBoolean();
+        private final AtomicBoolean initializing = new AtomicBoolean();
+        private volatile boolean initialized;
+        private volatile boolean refresh;
+        // The send in progress, if any
+        private volatile StreamSender.Write writing;
+
+        // Owned by the draining thread once initialized
+        private final Map<UUID, SpectatorSnapshotDto.Participant> participants = new LinkedHashMap<>();
+        private Map<UUID, String> usernames;
+        private BattleStatus status;
+        private Instant startedAt;
+        private Instant deadline;
+        private long frame;
+        private Set<ResponseBodyEmitter.DataWithMediaType> snapshot;
+        private long snapshotFrame = -1;
+        private final List<Set<ResponseBodyEmitter.DataWithMediaType>> deltas = new ArrayList<>();
+        private boolean ended;
+
+        private Room(UUID battleId) {
+            this.battleId = battleId;
+        }
+
+        private synchronized void initialize(LiveBattleRegistry.LiveBattle live, Map<UUID, String> usernames) {
+            this.usernames = usernames;
+            status = live.getStatus();
+            startedAt = live.getStartedAt();
+            deadline = live.getDeadline();
+            for (LiveBattleRegistry.LiveParticipant participant : live.getParticipants()) {
+                participants.put(participant.getUserId(), SpectatorSnapshotDto.Participant.builder()
+                        .userId(participant.getUserId())
+                        .username(usernames.get(participant.getUserId()))
+                        .ready(participant.isReady())
+                        .submitted(participant.isSubmitted())
+                        .score(participant.getScore())
+                        .build());
+            }
+            initialized = true;
+        }
+
+        // Fold the event into the state; the delta frame to broadcast, or null if it changes nothing spectators see
+        private synchronized Set<ResponseBodyEmitter.DataWithMediaType> apply(BattleEvent event, Usernames names, Serializer serializer) {
+            SpectatorDeltaDto.SpectatorDeltaDtoBuilder delta = SpectatorDeltaDto.builder()
+                    .type(event.getType().name())
+                    .userId(event.getUserId())
+                    .occurredAt(event.getOccurredAt());
+            switch (event.getType()) {
+                case JOINED -> {
+                    String username = usernames.computeIfAbsent(event.getUserId(), names::find);
+                    participants.putIfAbsent(event.getUserId(), SpectatorSnapshotDto.Participant.builder()
+                            .userId(event.getUserId())
+                            .username(username)
+                            .build());
+                    delta.username(username);
+                }
+                case LEFT -> participants.remove(event.getUserId());
+                case READY -> participant(event).setReady(true);
+                case STARTED -> {
+                    status = BattleStatus.IN_PROGRESS;
+                    startedAt = event.getOccurredAt();
+                    deadline = startedAt.plusSeconds(event.getValue());
+                    delta.deadline(deadline);
+                }
+                case SUBMITTED -> participant(event).setSubmitted(true);
+                case VERDICT -> {
+                    SpectatorSnapshotDto.Participant participant = participant(event);
+                    participant.setScore(Math.max(participant.getScore(), event.getValue()));
+                    delta.verdict(event.getStatus()).score(participant.getScore());
+                }
+                case FINISHED, CANCELLED -> {
+                    status = event.getType() == BattleEventType.FINISHED
+                            ? BattleStatus.COMPLETED : BattleStatus.CANCELLED;
+                    ended = true;
+                }
+                default -> {
+                    return null;
+                }
+            }
+
+            Set<ResponseBodyEmitter.DataWithMediaType> frameData = serializer.serialize("delta", ++frame, delta.frame(frame).build());
+            deltas.add(frameData);
+            return frameData;
+        }
+
+        private synchronized void takeSnapshot(Serializer serializer) {
+            if (snapshotFrame == frame && snapshot != null) {
+                return;
+            }
+            snapshot = serializer.serialize("snapshot", frame, SpectatorSnapshotDto.builder()
+                    .battleId(battleId)
+                    .frame(frame)
+                    .status(status.name())
+                    .startedAt(startedAt)
+                    .deadline(deadline)
+                    .participants(participants.values().stream()
+                            .map(participant -> new SpectatorSnapshotDto.Participant(participant.getUserId(),
+                                    participant.getUsername(), participant.isReady(), participant.isSubmitted(),
+                                    participant.getScore()))
+                            .toList())
+                    .build());
+            snapshotFrame = frame;
+            deltas.clear();
+        }
+
+        private SpectatorSnapshotDto.Participant participant(BattleEvent event) {
+            return participants.computeIfAbsent(event.getUserId(), userId -> SpectatorSnapshotDto.Participant.builder()
+                    .userId(userId)
+                    .username(usernames.get(userId))
+                    .build());
+        }
+    }
+}
@@ -0,0 +1,223 @@
+package com.gourav.CodyWar.Service;
+
+import com.gourav.CodyWar.Domain.Entity.Language;
+
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Winnowed k-gram fingerprints of source code, after Schleimer, Wilkerson and Aiken.
+ *
+ * The code is reduced to a token stream in which comments and layout are gone and every
+ * identifier, number and string literal is the same token, so renaming variables or rewording
+ * comments changes nothing; keywords and punctuation keep the program's shape. Each run of k
+ * tokens is hashed, and of every w consecutive hashes the smallest is kept. Two programs sharing
+ * a run of at least w + k - 1 tokens are guaranteed to share a fingerprint.
+ */
+public final class CodeFingerprinter {
+
+    private static final int IDENTIFIER = 1;
+    private static final int NUMBER = 2;
+    private static final int STRING = 3;
+    private static final int[] NONE = new int[0];
+
+    private static final Set<String> C_FAMILY = Set.of(
+            "if", "else", "for", "while", "do", "switch", "case", "default", "break", "continue", "return",
+            "goto", "struct", "union", "enum", "typedef", "const", "static", "sizeof", "void", "int", "long",
+            "short", "char", "float", "double", "unsigned", "signed", "bool", "true", "false");
+
+    private static final Map<Language, Set<String>> KEYWORDS = new EnumMap<>(Language.class);
+
+    static {
+        KEYWORDS.put(Language.C, C_FAMILY);
+        KEYWORDS.put(Language.CPP, union(C_FAMILY, "class", "public", "private", "protected", "template",
+                "typename", "namespace", "using", "new", "delete", "auto", "nullptr", "this", "virtual",
+                "try", "catch", "throw", "vector", "string", "map", "set", "pair", "cin", "cout", "endl"));
+        KEYWORDS.put(Language.JAVA, union(C_FAMILY, "class", "interface", "extends", "implements", "public",
+                "private", "protected", "final", "new", "null", "this", "super", "try", "catch", "finally",
+                "throw", "throws", "import", "package", "var", "boolean", "byte", "instanceof", "String",
+                "System", "Scanner", "List", "Map", "Set"));
+        KEYWORDS.put(Language.KOTLIN, Set.of("fun", "val", "var", "if", "else", "for", "while", "do", "when",
+                "return", "break", "continue", "class", "object", "in", "is", "as", "null", "true", "false",
+                "this", "import", "package", "readLine", "println"));
+        KEYWORDS.put(Language.CSHARP, union(C_FAMILY, "class", "public", "private", "protected", "new", "null",
+                "this", "using", "namespace", "var", "foreach", "in", "try", "catch", "finally", "throw",
+                "string", "Console"));
+        KEYWORDS.put(Language.JAVASCRIPT, Set.of("function", "var", "let", "const", "if", "else", "for",
+                "while", "do", "switch", "case", "default", "break", "continue", "return", "new", "null",
+                "undefined", "true", "false", "this", "of", "in", "class", "try", "catch", "throw", "require",
+                "console"));
+        KEYWORDS.put(Language.TYPESCRIPT, union(KEYWORDS.get(Language.JAVASCRIPT), "interface", "type",
+                "number", "string", "boolean", "any", "import", "export"));
+        KEYWORDS.put(Language.GO, Set.of("func", "var", "const", "type", "struct", "if", "else", "for", "range",
+                "switch", "case", "default", "break", "continue", "return", "go", "defer", "chan", "map",
+                "make", "append", "len", "nil", "true", "false", "package", "import", "fmt", "int", "string"));
+        KEYWORDS.put(Language.RUST, Set.of("fn", "let", "mut", "if", "else", "for", "while", "loop", "match",
+                "in", "break", "continue", "return", "struct", "enum", "impl", "use", "pub", "self", "Self",
+                "true", "false", "Vec", "String", "usize", "i32", "i64", "u64"));
+        KEYWORDS.put(Language.PYTHON, Set.of("def", "class", "if", "elif", "else", "for", "while", "in",
+                "not", "and", "or", "is", "return", "break", "continue", "pass", "import", "from", "as",
+                "lambda", "None", "True", "False", "try", "except", "finally", "raise", "with", "yield",
+                "global", "print", "input", "range", "len", "int", "str", "map", "list", "sorted"));
+        KEYWORDS.put(Language.RUBY, Set.of("def", "end", "class", "module", "if", "elsif", "else", "unless",
+                "while", "until", "for", "in", "do", "return", "break", "next", "nil", "true", "false",
+                "and", "or", "not", "puts", "gets", "each", "map"));
+    }
+
+    private final int k;
+    private final int window;
+
+    public CodeFingerprinter(int k, int window) {
+        if (k < 1 || window < 1) {
+            throw new IllegalArgumentException("k and window must be positive");
+        }
+        this.k = k;
+        this.window = window;
+    }
+
+    /**
+     * Sorted distinct fingerprints of the code; empty when it is shorter than k tokens
+     */
+    public int[] fingerprint(Language language, String code) {
+        int[] tokens = tokenize(language, code);
+        if (tokens.length < k) {
+            return NONE;
+        }
+
+        int[] hashes = new int[tokens.length - k + 1];
+        for (int i = 0; i < hashes.length; i++) {
+            long hash = 0;
+            for (int j = 0; j < k; j++) {
+                hash = hash * 0x100000001B3L + tokens[i + j];
+            }
+            hashes[i] = mix(hash);
+        }
+
+        // Rightmost minimum of each window, recorded once however many windows it is the minimum of
+        int[] selected = new int[hashes.length];
+        int count = 0;
+        int last = -1;
+        int span = Math.min(window, hashes.length);
+        for (int start = 0; start + span <= hashes.length; start++) {
+            int min = start;
+            for (int i = start + 1; i < start + span; i++) {
+                if (hashes[i] <= hashes[min]) {
+                    min = i;
+                }
+            }
+            if (min != last) {
+                selected[count++] = hashes[min];
+                last = min;
+            }
+        }
+
+        int[] fingerprints = Arrays.copyOf(selected, count);
+        Arrays.sort(fingerprints);
+        int distinct = 0;
+        for (int i = 0; i < fingerprints.length; i++) {
+            if (i == 0 || fingerprints[i] != fingerprints[i - 1]) {
+                fingerprints[distinct++] = fingerprints[i];
+            }
+        }
+        return Arrays.copyOf(fingerprints, distinct);
+    }
+
+    int[] tokenize(Language language, String code) {
+        Set<String> keywords = KEYWORDS.getOrDefault(language, C_FAMILY);
+        boolean hashComments = language == Language.PYTHON || language == Language.RUBY;
+        int[] tokens = new int[Math.max(16, code.length() / 3)];
+        int count = 0;
+        int length = code.length();
+        int i = 0;
+        while (i < length) {
+            char c = code.charAt(i);
+            if (Character.isWhitespace(c)) {
+                i++;
+                continue;
+            }
+            if (hashComments ? c == '#' : code.startsWith("//", i)) {
+                i = skipLine(code, i);
+                continue;
+            }
+            if (!hashComments && code.startsWith("/*", i)) {
+                int end = code.indexOf("*/", i + 2);
+                i = end < 0 ? length : end + 2;
+                continue;
+            }
+
+            int token;
+            if (c == '"' || c == '\'' || c == '`') {
+                i = skipString(code, i);
+                token = STRING;
+            } else if (Character.isDigit(c)) {
+                while (i < length && (Character.isLetterOrDigit(code.charAt(i)) || code.charAt(i) == '.' || code.charAt(i) == '_')) {
+                    i++;
+                }
+                token = NUMBER;
+            } else if (Character.isJavaIdentifierStart(c)) {
+                int start = i;
+                while (i < length && Character.isJavaIdentifierPart(code.charAt(i))) {
+                    i++;
+                }
+                String word = code.substring(start, i);
+                token = keywords.contains(word) ? word.hashCode() | 0x10000 : IDENTIFIER;
+            } else {
+                token = 0x100 + c;
+                i++;
+            }
+
+            if (count == tokens.length) {
+                tokens = Arrays.copyOf(tokens, count * 2);
+            }
+            tokens[count++] = token;
+        }
+        return Arrays.copyOf(tokens, count);
+    }
+
+    private static int skipLine(String code, int from) {
+        int end = code.indexOf('\n', from);
+        return end < 0 ? code.length() : end + 1;
+    }
+
+    // Past the closing quote; triple quotes may span lines, other literals end at the line at worst
+    private static int skipString(String code, int from) {
+        char quote = code.charAt(from);
+        String triple = String.valueOf(quote).repeat(3);
+        if (code.startsWith(triple, from)) {
+            int end = code.indexOf(triple, from + 3);
+            return end < 0 ? code.length() : end + 3;
+        }
+        int i = from + 1;
+        while (i < code.length()) {
+            char c = code.charAt(i);
+            if (c == '\\') {
+                i += 2;
+                continue;
+            }
+            i++;
+            if (c == quote || (c == '\n' && quote != '`')) {
+                break;
+            }
+        }
+        return Math.min(i, code.length());
+    }
+
+    // The 64 bit finalizer of MurmurHash3, folded to 32 bits
+    private static int mix(long hash) {
+        hash ^= hash >>> 33;
+        hash *= 0xFF51AFD7ED558CCDL;
+        hash ^= hash >>> 33;
+        hash *= 0xC4CEB9FE1A85EC53L;
+        hash ^= hash >>> 33;
+        return (int) hash;
+    }
+
+    private static Set<String> union(Set<String> base, String... more) {
+        Set<String> words = new HashSet<>(base);
+        words.addAll(Arrays.asList(more));
+        return Set.copyOf(words);
+    }
+}
@@ -0,0 +1,43 @@
+package com.gourav.CodyWar.Service;
+
+import com.gourav.CodyWar.Domain.Entity.Language;
+import lombok.Builder;
+import lombok.Getter;
+
+import java.io.IOException;
+
+/**
+ * Compiles and runs submitted code for the judge
+ */
+public interface CodeRunner {
+
+    boolean supports(Language language);
+
+    /**
+     * Write the source and compile it; a failed compilation is reported on the returned program
+     */
+    Program prepare(Language language, String code) throws IOException;
+
+    RunResult run(Program program, String input, long timeLimitMs, int memoryLimitMb) throws IOException;
+
+    interface Program extends AutoCloseable {
+
+        // Compiler output when compilation failed, otherwise null
+        String getCompileError();
+
+        @Override
+        void close();
+    }
+
+    @Getter
+    @Builder
+    class RunResult {
+        private final int exitCode;
+        private final boolean timedOut;
+        private final boolean outputLimitExceeded;
+        private final String stdout;
+        private final String stderr;
+        private final long elapsedMs;
+        private final Integer peakMemoryKb;  // Null when the platform does not report it
+    }
+}
@@ -0,0 +1,323 @@
+package com.gourav.CodyWar.Service;
+
+import com.gourav.CodyWar.Domain.Dto.ProblemLevel;
+import com.gourav.CodyWar.Domain.Entity.Difficulty;
+import com.gourav.CodyWar.Domain.Entity.ProblemDifficulty;
+import com.gourav.CodyWar.Domain.Entity.SubmissionStatus;
+import com.gourav.CodyWar.Domain.Event.SubmissionJudgedEvent;
+import com.gourav.CodyWar.Repository.ProblemDifficultyRepository;
+import com.gourav.CodyWar.Repository.ProblemRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Difficulty ratings of problems, calibrated from how their submissions turn out.
+ *
+ * Each verdict is a game between the submitter and the problem on the Elo scale: the submitter
+ * is expected to solve a problem rated at their own rating half the time, and the problem's rating
+ * moves by how much better or worse than expected they did. A battle solve counts for less the
+ * longer it took, and practice verdicts for less than battle ones. The step shrinks as samples
+ * accumulate, so a settled rating is not thrown around by a few outliers.
+ *
+ * State is a few numbers per problem held in memory; deltas are flushed to problem_difficulty
+ * like the submission counters, so nodes sharing the table add up rather than overwrite, and
+ * read back periodically as the persisted totals plus this node's unflushed deltas. The reload
+ * also picks up problems created or re-levelled on other nodes.
+ */
+@Slf4j
+@Service
+public class DifficultyCalibrator {
+
+    // Starting rating of each hand-set difficulty, and the cut-offs between them
+    private static final int EASY_RATING = 900;
+    private static final int MEDIUM_RATING = 1250;
+    private static final int HARD_RATING = 1600;
+    private static final int MEDIUM_FROM = 1075;
+    private static final int HARD_FROM = 1425;
+    private static final int MIN_K = 4;
+    private static final int PICK_CANDIDATES = 20;
+
+    private final ProblemRepository problemRepository;
+    private final ProblemDifficultyRepository problemDifficultyRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final double kFactor;
+    private final double practiceWeight;
+    private final long minSamples;
+    private final int window;
+
+    private final Map<UUID, Rating> ratings = new ConcurrentHashMap<>();
+
+    public DifficultyCalibrator(ProblemRepository problemRepository,
+                                ProblemDifficultyRepository problemDifficultyRepository,
+                                TransactionTemplate transactionTemplate,
+                                @Value("${problem.difficulty.k-factor:32}") double kFactor,
+                                @Value("${problem.difficulty.practice-weight:0.5}") double practiceWeight,
+                                @Value("${problem.difficulty.min-samples:20}") long minSamples,
+                                @Value("${problem.difficulty.window:150}") int window) {
+        this.problemRepository = problemRepository;
+        this.problemDifficultyRepository = problemDifficultyRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.kFactor = kFactor;
+        this.practiceWeight = practiceWeight;
+        this.minSamples = minSamples;
+        this.window = window;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        reload();
+        log.info("Loaded difficulty ratings for {} problems", ratings.size());
+    }
+
+    @Scheduled(initialDelayString = "${problem.difficulty.reload-interval-ms:30000}",
+            fixedDelayString = "${problem.difficulty.reload-interval-ms:30000}")
+    public void reload() {
+        for (ProblemLevel level : problemRepository.findLevels()) {
+            register(level.getProblemId(), level.getDifficulty());
+        }
+        for (ProblemDifficulty persisted : problemDifficultyRepository.findAll()) {
+            Rating rating = ratings.get(persisted.getProblemId());
+            if (rating == null) {
+                continue;
+            }
+            synchronized (rating) {
+                rating.delta = persisted.getRatingDelta() + rating.unflushedDelta;
+                rating.samples = persisted.getSamples() + rating.unflushedSamples;
+                rating.solves = persisted.getSolves() + rating.unflushedSolves;
+                rating.solveSeconds = persisted.getSolveSecondsSum() + rating.unflushedSolveSeconds;
+            }
+        }
+    }
+
+    @TransactionalEventListener
+    public void onSubmissionJudged(SubmissionJudgedEvent event) {
+        // Says nothing about how hard the problem is
+        if (event.getStatus() == SubmissionStatus.COMPILATION_ERROR) {
+            return;
+        }
+        Rating rating = ratings.get(event.getProblemId());
+        if (rating == null) {
+            return;
+        }
+
+        boolean accepted = event.getStatus() == SubmissionStatus.ACCEPTED;
+        boolean battle = event.getBattleStartedAt() != null && event.getBattleDurationSeconds() != null;
+        double solveSeconds = battle && event.getSubmittedAt() != null
+                ? Math.max(0, Duration.between(event.getBattleStartedAt(), event.getSubmittedAt()).toMillis() / 1000.0)
+                : -1;
+
+        double score = 0;
+        if (accepted) {
+            // A battle solve at the buzzer is still worth half a win
+            score = solveSeconds >= 0
+                    ? 1 - 0.5 * Math.min(1, solveSeconds / Math.max(1, event.getBattleDurationSeconds()))
+                    : 1;
+        }
+
+        synchronized (rating) {
+            double expected = 1 / (1 + Math.pow(10, (rating.score() - event.getUserRating()) / 400.0));
+            double k = Math.max(MIN_K, kFactor / Math.sqrt(1 + rating.samples / 50.0)) * (battle ? 1 : practiceWeight);
+            double change = k * (expected - score);
+            rating.delta += change;
+            rating.unflushedDelta += change;
+            rating.samples++;
+            rating.unflushedSamples++;
+            if (accepted && solveSeconds >= 0) {
+                rating.solves++;
+                rating.unflushedSolves++;
+                rating.solveSeconds += solveSeconds;
+                rating.unflushedSolveSeconds += solveSeconds;
+            }
+        }
+    }
+
+    /**
+     * Track a new problem, or move an edited one's rating along with its hand-set difficulty
+     */
+    public void register(UUID problemId, Difficulty difficulty) {
+        Rating rating = ratings.computeIfAbsent(problemId, id -> new Rating());
+        synchronized (rating) {
+            rating.base = startingRating(difficulty);
+        }
+    }
+
+    /**
+     * Forget a deleted problem, once the deletion is committed; its row goes with the problem
+     * through the foreign key
+     */
+    public void remove(UUID problemId) {
+        ratings.remove(problemId);
+    }
+
+    public Snapshot getRating(UUID problemId) {
+        Rating rating = ratings.get(problemId);
+        if (rating == null) {
+            return null;
+        }
+        synchronized (rating) {
+            int score = (int) Math.round(rating.score());
+            Long averageSolveSeconds = rating.solves > 0 ? Math.round(rating.solveSeconds / rating.solves) : null;
+            return new Snapshot(score, rating.samples,
+                    rating.samples >= minSamples ? levelOf(score) : null, averageSolveSeconds);
+        }
+    }
+
+    /**
+     * A playable problem rated close to the given player rating, chosen at random among the ones
+     * within the window so the same player does not always get the same problem; null if none
+     */
+    public UUID pickProblem(int playerRating) {
+        List<Candidate> nearest = new ArrayList<>(ratings.size());
+        ratings.forEach((problemId, rating) -> {
+            double score;
+            synchronized (rating) {
+                score = rating.score();
+            }
+            nearest.add(new Candidate(problemId, Math.abs(score - playerRating)));
+        });
+        nearest.sort(Comparator.comparingDouble(c -> c.distance));
+        List<Candidate> candidates = nearest.subList(0, Math.min(PICK_CANDIDATES, nearest.size()));
+        if (candidates.isEmpty()) {
+            return null;
+        }
+
+        // Problems without test cases cannot be judged
+        Set<UUID> playable = new HashSet<>(problemRepository.findPlayableIds(
+                candidates.stream().map(c -> c.problemId).toList()));
+        List<Candidate> eligible = candidates.stream().filter(c -> playable.contains(c.problemId)).toList();
+        if (eligible.isEmpty()) {
+            return null;
+        }
+
+        double limit = Math.max(window, eligible.get(0).distance);
+        List<Candidate> close = eligible.stream().filter(c -> c.distance <= limit).toList();
+        return close.get(ThreadLocalRandom.current().nextInt(close.size())).problemId;
+    }
+
+    @Scheduled(fixedDelayString = "${problem.difficulty.flush-interval-ms:5000}")
+    @PreDestroy
+    public void flush() {
+        Instant now = Instant.now();
+        ratings.forEach((problemId, rating) -> {
+            double delta;
+            long samples;
+            long solves;
+            double solveSeconds;
+            synchronized (rating) {
+                if (rating.unflushedSamples == 0) {
+                    return;
+                }
+                delta = rating.unflushedDelta;
+                samples = rating.unflushedSamples;
+                solves = rating.unflushedSolves;
+                solveSeconds = rating.unflushedSolveSeconds;
+                rating.clearUnflushed();
+            }
+
+            try {
+                transactionTemplate.executeWithoutResult(status -> {
+                    if (problemDifficultyRepository.increment(problemId, delta, samples, solves, solveSeconds, now) == 0) {
+                        problemDifficultyRepository.save(ProblemDifficulty.builder()
+                                .problemId(problemId)
+                                .ratingDelta(delta)
+                                .samples(samples)
+                                .solves(solves)
+                                .solveSecondsSum(solveSeconds)
+                                .updatedAt(now)
+                                .build());
+                    }
+                });
+            } catch (RuntimeException e) {
+                // Keep the delta for the next attempt
+                synchronized (rating) {
+                    rating.unflushedDelta += delta;
+                    rating.unflushedSamples += samples;
+                    rating.unflushedSolves += solves;
+                    rating.unflushedSolveSeconds += solveSeconds;
+                }
+                log.warn("Failed to flush difficulty rating for problem {}: {}", problemId, e.getMessage());
+            }
+        });
+    }
+
+    private static int startingRating(Difficulty difficulty) {
+        return switch (difficulty) {
+            case EASY -> EASY_RATING;
+            case MEDIUM -> MEDIUM_RATING;
+            case HARD -> HARD_RATING;
+        };
+    }
+
+    private static Difficulty levelOf(int score) {
+        if (score < MEDIUM_FROM) {
+            return Difficulty.EASY;
+        }
+        return score < HARD_FROM ? Difficulty.MEDIUM : Difficulty.HARD;
+    }
+
+    private static final class Candidate {
+        private final UUID problemId;
+        private final double distance;
+
+        private Candidate(UUID problemId, double distance) {
+            this.problemId = problemId;
+            this.distance = distance;
+        }
+    }
+
+    // Guarded by its own monitor
+    private static final class Rating {
+        private int base = MEDIUM_RATING;
+        // Live totals, including what was loaded from problem_difficulty
+        private double delta;
+        private long samples;
+        private long solves;
+        private double solveSeconds;
+        // Changes not yet written to problem_difficulty
+        private double unflushedDelta;
+        private long unflushedSamples;
+        private long unflushedSolves;
+        private double unflushedSolveSeconds;
+
+        private double score() {
+            return base + delta;
+        }
+
+        private void clearUnflushed() {
+            unflushedDelta = 0;
+            unflushedSamples = 0;
+            unflushedSolves = 0;
+            unflushedSolveSeconds = 0;
+        }
+    }
+
+    @Getter
+    @AllArgsConstructor
+    public static class Snapshot {
+        private final int score;
+        private final long samples;
+        private final Difficulty calibratedDifficulty;  // Null until there are enough samples
+        private final Long averageSolveSeconds;
+    }
+}
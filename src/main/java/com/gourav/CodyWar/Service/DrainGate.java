@@ -0,0 +1,30 @@
+package com.gourav.CodyWar.Service;
+
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * Whether this node still takes new work. It closes when the node starts draining and stays
+ * closed until the process exits; from then on creating, joining or changing a battle and
+ * submitting code are refused with a retryable 503.
+ */
+@Component
+public class DrainGate {
+
+    private volatile boolean closed;
+
+    public boolean isClosed() {
+        return closed;
+    }
+
+    public void checkOpen() {
+        if (closed) {
+            throw new RejectedExecutionException("This server is restarting, please retry shortly");
+        }
+    }
+
+    void close() {
+        closed = true;
+    }
+}
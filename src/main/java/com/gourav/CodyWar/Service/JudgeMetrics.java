@@ -0,0 +1,104 @@
+package com.gourav.CodyWar.Service;
+
+import com.gourav.CodyWar.Domain.Entity.BattleStatus;
+import com.gourav.CodyWar.Domain.Entity.JudgeStage;
+import com.gourav.CodyWar.Domain.Entity.SubmissionStatus;
+import com.gourav.CodyWar.Domain.Event.SubmissionJudgedEvent;
+import com.gourav.CodyWar.Repository.BattleRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Meters for the judging pipeline: a timer per stage, a verdict counter per SubmissionStatus,
+ * and gauges for judge queue depth and wait, and live battles.
+ */
+@Slf4j
+@Component
+public class JudgeMetrics {
+
+    private final MeterRegistry meterRegistry;
+    private final BattleRepository battleRepository;
+
+    private final Map<JudgeStage, Timer> stageTimers = new EnumMap<>(JudgeStage.class);
+    private final Map<SubmissionStatus, Counter> verdictCounters = new EnumMap<>(SubmissionStatus.class);
+    // Refreshed on a schedule so a scrape never waits on the database
+    private final AtomicLong liveBattles = new AtomicLong();
+
+    public JudgeMetrics(MeterRegistry meterRegistry, BattleRepository battleRepository) {
+        this.meterRegistry = meterRegistry;
+        this.battleRepository = battleRepository;
+
+        for (JudgeStage stage : JudgeStage.values()) {
+            stageTimers.put(stage, Timer.builder("codywar.judge.stage")
+                    .description("Time spent per judging stage")
+                    .tag("stage", stage.name().toLowerCase())
+                    .publishPercentileHistogram()
+                    .register(meterRegistry));
+        }
+        for (SubmissionStatus status : SubmissionStatus.values()) {
+            verdictCounters.put(status, Counter.builder("codywar.submissions.verdicts")
+                    .description("Final verdicts written by the judge")
+                    .tag("status", status.name())
+                    .register(meterRegistry));
+        }
+        Gauge.builder("codywar.battles.live", liveBattles, AtomicLong::get)
+                .description("Battles currently in progress")
+                .register(meterRegistry);
+    }
+
+    public void recordStage(JudgeStage stage, long durationNanos) {
+        stageTimers.get(stage).record(durationNanos, TimeUnit.NANOSECONDS);
+    }
+
+    public <T> T timeStage(JudgeStage stage, Supplier<T> work) {
+        return stageTimers.get(stage).record(work);
+    }
+
+    /**
+     * Expose the depth of a judge queue; called by whichever executor owns the queue
+     */
+    public void registerQueue(String queue, Supplier<Number> depth) {
+        Gauge.builder("codywar.judge.queue.depth", depth)
+                .description("Submissions waiting to be judged")
+                .tag("queue", queue)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Timer for how long submissions wait in a judge queue before a worker takes them; percentiles per
+     * queue come from its histogram
+     */
+    public Timer registerQueueWait(String queue) {
+        return Timer.builder("codywar.judge.queue.wait")
+                .description("Time from entering a judge queue to a worker taking the submission")
+                .tag("queue", queue)
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+
+    @TransactionalEventListener
+    public void onSubmissionJudged(SubmissionJudgedEvent event) {
+        verdictCounters.get(event.getStatus()).increment();
+    }
+
+    @Scheduled(fixedDelayString = "${metrics.live-battles.refresh-interval-ms:15000}")
+    public void refreshLiveBattles() {
+        try {
+            liveBattles.set(battleRepository.countByStatus(BattleStatus.IN_PROGRESS));
+        } catch (RuntimeException e) {
+            log.warn("Failed to refresh live battle count: {}", e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,305 @@
+package com.gourav.CodyWar.Service;
+
+import com.gourav.CodyWar.Configuration.JudgeProperties;
+import com.gourav.CodyWar.Domain.Entity.Language;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Decides which waiting submission a free judge worker takes next.
+ *
+ * Submissions to a live battle come before practice ones. Within each lane users share the
+ * workers by weighted fair queuing: each user's submissions get virtual finish times spaced by
+ * their language's cost, and the earliest finish time goes next, so a user who floods the queue
+ * only delays their own verdicts. A practice submission waiting longer than the aging limit is
+ * taken ahead of the battle lane so practice never starves. Languages with a concurrency cap are
+ * skipped while that many of them are running.
+ */
+@Slf4j
+class JudgeScheduler {
+
+    enum Lane {
+        BATTLE, PRACTICE
+    }
+
+    private final JudgeProperties judgeProperties;
+    private final long agingNanos;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition changed = lock.newCondition();
+    private final Map<Lane, Map<UUID, UserQueue>> queues = new EnumMap<>(Lane.class);
+    private final Map<Lane, Double> virtualTimes = new EnumMap<>(Lane.class);
+    private final Map<Lane, Integer> sizes = new EnumMap<>(Lane.class);
+    private final Map<Lane, Timer> waitTimers = new EnumMap<>(Lane.class);
+    private final Map<Language, Integer> running = new EnumMap<>(Language.class);
+    private final List<Thread> workers = new ArrayList<>();
+    private boolean shutdown;
+
+    JudgeScheduler(JudgeProperties judgeProperties, JudgeMetrics judgeMetrics) {
+        this.judgeProperties = judgeProperties;
+        this.agingNanos = TimeUnit.MILLISECONDS.toNanos(judgeProperties.getAgingMs());
+        for (Lane lane : Lane.values()) {
+            String name = lane.name().toLowerCase();
+            queues.put(lane, new LinkedHashMap<>());
+            virtualTimes.put(lane, 0.0);
+            sizes.put(lane, 0);
+            waitTimers.put(lane, judgeMetrics.registerQueueWait(name));
+            judgeMetrics.registerQueue(name, () -> size(lane));
+        }
+
+        ThreadFactory threadFactory = new CustomizableThreadFactory("judge-");
+        for (int i = 0; i < judgeProperties.getWorkers(); i++) {
+            Thread worker = threadFactory.newThread(this::work);
+            workers.add(worker);
+            worker.start();
+        }
+    }
+
+    void submit(UUID userId, Language language, Lane lane, Runnable task) {
+        lock.lock();
+        try {
+            if (shutdown) {
+                throw new RejectedExecutionException("The judge is shutting down");
+            }
+            UserQueue queue = queues.get(lane).computeIfAbsent(userId, id -> new UserQueue());
+            double start = Math.max(virtualTimes.get(lane), queue.lastFinish);
+            queue.lastFinish = start + cost(language);
+            queue.jobs.add(new Job(language, lane, task, start, queue.lastFinish, System.nanoTime()));
+            sizes.merge(lane, 1, Integer::sum);
+            changed.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    int size() {
+        lock.lock();
+        try {
+            return sizes.values().stream().mapToInt(Integer::intValue).sum();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    int size(Lane lane) {
+        lock.lock();
+        try {
+            return sizes.get(lane);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Stop accepting submissions; workers finish what is already queued
+     */
+    void shutdown() {
+        lock.lock();
+        try {
+            shutdown = true;
+            changed.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    boolean awaitTermination(long timeout, TimeUnit unit) throws InterruptedException {
+        long deadline = System.nanoTime() + unit.toNanos(timeout);
+        for (Thread worker : workers) {
+            worker.join(Math.max(1, TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime())));
+            if (worker.isAlive()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Stop accepting submissions and drop everything still queued, letting the workers finish what
+     * they are running; returns how many submissions were dropped
+     */
+    int drain() {
+        lock.lock();
+        try {
+            shutdown = true;
+            int dropped = size();
+            queues.values().forEach(Map::clear);
+            sizes.replaceAll((lane, size) -> 0);
+            changed.signalAll();
+            return dropped;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Drop everything still queued and interrupt the workers; returns how many submissions were dropped
+     */
+    int shutdownNow() {
+        int dropped = drain();
+        workers.forEach(Thread::interrupt);
+        return dropped;
+    }
+
+    // Submissions being judged right now
+    int running() {
+        lock.lock();
+        try {
+            return running.values().stream().mapToInt(Integer::intValue).sum();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void work() {
+        while (true) {
+            Job job;
+            try {
+                job = take();
+            } catch (InterruptedException e) {
+                return;
+            }
+            if (job == null) {
+                return;
+            }
+            try {
+                job.task.run();
+            } catch (RuntimeException e) {
+                log.error("Judge task failed", e);
+            } finally {
+                finished(job);
+            }
+        }
+    }
+
+    // Null once shut down with nothing left to run
+    private Job take() throws InterruptedException {
+        lock.lock();
+        try {
+            while (true) {
+                Job job = next();
+                if (job != null) {
+                    running.merge(job.language, 1, Integer::sum);
+                    waitTimers.get(job.lane).record(System.nanoTime() - job.enqueuedNanos, TimeUnit.NANOSECONDS);
+                    return job;
+                }
+                if (shutdown && size() == 0) {
+                    return null;
+                }
+                changed.await();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void finished(Job job) {
+        lock.lock();
+        try {
+            running.merge(job.language, -1, Integer::sum);
+            changed.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private Job next() {
+        UserQueue aged = oldestRunnable(Lane.PRACTICE);
+        if (aged != null && System.nanoTime() - aged.jobs.peek().enqueuedNanos > agingNanos) {
+            return poll(Lane.PRACTICE, aged);
+        }
+        for (Lane lane : Lane.values()) {
+            UserQueue fairest = earliestFinish(lane);
+            if (fairest != null) {
+                return poll(lane, fairest);
+            }
+        }
+        return null;
+    }
+
+    private Job poll(Lane lane, UserQueue queue) {
+        Job job = queue.jobs.poll();
+        virtualTimes.merge(lane, job.start, Math::max);
+        sizes.merge(lane, -1, Integer::sum);
+        return job;
+    }
+
+    private UserQueue earliestFinish(Lane lane) {
+        UserQueue best = null;
+        Iterator<UserQueue> iterator = queues.get(lane).values().iterator();
+        while (iterator.hasNext()) {
+            UserQueue queue = iterator.next();
+            if (queue.jobs.isEmpty()) {
+                // Idle users are forgotten; their finish time is behind the lane's virtual time anyway
+                if (queue.lastFinish <= virtualTimes.get(lane)) {
+                    iterator.remove();
+                }
+                continue;
+            }
+            if (isRunnable(queue.jobs.peek()) && (best == null || queue.jobs.peek().finish < best.jobs.peek().finish)) {
+                best = queue;
+            }
+        }
+        return best;
+    }
+
+    private UserQueue oldestRunnable(Lane lane) {
+        UserQueue oldest = null;
+        for (UserQueue queue : queues.get(lane).values()) {
+            Job head = queue.jobs.peek();
+            if (head != null && isRunnable(head)
+                    && (oldest == null || head.enqueuedNanos < oldest.jobs.peek().enqueuedNanos)) {
+                oldest = queue;
+            }
+        }
+        return oldest;
+    }
+
+    private boolean isRunnable(Job job) {
+        JudgeProperties.Toolchain toolchain = judgeProperties.getLanguages().get(job.language);
+        int cap = toolchain != null ? toolchain.getMaxConcurrent() : 0;
+        return cap <= 0 || running.getOrDefault(job.language, 0) < cap;
+    }
+
+    private double cost(Language language) {
+        JudgeProperties.Toolchain toolchain = judgeProperties.getLanguages().get(language);
+        return toolchain != null ? toolchain.getCost() : 1.0;
+    }
+
+    private static final class UserQueue {
+        private final ArrayDeque<Job> jobs = new ArrayDeque<>();
+        private double lastFinish;
+    }
+
+    private static final class Job {
+        private final Language language;
+        private final Lane lane;
+        private final Runnable task;
+        private final double start;
+        private final double finish;
+        private final long enqueuedNanos;
+
+        private Job(Language language, Lane lane, Runnable task, double start, double finish, long enqueuedNanos) {
+            this.language = language;
+            this.lane = lane;
+            this.task = task;
+            this.start = start;
+            this.finish = finish;
+            this.enqueuedNanos = enqueuedNanos;
+        }
+    }
+}
@@ -0,0 +1,431 @@
+package com.gourav.CodyWar.Service;
+
+import com.gourav.CodyWar.Cluster.ClusterMembership;
+import com.gourav.CodyWar.Cluster.ClusterNode;
+import com.gourav.CodyWar.Configuration.JudgeProperties;
+import com.gourav.CodyWar.Domain.Dto.JudgeResult;
+import com.gourav.CodyWar.Domain.Dto.JudgeTestCase;
+import com.gourav.CodyWar.Domain.Dto.SubmissionSummaryDto;
+import com.gourav.CodyWar.Domain.Entity.JudgeStage;
+import com.gourav.CodyWar.Domain.Entity.Language;
+import com.gourav.CodyWar.Domain.Entity.Problem;
+import com.gourav.CodyWar.Domain.Entity.Submission;
+import com.gourav.CodyWar.Domain.Entity.SubmissionStatus;
+import com.gourav.CodyWar.Domain.Event.SubmissionCreatedEvent;
+import com.gourav.CodyWar.Repository.SubmissionRepository;
+import com.gourav.CodyWar.Repository.TestCaseRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Judges PENDING submissions on a fixed worker pool, in the order the judge scheduler picks:
+ * live battles first, fair between users. Code already judged against the same test set is
+ * answered from the verdict cache instead.
+ *
+ * Test cases are read in keyset pages of judge.test-case-page-size, samples first, each
+ * page in its own short read-only transaction; hidden inputs and outputs are only ever
+ * loaded here, one page at a time, and never on a request thread.
+ *
+ * The queue itself is not persisted: a submission stays PENDING in the database until a worker
+ * claims it, and the claim records this node. At startup, and whenever a node leaves the cluster,
+ * RUNNING submissions of nodes that are gone go back to PENDING and every PENDING one not already
+ * queued here is queued again; the claim is a conditional update, so a submission queued on two
+ * nodes is still judged once.
+ */
+@Slf4j
+@Service
+public class JudgeService {
+
+    private static final UUID FIRST_ID = new UUID(0, 0);
+    private static final int REQUEUE_PAGE_SIZE = 500;
+
+    private final SubmissionRepository submissionRepository;
+    private final TestCaseRepository testCaseRepository;
+    private final SubmissionService submissionService;
+    private final SubmissionContentStore submissionContentStore;
+    private final SubmissionProgressHub submissionProgressHub;
+    private final VerdictCache verdictCache;
+    private final CodeRunner codeRunner;
+    private final JudgeMetrics judgeMetrics;
+    private final JudgeProperties judgeProperties;
+    private final ClusterMembership membership;
+    private final TransactionTemplate transactionTemplate;
+    private final TransactionTemplate readOnlyTransactionTemplate;
+    private final JudgeScheduler scheduler;
+
+    private final Set<UUID> queued = ConcurrentHashMap.newKeySet();
+    private final AtomicInteger requeuedOnDrain = new AtomicInteger();
+    private volatile boolean draining;
+
+    public JudgeService(SubmissionRepository submissionRepository,
+                        TestCaseRepository testCaseRepository,
+                        SubmissionService submissionService,
+                        SubmissionContentStore submissionContentStore,
+                        SubmissionProgressHub submissionProgressHub,
+                        VerdictCache verdictCache,
+                        CodeRunner codeRunner,
+                        JudgeMetrics judgeMetrics,
+                        JudgeProperties judgeProperties,
+                        ClusterMembership membership,
+                        PlatformTransactionManager transactionManager) {
+        this.submissionRepository = submissionRepository;
+        this.testCaseRepository = testCaseRepository;
+        this.submissionService = submissionService;
+        this.submissionContentStore = submissionContentStore;
+        this.submissionProgressHub = submissionProgressHub;
+        this.verdictCache = verdictCache;
+        this.codeRunner = codeRunner;
+        this.judgeMetrics = judgeMetrics;
+        this.judgeProperties = judgeProperties;
+        this.membership = membership;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.readOnlyTransactionTemplate = new TransactionTemplate(transactionManager);
+        this.readOnlyTransactionTemplate.setReadOnly(true);
+
+        this.scheduler = new JudgeScheduler(judgeProperties, judgeMetrics);
+    }
+
+    /**
+     * Refuse the submission while the queue is full; runs before commit so the insert is rolled back
+     */
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT)
+    public void checkCapacity(SubmissionCreatedEvent event) {
+        if (scheduler.size() >= judgeProperties.getQueueCapacity()) {
+            throw new RejectedExecutionException("The judge is at capacity, please retry shortly");
+        }
+    }
+
+    @TransactionalEventListener
+    public void onSubmissionCreated(SubmissionCreatedEvent event) {
+        try {
+            enqueue(event.getSubmissionId(), event.getUserId(), event.getLanguage(), event.getBattleId());
+        } catch (RejectedExecutionException e) {
+            // Committed just as the node began draining; it is still PENDING for the next start
+            log.info("Submission {} left PENDING: {}", event.getSubmissionId(), e.getMessage());
+        }
+    }
+
+    /**
+     * Put back RUNNING submissions claimed by an earlier run of this node or by nodes that are gone;
+     * nothing here has been queued yet, so none of them can be running on this node
+     */
+    @PostConstruct
+    public void releaseAbandoned() {
+        int released = release(membership.self().getId());
+        if (released > 0) {
+            log.info("Returned {} interrupted judgments to the queue", released);
+        }
+        membership.onChange(members -> {
+            // A node that left may have been judging, or holding PENDING submissions in its queue
+            release(null);
+            requeueWaiting();
+        });
+    }
+
+    /**
+     * Queue every PENDING submission, oldest first; runs once the listeners of verdicts are ready
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void requeueWaiting() {
+        long start = System.nanoTime();
+        int requeued = 0;
+        Instant afterTime = Instant.EPOCH;
+        UUID afterId = FIRST_ID;
+        try {
+            while (!draining) {
+                Instant cursorTime = afterTime;
+                UUID cursorId = afterId;
+                List<SubmissionSummaryDto> page = readOnlyTransactionTemplate.execute(status ->
+                        submissionRepository.findWaitingPage(SubmissionStatus.PENDING, cursorTime, cursorId,
+                                Limit.of(REQUEUE_PAGE_SIZE)));
+                for (SubmissionSummaryDto submission : page) {
+                    if (!queued.contains(submission.getId())) {
+                        enqueue(submission.getId(), submission.getUserId(), submission.getLanguage(), submission.getBattleId());
+                        requeued++;
+                    }
+                }
+                if (page.size() < REQUEUE_PAGE_SIZE) {
+                    break;
+                }
+                afterTime = page.get(page.size() - 1).getSubmittedAt();
+                afterId = page.get(page.size() - 1).getId();
+            }
+        } catch (RejectedExecutionException e) {
+            log.info("Stopped requeueing submissions: {}", e.getMessage());
+        }
+        if (requeued > 0) {
+            log.info("Requeued {} waiting submissions in {} ms", requeued,
+                    TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+        }
+    }
+
+    /**
+     * Stop judging for a shutdown. Queued submissions are dropped, which leaves them PENDING;
+     * running ones get judge.drain-timeout-ms to finish, then are interrupted and put back to PENDING.
+     */
+    public DrainResult drain() throws InterruptedException {
+        draining = true;
+        int dropped = scheduler.drain();
+        int running = scheduler.running();
+        queued.clear();
+        if (!scheduler.awaitTermination(judgeProperties.getDrainTimeoutMs(), TimeUnit.MILLISECONDS)) {
+            scheduler.shutdownNow();
+            if (!scheduler.awaitTermination(10, TimeUnit.SECONDS)) {
+                log.warn("Judge workers still running after the drain");
+            }
+        }
+        int requeued = requeuedOnDrain.get();
+        return new DrainResult(dropped, running - requeued, requeued);
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        scheduler.shutdown();
+        if (!scheduler.awaitTermination(10, TimeUnit.SECONDS)) {
+            log.warn("Judge stopped with {} submissions still queued", scheduler.shutdownNow());
+        }
+    }
+
+    private void enqueue(UUID submissionId, UUID userId, Language language, UUID battleId) {
+        queued.add(submissionId);
+        try {
+            scheduler.submit(userId, language,
+                    battleId != null ? JudgeScheduler.Lane.BATTLE : JudgeScheduler.Lane.PRACTICE,
+                    () -> judge(submissionId));
+        } catch (RejectedExecutionException e) {
+            queued.remove(submissionId);
+            throw e;
+        }
+    }
+
+    private int release(String restartedNode) {
+        List<String> liveNodes = membership.members().stream().map(ClusterNode::getId).toList();
+        Integer released = transactionTemplate.execute(status -> submissionRepository.releaseAbandoned(
+                liveNodes, restartedNode, SubmissionStatus.PENDING, SubmissionStatus.RUNNING));
+        return released == null ? 0 : released;
+    }
+
+    private void judge(UUID submissionId) {
+        queued.remove(submissionId);
+        JudgeJob job;
+        try {
+            job = transactionTemplate.execute(status -> start(submissionId));
+        } catch (RuntimeException e) {
+            log.error("Could not start judging submission {}", submissionId, e);
+            return;
+        }
+        if (job == null) {
+            return;
+        }
+        judgeMetrics.recordStage(JudgeStage.QUEUE, Duration.between(job.submittedAt, Instant.now()).toNanos());
+
+        JudgeResult result = verdictCache.get(job.problemId, job.testSetVersion, job.language, job.codeHash);
+        if (result != null) {
+            log.debug("Submission {} answered from the verdict cache: {}", submissionId, result.getStatus());
+            submissionService.recordVerdict(submissionId, result);
+            return;
+        }
+        submissionProgressHub.progress(submissionId, 0, job.totalTestCases);
+
+        try {
+            long judgeStart = System.nanoTime();
+            result = evaluate(job);
+            verdictCache.put(job.problemId, job.testSetVersion, job.language, job.codeHash, result,
+                    System.nanoTime() - judgeStart);
+        } catch (IOException | RuntimeException e) {
+            if (draining) {
+                requeue(submissionId);
+                return;
+            }
+            log.error("Judge failure on submission {}", submissionId, e);
+            result = verdict(job, SubmissionStatus.RUNTIME_ERROR, 0, 0, null, "Judge failure: " + e.getMessage());
+        }
+        submissionService.recordVerdict(submissionId, result);
+    }
+
+    // Interrupted by a drain: back to PENDING for whichever node judges it next
+    private void requeue(UUID submissionId) {
+        boolean interrupted = Thread.interrupted();
+        try {
+            transactionTemplate.executeWithoutResult(status -> submissionRepository.release(
+                    List.of(submissionId), SubmissionStatus.PENDING, SubmissionStatus.RUNNING));
+            requeuedOnDrain.incrementAndGet();
+            log.info("Submission {} returned to the queue by the drain", submissionId);
+        } catch (RuntimeException e) {
+            log.warn("Could not return submission {} to the queue; the next start will", submissionId, e);
+        } finally {
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    /**
+     * Claim a PENDING submission by moving it to RUNNING; null when someone else already did
+     */
+    private JudgeJob start(UUID submissionId) {
+        if (submissionRepository.claim(submissionId, membership.self().getId(),
+                SubmissionStatus.PENDING, SubmissionStatus.RUNNING) == 0) {
+            return null;
+        }
+        Submission submission = submissionRepository.findById(submissionId).orElse(null);
+        if (submission == null) {
+            return null;
+        }
+
+        Problem problem = submission.getProblem();
+        String code = submissionContentStore.getCode(submission);
+        return new JudgeJob(submissionId, problem.getId(), problem.getTestSetVersion(), submission.getLanguage(), code,
+                SubmissionContentStore.contentId(code), problem.getTimeLimitSeconds() * 1000L, problem.getMemoryLimitMb(),
+                (int) testCaseRepository.countByProblemId(problem.getId()), submission.getSubmittedAt());
+    }
+
+    private JudgeResult evaluate(JudgeJob job) throws IOException {
+        long compileStart = System.nanoTime();
+        try (CodeRunner.Program program = codeRunner.prepare(job.language, job.code)) {
+            judgeMetrics.recordStage(JudgeStage.COMPILE, System.nanoTime() - compileStart);
+            if (program.getCompileError() != null) {
+                return verdict(job, SubmissionStatus.COMPILATION_ERROR, 0, 0, null, program.getCompileError());
+            }
+
+            int pageSize = judgeProperties.getTestCasePageSize();
+            int passed = 0;
+            long maxTimeMs = 0;
+            Integer maxMemoryKb = null;
+
+            for (boolean hidden : new boolean[]{false, true}) {
+                int afterIndex = Integer.MIN_VALUE;
+                UUID afterId = FIRST_ID;
+                while (true) {
+                    List<JudgeTestCase> page = nextPage(job.problemId, hidden, afterIndex, afterId, pageSize);
+
+                    for (JudgeTestCase testCase : page) {
+                        long runStart = System.nanoTime();
+                        CodeRunner.RunResult run = codeRunner.run(program, testCase.getInput(), job.timeLimitMs, job.memoryLimitMb);
+                        judgeMetrics.recordStage(JudgeStage.RUN, System.nanoTime() - runStart);
+
+                        maxTimeMs = Math.max(maxTimeMs, run.getElapsedMs());
+                        if (run.getPeakMemoryKb() != null) {
+                            maxMemoryKb = maxMemoryKb == null ? run.getPeakMemoryKb() : Math.max(maxMemoryKb, run.getPeakMemoryKb());
+                        }
+
+                        SubmissionStatus failure = check(job, testCase, run);
+                        if (failure != null) {
+                            String message;
+                            if (run.isOutputLimitExceeded()) {
+                                message = "Output limit exceeded on test case " + (passed + 1);
+                            } else if (failure == SubmissionStatus.RUNTIME_ERROR && !hidden) {
+                                // stderr of a hidden case could echo its input back to the player
+                                message = run.getStderr();
+                            } else {
+                                message = failure.name().replace('_', ' ').toLowerCase() + " on test case " + (passed + 1);
+                            }
+                            return verdict(job, failure, passed, maxTimeMs, maxMemoryKb, message);
+                        }
+                        passed++;
+                        submissionProgressHub.progress(job.submissionId, passed, Math.max(job.totalTestCases, passed));
+                    }
+
+                    if (page.size() < pageSize) {
+                        break;
+                    }
+                    JudgeTestCase last = page.get(page.size() - 1);
+                    afterIndex = last.getOrderIndex();
+                    afterId = last.getId();
+                }
+            }
+            return verdict(job, SubmissionStatus.ACCEPTED, passed, maxTimeMs, maxMemoryKb, null);
+        }
+    }
+
+    private List<JudgeTestCase> nextPage(UUID problemId, boolean hidden, int afterIndex, UUID afterId, int pageSize) {
+        return readOnlyTransactionTemplate.execute(status ->
+                testCaseRepository.findJudgePage(problemId, hidden, afterIndex, afterId, Limit.of(pageSize)));
+    }
+
+    private SubmissionStatus check(JudgeJob job, JudgeTestCase testCase, CodeRunner.RunResult run) {
+        if (run.isTimedOut()) {
+            return SubmissionStatus.TIME_LIMIT_EXCEEDED;
+        }
+        if (run.getPeakMemoryKb() != null && run.getPeakMemoryKb() > job.memoryLimitMb * 1024) {
+            return SubmissionStatus.MEMORY_LIMIT_EXCEEDED;
+        }
+        if (run.isOutputLimitExceeded() || run.getExitCode() != 0) {
+            return SubmissionStatus.RUNTIME_ERROR;
+        }
+
+        long compareStart = System.nanoTime();
+        boolean matches = OutputComparator.matches(testCase.getExpectedOutput(), run.getStdout());
+        judgeMetrics.recordStage(JudgeStage.COMPARE, System.nanoTime() - compareStart);
+        return matches ? null : SubmissionStatus.WRONG_ANSWER;
+    }
+
+    private static JudgeResult verdict(JudgeJob job, SubmissionStatus status, int passed,
+                                       long maxTimeMs, Integer maxMemoryKb, String errorMessage) {
+        return JudgeResult.builder()
+                .status(status)
+                .executionTimeMs((int) maxTimeMs)
+                .memoryUsedKb(maxMemoryKb)
+                .testCasesPassed(passed)
+                .totalTestCases(Math.max(job.totalTestCases, passed))
+                .errorMessage(errorMessage)
+                .build();
+    }
+
+    @Getter
+    @AllArgsConstructor
+    public static class DrainResult {
+        private final int dropped;    // Queued, left PENDING
+        private final int finished;   // Running, finished within the timeout
+        private final int requeued;   // Running, interrupted and put back to PENDING
+    }
+
+    private static final class JudgeJob {
+        private final UUID submissionId;
+        private final UUID problemId;
+        private final int testSetVersion;
+        private final Language language;
+        private final String code;
+        private final UUID codeHash;
+        private final long timeLimitMs;
+        private final int memoryLimitMb;
+        private final int totalTestCases;
+        private final Instant submittedAt;
+
+        private JudgeJob(UUID submissionId, UUID problemId, int testSetVersion, Language language, String code, UUID codeHash,
+                         long timeLimitMs, int memoryLimitMb, int totalTestCases, Instant submittedAt) {
+            this.submissionId = submissionId;
+            this.problemId = problemId;
+            this.testSetVersion = testSetVersion;
+            this.language = language;
+            this.code = code;
+            this.codeHash = codeHash;
+            this.timeLimitMs = timeLimitMs;
+            this.memoryLimitMb = memoryLimitMb;
+            this.totalTestCases = totalTestCases;
+            this.submittedAt = submittedAt;
+        }
+    }
+}
@@ -0,0 +1,202 @@
+package com.gourav.CodyWar.Service;
+
+import com.gourav.CodyWar.Domain.Entity.BattleStatus;
+import com.gourav.CodyWar.Domain.Event.BattleEvent;
+import com.gourav.CodyWar.Domain.Event.BattleEventType;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * In-memory state of every battle that has not finished, folded from the battle event log.
+ *
+ * At startup the state is rebuilt by replaying the log for each unfinished battle, so a
+ * crash does not lose who is in a battle, who is ready, the scores so far or when a running
+ * battle's timer runs out. Afterwards it follows the log as events become durable.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class LiveBattleRegistry {
+
+    private final BattleEventLog battleEventLog;
+    private final MeterRegistry meterRegistry;
+
+    private final Map<UUID, LiveBattle> battles = new ConcurrentHashMap<>();
+
+    @PostConstruct
+    public void rebuild() throws IOException {
+        long start = System.nanoTime();
+        for (UUID battleId : battleEventLog.unfinishedBattles()) {
+            for (BattleEvent event : battleEventLog.replay(battleId)) {
+                apply(event);
+            }
+        }
+        battleEventLog.subscribe(this::apply);
+        Gauge.builder("codywar.battles.open", battles, Map::size)
+                .description("Battles waiting or in progress")
+                .register(meterRegistry);
+        log.info("Rebuilt {} live battles from the event log in {} ms",
+                battles.size(), TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+    }
+
+    public Optional<LiveBattle> get(UUID battleId) {
+        return Optional.ofNullable(battles.get(battleId));
+    }
+
+    /**
+     * Running battles whose time is up at the given instant
+     */
+    public List<UUID> expiredAt(Instant now) {
+        return battles.values().stream()
+                .filter(battle -> battle.isExpiredAt(now))
+                .map(LiveBattle::getBattleId)
+                .toList();
+    }
+
+    public Set<UUID> battleIds() {
+        return Set.copyOf(battles.keySet());
+    }
+
+    /**
+     * Take over a battle whose events were logged by another node, replacing what this node knew
+     * of it; the events only set the in-memory state and are not appended to this node's log
+     */
+    public void adopt(UUID battleId, List<BattleEvent> events) {
+        LiveBattle battle = new LiveBattle(battleId);
+        events.forEach(battle::apply);
+        battles.put(battleId, battle);
+    }
+
+    /**
+     * Stop tracking a battle now owned by another node
+     */
+    public void forget(UUID battleId) {
+        battles.remove(battleId);
+    }
+
+    private void apply(BattleEvent event) {
+        if (event.getType().isTerminal()) {
+            battles.remove(event.getBattleId());
+        } else if (event.getType() == BattleEventType.CREATED) {
+            battles.putIfAbsent(event.getBattleId(), new LiveBattle(event.getBattleId()));
+        } else {
+            // Events of battles that already ended, like late verdicts, are only kept for the timeline
+            LiveBattle battle = battles.get(event.getBattleId());
+            if (battle != null) {
+                battle.apply(event);
+            }
+        }
+    }
+
+    public static class LiveBattle {
+
+        private final UUID battleId;
+        private final Map<UUID, LiveParticipant> participants = new LinkedHashMap<>();
+        private BattleStatus status = BattleStatus.WAITING;
+        private Instant startedAt;
+        private Instant deadline;
+
+        private LiveBattle(UUID battleId) {
+            this.battleId = battleId;
+        }
+
+        public UUID getBattleId() {
+            return battleId;
+        }
+
+        public synchronized BattleStatus getStatus() {
+            return status;
+        }
+
+        public synchronized Instant getStartedAt() {
+            return startedAt;
+        }
+
+        public synchronized Instant getDeadline() {
+            return deadline;
+        }
+
+        public synchronized List<LiveParticipant> getParticipants() {
+            return participants.values().stream().map(LiveParticipant::copy).toList();
+        }
+
+        private synchronized boolean isExpiredAt(Instant now) {
+            return deadline != null && !now.isBefore(deadline);
+        }
+
+        private synchronized void apply(BattleEvent event) {
+            switch (event.getType()) {
+                case JOINED -> participants.putIfAbsent(event.getUserId(), new LiveParticipant(event.getUserId()));
+                case LEFT -> participants.remove(event.getUserId());
+                case READY -> participant(event).ready = true;
+                case STARTED -> {
+                    status = BattleStatus.IN_PROGRESS;
+                    startedAt = event.getOccurredAt();
+                    deadline = startedAt.plusSeconds(event.getValue());
+                }
+                case SUBMITTED -> participant(event).submitted = true;
+                case VERDICT -> {
+                    LiveParticipant participant = participant(event);
+                    participant.score = Math.max(participant.score, event.getValue());
+                }
+                default -> {
+                }
+            }
+        }
+
+        private LiveParticipant participant(BattleEvent event) {
+            return participants.computeIfAbsent(event.getUserId(), LiveParticipant::new);
+        }
+    }
+
+    public static class LiveParticipant {
+
+        private final UUID userId;
+        private boolean ready;
+        private boolean submitted;
+        private int score;
+
+        private LiveParticipant(UUID userId) {
+            this.userId = userId;
+        }
+
+        private LiveParticipant copy() {
+            LiveParticipant copy = new LiveParticipant(userId);
+            copy.ready = ready;
+            copy.submitted = submitted;
+            copy.score = score;
+            return copy;
+        }
+
+        public UUID getUserId() {
+            return userId;
+        }
+
+        public boolean isReady() {
+            return ready;
+        }
+
+        public boolean isSubmitted() {
+            return submitted;
+        }
+
+        public int getScore() {
+            return score;
+        }
+    }
+}
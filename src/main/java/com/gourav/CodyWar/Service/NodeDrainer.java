@@ -0,0 +1,147 @@
+package com.gourav.CodyWar.Service;
+
+import com.gourav.CodyWar.Cluster.ClusterMembership;
+import com.gourav.CodyWar.Domain.Dto.DrainReportDto;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.time.Instant;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Takes this node out of service before it stops, so a deploy drops neither battle time nor
+ * submissions.
+ *
+ * Runs first when the application shuts down, before the web server stops taking requests, or
+ * earlier on demand from the admin endpoint:
+ * <ol>
+ *   <li>the drain gate closes, so new battles, battle changes and submissions get a retryable 503;</li>
+ *   <li>the judge stops: queued submissions stay PENDING in the database, running ones get
+ *       judge.drain-timeout-ms to finish and are otherwise interrupted and put back to PENDING;</li>
+ *   <li>the battle event log is flushed, so every live battle, its scores and its deadline are on disk;</li>
+ *   <li>spectator and submission streams are closed so clients reconnect instead of holding the shutdown;</li>
+ *   <li>in a cluster the node leaves, and its peers take its battles over from the database.</li>
+ * </ol>
+ * The next start resumes from there: live battles are rebuilt from the log with their deadlines,
+ * those that ran out meanwhile are finished by the expiry check, and the judge queues every
+ * PENDING submission again.
+ */
+@Slf4j
+@Component
+public class NodeDrainer implements SmartLifecycle {
+
+    private static final long EVENT_LOG_FLUSH_SECONDS = 10;
+
+    private final DrainGate drainGate;
+    private final JudgeService judgeService;
+    private final BattleEventLog battleEventLog;
+    private final LiveBattleRegistry liveBattleRegistry;
+    private final BattleSpectatorHub battleSpectatorHub;
+    private final SubmissionProgressHub submissionProgressHub;
+    private final ClusterMembership membership;
+    private final Timer drainTimer;
+
+    private volatile boolean running;
+    private DrainReportDto report;
+
+    public NodeDrainer(DrainGate drainGate,
+                       JudgeService judgeService,
+                       BattleEventLog battleEventLog,
+                       LiveBattleRegistry liveBattleRegistry,
+                       BattleSpectatorHub battleSpectatorHub,
+                       SubmissionProgressHub submissionProgressHub,
+                       ClusterMembership membership,
+                       MeterRegistry meterRegistry) {
+        this.drainGate = drainGate;
+        this.judgeService = judgeService;
+        this.battleEventLog = battleEventLog;
+        this.liveBattleRegistry = liveBattleRegistry;
+        this.battleSpectatorHub = battleSpectatorHub;
+        this.submissionProgressHub = submissionProgressHub;
+        this.membership = membership;
+        this.drainTimer = Timer.builder("codywar.node.drain")
+                .description("Time from closing the node to new work until nothing of it is left in memory")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Drain the node; a second call returns the first one's report
+     */
+    public synchronized DrainReportDto drain() {
+        if (report != null) {
+            return report;
+        }
+        long start = System.nanoTime();
+        Instant startedAt = Instant.now();
+        log.info("Draining: no new battles or submissions are accepted");
+        drainGate.close();
+
+        DrainReportDto.DrainReportDtoBuilder builder = DrainReportDto.builder().startedAt(startedAt);
+        try {
+            JudgeService.DrainResult judge = judgeService.drain();
+            builder.queuedSubmissions(judge.getDropped())
+                    .finishedJudgments(judge.getFinished())
+                    .requeuedJudgments(judge.getRequeued());
+            builder.eventLogFlushed(battleEventLog.flush(EVENT_LOG_FLUSH_SECONDS, TimeUnit.SECONDS));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            log.warn("Drain interrupted; whatever is left is picked up at the next start");
+        }
+        builder.liveBattles(liveBattleRegistry.battleIds().size());
+
+        battleSpectatorHub.shutdown();
+        submissionProgressHub.shutdown();
+
+        boolean clustered = membership.members().size() > 1;
+        if (clustered) {
+            try {
+                membership.leave();
+            } catch (IOException e) {
+                log.warn("Could not leave the cluster; peers will notice after the failure timeout: {}", e.getMessage());
+                clustered = false;
+            }
+        }
+        builder.leftCluster(clustered);
+
+        long elapsed = System.nanoTime() - start;
+        drainTimer.record(elapsed, TimeUnit.NANOSECONDS);
+        report = builder.drained(true)
+                .finishedAt(Instant.now())
+                .durationMs(TimeUnit.NANOSECONDS.toMillis(elapsed))
+                .build();
+        log.info("Drained in {} ms: {} queued and {} interrupted submissions left PENDING, {} judgments finished, {} live battles on disk",
+                report.getDurationMs(), report.getQueuedSubmissions(), report.getRequeuedJudgments(),
+                report.getFinishedJudgments(), report.getLiveBattles());
+        return report;
+    }
+
+    public synchronized DrainReportDto status() {
+        return report != null ? report : DrainReportDto.builder().drained(false).build();
+    }
+
+    @Override
+    public void start() {
+        running = true;
+    }
+
+    @Override
+    public void stop() {
+        drain();
+        running = false;
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    // Stopped before every other lifecycle bean, the web server's graceful shutdown included
+    @Override
+    public int getPhase() {
+        return Integer.MAX_VALUE;
+    }
+}
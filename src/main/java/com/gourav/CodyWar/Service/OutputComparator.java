@@ -0,0 +1,54 @@
+package com.gourav.CodyWar.Service;
+
+/**
+ * Compares program output with the expected output line by line, ignoring trailing
+ * whitespace on each line, trailing blank lines and CRLF versus LF.
+ */
+final class OutputComparator {
+
+    private OutputComparator() {
+    }
+
+    static boolean matches(String expected, String actual) {
+        int e = 0;
+        int a = 0;
+        int expectedEnd = contentEnd(expected);
+        int actualEnd = contentEnd(actual);
+
+        while (e < expectedEnd && a < actualEnd) {
+            int expectedLineEnd = lineEnd(expected, e, expectedEnd);
+            int actualLineEnd = lineEnd(actual, a, actualEnd);
+            int expectedTrimmed = trimEnd(expected, e, expectedLineEnd);
+            int actualTrimmed = trimEnd(actual, a, actualLineEnd);
+
+            if (expectedTrimmed - e != actualTrimmed - a
+                    || !expected.regionMatches(e, actual, a, expectedTrimmed - e)) {
+                return false;
+            }
+            e = expectedLineEnd + 1;
+            a = actualLineEnd + 1;
+        }
+        return e >= expectedEnd && a >= actualEnd;
+    }
+
+    // End of the last non-whitespace character, so trailing blank lines are ignored
+    private static int contentEnd(String text) {
+        int end = text.length();
+        while (end > 0 && Character.isWhitespace(text.charAt(end - 1))) {
+            end--;
+        }
+        return end;
+    }
+
+    private static int lineEnd(String text, int from, int end) {
+        int newline = text.indexOf('\n', from);
+        return newline < 0 || newline > end ? end : newline;
+    }
+
+    private static int trimEnd(String text, int from, int to) {
+        while (to > from && Character.isWhitespace(text.charAt(to - 1))) {
+            to--;
+        }
+        return to;
+    }
+}
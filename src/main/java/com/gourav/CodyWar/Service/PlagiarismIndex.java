@@ -0,0 +1,268 @@
+package com.gourav.CodyWar.Service;
+
+import com.gourav.CodyWar.Domain.Entity.Language;
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Inverted index from code fingerprints to the accepted submissions containing them, one shard
+ * per problem and language.
+ *
+ * A lookup only walks the posting lists of the new submission's own fingerprints, so its cost
+ * grows with how many stored submissions share them rather than with how many are stored.
+ * Fingerprints found in a large share of a shard are boilerplate every solution has, e.g. the
+ * input parsing, and are left out of the comparison; they would make every lookup walk most of
+ * the shard and say nothing about copying.
+ *
+ * Postings are kept in flat int arrays chained per fingerprint rather than one list object each,
+ * since most fingerprints occur in a single submission.
+ */
+public class PlagiarismIndex {
+
+    private static final int MIN_DISTINCTIVE = 4;
+
+    private final double commonFraction;
+    private final int commonMinimum;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<ShardKey, Shard> shards = new HashMap<>();
+    private final Set<UUID> submissions = new HashSet<>();
+    private long size;
+
+    /**
+     * @param commonFraction share of a shard's submissions above which a fingerprint is boilerplate
+     * @param commonMinimum  postings a fingerprint may always have, so small shards compare everything
+     */
+    public PlagiarismIndex(double commonFraction, int commonMinimum) {
+        this.commonFraction = commonFraction;
+        this.commonMinimum = commonMinimum;
+    }
+
+    /**
+     * Index a submission; false if it already is
+     */
+    public boolean add(UUID problemId, Language language, UUID submissionId, UUID userId, int[] fingerprints) {
+        lock.writeLock().lock();
+        try {
+            if (!submissions.add(submissionId)) {
+                return false;
+            }
+            shards.computeIfAbsent(new ShardKey(problemId, language), key -> new Shard())
+                    .add(submissionId, userId, fingerprints);
+            size++;
+            return true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * The stored submission by another user most similar to the given fingerprints, if at least
+     * minSimilarity of the smaller one's distinctive fingerprints are shared; null otherwise, and
+     * for code with fewer than minFingerprints, which looks like everyone else's anyway
+     */
+    public Match findMostSimilar(UUID problemId, Language language, UUID userId, int[] fingerprints,
+                                 double minSimilarity, int minFingerprints) {
+        lock.readLock().lock();
+        try {
+            Shard shard = shards.get(new ShardKey(problemId, language));
+            if (shard == null || fingerprints.length < minFingerprints) {
+                return null;
+            }
+            return shard.findMostSimilar(userId, fingerprints, minSimilarity, commonLimit(shard));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public void removeProblem(UUID problemId) {
+        lock.writeLock().lock();
+        try {
+            shards.entrySet().removeIf(entry -> {
+                if (entry.getKey().problemId.equals(problemId)) {
+                    Shard shard = entry.getValue();
+                    for (int document = 0; document < shard.count; document++) {
+                        submissions.remove(shard.submissionIds[document]);
+                    }
+                    size -= shard.count;
+                    return true;
+                }
+                return false;
+            });
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public long size() {
+        lock.readLock().lock();
+        try {
+            return size;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private int commonLimit(Shard shard) {
+        return Math.max(commonMinimum, (int) (shard.count * commonFraction));
+    }
+
+    @Getter
+    @AllArgsConstructor
+    public static class Match {
+        private final UUID submissionId;
+        private final UUID userId;
+        private final double similarity;
+    }
+
+    @EqualsAndHashCode
+    private static final class ShardKey {
+        private final UUID problemId;
+        private final Language language;
+
+        private ShardKey(UUID problemId, Language language) {
+            this.problemId = problemId;
+            this.language = language;
+        }
+    }
+
+    private static final class Shard {
+        // Per submission, by dense document number
+        private UUID[] submissionIds = new UUID[16];
+        private UUID[] userIds = new UUID[16];
+        private int[] sizes = new int[16];
+        private int count;
+
+        // Open addressing from fingerprint to the head of its posting chain; head -1 is an empty slot
+        private int[] keys = new int[64];
+        private int[] heads = filled(64);
+        private int[] lengths = new int[64];
+        private int distinct;
+
+        // Posting chains: document number and the next posting of the same fingerprint
+        private int[] postingDocuments = new int[256];
+        private int[] postingNext = new int[256];
+        private int postings;
+
+        private void add(UUID submissionId, UUID userId, int[] fingerprints) {
+            if (count == submissionIds.length) {
+                submissionIds = Arrays.copyOf(submissionIds, count * 2);
+                userIds = Arrays.copyOf(userIds, count * 2);
+                sizes = Arrays.copyOf(sizes, count * 2);
+            }
+            int document = count++;
+            submissionIds[document] = submissionId;
+            userIds[document] = userId;
+            sizes[document] = fingerprints.length;
+
+            for (int fingerprint : fingerprints) {
+                if ((distinct + 1) * 3 > keys.length * 2) {
+                    resize();
+                }
+                if (postings == postingDocuments.length) {
+                    postingDocuments = Arrays.copyOf(postingDocuments, postings * 2);
+                    postingNext = Arrays.copyOf(postingNext, postings * 2);
+                }
+                int slot = slotOf(fingerprint);
+                if (heads[slot] < 0) {
+                    keys[slot] = fingerprint;
+                    distinct++;
+                }
+                postingDocuments[postings] = document;
+                postingNext[postings] = heads[slot];
+                heads[slot] = postings++;
+                lengths[slot]++;
+            }
+        }
+
+        private Match findMostSimilar(UUID userId, int[] fingerprints, double minSimilarity, int commonLimit) {
+            int[] shared = new int[count];
+            int[] touched = new int[Math.min(count, 1024)];
+            int touchedCount = 0;
+            int compared = 0;
+
+            for (int fingerprint : fingerprints) {
+                int slot = slotOf(fingerprint);
+                if (heads[slot] < 0) {
+                    compared++;
+                    continue;
+                }
+                if (lengths[slot] > commonLimit) {
+                    continue;
+                }
+                compared++;
+                for (int posting = heads[slot]; posting >= 0; posting = postingNext[posting]) {
+                    int document = postingDocuments[posting];
+                    if (shared[document]++ == 0) {
+                        if (touchedCount == touched.length) {
+                            touched = Arrays.copyOf(touched, touchedCount * 2);
+                        }
+                        touched[touchedCount++] = document;
+                    }
+                }
+            }
+            // Mostly boilerplate: a few shared fingerprints would be chance
+            if (compared < MIN_DISTINCTIVE) {
+                return null;
+            }
+
+            int best = -1;
+            double bestSimilarity = minSimilarity;
+            for (int i = 0; i < touchedCount; i++) {
+                int document = touched[i];
+                if (userIds[document].equals(userId)) {
+                    continue;
+                }
+                double similarity = (double) shared[document] / Math.min(compared, sizes[document]);
+                if (similarity >= bestSimilarity) {
+                    best = document;
+                    bestSimilarity = similarity;
+                }
+            }
+            return best >= 0 ? new Match(submissionIds[best], userIds[best], Math.min(1.0, bestSimilarity)) : null;
+        }
+
+        private int slotOf(int fingerprint) {
+            // Fingerprints are already well mixed hashes
+            int mask = keys.length - 1;
+            int slot = fingerprint & mask;
+            while (heads[slot] >= 0 && keys[slot] != fingerprint) {
+                slot = slot + 1 & mask;
+            }
+            return slot;
+        }
+
+        private void resize() {
+            int[] oldKeys = keys;
+            int[] oldHeads = heads;
+            int[] oldLengths = lengths;
+            keys = new int[oldKeys.length * 2];
+            heads = filled(oldKeys.length * 2);
+            lengths = new int[oldKeys.length * 2];
+            for (int i = 0; i < oldKeys.length; i++) {
+                if (oldHeads[i] >= 0) {
+                    int slot = slotOf(oldKeys[i]);
+                    keys[slot] = oldKeys[i];
+                    heads[slot] = oldHeads[i];
+                    lengths[slot] = oldLengths[i];
+                }
+            }
+        }
+
+        private static int[] filled(int length) {
+            int[] array = new int[length];
+            Arrays.fill(array, -1);
+            return array;
+        }
+    }
+}
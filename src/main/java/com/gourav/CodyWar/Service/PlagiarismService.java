@@ -0,0 +1,266 @@
+package com.gourav.CodyWar.Service;
+
+import com.gourav.CodyWar.Cluster.ClusterMembership;
+import com.gourav.CodyWar.Configuration.PlagiarismProperties;
+import com.gourav.CodyWar.Domain.Entity.PlagiarismMatch;
+import com.gourav.CodyWar.Domain.Entity.SubmissionFingerprint;
+import com.gourav.CodyWar.Domain.Entity.SubmissionStatus;
+import com.gourav.CodyWar.Domain.Event.SubmissionJudgedEvent;
+import com.gourav.CodyWar.Repository.BattleRepository;
+import com.gourav.CodyWar.Repository.PlagiarismMatchRepository;
+import com.gourav.CodyWar.Repository.SubmissionFingerprintRepository;
+import com.gourav.CodyWar.Repository.SubmissionRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.ByteBuffer;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Checks every accepted submission for copying, off the judge's thread.
+ *
+ * The code is fingerprinted and looked up in the plagiarism index against the accepted
+ * submissions of other users to the same problem in the same language; a close enough match is
+ * recorded, and a battle whose winner's solution matched is flagged. Fingerprints are stored so
+ * the index is rebuilt at startup without reading any code.
+ *
+ * In a cluster each node judges, and so indexes, only part of the submissions. Before checking
+ * against a problem the node loads the fingerprints other nodes stored for it since its last
+ * load, so every submission is compared with all accepted ones committed before its check.
+ *
+ * One thread does the checking and the index rebuild, the rebuild first, so a submission is
+ * never compared against a half-loaded index or indexed twice.
+ */
+@Slf4j
+@Service
+public class PlagiarismService {
+
+    private final SubmissionRepository submissionRepository;
+    private final SubmissionContentStore submissionContentStore;
+    private final SubmissionFingerprintRepository submissionFingerprintRepository;
+    private final PlagiarismMatchRepository plagiarismMatchRepository;
+    private final BattleRepository battleRepository;
+    private final PlagiarismProperties properties;
+    private final ClusterMembership membership;
+    private final TransactionTemplate transactionTemplate;
+    private final TransactionTemplate readOnlyTransactionTemplate;
+    private final CodeFingerprinter fingerprinter;
+    private final PlagiarismIndex index;
+    private final ThreadPoolExecutor checker;
+    private final Counter clean;
+    private final Counter flagged;
+    private final Counter skipped;
+
+    // When each problem's fingerprints were last loaded from the database, and the rebuild, for those never loaded
+    private final Map<UUID, Instant> refreshedAt = new ConcurrentHashMap<>();
+    private volatile Instant rebuiltAt = Instant.now();
+
+    public PlagiarismService(SubmissionRepository submissionRepository,
+                             SubmissionContentStore submissionContentStore,
+                             SubmissionFingerprintRepository submissionFingerprintRepository,
+                             PlagiarismMatchRepository plagiarismMatchRepository,
+                             BattleRepository battleRepository,
+                             PlagiarismProperties properties,
+                             ClusterMembership membership,
+                             PlatformTransactionManager transactionManager,
+                             MeterRegistry meterRegistry) {
+        this.submissionRepository = submissionRepository;
+        this.submissionContentStore = submissionContentStore;
+        this.submissionFingerprintRepository = submissionFingerprintRepository;
+        this.plagiarismMatchRepository = plagiarismMatchRepository;
+        this.battleRepository = battleRepository;
+        this.properties = properties;
+        this.membership = membership;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.readOnlyTransactionTemplate = new TransactionTemplate(transactionManager);
+        this.readOnlyTransactionTemplate.setReadOnly(true);
+        this.fingerprinter = new CodeFingerprinter(properties.getKgramSize(), properties.getWindow());
+        this.index = new PlagiarismIndex(properties.getCommonFraction(), properties.getCommonMinimum());
+        this.checker = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS,
+                new LinkedBlockingQueue<>(properties.getQueueCapacity()), new CustomizableThreadFactory("plagiarism-"));
+        this.clean = Counter.builder("codywar.plagiarism.checks").tag("result", "clean")
+                .description("Accepted submissions checked for copying")
+                .register(meterRegistry);
+        this.flagged = Counter.builder("codywar.plagiarism.checks").tag("result", "flagged")
+                .description("Accepted submissions checked for copying")
+                .register(meterRegistry);
+        this.skipped = Counter.builder("codywar.plagiarism.checks").tag("result", "skipped")
+                .description("Accepted submissions checked for copying")
+                .register(meterRegistry);
+        Gauge.builder("codywar.plagiarism.index.submissions", index, PlagiarismIndex::size)
+                .description("Accepted submissions held in the plagiarism index")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void start() {
+        if (properties.isEnabled()) {
+            checker.execute(this::rebuild);
+        }
+    }
+
+    @TransactionalEventListener
+    public void onSubmissionJudged(SubmissionJudgedEvent event) {
+        if (!properties.isEnabled() || event.getStatus() != SubmissionStatus.ACCEPTED) {
+            return;
+        }
+        try {
+            checker.execute(() -> check(event));
+        } catch (RejectedExecutionException e) {
+            skipped.increment();
+            log.warn("Plagiarism check queue is full; submission {} is not checked", event.getSubmissionId());
+        }
+    }
+
+    /**
+     * Delete the stored fingerprints of a deleted problem, in the deleting transaction
+     */
+    public void deleteProblem(UUID problemId) {
+        submissionFingerprintRepository.deleteAllByProblemId(problemId);
+    }
+
+    /**
+     * Drop a deleted problem from the index, once the deletion is committed
+     */
+    public void removeProblem(UUID problemId) {
+        index.removeProblem(problemId);
+        refreshedAt.remove(problemId);
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        checker.shutdown();
+        if (!checker.awaitTermination(10, TimeUnit.SECONDS)) {
+            log.warn("Stopped with {} plagiarism checks pending", checker.shutdownNow().size());
+        }
+    }
+
+    private void check(SubmissionJudgedEvent event) {
+        try {
+            // A rejudged submission is already indexed
+            if (submissionFingerprintRepository.existsById(event.getSubmissionId())) {
+                return;
+            }
+            String code = readOnlyTransactionTemplate.execute(status -> submissionRepository
+                    .findById(event.getSubmissionId())
+                    .map(submissionContentStore::getCode)
+                    .orElse(null));
+            if (code == null) {
+                return;
+            }
+
+            int[] fingerprints = fingerprinter.fingerprint(event.getLanguage(), code);
+            if (membership.members().size() > 1) {
+                refresh(event.getProblemId());
+            }
+            PlagiarismIndex.Match match = index.findMostSimilar(event.getProblemId(), event.getLanguage(),
+                    event.getUserId(), fingerprints, properties.getMinSimilarity(), properties.getMinFingerprints());
+            Instant now = Instant.now();
+            transactionTemplate.executeWithoutResult(status -> {
+                submissionFingerprintRepository.save(SubmissionFingerprint.builder()
+                        .submissionId(event.getSubmissionId())
+                        .problemId(event.getProblemId())
+                        .userId(event.getUserId())
+                        .language(event.getLanguage())
+                        .fingerprints(encode(fingerprints))
+                        .createdAt(now)
+                        .build());
+                if (match != null) {
+                    plagiarismMatchRepository.save(PlagiarismMatch.builder()
+                            .submissionId(event.getSubmissionId())
+                            .matchedSubmissionId(match.getSubmissionId())
+                            .problemId(event.getProblemId())
+                            .battleId(event.getBattleId())
+                            .userId(event.getUserId())
+                            .matchedUserId(match.getUserId())
+                            .similarity(match.getSimilarity())
+                            .createdAt(now)
+                            .build());
+                    if (event.getBattleId() != null) {
+                        battleRepository.markWinnerSuspected(event.getBattleId());
+                    }
+                }
+            });
+            index.add(event.getProblemId(), event.getLanguage(), event.getSubmissionId(), event.getUserId(), fingerprints);
+
+            if (match != null) {
+                flagged.increment();
+                log.info("Submission {} by {} is {}% similar to submission {} by {}", event.getSubmissionId(),
+                        event.getUserId(), Math.round(match.getSimilarity() * 100), match.getSubmissionId(), match.getUserId());
+            } else {
+                clean.increment();
+            }
+        } catch (RuntimeException e) {
+            log.error("Plagiarism check of submission {} failed", event.getSubmissionId(), e);
+        }
+    }
+
+    /**
+     * Index the fingerprints of a problem that other nodes stored since it was last loaded
+     */
+    private void refresh(UUID problemId) {
+        Instant now = Instant.now();
+        Instant since = refreshedAt.getOrDefault(problemId, rebuiltAt).minusMillis(properties.getRefreshOverlapMs());
+        int added = 0;
+        for (SubmissionFingerprint stored : submissionFingerprintRepository.findByProblemSince(problemId, since)) {
+            if (index.add(stored.getProblemId(), stored.getLanguage(), stored.getSubmissionId(),
+                    stored.getUserId(), decode(stored.getFingerprints()))) {
+                added++;
+            }
+        }
+        refreshedAt.put(problemId, now);
+        if (added > 0) {
+            log.debug("Loaded {} fingerprints of problem {} stored by other nodes", added, problemId);
+        }
+    }
+
+    private void rebuild() {
+        long start = System.currentTimeMillis();
+        rebuiltAt = Instant.now();
+        try {
+            UUID after = new UUID(0, 0);
+            List<SubmissionFingerprint> page;
+            do {
+                page = submissionFingerprintRepository.findPage(after, PageRequest.of(0, properties.getRebuildPageSize()));
+                for (SubmissionFingerprint stored : page) {
+                    index.add(stored.getProblemId(), stored.getLanguage(), stored.getSubmissionId(),
+                            stored.getUserId(), decode(stored.getFingerprints()));
+                    after = stored.getSubmissionId();
+                }
+            } while (page.size() == properties.getRebuildPageSize());
+            log.info("Plagiarism index rebuilt with {} submissions in {} ms", index.size(), System.currentTimeMillis() - start);
+        } catch (RuntimeException e) {
+            log.error("Plagiarism index rebuild failed after {} submissions", index.size(), e);
+        }
+    }
+
+    static byte[] encode(int[] fingerprints) {
+        ByteBuffer buffer = ByteBuffer.allocate(fingerprints.length * Integer.BYTES);
+        buffer.asIntBuffer().put(fingerprints);
+        return buffer.array();
+    }
+
+    static int[] decode(byte[] data) {
+        int[] fingerprints = new int[data.length / Integer.BYTES];
+        ByteBuffer.wrap(data).asIntBuffer().get(fingerprints);
+        return fingerprints;
+    }
+}
@@ -0,0 +1,314 @@
+package com.gourav.CodyWar.Service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.gourav.CodyWar.Domain.Dto.ProblemImportItemDto;
+import com.gourav.CodyWar.Domain.Dto.ProblemImportResultDto;
+import com.gourav.CodyWar.Domain.Dto.ProblemRequestDto;
+import com.gourav.CodyWar.Domain.Dto.ProblemResponseDto;
+import com.gourav.CodyWar.Domain.Entity.Problem;
+import com.gourav.CodyWar.Domain.Entity.TestCase;
+import com.gourav.CodyWar.Repository.ProblemRepository;
+import com.gourav.CodyWar.Repository.TestCaseRepository;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+
+/**
+ * Streams a zip archive of problems into the database.
+ *
+ * Expected layout, one top-level directory per problem:
+ * <pre>
+ * two-sum/problem.json          (ProblemRequestDto, must be the first entry of the directory)
+ * two-sum/samples/1.in, 1.out   (visible test cases)
+ * two-sum/tests/1.in, 1.out     (hidden test cases)
+ * </pre>
+ * Entries are read one at a time and test cases are written in bounded batches,
+ * each in its own transaction, so heap usage does not depend on the archive size.
+ * Each .in must sit next to its .out: halves still waiting for their counterpart are
+ * capped, so an archive listing all inputs before all outputs fails instead of
+ * holding every test in memory.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ProblemImportService {
+
+    private static final String PROBLEM_FILE = "problem.json";
+    private static final String SAMPLES_DIR = "samples/";
+    private static final String TESTS_DIR = "tests/";
+
+    private final ProblemService problemService;
+    private final ProblemRepository problemRepository;
+    private final TestCaseRepository testCaseRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+    private final Validator validator;
+
+    @Value("${problem.import.batch-size:200}")
+    private int batchSize;
+
+    @Value("${problem.import.batch-max-bytes:8388608}")
+    private long batchMaxBytes;
+
+    @Value("${problem.import.max-file-bytes:16777216}")
+    private long maxFileBytes;
+
+    @Value("${problem.import.max-pending-bytes:33554432}")
+    private long maxPendingBytes;
+
+    /**
+     * Import every problem found in the archive and report the outcome per problem
+     */
+    public ProblemImportResultDto importArchive(InputStream archive) {
+        ProblemImportResultDto result = new ProblemImportResultDto();
+        ImportCursor current = null;
+        byte[] buffer = new byte[8192];
+
+        try (ZipInputStream zip = new ZipInputStream(new BufferedInputStream(archive))) {
+            ZipEntry entry;
+            while ((entry = zip.getNextEntry()) != null) {
+                if (entry.isDirectory()) {
+                    continue;
+                }
+
+                String name = entry.getName();
+                int slash = name.indexOf('/');
+                if (slash <= 0) {
+                    log.warn("Skipping archive entry outside of a problem directory: {}", name);
+                    continue;
+                }
+
+                String directory = name.substring(0, slash);
+                if (current == null || !current.directory.equals(directory)) {
+                    finish(current, result);
+                    current = new ImportCursor(directory);
+                }
+                if (current.failed()) {
+                    continue;
+                }
+
+                try {
+                    readEntry(current, name.substring(slash + 1), zip, buffer);
+                } catch (RuntimeException e) {
+                    current.item.setError(e.getMessage());
+                }
+            }
+        } catch (IOException e) {
+            log.error("Problem import aborted, archive is truncated or corrupt: {}", e.getMessage());
+            if (current != null && !current.failed()) {
+                current.item.setError("Archive is truncated or corrupt: " + e.getMessage());
+            }
+        }
+
+        finish(current, result);
+        log.info("Problem import finished: {} imported, {} failed, {} test cases",
+                result.getImportedProblems(), result.getFailedProblems(), result.getImportedTestCases());
+        return result;
+    }
+
+    private void readEntry(ImportCursor cursor, String path, ZipInputStream zip, byte[] buffer) throws IOException {
+        if (path.equals(PROBLEM_FILE)) {
+            if (cursor.problemId != null) {
+                throw new IllegalArgumentException("Duplicate " + PROBLEM_FILE);
+            }
+            createProblem(cursor, readFully(zip, buffer));
+            return;
+        }
+
+        boolean hidden;
+        String fileName;
+        if (path.startsWith(TESTS_DIR)) {
+            hidden = true;
+            fileName = path.substring(TESTS_DIR.length());
+        } else if (path.startsWith(SAMPLES_DIR)) {
+            hidden = false;
+            fileName = path.substring(SAMPLES_DIR.length());
+        } else {
+            log.debug("Ignoring unknown archive entry {}/{}", cursor.directory, path);
+            return;
+        }
+
+        if (cursor.problemId == null) {
+            throw new IllegalArgumentException(PROBLEM_FILE + " must be the first entry of " + cursor.directory);
+        }
+
+        int dot = fileName.lastIndexOf('.');
+        String extension = dot < 0 ? "" : fileName.substring(dot + 1);
+        if (!extension.equals("in") && !extension.equals("out")) {
+            log.debug("Ignoring test file without .in/.out extension: {}/{}", cursor.directory, path);
+            return;
+        }
+
+        String key = (hidden ? TESTS_DIR : SAMPLES_DIR) + fileName.substring(0, dot);
+        String content = new String(readFully(zip, buffer), StandardCharsets.UTF_8);
+
+        int half = extension.equals("in") ? 0 : 1;
+        String[] pair = cursor.pending.computeIfAbsent(key, k -> new String[2]);
+        pair[half] = content;
+        if (pair[0] == null || pair[1] == null) {
+            cursor.pendingBytes += content.length();
+            if (cursor.pendingBytes > maxPendingBytes) {
+                throw new IllegalArgumentException("Unpaired test files exceed " + maxPendingBytes
+                        + " bytes: list each .in next to its .out in the archive (" + cursor.pending.size()
+                        + " waiting, first " + cursor.pending.keySet().iterator().next() + ")");
+            }
+            return;
+        }
+
+        cursor.pending.remove(key);
+        cursor.pendingBytes -= pair[1 - half].length();
+        cursor.batch.add(TestCase.builder()
+                .input(pair[0])
+                .expectedOutput(pair[1])
+                .isHidden(hidden)
+                .orderIndex(cursor.nextOrderIndex++)
+                .build());
+        cursor.batchBytes += pair[0].length() + pair[1].length();
+
+        if (cursor.batch.size() >= batchSize || cursor.batchBytes >= batchMaxBytes) {
+            flushBatch(cursor);
+        }
+    }
+
+    private void createProblem(ImportCursor cursor, byte[] json) {
+        ProblemRequestDto requestDto;
+        try {
+            requestDto = objectMapper.readValue(json, ProblemRequestDto.class);
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Invalid " + PROBLEM_FILE + ": " + e.getMessage());
+        }
+
+        Set<ConstraintViolation<ProblemRequestDto>> violations = validator.validate(requestDto);
+        if (!violations.isEmpty()) {
+            throw new IllegalArgumentException(violations.stream()
+                    .map(v -> v.getPropertyPath() + ": " + v.getMessage())
+                    .collect(Collectors.joining(", ")));
+        }
+
+        ProblemResponseDto created = problemService.createProblem(requestDto);
+        cursor.problemId = created.getId();
+        cursor.item.setProblemId(created.getId());
+        cursor.item.setTitle(created.getTitle());
+    }
+
+    private void flushBatch(ImportCursor cursor) {
+        if (cursor.batch.isEmpty()) {
+            return;
+        }
+
+        transactionTemplate.executeWithoutResult(status -> {
+            Problem problem = problemRepository.getReferenceById(cursor.problemId);
+            cursor.batch.forEach(testCase -> testCase.setProblem(problem));
+            testCaseRepository.saveAll(cursor.batch);
+            problemRepository.incrementTestSetVersion(cursor.problemId);
+        });
+
+        cursor.item.setTestCasesImported(cursor.item.getTestCasesImported() + cursor.batch.size());
+        cursor.batch.clear();
+        cursor.batchBytes = 0;
+    }
+
+    private void finish(ImportCursor cursor, ProblemImportResultDto result) {
+        if (cursor == null) {
+            return;
+        }
+
+        if (!cursor.failed()) {
+            if (cursor.problemId == null) {
+                cursor.item.setError("Missing " + PROBLEM_FILE);
+            } else if (!cursor.pending.isEmpty()) {
+                cursor.item.setError("Unpaired test files: " + String.join(", ", cursor.pending.keySet()));
+            } else {
+                try {
+                    flushBatch(cursor);
+                } catch (RuntimeException e) {
+                    cursor.item.setError("Failed to store test cases: " + e.getMessage());
+                }
+            }
+        }
+
+        if (cursor.failed()) {
+            rollback(cursor);
+            result.setFailedProblems(result.getFailedProblems() + 1);
+        } else {
+            cursor.item.setImported(true);
+            result.setImportedProblems(result.getImportedProblems() + 1);
+            result.setImportedTestCases(result.getImportedTestCases() + cursor.item.getTestCasesImported());
+        }
+        result.getItems().add(cursor.item);
+    }
+
+    /**
+     * Remove a partially imported problem along with the test cases stored so far
+     */
+    private void rollback(ImportCursor cursor) {
+        cursor.batch.clear();
+        cursor.pending.clear();
+        if (cursor.problemId == null) {
+            return;
+        }
+
+        log.warn("Rolling back import of {}: {}", cursor.directory, cursor.item.getError());
+        try {
+            problemService.deleteProblem(cursor.problemId);
+        } catch (RuntimeException e) {
+            log.error("Failed to roll back partially imported problem {}", cursor.problemId, e);
+        }
+        cursor.item.setProblemId(null);
+        cursor.item.setTestCasesImported(0);
+    }
+
+    private byte[] readFully(InputStream in, byte[] buffer) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        long total = 0;
+        int read;
+        while ((read = in.read(buffer)) != -1) {
+            total += read;
+            if (total > maxFileBytes) {
+                throw new IllegalArgumentException("Archive entry exceeds " + maxFileBytes + " bytes");
+            }
+            out.write(buffer, 0, read);
+        }
+        return out.toByteArray();
+    }
+
+    private static class ImportCursor {
+        private final String directory;
+        private final ProblemImportItemDto item;
+        // .in/.out halves waiting for their counterpart, normally at most one entry
+        private final Map<String, String[]> pending = new LinkedHashMap<>();
+        private long pendingBytes;
+        private final List<TestCase> batch = new ArrayList<>();
+        private long batchBytes;
+        private int nextOrderIndex;
+        private UUID problemId;
+
+        private ImportCursor(String directory) {
+            this.directory = directory;
+            this.item = ProblemImportItemDto.builder().source(directory).build();
+        }
+
+        private boolean failed() {
+            return item.getError() != null;
+        }
+    }
+}
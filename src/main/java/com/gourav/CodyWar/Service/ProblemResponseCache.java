@@ -0,0 +1,111 @@
+package com.gourav.CodyWar.Service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.gourav.CodyWar.Domain.Dto.ProblemResponseDto;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Instant;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Pre-serialized JSON for problem detail responses.
+ *
+ * An entry is valid for the problem version (last modification time), the submission counts
+ * and the difficulty rating it was rendered with, so a hit can be written straight to the
+ * response without mapping or Jackson. Bodies above the gzip threshold also keep a compressed copy.
+ */
+@Component
+@RequiredArgsConstructor
+public class ProblemResponseCache {
+
+    private final ObjectMapper objectMapper;
+
+    private final Map<UUID, CachedResponse> entries = new ConcurrentHashMap<>();
+
+    @Value("${problem.response-cache.max-entries:10000}")
+    private int maxEntries;
+
+    @Value("${problem.response-cache.gzip-min-bytes:1024}")
+    private int gzipMinBytes;
+
+    public CachedResponse get(UUID problemId, Instant version, ProblemStatsService.Snapshot stats,
+                              DifficultyCalibrator.Snapshot rating) {
+        CachedResponse cached = entries.get(problemId);
+        if (cached == null
+                || !cached.version.equals(version)
+                || cached.totalSubmissions != stats.getTotalSubmissions()
+                || cached.acceptedSubmissions != stats.getAcceptedSubmissions()
+                // Ratings also change when they are reloaded from other nodes' verdicts
+                || !Objects.equals(cached.ratingScore, rating != null ? rating.getScore() : null)
+                || cached.ratingSamples != (rating != null ? rating.getSamples() : 0)) {
+            return null;
+        }
+        return cached;
+    }
+
+    /**
+     * Cache a rendered response; the rating is the one read before rendering it, so a later change is never missed
+     */
+    public CachedResponse put(UUID problemId, Instant version, ProblemResponseDto dto, DifficultyCalibrator.Snapshot rating) {
+        byte[] json;
+        try {
+            json = objectMapper.writeValueAsBytes(dto);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to serialize problem " + problemId, e);
+        }
+
+        CachedResponse cached = new CachedResponse(version, dto.getTotalSubmissions(), dto.getAcceptedSubmissions(),
+                rating != null ? rating.getScore() : null, rating != null ? rating.getSamples() : 0,
+                json, json.length >= gzipMinBytes ? gzip(json) : null);
+
+        if (entries.size() >= maxEntries && !entries.containsKey(problemId)) {
+            // Approximate bound: drop an arbitrary entry rather than tracking recency on every hit
+            Iterator<UUID> keys = entries.keySet().iterator();
+            if (keys.hasNext()) {
+                keys.next();
+                keys.remove();
+            }
+        }
+        entries.put(problemId, cached);
+        return cached;
+    }
+
+    public void evict(UUID problemId) {
+        entries.remove(problemId);
+    }
+
+    private static byte[] gzip(byte[] data) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(data.length / 2);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(data);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return out.toByteArray();
+    }
+
+    @Getter
+    @AllArgsConstructor
+    public static class CachedResponse {
+        private final Instant version;
+        private final long totalSubmissions;
+        private final long acceptedSubmissions;
+        private final Integer ratingScore;  // null when the problem has no rating
+        private final long ratingSamples;
+        private final byte[] json;
+        private final byte[] gzip;  // null when the body is below the gzip threshold
+    }
+}
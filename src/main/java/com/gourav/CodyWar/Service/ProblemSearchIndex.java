@@ -0,0 +1,466 @@
+package com.gourav.CodyWar.Service;
+
+import com.gourav.CodyWar.Domain.Dto.ProblemSearchResponseDto;
+import com.gourav.CodyWar.Domain.Dto.ProblemSearchResultDto;
+import com.gourav.CodyWar.Domain.Entity.Difficulty;
+import com.gourav.CodyWar.Domain.Entity.Problem;
+import com.gourav.CodyWar.Repository.ProblemRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Component;
+import org.springframework.web.util.HtmlUtils;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Queue;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-process inverted index over problem title, description and constraints.
+ *
+ * Rebuilt from the database once at startup and then kept current by ProblemService,
+ * which pushes every create/update/delete after its transaction commits.
+ * Results are ranked with BM25, title matches weighted higher than body matches.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ProblemSearchIndex {
+
+    private static final int TITLE_WEIGHT = 3;
+    private static final double K1 = 1.2;
+    private static final double B = 0.75;
+    private static final int SNIPPET_LENGTH = 200;
+    private static final int SNIPPET_LEAD = 60;
+    private static final int REBUILD_PAGE_SIZE = 1000;
+
+    private static final Set<String> STOP_WORDS = Set.of(
+            "a", "an", "and", "are", "as", "at", "be", "by", "for", "from", "in", "is", "it",
+            "of", "on", "or", "that", "the", "to", "with");
+
+    private final ProblemRepository problemRepository;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<UUID, IndexedProblem> documents = new HashMap<>();
+    private final Map<String, PostingList> postings = new HashMap<>();
+    // Documents by dense slot number; a slot is emptied when its problem is removed or re-indexed
+    private IndexedProblem[] slots = new IndexedProblem[1024];
+    private int slotCount;
+    private int deadSlots;
+    private long totalLength;
+    // Score buffers are reused across searches but never shared by two at once
+    private final Queue<Scratch> scratchPool = new ConcurrentLinkedQueue<>();
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        long start = System.currentTimeMillis();
+        int pageNumber = 0;
+        Page<Problem> page;
+        do {
+            page = problemRepository.findAll(PageRequest.of(pageNumber++, REBUILD_PAGE_SIZE, Sort.by("id")));
+            page.forEach(this::index);
+        } while (page.hasNext());
+
+        log.info("Problem search index built with {} problems in {} ms", size(), System.currentTimeMillis() - start);
+    }
+
+    /**
+     * Index the problem once the surrounding transaction commits, or immediately without one
+     */
+    public void indexAfterCommit(Problem problem) {
+        IndexedProblem document = toDocument(problem);
+        Transactions.afterCommit(() -> put(document));
+    }
+
+    public void removeAfterCommit(UUID problemId) {
+        Transactions.afterCommit(() -> remove(problemId));
+    }
+
+    public void index(Problem problem) {
+        put(toDocument(problem));
+    }
+
+    public void remove(UUID problemId) {
+        lock.writeLock().lock();
+        try {
+            IndexedProblem previous = documents.remove(problemId);
+            if (previous != null) {
+                unlink(previous);
+                compactIfSparse();
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return documents.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Ranked, paginated search. A problem matches when it contains at least one query term.
+     */
+    public ProblemSearchResponseDto search(String query, Difficulty difficulty, int page, int size) {
+        Set<String> terms = new LinkedHashSet<>(tokenize(query));
+        List<ScoredProblem> hits = new ArrayList<>();
+        long total;
+
+        lock.readLock().lock();
+        try {
+            Scratch scratch = scratchPool.poll();
+            if (scratch == null) {
+                scratch = new Scratch();
+            }
+            double[] scores = scratch.scores(slotCount);
+            int[] touched = scratch.touched(slotCount);
+            int touchedCount = 0;
+            int documentCount = documents.size();
+            double averageLength = documentCount == 0 ? 1 : (double) totalLength / documentCount;
+
+            for (String term : terms) {
+                PostingList matches = postings.get(term);
+                if (matches == null) {
+                    continue;
+                }
+                double idf = Math.log(1 + (documentCount - matches.live + 0.5) / (matches.live + 0.5));
+                for (int i = 0; i < matches.size; i++) {
+                    int slot = matches.slots[i];
+                    IndexedProblem document = slots[slot];
+                    if (document == null || (difficulty != null && document.difficulty != difficulty)) {
+                        continue;
+                    }
+                    int frequency = matches.frequencies[i];
+                    double norm = K1 * (1 - B + B * document.length / averageLength);
+                    if (scores[slot] == 0) {
+                        touched[touchedCount++] = slot;
+                    }
+                    scores[slot] += idf * frequency * (K1 + 1) / (frequency + norm);
+                }
+            }
+            total = touchedCount;
+
+            // Keep only the top (page + 1) * size hits instead of sorting every match
+            int limit = (int) Math.min((long) (page + 1) * size, total);
+            PriorityQueue<ScoredProblem> top = new PriorityQueue<>(Math.max(limit, 1), ScoredProblem.ORDER);
+            for (int i = 0; i < touchedCount; i++) {
+                int slot = touched[i];
+                double score = scores[slot];
+                scores[slot] = 0;
+                if (limit == 0) {
+                    continue;
+                }
+                if (top.size() < limit) {
+                    top.add(new ScoredProblem(slots[slot], score));
+                } else if (score >= top.peek().score) {
+                    ScoredProblem candidate = new ScoredProblem(slots[slot], score);
+                    if (ScoredProblem.ORDER.compare(candidate, top.peek()) > 0) {
+                        top.poll();
+                        top.add(candidate);
+                    }
+                }
+            }
+            hits.addAll(top);
+            // Only buffers that were fully reset go back to the pool
+            scratchPool.offer(scratch);
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        hits.sort(ScoredProblem.ORDER.reversed());
+        List<ProblemSearchResultDto> results = new ArrayList<>();
+        for (int i = page * size; i < hits.size(); i++) {
+            ScoredProblem hit = hits.get(i);
+            results.add(ProblemSearchResultDto.builder()
+                    .id(hit.document.id)
+                    .title(hit.document.title)
+                    .difficulty(hit.document.difficulty.name())
+                    .score(hit.score)
+                    .snippet(snippet(hit.document, terms))
+                    .build());
+        }
+
+        return ProblemSearchResponseDto.builder()
+                .query(query)
+                .page(page)
+                .size(size)
+                .totalResults(total)
+                .results(results)
+                .build();
+    }
+
+    private void put(IndexedProblem document) {
+        lock.writeLock().lock();
+        try {
+            IndexedProblem previous = documents.put(document.id, document);
+            if (previous != null) {
+                unlink(previous);
+            }
+            link(document);
+            compactIfSparse();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void link(IndexedProblem document) {
+        if (slotCount == slots.length) {
+            slots = Arrays.copyOf(slots, slots.length * 2);
+        }
+        document.slot = slotCount++;
+        slots[document.slot] = document;
+        document.frequencies.forEach((term, frequency) ->
+                postings.computeIfAbsent(term, t -> new PostingList()).add(document.slot, frequency));
+        totalLength += document.length;
+    }
+
+    // Postings of the old slot stay behind and are skipped until the next compaction
+    private void unlink(IndexedProblem document) {
+        slots[document.slot] = null;
+        deadSlots++;
+        document.frequencies.keySet().forEach(term -> {
+            PostingList matches = postings.get(term);
+            if (matches != null && --matches.live == 0) {
+                postings.remove(term);
+            }
+        });
+        totalLength -= document.length;
+    }
+
+    /**
+     * Renumber live documents and rebuild the postings once dead slots outnumber live ones
+     */
+    private void compactIfSparse() {
+        if (deadSlots < 1024 || deadSlots < slotCount / 2) {
+            return;
+        }
+
+        IndexedProblem[] live = new IndexedProblem[slotCount - deadSlots];
+        int count = 0;
+        for (int slot = 0; slot < slotCount; slot++) {
+            if (slots[slot] != null) {
+                live[count++] = slots[slot];
+            }
+        }
+
+        slots = new IndexedProblem[Math.max(1024, live.length * 2)];
+        slotCount = 0;
+        deadSlots = 0;
+        totalLength = 0;
+        postings.clear();
+        for (IndexedProblem document : live) {
+            link(document);
+        }
+        scratchPool.clear();
+    }
+
+    private IndexedProblem toDocument(Problem problem) {
+        Map<String, Integer> frequencies = new HashMap<>();
+        int length = 0;
+        for (String term : tokenize(problem.getTitle())) {
+            frequencies.merge(term, TITLE_WEIGHT, Integer::sum);
+            length += TITLE_WEIGHT;
+        }
+        for (String term : tokenize(problem.getDescription())) {
+            frequencies.merge(term, 1, Integer::sum);
+            length++;
+        }
+        for (String term : tokenize(problem.getConstraints())) {
+            frequencies.merge(term, 1, Integer::sum);
+            length++;
+        }
+
+        return new IndexedProblem(problem.getId(), problem.getDifficulty(), problem.getTitle(),
+                problem.getDescription(), problem.getConstraints(), frequencies, length);
+    }
+
+    private String snippet(IndexedProblem document, Set<String> terms) {
+        String snippet = highlight(document.description, terms);
+        if (snippet == null) {
+            snippet = highlight(document.constraints, terms);
+        }
+        if (snippet == null) {
+            snippet = highlight(document.description, Set.of());
+        }
+        return snippet;
+    }
+
+    /**
+     * Cut a window around the first matching term and wrap every match inside it in mark tags.
+     * Returns null when the text contains no match, unless no terms were given at all.
+     */
+    static String highlight(String text, Set<String> terms) {
+        if (text == null || text.isEmpty()) {
+            return null;
+        }
+
+        List<int[]> matches = new ArrayList<>();
+        int position = 0;
+        while (position < text.length()) {
+            while (position < text.length() && !Character.isLetterOrDigit(text.charAt(position))) {
+                position++;
+            }
+            int start = position;
+            while (position < text.length() && Character.isLetterOrDigit(text.charAt(position))) {
+                position++;
+            }
+            if (position > start && terms.contains(text.substring(start, position).toLowerCase(Locale.ROOT))) {
+                matches.add(new int[]{start, position});
+            }
+        }
+        if (matches.isEmpty() && !terms.isEmpty()) {
+            return null;
+        }
+
+        int from = matches.isEmpty() ? 0 : Math.max(0, matches.get(0)[0] - SNIPPET_LEAD);
+        while (from > 0 && !Character.isWhitespace(text.charAt(from - 1))) {
+            from--;
+        }
+        int to = Math.min(text.length(), from + SNIPPET_LENGTH);
+        while (to < text.length() && !Character.isWhitespace(text.charAt(to))) {
+            to++;
+        }
+
+        StringBuilder snippet = new StringBuilder(to - from + 32);
+        if (from > 0) {
+            snippet.append("...");
+        }
+        int cursor = from;
+        for (int[] match : matches) {
+            if (match[0] >= to) {
+                break;
+            }
+            if (match[0] < from) {
+                continue;
+            }
+            snippet.append(HtmlUtils.htmlEscape(text.substring(cursor, match[0])))
+                    .append("<mark>")
+                    .append(HtmlUtils.htmlEscape(text.substring(match[0], match[1])))
+                    .append("</mark>");
+            cursor = match[1];
+        }
+        snippet.append(HtmlUtils.htmlEscape(text.substring(cursor, to)));
+        if (to < text.length()) {
+            snippet.append("...");
+        }
+        return snippet.toString();
+    }
+
+    static List<String> tokenize(String text) {
+        List<String> tokens = new ArrayList<>();
+        if (text == null) {
+            return tokens;
+        }
+
+        int position = 0;
+        while (position < text.length()) {
+            while (position < text.length() && !Character.isLetterOrDigit(text.charAt(position))) {
+                position++;
+            }
+            int start = position;
+            while (position < text.length() && Character.isLetterOrDigit(text.charAt(position))) {
+                position++;
+            }
+            if (position - start > 1) {
+                String token = text.substring(start, position).toLowerCase(Locale.ROOT);
+                if (!STOP_WORDS.contains(token)) {
+                    tokens.add(token);
+                }
+            }
+        }
+        return tokens;
+    }
+
+    private static final class IndexedProblem {
+        private final UUID id;
+        private final Difficulty difficulty;
+        private final String title;
+        private final String description;
+        private final String constraints;
+        private final Map<String, Integer> frequencies;
+        private final int length;
+        private int slot;
+
+        private IndexedProblem(UUID id, Difficulty difficulty, String title, String description,
+                               String constraints, Map<String, Integer> frequencies, int length) {
+            this.id = id;
+            this.difficulty = difficulty;
+            this.title = title;
+            this.description = description;
+            this.constraints = constraints;
+            this.frequencies = frequencies;
+            this.length = length;
+        }
+    }
+
+    private static final class PostingList {
+        private int[] slots = new int[4];
+        private int[] frequencies = new int[4];
+        private int size;
+        private int live;  // Entries whose slot still holds a document
+
+        private void add(int slot, int frequency) {
+            if (size == slots.length) {
+                slots = Arrays.copyOf(slots, size * 2);
+                frequencies = Arrays.copyOf(frequencies, size * 2);
+            }
+            slots[size] = slot;
+            frequencies[size++] = frequency;
+            live++;
+        }
+    }
+
+    private static final class Scratch {
+        private double[] scores = new double[0];
+        private int[] touched = new int[0];
+
+        private double[] scores(int slotCount) {
+            if (scores.length < slotCount) {
+                scores = new double[slotCount];
+            }
+            return scores;
+        }
+
+        private int[] touched(int slotCount) {
+            if (touched.length < slotCount) {
+                touched = new int[slotCount];
+            }
+            return touched;
+        }
+    }
+
+    private static final class ScoredProblem {
+        // Ties broken by id so pagination is stable between requests
+        private static final Comparator<ScoredProblem> ORDER = Comparator
+                .comparingDouble((ScoredProblem hit) -> hit.score)
+                .thenComparing(hit -> hit.document.id, Comparator.reverseOrder());
+
+        private final IndexedProblem document;
+        private final double score;
+
+        private ScoredProblem(IndexedProblem document, double score) {
+            this.document = document;
+            this.score = score;
+        }
+    }
+}
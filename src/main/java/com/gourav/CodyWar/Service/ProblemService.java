@@ -2,13 +2,20 @@ package com.gourav.CodyWar.Service;
 
 import com.gourav.CodyWar.Domain.Dto.ProblemRequestDto;
 import com.gourav.CodyWar.Domain.Dto.ProblemResponseDto;
+import com.gourav.CodyWar.Domain.Dto.ProblemSearchResponseDto;
+import com.gourav.CodyWar.Domain.Dto.TestCaseSampleDto;
 import com.gourav.CodyWar.Domain.Entity.Problem;
 import com.gourav.CodyWar.Domain.Entity.Difficulty;
+import com.gourav.CodyWar.Repository.BattleRepository;
 import com.gourav.CodyWar.Repository.ProblemRepository;
+import com.gourav.CodyWar.Repository.SubmissionRepository;
+import com.gourav.CodyWar.Repository.TestCaseRepository;
 import jakarta.persistence.EntityNotFoundException;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.Instant;
@@ -25,6 +32,15 @@ import java.util.stream.Collectors;
 public class ProblemService {
 
     private final ProblemRepository problemRepository;
+    private final TestCaseRepository testCaseRepository;
+    private final SubmissionRepository submissionRepository;
+    private final BattleRepository battleRepository;
+    private final ProblemSearchIndex problemSearchIndex;
+    private final ProblemStatsService problemStatsService;
+    private final ProblemResponseCache problemResponseCache;
+    private final VerdictCache verdictCache;
+    private final DifficultyCalibrator difficultyCalibrator;
+    private final PlagiarismService plagiarismService;
 
     /**
      * Create a new problem
@@ -42,6 +58,8 @@ public class ProblemService {
                 .build();
 
         Problem savedProblem = problemRepository.save(problem);
+        problemSearchIndex.indexAfterCommit(savedProblem);
+        difficultyCalibrator.register(savedProblem.getId(), savedProblem.getDifficulty());
         log.info("Problem created successfully with ID: {}", savedProblem.getId());
 
         return mapToResponseDto(savedProblem);
@@ -52,7 +70,7 @@ public class ProblemService {
      */
     @Transactional(readOnly = true)
     public ProblemResponseDto getProblemById(UUID id) {
-        log.info("Fetching problem with ID: {}", id);
+        log.debug("Fetching problem with ID: {}", id);
 
         Problem problem = problemRepository.findById(id)
                 .orElseThrow(() -> {
@@ -63,21 +81,70 @@ public class ProblemService {
         return mapToResponseDto(problem);
     }
 
+    /**
+     * Get problem by ID as ready-to-write JSON, rendering it only when the cached copy is stale
+     */
+    @Transactional(readOnly = true)
+    public ProblemResponseCache.CachedResponse getSerializedProblem(UUID id) {
+        Instant version = problemRepository.findVersionById(id)
+                .orElseThrow(() -> new EntityNotFoundException("Problem not found with ID: " + id));
+
+        DifficultyCalibrator.Snapshot rating = difficultyCalibrator.getRating(id);
+        ProblemResponseCache.CachedResponse cached =
+                problemResponseCache.get(id, version, problemStatsService.getStats(id), rating);
+        if (cached != null) {
+            return cached;
+        }
+
+        Problem problem = problemRepository.findById(id)
+                .orElseThrow(() -> new EntityNotFoundException("Problem not found with ID: " + id));
+        Instant currentVersion = problem.getUpdatedAt() != null ? problem.getUpdatedAt() : problem.getCreatedAt();
+        return problemResponseCache.put(id, currentVersion, mapToResponseDto(problem), rating);
+    }
+
+    /**
+     * Get the visible sample test cases of a problem; hidden cases are only read by the judge
+     */
+    @Transactional(readOnly = true)
+    public List<TestCaseSampleDto> getSamples(UUID id) {
+        if (!problemRepository.existsById(id)) {
+            throw new EntityNotFoundException("Problem not found with ID: " + id);
+        }
+        return testCaseRepository.findSamplesByProblemId(id);
+    }
+
     /**
      * Get all problems
      */
     @Transactional(readOnly = true)
     public List<ProblemResponseDto> getAllProblems() {
-        log.info("Fetching all problems");
+        log.debug("Fetching all problems");
 
         List<Problem> problems = problemRepository.findAll();
-        log.info("Total problems found: {}", problems.size());
+        log.debug("Total problems found: {}", problems.size());
 
         return problems.stream()
                 .map(this::mapToResponseDto)
                 .collect(Collectors.toList());
     }
 
+    /**
+     * Full-text search over title, description and constraints, optionally filtered by difficulty
+     */
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public ProblemSearchResponseDto searchProblems(String query, String difficulty, int page, int size) {
+        log.debug("Searching problems for: {}", query);
+
+        if (page < 0 || size < 1 || size > 100) {
+            throw new IllegalArgumentException("Page must be >= 0 and size between 1 and 100");
+        }
+        Difficulty difficultyFilter = difficulty != null
+                ? Difficulty.valueOf(difficulty.toUpperCase())
+                : null;
+
+        return problemSearchIndex.search(query, difficultyFilter, page, size);
+    }
+
     /**
      * Update existing problem
      */
@@ -97,7 +164,10 @@ public class ProblemService {
         existingProblem.setExampleInput(requestDto.getExamples());
         existingProblem.setExampleOutput(requestDto.getExamples());
 
-        Problem updatedProblem = problemRepository.save(existingProblem);
+        Problem updatedProblem = problemRepository.saveAndFlush(existingProblem);
+        problemSearchIndex.indexAfterCommit(updatedProblem);
+        problemResponseCache.evict(id);
+        difficultyCalibrator.register(id, updatedProblem.getDifficulty());
         log.info("Problem updated successfully with ID: {}", id);
 
         return mapToResponseDto(updatedProblem);
@@ -113,15 +183,32 @@ public class ProblemService {
             log.error("Problem not found with ID: {}", id);
             throw new RuntimeException("Problem not found with ID: " + id);
         }
+        // Submissions and battles keep their problem; they leave only through the archiver
+        if (submissionRepository.existsByProblemId(id) || battleRepository.existsByProblemId(id)) {
+            throw new DataIntegrityViolationException("Problem " + id + " has battles or submissions and cannot be deleted");
+        }
 
+        // Bulk delete so the cascade does not load every hidden input and output into memory
+        testCaseRepository.deleteAllByProblemId(id);
         problemRepository.deleteById(id);
+        plagiarismService.deleteProblem(id);
+        problemSearchIndex.removeAfterCommit(id);
+        // In-memory state goes only once the deletion is committed; a rollback keeps the problem
+        Transactions.afterCommit(() -> problemStatsService.remove(id));
+        // After the commit, so a read racing the delete cannot cache the problem again
+        Transactions.afterCommit(() -> problemResponseCache.evict(id));
+        Transactions.afterCommit(() -> verdictCache.evictProblem(id));
+        Transactions.afterCommit(() -> difficultyCalibrator.remove(id));
+        Transactions.afterCommit(() -> plagiarismService.removeProblem(id));
         log.info("Problem deleted successfully with ID: {}", id);
     }
 
     /**
      * Map Problem entity to ProblemResponseDto
      */
-    private ProblemResponseDto mapToResponseDto(Problem problem) {
+    ProblemResponseDto mapToResponseDto(Problem problem) {
+        ProblemStatsService.Snapshot stats = problemStatsService.getStats(problem.getId());
+        DifficultyCalibrator.Snapshot rating = difficultyCalibrator.getRating(problem.getId());
         return ProblemResponseDto.builder()
                 .id(UUID.fromString(problem.getId().toString()))
                 .title(problem.getTitle())
@@ -131,11 +218,16 @@ public class ProblemService {
                 .constraints(problem.getConstraints())
                 .examples(problem.getExampleInput())
                 .createdAt(convertInstantToLocalDateTime(problem.getCreatedAt()))
-                .updatedAt(convertInstantToLocalDateTime(problem.getCreatedAt()))
+                .updatedAt(convertInstantToLocalDateTime(
+                        problem.getUpdatedAt() != null ? problem.getUpdatedAt() : problem.getCreatedAt()))
                 .createdBy(null)
-                .totalSubmissions(0L)
-                .acceptedSubmissions(0L)
-                .acceptanceRate(0.0)
+                .totalSubmissions(stats.getTotalSubmissions())
+                .acceptedSubmissions(stats.getAcceptedSubmissions())
+                .acceptanceRate(stats.getAcceptanceRate())
+                .difficultyScore(rating != null ? rating.getScore() : null)
+                .calibratedDifficulty(rating != null && rating.getCalibratedDifficulty() != null
+                        ? rating.getCalibratedDifficulty().name() : null)
+                .averageSolveSeconds(rating != null ? rating.getAverageSolveSeconds() : null)
                 .build();
     }
 
@@ -0,0 +1,156 @@
+package com.gourav.CodyWar.Service;
+
+import com.gourav.CodyWar.Domain.Entity.ProblemStats;
+import com.gourav.CodyWar.Domain.Entity.SubmissionStatus;
+import com.gourav.CodyWar.Domain.Event.SubmissionJudgedEvent;
+import com.gourav.CodyWar.Repository.ProblemStatsRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Live per-problem submission counters.
+ *
+ * Verdicts are added to striped LongAdders in memory, so reads never query the submissions
+ * table. Deltas are flushed to problem_stats on a fixed delay and once more on shutdown;
+ * persisted totals are loaded back at startup and then reloaded periodically, so the verdicts
+ * other nodes flushed show up here too. A reload sets each total to the persisted one plus
+ * this node's unflushed delta.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ProblemStatsService {
+
+    private static final Snapshot EMPTY = new Snapshot(0, 0);
+
+    private final ProblemStatsRepository problemStatsRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    private final Map<UUID, Counters> counters = new ConcurrentHashMap<>();
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        reload();
+        log.info("Loaded submission statistics for {} problems", counters.size());
+    }
+
+    @Scheduled(initialDelayString = "${problem.stats.reload-interval-ms:30000}",
+            fixedDelayString = "${problem.stats.reload-interval-ms:30000}")
+    public void reload() {
+        problemStatsRepository.findAll().forEach(stats -> {
+            Counters problemCounters = counters(stats.getProblemId());
+            // A verdict counted between reading the delta and the reset is missing from the total until the next reload
+            reset(problemCounters.total, stats.getTotalSubmissions() + problemCounters.unflushedTotal.sum());
+            reset(problemCounters.accepted, stats.getAcceptedSubmissions() + problemCounters.unflushedAccepted.sum());
+        });
+    }
+
+    @TransactionalEventListener
+    public void onSubmissionJudged(SubmissionJudgedEvent event) {
+        recordVerdict(event.getProblemId(), event.getStatus());
+    }
+
+    public void recordVerdict(UUID problemId, SubmissionStatus status) {
+        Counters problemCounters = counters(problemId);
+        problemCounters.total.increment();
+        problemCounters.unflushedTotal.increment();
+        if (status == SubmissionStatus.ACCEPTED) {
+            problemCounters.accepted.increment();
+            problemCounters.unflushedAccepted.increment();
+        }
+    }
+
+    public Snapshot getStats(UUID problemId) {
+        Counters problemCounters = counters.get(problemId);
+        if (problemCounters == null) {
+            return EMPTY;
+        }
+        return new Snapshot(problemCounters.total.sum(), problemCounters.accepted.sum());
+    }
+
+    /**
+     * Drop the counters of a deleted problem, once the deletion is committed; its row goes with
+     * the problem through the foreign key
+     */
+    public void remove(UUID problemId) {
+        counters.remove(problemId);
+    }
+
+    @Scheduled(fixedDelayString = "${problem.stats.flush-interval-ms:5000}")
+    @PreDestroy
+    public void flush() {
+        Instant now = Instant.now();
+        counters.forEach((problemId, problemCounters) -> {
+            long total = problemCounters.unflushedTotal.sumThenReset();
+            long accepted = problemCounters.unflushedAccepted.sumThenReset();
+            if (total == 0 && accepted == 0) {
+                return;
+            }
+
+            try {
+                transactionTemplate.executeWithoutResult(status -> {
+                    if (problemStatsRepository.increment(problemId, total, accepted, now) == 0) {
+                        problemStatsRepository.save(ProblemStats.builder()
+                                .problemId(problemId)
+                                .totalSubmissions(total)
+                                .acceptedSubmissions(accepted)
+                                .updatedAt(now)
+                                .build());
+                    }
+                });
+            } catch (RuntimeException e) {
+                // Keep the delta for the next attempt
+                problemCounters.unflushedTotal.add(total);
+                problemCounters.unflushedAccepted.add(accepted);
+                log.warn("Failed to flush statistics for problem {}: {}", problemId, e.getMessage());
+            }
+        });
+    }
+
+    private Counters counters(UUID problemId) {
+        return counters.computeIfAbsent(problemId, id -> new Counters());
+    }
+
+    private static void reset(LongAdder adder, long value) {
+        adder.reset();
+        adder.add(value);
+    }
+
+    private static final class Counters {
+        // Live totals, including what was loaded from problem_stats
+        private final LongAdder total = new LongAdder();
+        private final LongAdder accepted = new LongAdder();
+        // Increments not yet written to problem_stats
+        private final LongAdder unflushedTotal = new LongAdder();
+        private final LongAdder unflushedAccepted = new LongAdder();
+    }
+
+    @Getter
+    @AllArgsConstructor
+    public static class Snapshot {
+        private final long totalSubmissions;
+        private final long acceptedSubmissions;
+
+        public double getAcceptanceRate() {
+            if (totalSubmissions == 0) {
+                return 0.0;
+            }
+            return Math.round(acceptedSubmissions * 10000.0 / totalSubmissions) / 100.0;
+        }
+    }
+}
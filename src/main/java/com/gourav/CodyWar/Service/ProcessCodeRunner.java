@@ -0,0 +1,248 @@
+package com.gourav.CodyWar.Service;
+
+import com.gourav.CodyWar.Configuration.JudgeProperties;
+import com.gourav.CodyWar.Domain.Entity.Language;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.util.FileSystemUtils;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs submissions as local processes using the toolchains configured under judge.languages.
+ *
+ * Time and output are limited here, memory through ulimit and the peak RSS read from /proc.
+ * Programs get an empty environment apart from PATH, LANG and a HOME in their working directory,
+ * and what they print to stderr is cut short and stripped of that directory before players see it.
+ * This is still not a security boundary: the program runs as the server's user and can read
+ * whatever it can, the server's /proc/PID/environ included. Nothing is run unless judge.sandboxed
+ * says the node is inside an isolated container or VM.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ProcessCodeRunner implements CodeRunner {
+
+    private static final long POLL_INTERVAL_MS = 10;
+    private static final int MAX_ERROR_CHARS = 2000;
+    private static final int MAX_ERROR_LINES = 40;
+    private static final List<String> INHERITED_ENV = List.of("PATH", "LANG");
+
+    private final JudgeProperties judgeProperties;
+
+    @PostConstruct
+    void warnIfDisabled() {
+        if (!judgeProperties.isSandboxed()) {
+            log.warn("Judge is off: submissions are refused until judge.sandboxed confirms this node runs isolated");
+        }
+    }
+
+    @Override
+    public boolean supports(Language language) {
+        if (!judgeProperties.isSandboxed()) {
+            return false;
+        }
+        JudgeProperties.Toolchain toolchain = judgeProperties.getLanguages().get(language);
+        return toolchain != null && toolchain.getRun() != null;
+    }
+
+    @Override
+    public Program prepare(Language language, String code) throws IOException {
+        if (!supports(language)) {
+            throw new IllegalArgumentException("Language not supported by this judge: " + language);
+        }
+        JudgeProperties.Toolchain toolchain = judgeProperties.getLanguages().get(language);
+
+        Path workDir = judgeProperties.getWorkDir() != null
+                ? Files.createTempDirectory(Files.createDirectories(Path.of(judgeProperties.getWorkDir())), "submission-")
+                : Files.createTempDirectory("submission-");
+        LocalProgram program = new LocalProgram(workDir, toolchain);
+        try {
+            Files.writeString(workDir.resolve(toolchain.getSourceFile()), code);
+            if (toolchain.getCompile() != null) {
+                Process process = processBuilder(toolchain.getCompile(), workDir)
+                        .redirectErrorStream(true)
+                        .redirectOutput(workDir.resolve("compile.log").toFile())
+                        .start();
+                if (!process.waitFor(judgeProperties.getCompileTimeoutMs(), TimeUnit.MILLISECONDS)) {
+                    kill(process);
+                    program.compileError = "Compilation timed out";
+                } else if (process.exitValue() != 0) {
+                    program.compileError = sanitize(readLimited(workDir.resolve("compile.log"), MAX_ERROR_CHARS * 4), workDir);
+                }
+            }
+            return program;
+        } catch (IOException | RuntimeException e) {
+            program.close();
+            throw e;
+        } catch (InterruptedException e) {
+            program.close();
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while compiling", e);
+        }
+    }
+
+    @Override
+    public RunResult run(Program program, String input, long timeLimitMs, int memoryLimitMb) throws IOException {
+        LocalProgram local = (LocalProgram) program;
+        Path stdin = local.workDir.resolve("stdin.txt");
+        Path stdout = local.workDir.resolve("stdout.txt");
+        Path stderr = local.workDir.resolve("stderr.txt");
+        Files.writeString(stdin, input);
+
+        String command = local.toolchain.getRun().replace("{memoryMb}", Integer.toString(memoryLimitMb));
+        if (local.toolchain.isLimitAddressSpace()) {
+            command = "ulimit -v " + (memoryLimitMb * 1024L) + " && exec " + command;
+        } else {
+            command = "exec " + command;
+        }
+
+        long start = System.nanoTime();
+        Process process = processBuilder(command, local.workDir)
+                .redirectInput(stdin.toFile())
+                .redirectOutput(stdout.toFile())
+                .redirectError(stderr.toFile())
+                .start();
+
+        boolean timedOut = false;
+        boolean outputLimitExceeded = false;
+        Integer peakMemoryKb = null;
+        try {
+            while (!process.waitFor(POLL_INTERVAL_MS, TimeUnit.MILLISECONDS)) {
+                peakMemoryKb = max(peakMemoryKb, peakRssKb(process.pid()));
+                if (Files.size(stdout) > judgeProperties.getMaxOutputBytes()) {
+                    outputLimitExceeded = true;
+                } else if (TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) > timeLimitMs) {
+                    timedOut = true;
+                } else {
+                    continue;
+                }
+                kill(process).waitFor();
+                break;
+            }
+        } catch (InterruptedException e) {
+            kill(process);
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while running", e);
+        }
+        long elapsedMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+        return RunResult.builder()
+                .exitCode(process.exitValue())
+                .timedOut(timedOut || elapsedMs > timeLimitMs)
+                .outputLimitExceeded(outputLimitExceeded)
+                .stdout(outputLimitExceeded ? "" : readLimited(stdout, judgeProperties.getMaxOutputBytes()))
+                .stderr(sanitize(readLimited(stderr, MAX_ERROR_CHARS * 4), local.workDir))
+                .elapsedMs(elapsedMs)
+                .peakMemoryKb(peakMemoryKb)
+                .build();
+    }
+
+    private static Process kill(Process process) {
+        process.descendants().forEach(ProcessHandle::destroyForcibly);
+        return process.destroyForcibly();
+    }
+
+    // Nothing of the server's environment (database password, cluster and JWT secrets) reaches the program
+    private static ProcessBuilder processBuilder(String command, Path workDir) {
+        List<String> args = new ArrayList<>(3);
+        args.add("/bin/sh");
+        args.add("-c");
+        args.add(command);
+        ProcessBuilder builder = new ProcessBuilder(args).directory(workDir.toFile());
+        Map<String, String> environment = builder.environment();
+        environment.clear();
+        for (String name : INHERITED_ENV) {
+            String value = System.getenv(name);
+            if (value != null) {
+                environment.put(name, value);
+            }
+        }
+        environment.putIfAbsent("LANG", "C.UTF-8");
+        environment.put("HOME", workDir.toString());
+        return builder;
+    }
+
+    // VmHWM is the process's peak resident set; only available on Linux
+    private static Integer peakRssKb(long pid) {
+        try {
+            for (String line : Files.readAllLines(Path.of("/proc", Long.toString(pid), "status"))) {
+                if (line.startsWith("VmHWM:")) {
+                    return Integer.parseInt(line.replaceAll("\\D", ""));
+                }
+            }
+        } catch (IOException | NumberFormatException e) {
+            // Process already exited or no procfs
+        }
+        return null;
+    }
+
+    private static Integer max(Integer current, Integer sample) {
+        if (sample == null) {
+            return current;
+        }
+        return current == null ? sample : Math.max(current, sample);
+    }
+
+    private static String readLimited(Path file, int maxBytes) throws IOException {
+        try (InputStream in = Files.newInputStream(file)) {
+            return new String(in.readNBytes(maxBytes), StandardCharsets.UTF_8);
+        }
+    }
+
+    /**
+     * Judge output as players see it: the working directory's path replaced by ".", control
+     * characters other than tabs and newlines dropped, and cut at MAX_ERROR_LINES lines or
+     * MAX_ERROR_CHARS characters
+     */
+    static String sanitize(String text, Path workDir) {
+        String relative = text.replace(workDir.toString(), ".");
+        StringBuilder out = new StringBuilder(Math.min(relative.length(), MAX_ERROR_CHARS));
+        int lines = 0;
+        for (int i = 0; i < relative.length(); i++) {
+            char c = relative.charAt(i);
+            if (out.length() == MAX_ERROR_CHARS || (c == '\n' && ++lines == MAX_ERROR_LINES)) {
+                return out.append("\n...").toString();
+            }
+            if (c == '\n' || c == '\t' || !Character.isISOControl(c)) {
+                out.append(c);
+            }
+        }
+        return out.toString();
+    }
+
+    private static class LocalProgram implements Program {
+        private final Path workDir;
+        private final JudgeProperties.Toolchain toolchain;
+        private String compileError;
+
+        private LocalProgram(Path workDir, JudgeProperties.Toolchain toolchain) {
+            this.workDir = workDir;
+            this.toolchain = toolchain;
+        }
+
+        @Override
+        public String getCompileError() {
+            return compileError;
+        }
+
+        @Override
+        public void close() {
+            try {
+                FileSystemUtils.deleteRecursively(workDir);
+            } catch (IOException e) {
+                log.warn("Could not delete judge working directory {}", workDir);
+            }
+        }
+    }
+}
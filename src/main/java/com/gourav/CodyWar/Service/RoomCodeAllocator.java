@@ -0,0 +1,304 @@
+package com.gourav.CodyWar.Service;
+
+import com.gourav.CodyWar.Domain.Dto.BattleRoomCode;
+import com.gourav.CodyWar.Domain.Event.BattleEvent;
+import com.gourav.CodyWar.Repository.BattleRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.security.SecureRandom;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Hands out room codes for private battles from an in-memory pool, without collision retries
+ * against the database.
+ *
+ * The pool is a range of slots tracked in a bitmap, one bit per live code, with a second bitmap
+ * marking full words so a free slot is found in a couple of word operations. A slot maps to its
+ * six character code through a keyed bijection of the 30 bit code space, so codes do not look
+ * sequential and decoding a code back to its slot is just as cheap. Codes are released when the
+ * battle completes or is cancelled, which also clears the code in the database.
+ *
+ * At startup the pool is rebuilt from the battles that still hold a code.
+ */
+@Slf4j
+@Service
+public class RoomCodeAllocator {
+
+    // 32 unambiguous characters, so a code of 6 is exactly 30 bits
+    private static final String ALPHABET = "ABCDEFGHJKLMNPQRSTUVWXYZ23456789";
+    private static final int LENGTH = 6;
+    private static final int BITS = 5 * LENGTH;
+    private static final int MASK = (1 << BITS) - 1;
+    private static final int MULTIPLIER = 0x2545F491;
+    private static final int MULTIPLIER_INVERSE = inverse(MULTIPLIER);
+    private static final int[] INDEX = new int[128];
+
+    static {
+        Arrays.fill(INDEX, -1);
+        for (int i = 0; i < ALPHABET.length(); i++) {
+            INDEX[ALPHABET.charAt(i)] = i;
+        }
+    }
+
+    private final BattleRepository battleRepository;
+    private final BattleEventLog battleEventLog;
+    private final MeterRegistry meterRegistry;
+    private final SecureRandom random = new SecureRandom();
+    private final int key;
+    private final int capacity;
+    private final long[] taken;
+    private final long[] full;
+    private final UUID[] owners;
+    private final Map<UUID, String> codes = new HashMap<>();
+    // Codes created before the pool existed that fall outside its slot range or alphabet, upper-cased
+    private final Map<String, UUID> outside = new HashMap<>();
+    private int live;
+
+    public RoomCodeAllocator(BattleRepository battleRepository,
+                             BattleEventLog battleEventLog,
+                             MeterRegistry meterRegistry,
+                             @Value("${battle.room-codes.capacity:262144}") int capacity) {
+        if (capacity <= 0 || capacity > MASK + 1) {
+            throw new IllegalArgumentException("battle.room-codes.capacity must be between 1 and " + (MASK + 1));
+        }
+        this.battleRepository = battleRepository;
+        this.battleEventLog = battleEventLog;
+        this.meterRegistry = meterRegistry;
+        this.key = random.nextInt() & MASK;
+        this.capacity = capacity;
+        this.taken = new long[(capacity + 63) >>> 6];
+        this.full = new long[(taken.length + 63) >>> 6];
+        this.owners = new UUID[capacity];
+
+        // Slots past the capacity and words past the end are permanently taken
+        for (int slot = capacity; slot < taken.length << 6; slot++) {
+            taken[slot >>> 6] |= 1L << slot;
+        }
+        for (int word = 0; word < full.length << 6; word++) {
+            if (word >= taken.length || taken[word] == -1L) {
+                full[word >>> 6] |= 1L << word;
+            }
+        }
+    }
+
+    @PostConstruct
+    public void rebuild() {
+        for (BattleRoomCode held : battleRepository.findRoomCodes()) {
+            reserve(held.getRoomCode(), held.getBattleId());
+        }
+        battleEventLog.subscribe(this::apply);
+        Gauge.builder("codywar.battles.room_codes", this, RoomCodeAllocator::size)
+                .description("Room codes held by private battles")
+                .register(meterRegistry);
+        log.info("Rebuilt {} room codes, pool capacity {}", live, capacity);
+    }
+
+    /**
+     * Take a free code; it is not joinable until it is bound to its battle
+     */
+    public synchronized String allocate() {
+        if (live - outside.size() >= capacity) {
+            throw new IllegalStateException("No free room codes");
+        }
+
+        int word = random.nextInt(taken.length);
+        if (taken[word] == -1L) {
+            word = nextFreeWord(word);
+        }
+        // Start from a random bit so the order of slots within a word is not predictable either
+        int rotation = random.nextInt(64);
+        int bit = (Long.numberOfTrailingZeros(Long.rotateRight(~taken[word], rotation)) + rotation) & 63;
+        int slot = (word << 6) + bit;
+        mark(slot);
+        live++;
+        return encode(slot);
+    }
+
+    public synchronized void bind(String code, UUID battleId) {
+        owners[decode(code)] = battleId;
+        codes.put(battleId, code);
+    }
+
+    /**
+     * Return a code whose battle was never created, e.g. when its transaction rolled back
+     */
+    public synchronized void discard(String code) {
+        int slot = decode(code);
+        if (!isTaken(slot)) {
+            return;
+        }
+        if (owners[slot] != null) {
+            codes.remove(owners[slot]);
+            owners[slot] = null;
+        }
+        clear(slot);
+        live--;
+    }
+
+    /**
+     * The battle holding a code, or null; never touches the database
+     */
+    public synchronized UUID find(String code) {
+        if (code == null) {
+            return null;
+        }
+        String normalized = code.toUpperCase();
+        int slot = isWellFormed(normalized) ? slotOf(normalized) : capacity;
+        return slot < capacity ? owners[slot] : outside.get(normalized);
+    }
+
+    public synchronized void release(UUID battleId) {
+        String code = codes.remove(battleId);
+        if (code == null) {
+            return;
+        }
+        int slot = isWellFormed(code) ? slotOf(code) : capacity;
+        if (slot < capacity) {
+            owners[slot] = null;
+            clear(slot);
+        } else {
+            outside.remove(code.toUpperCase());
+        }
+        live--;
+    }
+
+    /**
+     * Hold the code of a battle taken over from another node
+     */
+    public synchronized void adopt(String code, UUID battleId) {
+        if (!codes.containsKey(battleId)) {
+            reserve(code, battleId);
+        }
+    }
+
+    public synchronized Set<UUID> battleIds() {
+        return Set.copyOf(codes.keySet());
+    }
+
+    public synchronized int size() {
+        return live;
+    }
+
+    private void apply(BattleEvent event) {
+        if (event.getType().isTerminal()) {
+            release(event.getBattleId());
+        }
+    }
+
+    private synchronized void reserve(String code, UUID battleId) {
+        int slot = isWellFormed(code) ? slotOf(code) : capacity;
+        if (slot < capacity) {
+            if (isTaken(slot)) {
+                log.warn("Room code {} is held by battles {} and {}", code, owners[slot], battleId);
+                return;
+            }
+            mark(slot);
+            owners[slot] = battleId;
+        } else {
+            outside.put(code.toUpperCase(), battleId);
+        }
+        codes.put(battleId, code);
+        live++;
+    }
+
+    private int nextFreeWord(int from) {
+        int index = from >>> 6;
+        long candidates = ~full[index] & (-1L << from);
+        for (int i = 0; i <= full.length; i++) {
+            if (candidates != 0) {
+                return (index << 6) + Long.numberOfTrailingZeros(candidates);
+            }
+            index = index + 1 == full.length ? 0 : index + 1;
+            candidates = ~full[index];
+        }
+        throw new IllegalStateException("No free room codes");
+    }
+
+    private boolean isTaken(int slot) {
+        return (taken[slot >>> 6] & (1L << slot)) != 0;
+    }
+
+    private void mark(int slot) {
+        int word = slot >>> 6;
+        taken[word] |= 1L << slot;
+        if (taken[word] == -1L) {
+            full[word >>> 6] |= 1L << word;
+        }
+    }
+
+    private void clear(int slot) {
+        int word = slot >>> 6;
+        taken[word] &= ~(1L << slot);
+        full[word >>> 6] &= ~(1L << word);
+    }
+
+    private String encode(int slot) {
+        int value = scramble(slot);
+        char[] code = new char[LENGTH];
+        for (int i = LENGTH - 1; i >= 0; i--) {
+            code[i] = ALPHABET.charAt(value & 31);
+            value >>>= 5;
+        }
+        return new String(code);
+    }
+
+    private int decode(String code) {
+        int slot = slotOf(code);
+        if (slot >= capacity) {
+            throw new IllegalArgumentException("Room code " + code + " was not allocated by this pool");
+        }
+        return slot;
+    }
+
+    private static boolean isWellFormed(String code) {
+        if (code.length() != LENGTH) {
+            return false;
+        }
+        for (int i = 0; i < LENGTH; i++) {
+            char c = code.charAt(i);
+            if (c >= INDEX.length || INDEX[c] < 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private int slotOf(String code) {
+        int value = 0;
+        for (int i = 0; i < LENGTH; i++) {
+            value = (value << 5) | INDEX[code.charAt(i)];
+        }
+        return unscramble(value);
+    }
+
+    // Keyed bijection on 30 bits: xor, multiply by an odd constant, xorshift, multiply again
+    private int scramble(int x) {
+        x = (x ^ key) * MULTIPLIER & MASK;
+        x ^= x >>> 15;
+        return x * MULTIPLIER & MASK;
+    }
+
+    private int unscramble(int x) {
+        x = x * MULTIPLIER_INVERSE & MASK;
+        x ^= x >>> 15;
+        return (x * MULTIPLIER_INVERSE & MASK) ^ key;
+    }
+
+    // Inverse of an odd number modulo 2^32 by Newton's iteration, which also holds modulo 2^30
+    private static int inverse(int a) {
+        int x = a;
+        for (int i = 0; i < 5; i++) {
+            x *= 2 - a * x;
+        }
+        return x;
+    }
+}
@@ -0,0 +1,96 @@
+package com.gourav.CodyWar.Service;
+
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * The sender threads of an event stream hub, and the watch on their writes.
+ *
+ * Sends block once a client stops reading and its socket buffers are full. A write that has been
+ * stuck for longer than the write timeout is marked so its client can be dropped, and the pool
+ * gets an extra thread until the write returns, so the other streams never wait behind it.
+ */
+final class StreamSender {
+
+    private final ThreadPoolExecutor executor;
+    private final long writeTimeoutNanos;
+
+    StreamSender(String threadNamePrefix, int threads, long writeTimeoutMs) {
+        // Hubs queue at most one drain task per stream, so the queue is bounded by the stream count
+        this.executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new LinkedBlockingQueue<>(), new CustomizableThreadFactory(threadNamePrefix));
+        this.writeTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(writeTimeoutMs);
+    }
+
+    void execute(Runnable task) {
+        executor.execute(task);
+    }
+
+    void shutdownNow() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Mark the start of a write to a client
+     */
+    Write begin(SseEmitter emitter) {
+        return new Write(emitter);
+    }
+
+    /**
+     * Mark the write stuck if it has run past the write timeout, and lend the pool a thread until
+     * it returns; true if its client is to be dropped
+     */
+    boolean expire(Write write, long now) {
+        return write != null && now - write.startedAt > writeTimeoutNanos && lendThread(write);
+    }
+
+    /**
+     * Mark the end of a write; true if it was stuck and its client dropped meanwhile
+     */
+    boolean end(Write write) {
+        return returnThread(write);
+    }
+
+    // Under the sender's lock, so a write that returns meanwhile gives the thread back after it was lent
+    private synchronized boolean lendThread(Write write) {
+        if (!write.state.compareAndSet(Write.RUNNING, Write.STUCK)) {
+            return false;
+        }
+        executor.setMaximumPoolSize(executor.getMaximumPoolSize() + 1);
+        executor.setCorePoolSize(executor.getCorePoolSize() + 1);
+        return true;
+    }
+
+    private synchronized boolean returnThread(Write write) {
+        if (write.state.getAndSet(Write.DONE) != Write.STUCK) {
+            return false;
+        }
+        executor.setCorePoolSize(executor.getCorePoolSize() - 1);
+        executor.setMaximumPoolSize(executor.getMaximumPoolSize() - 1);
+        return true;
+    }
+
+    static final class Write {
+        private static final int RUNNING = 0;
+        private static final int STUCK = 1;
+        private static final int DONE = 2;
+
+        private final SseEmitter emitter;
+        private final long startedAt = System.nanoTime();
+        private final AtomicInteger state = new AtomicInteger(RUNNING);
+
+        private Write(SseEmitter emitter) {
+            this.emitter = emitter;
+        }
+
+        SseEmitter getEmitter() {
+            return emitter;
+        }
+    }
+}
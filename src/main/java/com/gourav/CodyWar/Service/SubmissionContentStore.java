@@ -0,0 +1,196 @@
+package com.gourav.CodyWar.Service;
+
+import com.gourav.CodyWar.Domain.Entity.ContentEncoding;
+import com.gourav.CodyWar.Domain.Entity.Submission;
+import com.gourav.CodyWar.Domain.Entity.SubmissionContent;
+import com.gourav.CodyWar.Repository.SubmissionContentRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.util.Set;
+import java.util.UUID;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * Content-addressed storage for submission source code and judge output.
+ *
+ * Texts are keyed by their SHA-256, so resubmitting the same code, or hitting the same
+ * compiler error, stores nothing new. Each text is deflated unless that does not make it
+ * smaller. Submissions only reference the content row, so it is read and inflated only
+ * when a caller asks for the text.
+ */
+@Slf4j
+@Service
+public class SubmissionContentStore {
+
+    private final SubmissionContentRepository submissionContentRepository;
+    private final Counter stored;
+    private final Counter deduplicated;
+
+    // Off: new submissions keep writing the plain TEXT columns
+    @Value("${submission.storage.compressed:true}")
+    private boolean compressed;
+
+    @Value("${submission.storage.deflate-level:6}")
+    private int deflateLevel;
+
+    public SubmissionContentStore(SubmissionContentRepository submissionContentRepository, MeterRegistry meterRegistry) {
+        this.submissionContentRepository = submissionContentRepository;
+        this.stored = Counter.builder("codywar.submission.content.writes").tag("result", "stored")
+                .description("Submission texts written to content storage")
+                .register(meterRegistry);
+        this.deduplicated = Counter.builder("codywar.submission.content.writes").tag("result", "deduplicated")
+                .description("Submission texts written to content storage")
+                .register(meterRegistry);
+    }
+
+    public boolean isCompressed() {
+        return compressed;
+    }
+
+    /**
+     * Set a new submission's code in the configured storage mode
+     */
+    public void setCode(Submission submission, String code) {
+        if (compressed) {
+            submission.setCodeContent(store(code));
+        } else {
+            submission.setCode(code);
+        }
+    }
+
+    /**
+     * Set a submission's judge output in the configured storage mode
+     */
+    public void setErrorMessage(Submission submission, String errorMessage) {
+        if (compressed) {
+            submission.setErrorContent(store(errorMessage));
+        } else {
+            submission.setErrorMessage(errorMessage);
+        }
+    }
+
+    public String getCode(Submission submission) {
+        return submission.getCodeContent() != null ? read(submission.getCodeContent()) : submission.getCode();
+    }
+
+    public String getErrorMessage(Submission submission) {
+        return submission.getErrorContent() != null ? read(submission.getErrorContent()) : submission.getErrorMessage();
+    }
+
+    /**
+     * Store a text unless it is already present and return a reference to its row; must run in a transaction
+     */
+    public SubmissionContent store(String text) {
+        return store(text, null);
+    }
+
+    /**
+     * Like {@link #store(String)}, skipping the insert for ids in {@code known}; ids stored are added to it
+     */
+    public SubmissionContent store(String text, Set<UUID> known) {
+        if (text == null) {
+            return null;
+        }
+
+        byte[] bytes = text.getBytes(StandardCharsets.UTF_8);
+        UUID id = contentId(bytes);
+        if (known != null && known.contains(id)) {
+            deduplicated.increment();
+            return submissionContentRepository.getReferenceById(id);
+        }
+
+        byte[] deflated = deflate(bytes);
+        boolean useDeflate = deflated.length < bytes.length;
+
+        int inserted = submissionContentRepository.insertIfAbsent(id,
+                (useDeflate ? ContentEncoding.DEFLATE : ContentEncoding.RAW).name(), bytes.length,
+                useDeflate ? deflated : bytes, Instant.now());
+        (inserted > 0 ? stored : deduplicated).increment();
+        if (known != null) {
+            known.add(id);
+        }
+        return submissionContentRepository.getReferenceById(id);
+    }
+
+    public String read(UUID contentId) {
+        return submissionContentRepository.findById(contentId)
+                .map(this::read)
+                .orElseThrow(() -> new IllegalStateException("Missing submission content " + contentId));
+    }
+
+    public String read(SubmissionContent content) {
+        byte[] bytes = content.getEncoding() == ContentEncoding.DEFLATE
+                ? inflate(content.getData(), content.getOriginalBytes())
+                : content.getData();
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private byte[] deflate(byte[] input) {
+        Deflater deflater = new Deflater(deflateLevel, true);
+        try {
+            deflater.setInput(input);
+            deflater.finish();
+            ByteArrayOutputStream out = new ByteArrayOutputStream(Math.max(64, input.length / 2));
+            byte[] chunk = new byte[4096];
+            while (!deflater.finished()) {
+                out.write(chunk, 0, deflater.deflate(chunk));
+            }
+            return out.toByteArray();
+        } finally {
+            deflater.end();
+        }
+    }
+
+    private static byte[] inflate(byte[] input, int originalBytes) {
+        Inflater inflater = new Inflater(true);
+        try {
+            inflater.setInput(input);
+            byte[] output = new byte[originalBytes];
+            int length = 0;
+            while (length < originalBytes && !inflater.finished()) {
+                int read = inflater.inflate(output, length, originalBytes - length);
+                if (read == 0 && inflater.needsInput()) {
+                    break;
+                }
+                length += read;
+            }
+            if (length != originalBytes) {
+                throw new IllegalStateException("Corrupt submission content: expected " + originalBytes
+                        + " bytes, inflated " + length);
+            }
+            return output;
+        } catch (DataFormatException e) {
+            throw new IllegalStateException("Corrupt submission content", e);
+        } finally {
+            inflater.end();
+        }
+    }
+
+    /**
+     * The id a text is stored under, which also identifies equal texts without storing them
+     */
+    static UUID contentId(String text) {
+        return contentId(text.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static UUID contentId(byte[] bytes) {
+        try {
+            ByteBuffer digest = ByteBuffer.wrap(MessageDigest.getInstance("SHA-256").digest(bytes));
+            return new UUID(digest.getLong(), digest.getLong());
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);  // Every JRE ships SHA-256
+        }
+    }
+}
@@ -0,0 +1,296 @@
+package com.gourav.CodyWar.Service;
+
+import com.gourav.CodyWar.Cluster.ClusterMembership;
+import com.gourav.CodyWar.Domain.Dto.SubmissionProgressDto;
+import com.gourav.CodyWar.Domain.Entity.SubmissionStatus;
+import com.gourav.CodyWar.Domain.Event.SubmissionJudgedEvent;
+import com.gourav.CodyWar.Repository.ArchivedSubmissionRepository;
+import com.gourav.CodyWar.Repository.SubmissionRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityNotFoundException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Pushes a submission's progress to its open event streams as the judge works through the test
+ * cases, then the verdict, then closes them.
+ *
+ * Progress comes straight from the judge threads and never touches the database; only opening a
+ * stream reads the submission once. The judge only hands an update over: sending happens on a
+ * small pool of sender threads, and updates for a stream are conflated so a slow client skips
+ * intermediate progress instead of queueing it. The verdict always replaces pending progress and
+ * is never dropped.
+ *
+ * A client whose write has been stuck for longer than the write timeout is dropped from its
+ * stream and closed as soon as the write returns; see {@link StreamSender}.
+ *
+ * In a cluster only the node judging a submission reports on it. Streams are routed there, but a
+ * submission requeued after a node left can be claimed elsewhere after its stream opened here;
+ * such streams are closed every few seconds, and the client's reconnect opens with the verdict
+ * or is routed to the new node.
+ */
+@Slf4j
+@Service
+public class SubmissionProgressHub {
+
+    private static final List<SubmissionStatus> UNJUDGED = List.of(SubmissionStatus.PENDING, SubmissionStatus.RUNNING);
+    private static final int MOVED_CHECK_BATCH_SIZE = 500;
+    private static final Duration VERDICT_GRACE = Duration.ofSeconds(5);
+
+    private final SubmissionRepository submissionRepository;
+    private final ArchivedSubmissionRepository archivedSubmissionRepository;
+    private final ClusterMembership membership;
+    private final long timeoutMs;
+    private final int maxStreams;
+    private final StreamSender sender;
+    private final Counter slowDropped;
+
+    private final Map<UUID, Stream> streams = new ConcurrentHashMap<>();
+    private final AtomicInteger open = new AtomicInteger();
+
+    public SubmissionProgressHub(SubmissionRepository submissionRepository,
+                                 ArchivedSubmissionRepository archivedSubmissionRepository,
+                                 ClusterMembership membership,
+                                 MeterRegistry meterRegistry,
+                                 @Value("${submission.stream.timeout-ms:300000}") long timeoutMs,
+                                 @Value("${submission.stream.max-streams:10000}") int maxStreams,
+                                 @Value("${submission.stream.sender-threads:2}") int senderThreads,
+                                 @Value("${submission.stream.write-timeout-ms:5000}") long writeTimeoutMs) {
+        this.submissionRepository = submissionRepository;
+        this.archivedSubmissionRepository = archivedSubmissionRepository;
+        this.membership = membership;
+        this.timeoutMs = timeoutMs;
+        this.maxStreams = maxStreams;
+        this.sender = new StreamSender("submission-stream-", senderThreads, writeTimeoutMs);
+        this.slowDropped = Counter.builder("codywar.submission.streams.slow.dropped")
+                .description("Submission event streams dropped because a write to the client got stuck")
+                .register(meterRegistry);
+        Gauge.builder("codywar.submission.streams", open, AtomicInteger::get)
+                .description("Open submission event streams")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Open an event stream on one of the user's submissions; it starts with the current status
+     */
+    public SseEmitter subscribe(UUID submissionId, UUID userId) {
+        SubmissionProgressDto current = findProgress(submissionId, userId)
+                .orElseThrow(() -> new EntityNotFoundException("Submission not found with ID: " + submissionId));
+
+        SseEmitter emitter = createEmitter();
+        send(emitter, current);
+        if (current.getStatus().isFinal()) {
+            emitter.complete();
+            return emitter;
+        }
+
+        if (open.incrementAndGet() > maxStreams) {
+            open.decrementAndGet();
+            throw new RejectedExecutionException("Too many open submission streams, please retry shortly");
+        }
+        Stream stream = streams.compute(submissionId, (id, existing) -> {
+            Stream target = existing != null ? existing : new Stream(id);
+            target.emitters.add(emitter);
+            return target;
+        });
+        emitter.onCompletion(() -> unsubscribe(stream, emitter));
+        emitter.onTimeout(emitter::complete);
+        emitter.onError(e -> unsubscribe(stream, emitter));
+
+        // Read again now that the stream is registered, so a verdict committed in between is not missed
+        findProgress(submissionId, userId)
+                .filter(latest -> latest.getStatus().isFinal())
+                .ifPresent(verdict -> offer(stream, verdict));
+        return emitter;
+    }
+
+    /**
+     * Called by the judge; a no-op unless someone is watching the submission
+     */
+    public void progress(UUID submissionId, int testCasesPassed, int totalTestCases) {
+        Stream stream = streams.get(submissionId);
+        if (stream != null) {
+            offer(stream, SubmissionProgressDto.builder()
+                    .submissionId(submissionId)
+                    .status(SubmissionStatus.RUNNING)
+                    .testCasesPassed(testCasesPassed)
+                    .totalTestCases(totalTestCases)
+                    .build());
+        }
+    }
+
+    @TransactionalEventListener
+    public void onSubmissionJudged(SubmissionJudgedEvent event) {
+        Stream stream = streams.get(event.getSubmissionId());
+        if (stream != null) {
+            offer(stream, SubmissionProgressDto.builder()
+                    .submissionId(event.getSubmissionId())
+                    .status(event.getStatus())
+                    .testCasesPassed(event.getTestCasesPassed())
+                    .totalTestCases(event.getTotalTestCases())
+                    .executionTimeMs(event.getExecutionTimeMs())
+                    .memoryUsedKb(event.getMemoryUsedKb())
+                    .build());
+        }
+    }
+
+    /**
+     * Close the streams of submissions judged, or claimed for judging, by another node
+     */
+    @Scheduled(fixedDelayString = "${submission.stream.moved-check-interval-ms:2000}")
+    public void closeMovedStreams() {
+        if (streams.isEmpty() || membership.members().size() < 2) {
+            return;
+        }
+        List<UUID> ids = List.copyOf(streams.keySet());
+        // A verdict committed here is on its way to the stream; closing it first would lose the verdict
+        Instant judgedBefore = Instant.now().minus(VERDICT_GRACE);
+        for (int from = 0; from < ids.size(); from += MOVED_CHECK_BATCH_SIZE) {
+            List<UUID> batch = ids.subList(from, Math.min(from + MOVED_CHECK_BATCH_SIZE, ids.size()));
+            for (UUID moved : submissionRepository.findJudgedOrMovedAway(batch, membership.self().getId(), UNJUDGED, judgedBefore)) {
+                Stream stream = streams.get(moved);
+                if (stream != null) {
+                    log.debug("Closing streams of submission {}, reported on by another node", moved);
+                    stream.emitters.forEach(SseEmitter::complete);
+                }
+            }
+        }
+    }
+
+    /**
+     * Drop the clients whose write has been stuck past the write timeout, and lend the pool a
+     * sender thread for each until its write returns
+     */
+    @Scheduled(fixedDelayString = "${submission.stream.slow-check-interval-ms:1000}")
+    public void dropSlowClients() {
+        long now = System.nanoTime();
+        for (Stream stream : streams.values()) {
+            StreamSender.Write write = stream.writing;
+            if (sender.expire(write, now)) {
+                slowDropped.increment();
+                log.debug("Dropping a slow client of submission {}", stream.submissionId);
+                unsubscribe(stream, write.getEmitter());
+            }
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        sender.shutdownNow();
+        streams.values().forEach(stream -> stream.emitters.forEach(SseEmitter::complete));
+        streams.clear();
+    }
+
+    private Optional<SubmissionProgressDto> findProgress(UUID submissionId, UUID userId) {
+        Optional<SubmissionProgressDto> progress = submissionRepository.findProgress(submissionId, userId);
+        return progress.isPresent() ? progress : archivedSubmissionRepository.findProgress(submissionId, userId);
+    }
+
+    private void offer(Stream stream, SubmissionProgressDto update) {
+        stream.pending.getAndUpdate(pending -> pending != null && pending.getStatus().isFinal() ? pending : update);
+        if (stream.draining.compareAndSet(false, true)) {
+            sender.execute(() -> drain(stream));
+        }
+    }
+
+    private void drain(Stream stream) {
+        while (true) {
+            SubmissionProgressDto update = stream.pending.getAndSet(null);
+            if (update == null) {
+                stream.draining.set(false);
+                // An offer may have come in after the last read but seen the flag still set
+                if (stream.pending.get() == null || !stream.draining.compareAndSet(false, true)) {
+                    return;
+                }
+                continue;
+            }
+
+            boolean verdict = update.getStatus().isFinal();
+            for (SseEmitter emitter : stream.emitters) {
+                StreamSender.Write write = sender.begin(emitter);
+                stream.writing = write;
+                boolean sent = send(emitter, update);
+                stream.writing = null;
+                boolean dropped = sender.end(write);
+                if (sent && (verdict || dropped)) {
+                    emitter.complete();
+                }
+                // Unregister right away so a later update is never sent to a closed emitter
+                if (!sent || verdict) {
+                    unsubscribe(stream, emitter);
+                }
+            }
+        }
+    }
+
+    private boolean send(SseEmitter emitter, SubmissionProgressDto update) {
+        try {
+            emitter.send(SseEmitter.event()
+                    .name(update.getStatus().isFinal() ? "verdict" : "progress")
+                    .data(update));
+            return true;
+        } catch (IOException e) {
+            log.debug("Dropping submission stream of {}: {}", update.getSubmissionId(), e.getMessage());
+            emitter.completeWithError(e);
+            return false;
+        } catch (IllegalStateException e) {
+            // Timed out or completed concurrently
+            return false;
+        }
+    }
+
+    // Overridden in tests to stand in for a client
+    SseEmitter createEmitter() {
+        return new SseEmitter(timeoutMs);
+    }
+
+    private void unsubscribe(Stream stream, SseEmitter emitter) {
+        // Under the map's lock for the key, so a subscriber is never added to a stream being dropped
+        AtomicBoolean removed = new AtomicBoolean();
+        streams.computeIfPresent(stream.submissionId, (id, existing) -> {
+            if (existing != stream) {
+                return existing;
+            }
+            removed.set(stream.emitters.remove(emitter));
+            return stream.emitters.isEmpty() ? null : stream;
+        });
+        if (removed.get() || stream.emitters.remove(emitter)) {
+            open.decrementAndGet();
+        }
+    }
+
+    private static final class Stream {
+        private final UUID submissionId;
+        private final List<SseEmitter> emitters = new CopyOnWriteArrayList<>();
+        // Latest update not yet sent; newer progress overwrites older, nothing overwrites a verdict
+        private final AtomicReference<SubmissionProgressDto> pending = new AtomicReference<>();
+        private final AtomicBoolean draining = new AtomicBoolean();
+        // The send in progress, if any
+        private volatile StreamSender.Write writing;
+
+        private Stream(UUID submissionId) {
+            this.submissionId = submissionId;
+        }
+    }
+}
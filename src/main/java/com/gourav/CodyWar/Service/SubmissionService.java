@@ -0,0 +1,305 @@
+package com.gourav.CodyWar.Service;
+
+import com.gourav.CodyWar.Cluster.ClusterMembership;
+import com.gourav.CodyWar.Domain.Dto.JudgeResult;
+import com.gourav.CodyWar.Domain.Dto.SubmissionPageDto;
+import com.gourav.CodyWar.Domain.Dto.SubmissionRequestDto;
+import com.gourav.CodyWar.Domain.Dto.SubmissionResponseDto;
+import com.gourav.CodyWar.Domain.Dto.SubmissionSummaryDto;
+import com.gourav.CodyWar.Domain.Entity.ArchivedSubmission;
+import com.gourav.CodyWar.Domain.Entity.Battle;
+import com.gourav.CodyWar.Domain.Entity.BattleStatus;
+import com.gourav.CodyWar.Domain.Entity.Problem;
+import com.gourav.CodyWar.Domain.Entity.Submission;
+import com.gourav.CodyWar.Domain.Entity.SubmissionStatus;
+import com.gourav.CodyWar.Domain.Event.SubmissionCreatedEvent;
+import com.gourav.CodyWar.Domain.Event.SubmissionJudgedEvent;
+import com.gourav.CodyWar.Repository.ArchivedBattleRepository;
+import com.gourav.CodyWar.Repository.ArchivedSubmissionRepository;
+import com.gourav.CodyWar.Repository.BattleParticipantRepository;
+import com.gourav.CodyWar.Repository.BattleRepository;
+import com.gourav.CodyWar.Repository.ProblemRepository;
+import com.gourav.CodyWar.Repository.SubmissionRepository;
+import com.gourav.CodyWar.Repository.TestCaseRepository;
+import com.gourav.CodyWar.Repository.UserRepository;
+import jakarta.persistence.EntityNotFoundException;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Comparator;
+import java.util.List;
+import java.util.UUID;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+@Transactional
+public class SubmissionService {
+
+    // Cursor of the first page: later than any stored submission
+    private static final Instant FIRST_TIME = Instant.parse("9999-12-31T23:59:59Z");
+    private static final UUID FIRST_ID = new UUID(0, 0);
+
+    private static final List<BattleStatus> ENDED = List.of(BattleStatus.COMPLETED, BattleStatus.CANCELLED);
+
+    // The keyset order of both submission tables: newest first, then uuid descending as the database compares them
+    private static final Comparator<SubmissionSummaryDto> NEWEST_FIRST = Comparator
+            .comparing(SubmissionSummaryDto::getSubmittedAt)
+            .thenComparing(SubmissionSummaryDto::getId, (a, b) -> {
+                int high = Long.compareUnsigned(a.getMostSignificantBits(), b.getMostSignificantBits());
+                return high != 0 ? high : Long.compareUnsigned(a.getLeastSignificantBits(), b.getLeastSignificantBits());
+            })
+            .reversed();
+
+    private final SubmissionRepository submissionRepository;
+    private final ProblemRepository problemRepository;
+    private final BattleRepository battleRepository;
+    private final BattleParticipantRepository battleParticipantRepository;
+    private final TestCaseRepository testCaseRepository;
+    private final UserRepository userRepository;
+    private final CodeRunner codeRunner;
+    private final SubmissionContentStore submissionContentStore;
+    private final ArchivedSubmissionRepository archivedSubmissionRepository;
+    private final ArchivedBattleRepository archivedBattleRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final DrainGate drainGate;
+    private final ClusterMembership membership;
+
+    /**
+     * Store a PENDING submission for a practice problem or a running battle; the judge picks it up after commit
+     */
+    public SubmissionResponseDto createSubmission(SubmissionRequestDto request, UUID userId) {
+        drainGate.checkOpen();
+        if (!codeRunner.supports(request.getLanguage())) {
+            throw new IllegalArgumentException("Language not supported by the judge: " + request.getLanguage());
+        }
+
+        Battle battle = null;
+        Problem problem;
+        if (request.getBattleId() != null) {
+            battle = battleRepository.findById(request.getBattleId())
+                    .orElseThrow(() -> new EntityNotFoundException("Battle not found with ID: " + request.getBattleId()));
+            if (battle.getStatus() != BattleStatus.IN_PROGRESS) {
+                throw new IllegalArgumentException("Battle is not in progress");
+            }
+            if (!battleParticipantRepository.existsByBattleIdAndUserId(battle.getId(), userId)) {
+                throw new IllegalArgumentException("You are not a participant of this battle");
+            }
+            problem = battle.getProblem();
+            if (request.getProblemId() != null && !request.getProblemId().equals(problem.getId())) {
+                throw new IllegalArgumentException("Problem does not belong to this battle");
+            }
+            battleParticipantRepository.markSubmitted(battle.getId(), userId);
+        } else {
+            if (request.getProblemId() == null) {
+                throw new IllegalArgumentException("Either problemId or battleId is required");
+            }
+            problem = problemRepository.findById(request.getProblemId())
+                    .orElseThrow(() -> new EntityNotFoundException("Problem not found with ID: " + request.getProblemId()));
+        }
+
+        if (testCaseRepository.countByProblemId(problem.getId()) == 0) {
+            throw new IllegalArgumentException("Problem has no test cases to judge against");
+        }
+
+        Submission submission = Submission.builder()
+                .user(userRepository.getReferenceById(userId))
+                .battle(battle)
+                .problem(problem)
+                .language(request.getLanguage())
+                // Queued here after commit, so its event stream is routed here until another node claims it
+                .judgeNode(membership.self().getId())
+                .build();
+        submissionContentStore.setCode(submission, request.getCode());
+        submission = submissionRepository.save(submission);
+
+        eventPublisher.publishEvent(SubmissionCreatedEvent.builder()
+                .submissionId(submission.getId())
+                .problemId(problem.getId())
+                .battleId(battle != null ? battle.getId() : null)
+                .userId(userId)
+                .language(submission.getLanguage())
+                .submittedAt(submission.getSubmittedAt())
+                .build());
+
+        log.debug("Submission {} queued for problem {}", submission.getId(), problem.getId());
+        return mapToResponseDto(submission);
+    }
+
+    /**
+     * Get a submission's status, verdict and code, from the archive if it has been moved there; only its author may see it
+     */
+    @Transactional(readOnly = true)
+    public SubmissionResponseDto getSubmission(UUID submissionId, UUID userId) {
+        Submission submission = submissionRepository.findById(submissionId).orElse(null);
+        if (submission == null) {
+            return archivedSubmissionRepository.findById(submissionId)
+                    .filter(s -> s.getUserId().equals(userId))
+                    .map(this::mapToResponseDto)
+                    .orElseThrow(() -> new EntityNotFoundException("Submission not found with ID: " + submissionId));
+        }
+        if (!submission.getUser().getId().equals(userId)) {
+            throw new EntityNotFoundException("Submission not found with ID: " + submissionId);
+        }
+        SubmissionResponseDto response = mapToResponseDto(submission);
+        response.setCode(submissionContentStore.getCode(submission));
+        response.setErrorMessage(submissionContentStore.getErrorMessage(submission));
+        return response;
+    }
+
+    /**
+     * One page of submission summaries, newest first: a battle's, a problem's, or else the caller's own.
+     * Battle submissions are visible to its participants, and to everyone once the battle has ended.
+     * Archived submissions are merged in, so history reads the same before and after archival.
+     */
+    @Transactional(readOnly = true)
+    public SubmissionPageDto listSubmissions(UUID userId, UUID battleId, UUID problemId, String cursor, int size) {
+        if (size < 1 || size > 100) {
+            throw new IllegalArgumentException("Size must be between 1 and 100");
+        }
+        if (battleId != null && problemId != null) {
+            throw new IllegalArgumentException("Filter by either battleId or problemId, not both");
+        }
+
+        Instant afterTime = FIRST_TIME;
+        UUID afterId = FIRST_ID;
+        if (cursor != null && !cursor.isBlank()) {
+            try {
+                String[] parts = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8).split(",", 2);
+                afterTime = Instant.parse(parts[0]);
+                afterId = UUID.fromString(parts[1]);
+            } catch (RuntimeException e) {
+                throw new IllegalArgumentException("Invalid cursor");
+            }
+        }
+
+        // One extra row tells whether there is a next page
+        Limit limit = Limit.of(size + 1);
+        List<SubmissionSummaryDto> items;
+        if (battleId != null) {
+            // A battle is archived together with all of its submissions
+            Battle battle = battleRepository.findById(battleId).orElse(null);
+            if (battle == null) {
+                if (!archivedBattleRepository.existsById(battleId)) {
+                    throw new EntityNotFoundException("Battle not found with ID: " + battleId);
+                }
+                items = archivedSubmissionRepository.findBattlePage(battleId, afterTime, afterId, limit);
+            } else {
+                if (!ENDED.contains(battle.getStatus()) && !battleParticipantRepository.existsByBattleIdAndUserId(battleId, userId)) {
+                    throw new IllegalArgumentException("You are not a participant of this battle");
+                }
+                items = submissionRepository.findBattlePage(battleId, afterTime, afterId, limit);
+            }
+        } else if (problemId != null) {
+            items = merge(submissionRepository.findProblemPage(problemId, userId, ENDED, afterTime, afterId, limit),
+                    archivedSubmissionRepository.findProblemPage(problemId, afterTime, afterId, limit));
+        } else {
+            items = merge(submissionRepository.findUserPage(userId, afterTime, afterId, limit),
+                    archivedSubmissionRepository.findUserPage(userId, afterTime, afterId, limit));
+        }
+
+        String nextCursor = null;
+        if (items.size() > size) {
+            items = items.subList(0, size);
+            SubmissionSummaryDto last = items.get(size - 1);
+            nextCursor = Base64.getUrlEncoder().withoutPadding()
+                    .encodeToString((last.getSubmittedAt() + "," + last.getId()).getBytes(StandardCharsets.UTF_8));
+        }
+        return SubmissionPageDto.builder().items(items).nextCursor(nextCursor).build();
+    }
+
+    /**
+     * Write the judge's final verdict to the submission and publish it to listeners after commit
+     */
+    public void recordVerdict(UUID submissionId, JudgeResult result) {
+        if (result.getStatus() == SubmissionStatus.PENDING || result.getStatus() == SubmissionStatus.RUNNING) {
+            throw new IllegalArgumentException("Not a final verdict: " + result.getStatus());
+        }
+
+        Submission submission = submissionRepository.findById(submissionId)
+                .orElseThrow(() -> new EntityNotFoundException("Submission not found with ID: " + submissionId));
+
+        submission.setStatus(result.getStatus());
+        submission.setExecutionTimeMs(result.getExecutionTimeMs());
+        submission.setMemoryUsedKb(result.getMemoryUsedKb());
+        submission.setTestCasesPassed(result.getTestCasesPassed());
+        submission.setTotalTestCases(result.getTotalTestCases());
+        submissionContentStore.setErrorMessage(submission, result.getErrorMessage());
+        submission.setJudgedAt(Instant.now());
+
+        eventPublisher.publishEvent(SubmissionJudgedEvent.builder()
+                .submissionId(submission.getId())
+                .problemId(submission.getProblem().getId())
+                .battleId(submission.getBattle() != null ? submission.getBattle().getId() : null)
+                .userId(submission.getUser().getId())
+                .language(submission.getLanguage())
+                .status(submission.getStatus())
+                .executionTimeMs(submission.getExecutionTimeMs())
+                .memoryUsedKb(submission.getMemoryUsedKb())
+                .testCasesPassed(submission.getTestCasesPassed())
+                .totalTestCases(submission.getTotalTestCases())
+                .submittedAt(submission.getSubmittedAt())
+                .judgedAt(submission.getJudgedAt())
+                .userRating(submission.getUser().getRatingScore())
+                .battleStartedAt(submission.getBattle() != null ? submission.getBattle().getStartedAt() : null)
+                .battleDurationSeconds(submission.getBattle() != null ? submission.getBattle().getDurationSeconds() : null)
+                .build());
+
+        log.debug("Verdict {} recorded for submission {}", result.getStatus(), submissionId);
+    }
+
+    private static List<SubmissionSummaryDto> merge(List<SubmissionSummaryDto> hot, List<SubmissionSummaryDto> archived) {
+        if (archived.isEmpty()) {
+            return hot;
+        }
+        List<SubmissionSummaryDto> merged = new ArrayList<>(hot.size() + archived.size());
+        merged.addAll(hot);
+        merged.addAll(archived);
+        merged.sort(NEWEST_FIRST);
+        return merged;
+    }
+
+    private SubmissionResponseDto mapToResponseDto(ArchivedSubmission submission) {
+        return SubmissionResponseDto.builder()
+                .id(submission.getId())
+                .problemId(submission.getProblemId())
+                .battleId(submission.getBattleId())
+                .language(submission.getLanguage().name())
+                .status(submission.getStatus().name())
+                .executionTimeMs(submission.getExecutionTimeMs())
+                .memoryUsedKb(submission.getMemoryUsedKb())
+                .testCasesPassed(submission.getTestCasesPassed())
+                .totalTestCases(submission.getTotalTestCases())
+                .errorMessage(submission.getErrorContentId() != null
+                        ? submissionContentStore.read(submission.getErrorContentId()) : submission.getErrorMessage())
+                .code(submission.getCodeContentId() != null
+                        ? submissionContentStore.read(submission.getCodeContentId()) : submission.getCode())
+                .submittedAt(submission.getSubmittedAt())
+                .judgedAt(submission.getJudgedAt())
+                .build();
+    }
+
+    private SubmissionResponseDto mapToResponseDto(Submission submission) {
+        return SubmissionResponseDto.builder()
+                .id(submission.getId())
+                .problemId(submission.getProblem().getId())
+                .battleId(submission.getBattle() != null ? submission.getBattle().getId() : null)
+                .language(submission.getLanguage().name())
+                .status(submission.getStatus().name())
+                .executionTimeMs(submission.getExecutionTimeMs())
+                .memoryUsedKb(submission.getMemoryUsedKb())
+                .testCasesPassed(submission.getTestCasesPassed())
+                .totalTestCases(submission.getTotalTestCases())
+                .submittedAt(submission.getSubmittedAt())
+                .judgedAt(submission.getJudgedAt())
+                .build();
+    }
+}
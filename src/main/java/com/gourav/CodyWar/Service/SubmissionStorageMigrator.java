@@ -0,0 +1,136 @@
+package com.gourav.CodyWar.Service;
+
+import com.gourav.CodyWar.Domain.Dto.SubmissionStorageReportDto;
+import com.gourav.CodyWar.Domain.Entity.Submission;
+import com.gourav.CodyWar.Domain.Entity.SubmissionStatus;
+import com.gourav.CodyWar.Repository.SubmissionContentRepository;
+import com.gourav.CodyWar.Repository.SubmissionRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Background job that moves judged submissions from the plain code/error_message columns
+ * into compressed, deduplicated content storage, one batch per transaction in id order.
+ * Submissions still being judged are skipped and picked up by a later run.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class SubmissionStorageMigrator {
+
+    private static final UUID FIRST_ID = new UUID(0, 0);
+    private static final int MAX_KNOWN_CONTENTS = 100_000;
+    private static final List<SubmissionStatus> ACTIVE = List.of(SubmissionStatus.PENDING, SubmissionStatus.RUNNING);
+
+    private final SubmissionRepository submissionRepository;
+    private final SubmissionContentRepository submissionContentRepository;
+    private final SubmissionContentStore submissionContentStore;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${submission.storage.migration-batch-size:500}")
+    private int batchSize;
+
+    private final AtomicBoolean running = new AtomicBoolean();
+    private final AtomicLong migrated = new AtomicLong();
+    private volatile Instant startedAt;
+    private volatile Instant finishedAt;
+    private volatile String error;
+
+    /**
+     * Start a migration run in the background unless one is already running
+     */
+    public SubmissionStorageReportDto start() {
+        if (!running.compareAndSet(false, true)) {
+            throw new IllegalArgumentException("Submission storage migration is already running");
+        }
+        migrated.set(0);
+        startedAt = Instant.now();
+        finishedAt = null;
+        error = null;
+
+        Thread worker = new Thread(this::migrate, "submission-storage-migration");
+        worker.setDaemon(true);
+        worker.start();
+        return report();
+    }
+
+    /**
+     * Space used by submission texts in both storage forms, and the state of the migration job
+     */
+    public SubmissionStorageReportDto report() {
+        long referenced = submissionContentRepository.sumReferencedBytes();
+        long stored = submissionContentRepository.sumStoredBytes();
+        long saved = referenced - stored;
+        return SubmissionStorageReportDto.builder()
+                .compressedWrites(submissionContentStore.isCompressed())
+                .plainBytes(submissionContentRepository.sumPlainBytes())
+                .contentRows(submissionContentRepository.countContents())
+                .storedBytes(stored)
+                .referencedBytes(referenced)
+                .savedBytes(saved)
+                .savedPercent(referenced > 0 ? Math.round(saved * 1000.0 / referenced) / 10.0 : 0)
+                .migrationRunning(running.get())
+                .migratedSubmissions(migrated.get())
+                .migrationStartedAt(startedAt)
+                .migrationFinishedAt(finishedAt)
+                .migrationError(error)
+                .build();
+    }
+
+    private void migrate() {
+        long start = System.nanoTime();
+        try {
+            // Content ids already stored, so repeated texts skip the insert round trip; a failed batch ends the run
+            Set<UUID> known = new HashSet<>();
+            UUID afterId = FIRST_ID;
+            while (afterId != null) {
+                if (known.size() > MAX_KNOWN_CONTENTS) {
+                    known.clear();
+                }
+                afterId = migrateBatch(afterId, known);
+            }
+            log.info("Submission storage migration moved {} submissions in {} s",
+                    migrated.get(), TimeUnit.NANOSECONDS.toSeconds(System.nanoTime() - start));
+        } catch (RuntimeException e) {
+            error = e.getMessage();
+            log.error("Submission storage migration failed after {} submissions", migrated.get(), e);
+        } finally {
+            finishedAt = Instant.now();
+            running.set(false);
+        }
+    }
+
+    /**
+     * Move one batch; returns the last id handled, or null when nothing is left
+     */
+    private UUID migrateBatch(UUID afterId, Set<UUID> known) {
+        return transactionTemplate.execute(status -> {
+            List<Submission> batch = submissionRepository.findPlainPage(afterId, ACTIVE, Limit.of(batchSize));
+            for (Submission submission : batch) {
+                if (submission.getCode() != null) {
+                    submission.setCodeContent(submissionContentStore.store(submission.getCode(), known));
+                    submission.setCode(null);
+                }
+                if (submission.getErrorMessage() != null) {
+                    submission.setErrorContent(submissionContentStore.store(submission.getErrorMessage(), known));
+                    submission.setErrorMessage(null);
+                }
+            }
+            migrated.addAndGet(batch.size());
+            return batch.isEmpty() ? null : batch.get(batch.size() - 1).getId();
+        });
+    }
+}
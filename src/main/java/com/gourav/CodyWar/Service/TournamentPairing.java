@@ -0,0 +1,124 @@
+package com.gourav.CodyWar.Service;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Who plays whom in a tournament round; no state, so a whole tournament can be simulated without
+ * a database.
+ *
+ * A single elimination bracket is seeded the usual way, seed 1 against the lowest seed and the
+ * top two seeds in opposite halves, with the byes of a field short of a power of two going to the
+ * top seeds. Later rounds pair the winners of neighbouring slots. Swiss rounds pair players on the
+ * same points from the top of the standings down, avoiding rematches where the field allows it;
+ * with an odd field the lowest ranked player without a bye so far sits the round out.
+ */
+public final class TournamentPairing {
+
+    private TournamentPairing() {
+    }
+
+    public static int eliminationRounds(int players) {
+        return 32 - Integer.numberOfLeadingZeros(Math.max(1, players - 1));
+    }
+
+    /**
+     * The first round of a bracket, from players ordered by seed; slot i feeds slot i / 2 of the next round
+     */
+    public static List<Pairing> bracket(List<UUID> bySeed) {
+        int size = 1 << eliminationRounds(bySeed.size());
+        int[] order = {1};
+        while (order.length < size) {
+            int[] next = new int[order.length * 2];
+            for (int i = 0; i < order.length; i++) {
+                next[2 * i] = order[i];
+                next[2 * i + 1] = order.length * 2 + 1 - order[i];
+            }
+            order = next;
+        }
+
+        List<Pairing> pairings = new ArrayList<>(size / 2);
+        for (int i = 0; i < size; i += 2) {
+            // The first of each pair is a top half seed, so only the second can be missing
+            UUID one = bySeed.get(order[i] - 1);
+            UUID two = order[i + 1] <= bySeed.size() ? bySeed.get(order[i + 1] - 1) : null;
+            pairings.add(new Pairing(one, two));
+        }
+        return pairings;
+    }
+
+    /**
+     * The next bracket round, from the previous round's winners in slot order
+     */
+    public static List<Pairing> nextBracketRound(List<UUID> winnersBySlot) {
+        List<Pairing> pairings = new ArrayList<>(winnersBySlot.size() / 2);
+        for (int i = 0; i + 1 < winnersBySlot.size(); i += 2) {
+            pairings.add(new Pairing(winnersBySlot.get(i), winnersBySlot.get(i + 1)));
+        }
+        return pairings;
+    }
+
+    /**
+     * A Swiss round from the standings, best first; the bye, if any, comes last
+     */
+    public static List<Pairing> swiss(List<UUID> standings, Map<UUID, Set<UUID>> opponents, Set<UUID> hadBye) {
+        List<UUID> open = new ArrayList<>(standings);
+        UUID bye = null;
+        if (open.size() % 2 == 1) {
+            int index = open.size() - 1;
+            while (index > 0 && hadBye.contains(open.get(index))) {
+                index--;
+            }
+            bye = open.remove(index);
+        }
+
+        List<Pairing> pairings = new ArrayList<>(open.size() / 2 + 1);
+        boolean[] paired = new boolean[open.size()];
+        for (int i = 0; i < open.size(); i++) {
+            if (paired[i]) {
+                continue;
+            }
+            UUID player = open.get(i);
+            Set<UUID> played = opponents.getOrDefault(player, Collections.emptySet());
+            // The nearest in the standings not yet played; the nearest at all if everyone left is a rematch
+            int opponent = -1;
+            for (int j = i + 1; j < open.size(); j++) {
+                if (paired[j]) {
+                    continue;
+                }
+                if (opponent < 0) {
+                    opponent = j;
+                }
+                if (!played.contains(open.get(j))) {
+                    opponent = j;
+                    break;
+                }
+            }
+            paired[i] = true;
+            paired[opponent] = true;
+            pairings.add(new Pairing(player, open.get(opponent)));
+        }
+        if (bye != null) {
+            pairings.add(new Pairing(bye, null));
+        }
+        return pairings;
+    }
+
+    @Getter
+    @AllArgsConstructor
+    public static class Pairing {
+        private final UUID playerOne;
+        private final UUID playerTwo;  // Null for a bye
+
+        public boolean isBye() {
+            return playerTwo == null;
+        }
+    }
+}
@@ -0,0 +1,586 @@
+package com.gourav.CodyWar.Service;
+
+import com.gourav.CodyWar.Domain.Dto.TournamentMatchDto;
+import com.gourav.CodyWar.Domain.Dto.TournamentRequestDto;
+import com.gourav.CodyWar.Domain.Dto.TournamentResponseDto;
+import com.gourav.CodyWar.Domain.Dto.TournamentStandingDto;
+import com.gourav.CodyWar.Domain.Entity.BattleParticipant;
+import com.gourav.CodyWar.Domain.Entity.BattleStatus;
+import com.gourav.CodyWar.Domain.Entity.Tournament;
+import com.gourav.CodyWar.Domain.Entity.TournamentFormat;
+import com.gourav.CodyWar.Domain.Entity.TournamentMatch;
+import com.gourav.CodyWar.Domain.Entity.TournamentPlayer;
+import com.gourav.CodyWar.Domain.Entity.TournamentStatus;
+import com.gourav.CodyWar.Domain.Event.BattleFinishedEvent;
+import com.gourav.CodyWar.Repository.ArchivedBattleRepository;
+import com.gourav.CodyWar.Repository.BattleParticipantRepository;
+import com.gourav.CodyWar.Repository.BattleRepository;
+import com.gourav.CodyWar.Repository.ProblemRepository;
+import com.gourav.CodyWar.Repository.TournamentMatchRepository;
+import com.gourav.CodyWar.Repository.TournamentPlayerRepository;
+import com.gourav.CodyWar.Repository.TournamentRepository;
+import com.gourav.CodyWar.Repository.UserRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityNotFoundException;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.Session;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Tournaments: registration, seeding, and rounds of 1v1 battles that advance by themselves.
+ *
+ * Nothing polls for finished rounds. Every finished battle is queued, after its transaction
+ * commits, for a single advancer thread, which takes whatever has queued up and settles the
+ * matches among it in one transaction per tournament: winners score, bracket losers are out, and
+ * the tournament row is locked so nodes finishing battles of the same round take turns. Whoever
+ * settles a round's last match pairs the next round in the same transaction and creates all its
+ * battles with one batched insert; they start right away, so players who never show up lose on
+ * time instead of holding the round up.
+ *
+ * A result queued when the node stops is picked up again at startup from the battle itself.
+ */
+@Slf4j
+@Service
+@Transactional
+public class TournamentService {
+
+    private static final int WIN_POINTS = 2;
+    private static final int DRAW_POINTS = 1;
+
+    private final TournamentRepository tournamentRepository;
+    private final TournamentPlayerRepository tournamentPlayerRepository;
+    private final TournamentMatchRepository tournamentMatchRepository;
+    private final BattleRepository battleRepository;
+    private final BattleParticipantRepository battleParticipantRepository;
+    private final ArchivedBattleRepository archivedBattleRepository;
+    private final ProblemRepository problemRepository;
+    private final UserRepository userRepository;
+    private final BattleService battleService;
+    private final DifficultyCalibrator difficultyCalibrator;
+    private final DrainGate drainGate;
+    private final TransactionTemplate transactionTemplate;
+    private final EntityManager entityManager;
+    private final int batchSize;
+    private final Timer roundTransition;
+
+    private final LinkedBlockingQueue<BattleFinishedEvent> finished = new LinkedBlockingQueue<>();
+    private volatile boolean running = true;
+    private Thread advancer;
+
+    public TournamentService(TournamentRepository tournamentRepository,
+                             TournamentPlayerRepository tournamentPlayerRepository,
+                             TournamentMatchRepository tournamentMatchRepository,
+                             BattleRepository battleRepository,
+                             BattleParticipantRepository battleParticipantRepository,
+                             ArchivedBattleRepository archivedBattleRepository,
+                             ProblemRepository problemRepository,
+                             UserRepository userRepository,
+                             BattleService battleService,
+                             DifficultyCalibrator difficultyCalibrator,
+                             DrainGate drainGate,
+                             TransactionTemplate transactionTemplate,
+                             EntityManager entityManager,
+                             MeterRegistry meterRegistry,
+                             @Value("${tournament.advance-batch-size:1024}") int batchSize) {
+        this.tournamentRepository = tournamentRepository;
+        this.tournamentPlayerRepository = tournamentPlayerRepository;
+        this.tournamentMatchRepository = tournamentMatchRepository;
+        this.battleRepository = battleRepository;
+        this.battleParticipantRepository = battleParticipantRepository;
+        this.archivedBattleRepository = archivedBattleRepository;
+        this.problemRepository = problemRepository;
+        this.userRepository = userRepository;
+        this.battleService = battleService;
+        this.difficultyCalibrator = difficultyCalibrator;
+        this.drainGate = drainGate;
+        this.transactionTemplate = transactionTemplate;
+        this.entityManager = entityManager;
+        this.batchSize = batchSize;
+        this.roundTransition = Timer.builder("codywar.tournament.round.transition")
+                .description("From the battle that completes a round finishing to the next round's battles being committed")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        Gauge.builder("codywar.tournament.advance.pending", finished, LinkedBlockingQueue::size)
+                .description("Finished battles waiting to be settled as tournament matches")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void start() {
+        advancer = new Thread(this::run, "tournament-advancer");
+        advancer.setDaemon(true);
+        advancer.start();
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        // Not interrupted: that would break a settlement's JDBC calls midway
+        running = false;
+        advancer.join(TimeUnit.SECONDS.toMillis(10));
+    }
+
+    public TournamentResponseDto createTournament(TournamentRequestDto request, UUID userId) {
+        if (request.getProblemId() != null && !problemRepository.existsById(request.getProblemId())) {
+            throw new EntityNotFoundException("Problem not found with ID: " + request.getProblemId());
+        }
+        if (request.getRounds() != null && request.getFormat() != TournamentFormat.SWISS) {
+            throw new IllegalArgumentException("The number of rounds can only be chosen for a Swiss tournament");
+        }
+
+        Tournament tournament = tournamentRepository.save(Tournament.builder()
+                .name(request.getName())
+                .format(request.getFormat())
+                .problemId(request.getProblemId())
+                .createdBy(userRepository.getReferenceById(userId))
+                .maxPlayers(request.getMaxPlayers())
+                .durationSeconds(request.getDurationSeconds())
+                .totalRounds(request.getRounds() != null ? request.getRounds() : 0)
+                .build());
+        tournamentPlayerRepository.save(TournamentPlayer.builder()
+                .tournament(tournament)
+                .user(userRepository.getReferenceById(userId))
+                .build());
+        log.debug("Tournament {} created by {}", tournament.getId(), userId);
+        return mapToResponseDto(tournament);
+    }
+
+    @Transactional(readOnly = true)
+    public TournamentResponseDto getTournament(UUID tournamentId) {
+        return mapToResponseDto(findTournament(tournamentId));
+    }
+
+    public TournamentResponseDto joinTournament(UUID tournamentId, UUID userId) {
+        Tournament tournament = lockTournament(tournamentId);
+        requireRegistering(tournament);
+        if (tournamentPlayerRepository.existsByTournamentIdAndUserId(tournamentId, userId)) {
+            return mapToResponseDto(tournament);
+        }
+        if (tournamentPlayerRepository.countByTournamentId(tournamentId) >= tournament.getMaxPlayers()) {
+            throw new IllegalArgumentException("Tournament is full");
+        }
+
+        tournamentPlayerRepository.save(TournamentPlayer.builder()
+                .tournament(tournament)
+                .user(userRepository.getReferenceById(userId))
+                .build());
+        return mapToResponseDto(tournament);
+    }
+
+    /**
+     * Close registration, seed the players by rating and start the first round; only the creator may
+     */
+    public TournamentResponseDto startTournament(UUID tournamentId, UUID userId) {
+        Tournament tournament = lockTournament(tournamentId);
+        if (!tournament.getCreatedBy().getId().equals(userId)) {
+            throw new IllegalArgumentException("Only the creator can start the tournament");
+        }
+        requireRegistering(tournament);
+        int players = (int) tournamentPlayerRepository.countByTournamentId(tournamentId);
+        if (players < 2) {
+            throw new IllegalArgumentException("A tournament needs at least 2 players");
+        }
+
+        tournamentPlayerRepository.assignSeeds(tournamentId);
+        List<UUID> bySeed = tournamentPlayerRepository.findRanking(tournamentId);
+        int bracketRounds = TournamentPairing.eliminationRounds(players);
+        tournament.setTotalRounds(tournament.getFormat() == TournamentFormat.SWISS && tournament.getTotalRounds() > 0
+                ? Math.min(tournament.getTotalRounds(), players - 1)
+                : bracketRounds);
+        tournament.setStatus(TournamentStatus.IN_PROGRESS);
+        tournament.setStartedAt(Instant.now());
+
+        createRound(tournament, tournament.getFormat() == TournamentFormat.SINGLE_ELIMINATION
+                ? TournamentPairing.bracket(bySeed)
+                : TournamentPairing.swiss(bySeed, Map.of(), Set.of()));
+        log.info("Tournament {} started with {} players over {} rounds",
+                tournamentId, players, tournament.getTotalRounds());
+        return mapToResponseDto(tournament);
+    }
+
+    @Transactional(readOnly = true)
+    public List<TournamentStandingDto> getStandings(UUID tournamentId) {
+        findTournament(tournamentId);
+        List<TournamentPlayer> players = tournamentPlayerRepository.findStandings(tournamentId);
+        List<TournamentStandingDto> standings = new ArrayList<>(players.size());
+        for (TournamentPlayer player : players) {
+            standings.add(TournamentStandingDto.builder()
+                    .rank(standings.size() + 1)
+                    .userId(player.getUser().getId())
+                    .username(player.getUser().getUsername())
+                    .seed(player.getSeed())
+                    .points(player.getPoints())
+                    .eliminated(player.isEliminated())
+                    .build());
+        }
+        return standings;
+    }
+
+    @Transactional(readOnly = true)
+    public List<TournamentMatchDto> getRound(UUID tournamentId, int round) {
+        Tournament tournament = findTournament(tournamentId);
+        if (round < 1 || round > tournament.getCurrentRound()) {
+            throw new EntityNotFoundException("Round " + round + " has not been played in tournament " + tournamentId);
+        }
+        return tournamentMatchRepository.findByTournamentIdAndRoundOrderBySlot(tournamentId, round).stream()
+                .map(this::mapToMatchDto)
+                .toList();
+    }
+
+    // On the committing thread, e.g. the judge's: only queue
+    @TransactionalEventListener
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public void onBattleFinished(BattleFinishedEvent event) {
+        finished.add(event);
+    }
+
+    /**
+     * Pick up tournaments whose battles finished while no node was settling them
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public void resume() {
+        for (UUID tournamentId : tournamentRepository.findIdsByStatus(TournamentStatus.IN_PROGRESS)) {
+            try {
+                transactionTemplate.executeWithoutResult(status -> resume(tournamentId));
+            } catch (RuntimeException e) {
+                log.error("Failed to resume tournament {}", tournamentId, e);
+            }
+        }
+    }
+
+    private void resume(UUID tournamentId) {
+        Tournament tournament = lockTournament(tournamentId);
+        if (tournament.getStatus() != TournamentStatus.IN_PROGRESS) {
+            return;
+        }
+        List<TournamentMatch> unfinished = tournamentMatchRepository.findUnfinished(tournamentId, tournament.getCurrentRound());
+        if (unfinished.isEmpty()) {
+            // Settled, but the next round could not be created then
+            nextRound(tournament, Instant.now());
+            return;
+        }
+        for (TournamentMatch match : unfinished) {
+            battleRepository.findById(match.getBattleId())
+                    .filter(battle -> battle.getStatus() == BattleStatus.COMPLETED)
+                    .map(battle -> new BattleFinishedEvent(battle.getId(),
+                            battle.getWinner() != null ? battle.getWinner().getId() : null, battle.getFinishedAt()))
+                    .or(() -> archivedBattleRepository.findById(match.getBattleId())
+                            .map(battle -> new BattleFinishedEvent(battle.getId(), battle.getWinnerId(), battle.getFinishedAt())))
+                    .ifPresent(finished::add);
+        }
+    }
+
+    private void run() {
+        List<BattleFinishedEvent> batch = new ArrayList<>();
+        while (running) {
+            if (drainGate.isClosed()) {
+                // No next round can start on a draining node; whatever is still queued is resumed at startup
+                return;
+            }
+            try {
+                BattleFinishedEvent first = finished.poll(1, TimeUnit.SECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            finished.drainTo(batch, batchSize - 1);
+            try {
+                settle(batch);
+            } catch (RuntimeException e) {
+                log.error("Failed to settle {} finished battles as tournament matches", batch.size(), e);
+            }
+            batch.clear();
+        }
+    }
+
+    // Most finished battles are not tournament matches; one lookup for the whole batch finds those that are
+    private void settle(List<BattleFinishedEvent> batch) {
+        Map<UUID, BattleFinishedEvent> byBattle = new HashMap<>();
+        batch.forEach(event -> byBattle.put(event.getBattleId(), event));
+        Map<UUID, List<UUID>> byTournament = transactionTemplate.execute(status ->
+                tournamentMatchRepository.findByBattleIdIn(byBattle.keySet()).stream()
+                        .filter(match -> !match.isFinished())
+                        .collect(Collectors.groupingBy(TournamentMatch::getTournamentId,
+                                Collectors.mapping(TournamentMatch::getId, Collectors.toList()))));
+
+        byTournament.forEach((tournamentId, matchIds) -> {
+            try {
+                transactionTemplate.executeWithoutResult(status -> settle(tournamentId, matchIds, byBattle));
+            } catch (RuntimeException e) {
+                log.error("Failed to settle {} matches of tournament {}", matchIds.size(), tournamentId, e);
+            }
+        });
+    }
+
+    private void settle(UUID tournamentId, List<UUID> matchIds, Map<UUID, BattleFinishedEvent> byBattle) {
+        Tournament tournament = lockTournament(tournamentId);
+        if (tournament.getStatus() != TournamentStatus.IN_PROGRESS) {
+            return;
+        }
+        List<TournamentMatch> matches = tournamentMatchRepository.findAllById(matchIds).stream()
+                .filter(match -> !match.isFinished())
+                .toList();
+        boolean bracket = tournament.getFormat() == TournamentFormat.SINGLE_ELIMINATION;
+        Map<UUID, UUID> tieBreaks = bracket ? breakTies(tournamentId, matches, byBattle) : Map.of();
+
+        List<UUID> winners = new ArrayList<>();
+        List<UUID> drawn = new ArrayList<>();
+        List<UUID> losers = new ArrayList<>();
+        Instant lastFinishedAt = Instant.EPOCH;
+        for (TournamentMatch match : matches) {
+            BattleFinishedEvent event = byBattle.get(match.getBattleId());
+            UUID winnerId = event.getWinnerId() != null ? event.getWinnerId() : tieBreaks.get(match.getBattleId());
+            match.setWinnerId(winnerId);
+            match.setFinished(true);
+            match.setFinishedAt(event.getFinishedAt());
+            if (winnerId == null) {
+                drawn.add(match.getPlayerOneId());
+                drawn.add(match.getPlayerTwoId());
+            } else {
+                winners.add(winnerId);
+                losers.add(winnerId.equals(match.getPlayerOneId()) ? match.getPlayerTwoId() : match.getPlayerOneId());
+            }
+            if (event.getFinishedAt().isAfter(lastFinishedAt)) {
+                lastFinishedAt = event.getFinishedAt();
+            }
+        }
+        if (!winners.isEmpty()) {
+            tournamentPlayerRepository.addPoints(tournamentId, winners, WIN_POINTS);
+        }
+        if (!drawn.isEmpty()) {
+            tournamentPlayerRepository.addPoints(tournamentId, drawn, DRAW_POINTS);
+        }
+        if (bracket && !losers.isEmpty()) {
+            tournamentPlayerRepository.eliminate(tournamentId, losers);
+        }
+
+        if (tournamentMatchRepository.countByTournamentIdAndRoundAndFinishedFalse(tournamentId, tournament.getCurrentRound()) == 0) {
+            nextRound(tournament, lastFinishedAt);
+        }
+    }
+
+    // A bracket match needs a winner: the better battle score, then the better seed
+    private Map<UUID, UUID> breakTies(UUID tournamentId, List<TournamentMatch> matches, Map<UUID, BattleFinishedEvent> byBattle) {
+        List<TournamentMatch> drawn = matches.stream()
+                .filter(match -> byBattle.get(match.getBattleId()).getWinnerId() == null)
+                .toList();
+        if (drawn.isEmpty()) {
+            return Map.of();
+        }
+        Map<UUID, Map<UUID, Integer>> scores = new HashMap<>();
+        for (BattleParticipant participant : battleParticipantRepository.findByBattleIdIn(
+                drawn.stream().map(TournamentMatch::getBattleId).toList())) {
+            scores.computeIfAbsent(participant.getBattle().getId(), id -> new HashMap<>())
+                    .put(participant.getUser().getId(), participant.getScore());
+        }
+        Set<UUID> players = new HashSet<>();
+        drawn.forEach(match -> {
+            players.add(match.getPlayerOneId());
+            players.add(match.getPlayerTwoId());
+        });
+        Map<UUID, Integer> seeds = tournamentPlayerRepository.findSeeds(tournamentId, players).stream()
+                .collect(Collectors.toMap(TournamentPlayerRepository.Seed::getUserId, TournamentPlayerRepository.Seed::getSeed));
+
+        Map<UUID, UUID> winners = new HashMap<>();
+        for (TournamentMatch match : drawn) {
+            // An archived battle's scores are gone by now; the seed decides
+            Map<UUID, Integer> battleScores = scores.getOrDefault(match.getBattleId(), Map.of());
+            int one = battleScores.getOrDefault(match.getPlayerOneId(), 0);
+            int two = battleScores.getOrDefault(match.getPlayerTwoId(), 0);
+            boolean first = one != two ? one > two
+                    : seeds.getOrDefault(match.getPlayerOneId(), Integer.MAX_VALUE) <= seeds.getOrDefault(match.getPlayerTwoId(), Integer.MAX_VALUE);
+            winners.put(match.getBattleId(), first ? match.getPlayerOneId() : match.getPlayerTwoId());
+        }
+        return winners;
+    }
+
+    private void nextRound(Tournament tournament, Instant roundFinishedAt) {
+        UUID tournamentId = tournament.getId();
+        if (tournament.getFormat() == TournamentFormat.SINGLE_ELIMINATION) {
+            List<UUID> winners = tournamentMatchRepository
+                    .findByTournamentIdAndRoundOrderBySlot(tournamentId, tournament.getCurrentRound()).stream()
+                    .map(TournamentMatch::getWinnerId)
+                    .toList();
+            if (winners.size() == 1) {
+                complete(tournament, winners.get(0));
+            } else {
+                createRound(tournament, TournamentPairing.nextBracketRound(winners));
+            }
+        } else {
+            List<UUID> standings = tournamentPlayerRepository.findRanking(tournamentId);
+            if (tournament.getCurrentRound() >= tournament.getTotalRounds()) {
+                complete(tournament, standings.get(0));
+            } else {
+                Map<UUID, Set<UUID>> opponents = new HashMap<>();
+                Set<UUID> hadBye = new HashSet<>();
+                for (TournamentMatchRepository.Opponents match : tournamentMatchRepository.findOpponents(tournamentId)) {
+                    if (match.getPlayerTwoId() == null) {
+                        hadBye.add(match.getPlayerOneId());
+                    } else {
+                        opponents.computeIfAbsent(match.getPlayerOneId(), id -> new HashSet<>()).add(match.getPlayerTwoId());
+                        opponents.computeIfAbsent(match.getPlayerTwoId(), id -> new HashSet<>()).add(match.getPlayerOneId());
+                    }
+                }
+                createRound(tournament, TournamentPairing.swiss(standings, opponents, hadBye));
+            }
+        }
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                roundTransition.record(Duration.between(roundFinishedAt, Instant.now()));
+            }
+        });
+    }
+
+    // All of a round's battles and matches are written as one batch per table
+    private void createRound(Tournament tournament, List<TournamentPairing.Pairing> pairings) {
+        int round = tournament.getCurrentRound() + 1;
+        List<List<UUID>> lineups = pairings.stream()
+                .filter(pairing -> !pairing.isBye())
+                .map(pairing -> List.of(pairing.getPlayerOne(), pairing.getPlayerTwo()))
+                .toList();
+        UUID problemId = tournament.getProblemId() != null ? tournament.getProblemId() : pickProblem(tournament.getId());
+        List<UUID> battleIds = battleService.startBattles(problemId, tournament.getDurationSeconds(), lineups);
+
+        Instant now = Instant.now();
+        List<TournamentMatch> matches = new ArrayList<>(pairings.size());
+        List<UUID> byes = new ArrayList<>();
+        int battle = 0;
+        for (TournamentPairing.Pairing pairing : pairings) {
+            TournamentMatch match = TournamentMatch.builder()
+                    .tournamentId(tournament.getId())
+                    .round(round)
+                    .slot(matches.size())
+                    .playerOneId(pairing.getPlayerOne())
+                    .playerTwoId(pairing.getPlayerTwo())
+                    .createdAt(now)
+                    .build();
+            if (pairing.isBye()) {
+                match.setWinnerId(pairing.getPlayerOne());
+                match.setFinished(true);
+                match.setFinishedAt(now);
+                byes.add(pairing.getPlayerOne());
+            } else {
+                match.setBattleId(battleIds.get(battle++));
+            }
+            matches.add(match);
+        }
+
+        Session session = entityManager.unwrap(Session.class);
+        Integer previousBatchSize = session.getJdbcBatchSize();
+        session.setJdbcBatchSize(Math.max(1, matches.size()));
+        try {
+            matches.forEach(entityManager::persist);
+            entityManager.flush();
+        } finally {
+            session.setJdbcBatchSize(previousBatchSize);
+        }
+        // Insert only; the commit need not dirty check a round's worth of matches
+        matches.forEach(entityManager::detach);
+        if (!byes.isEmpty()) {
+            tournamentPlayerRepository.addPoints(tournament.getId(), byes, WIN_POINTS);
+        }
+        tournament.setCurrentRound(round);
+        log.info("Tournament {} round {} started with {} battles and {} byes",
+                tournament.getId(), round, battleIds.size(), byes.size());
+    }
+
+    private void complete(Tournament tournament, UUID winnerId) {
+        tournament.setStatus(TournamentStatus.COMPLETED);
+        tournament.setWinner(userRepository.getReferenceById(winnerId));
+        tournament.setFinishedAt(Instant.now());
+        log.info("Tournament {} won by {}", tournament.getId(), winnerId);
+    }
+
+    // A problem rated near the average player still in the tournament
+    private UUID pickProblem(UUID tournamentId) {
+        Double rating = tournamentPlayerRepository.findAverageRating(tournamentId);
+        UUID problemId = difficultyCalibrator.pickProblem(rating != null ? (int) Math.round(rating) : 1000);
+        if (problemId == null) {
+            throw new EntityNotFoundException("No problem available for a tournament round");
+        }
+        return problemId;
+    }
+
+    private Tournament findTournament(UUID tournamentId) {
+        return tournamentRepository.findById(tournamentId)
+                .orElseThrow(() -> new EntityNotFoundException("Tournament not found with ID: " + tournamentId));
+    }
+
+    private Tournament lockTournament(UUID tournamentId) {
+        return tournamentRepository.findByIdForUpdate(tournamentId)
+                .orElseThrow(() -> new EntityNotFoundException("Tournament not found with ID: " + tournamentId));
+    }
+
+    private void requireRegistering(Tournament tournament) {
+        if (tournament.getStatus() != TournamentStatus.REGISTERING) {
+            throw new IllegalArgumentException("Tournament has already " +
+                    (tournament.getStatus() == TournamentStatus.IN_PROGRESS ? "started" : "finished"));
+        }
+    }
+
+    private TournamentResponseDto mapToResponseDto(Tournament tournament) {
+        return TournamentResponseDto.builder()
+                .id(tournament.getId())
+                .name(tournament.getName())
+                .format(tournament.getFormat().name())
+                .status(tournament.getStatus().name())
+                .problemId(tournament.getProblemId())
+                .createdBy(tournament.getCreatedBy().getId())
+                .maxPlayers(tournament.getMaxPlayers())
+                .players((int) tournamentPlayerRepository.countByTournamentId(tournament.getId()))
+                .durationSeconds(tournament.getDurationSeconds())
+                .totalRounds(tournament.getTotalRounds())
+                .currentRound(tournament.getCurrentRound())
+                .winnerId(tournament.getWinner() != null ? tournament.getWinner().getId() : null)
+                .createdAt(tournament.getCreatedAt())
+                .startedAt(tournament.getStartedAt())
+                .finishedAt(tournament.getFinishedAt())
+                .build();
+    }
+
+    private TournamentMatchDto mapToMatchDto(TournamentMatch match) {
+        return TournamentMatchDto.builder()
+                .round(match.getRound())
+                .slot(match.getSlot())
+                .battleId(match.getBattleId())
+                .playerOneId(match.getPlayerOneId())
+                .playerTwoId(match.getPlayerTwoId())
+                .winnerId(match.getWinnerId())
+                .finished(match.isFinished())
+                .finishedAt(match.getFinishedAt())
+                .build();
+    }
+}
@@ -0,0 +1,30 @@
+package com.gourav.CodyWar.Service;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Deferring in-memory side effects until the database change behind them is committed.
+ */
+final class Transactions {
+
+    private Transactions() {
+    }
+
+    /**
+     * Run the action once the surrounding transaction commits, never if it rolls back; at once
+     * when there is no transaction
+     */
+    static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+}
@@ -0,0 +1,179 @@
+package com.gourav.CodyWar.Service;
+
+import com.gourav.CodyWar.Configuration.JudgeProperties;
+import com.gourav.CodyWar.Domain.Dto.JudgeResult;
+import com.gourav.CodyWar.Domain.Entity.Language;
+import com.gourav.CodyWar.Domain.Entity.SubmissionStatus;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.EqualsAndHashCode;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Verdicts of code that was already judged, so resubmitting the same code for the same problem
+ * and language is answered without compiling or running anything.
+ *
+ * Entries are keyed by the problem's test set version as well, so adding or removing test cases
+ * makes every earlier verdict unreachable. Memory is bounded by an estimate of each entry's size,
+ * evicting the least recently used. Time limit verdicts are not cached: they depend on how loaded
+ * the judge was, and a rerun may pass.
+ */
+@Slf4j
+@Component
+public class VerdictCache {
+
+    // Object headers, key, boxed fields and the map entry
+    private static final int ENTRY_OVERHEAD_BYTES = 240;
+
+    private final JudgeProperties.VerdictCache properties;
+    private final LinkedHashMap<Key, Entry> entries = new LinkedHashMap<>(256, 0.75f, true);
+    private final Counter hits;
+    private final Counter misses;
+    private final Counter savedSeconds;
+    private long bytes;
+
+    public VerdictCache(JudgeProperties judgeProperties, MeterRegistry meterRegistry) {
+        this.properties = judgeProperties.getVerdictCache();
+        this.hits = Counter.builder("codywar.judge.verdict_cache.lookups").tag("result", "hit")
+                .description("Submissions looked up in the verdict cache")
+                .register(meterRegistry);
+        this.misses = Counter.builder("codywar.judge.verdict_cache.lookups").tag("result", "miss")
+                .description("Submissions looked up in the verdict cache")
+                .register(meterRegistry);
+        this.savedSeconds = Counter.builder("codywar.judge.verdict_cache.saved")
+                .baseUnit("seconds")
+                .description("Judge time the cached verdicts took originally, not spent again")
+                .register(meterRegistry);
+        Gauge.builder("codywar.judge.verdict_cache.entries", this, VerdictCache::size)
+                .description("Verdicts held in the verdict cache")
+                .register(meterRegistry);
+        Gauge.builder("codywar.judge.verdict_cache.size", this, VerdictCache::estimatedBytes)
+                .baseUnit("bytes")
+                .description("Estimated heap held by the verdict cache")
+                .register(meterRegistry);
+    }
+
+    /**
+     * A copy of the cached verdict, or null when this code has not been judged against this test set
+     */
+    public JudgeResult get(UUID problemId, int testSetVersion, Language language, UUID codeHash) {
+        if (!properties.isEnabled()) {
+            return null;
+        }
+
+        Entry entry;
+        synchronized (this) {
+            entry = entries.get(new Key(problemId, testSetVersion, language, codeHash));
+        }
+        if (entry == null) {
+            misses.increment();
+            return null;
+        }
+        hits.increment();
+        savedSeconds.increment(entry.judgeNanos / 1e9);
+        return JudgeResult.builder()
+                .status(entry.status)
+                .executionTimeMs(entry.executionTimeMs)
+                .memoryUsedKb(entry.memoryUsedKb)
+                .testCasesPassed(entry.testCasesPassed)
+                .totalTestCases(entry.totalTestCases)
+                .errorMessage(entry.errorMessage)
+                .build();
+    }
+
+    /**
+     * Remember a verdict that took judgeNanos to reach, unless it may come out differently next time
+     */
+    public void put(UUID problemId, int testSetVersion, Language language, UUID codeHash,
+                    JudgeResult result, long judgeNanos) {
+        if (!properties.isEnabled() || !isCacheable(result)) {
+            return;
+        }
+
+        Entry entry = new Entry(result, judgeNanos);
+        synchronized (this) {
+            Entry previous = entries.put(new Key(problemId, testSetVersion, language, codeHash), entry);
+            bytes += entry.weight - (previous != null ? previous.weight : 0);
+            Iterator<Entry> eldest = entries.values().iterator();
+            while (bytes > properties.getMaxBytes() && eldest.hasNext()) {
+                bytes -= eldest.next().weight;
+                eldest.remove();
+            }
+        }
+    }
+
+    /**
+     * Drop every verdict for a problem, e.g. once it is deleted
+     */
+    public synchronized void evictProblem(UUID problemId) {
+        Iterator<Map.Entry<Key, Entry>> iterator = entries.entrySet().iterator();
+        while (iterator.hasNext()) {
+            Map.Entry<Key, Entry> next = iterator.next();
+            if (next.getKey().problemId.equals(problemId)) {
+                bytes -= next.getValue().weight;
+                iterator.remove();
+            }
+        }
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    public synchronized long estimatedBytes() {
+        return bytes;
+    }
+
+    private boolean isCacheable(JudgeResult result) {
+        SubmissionStatus status = result.getStatus();
+        if (status == null || !status.isFinal() || status == SubmissionStatus.TIME_LIMIT_EXCEEDED) {
+            return false;
+        }
+        String message = result.getErrorMessage();
+        return message == null || message.length() * 2L <= properties.getMaxMessageBytes();
+    }
+
+    @EqualsAndHashCode
+    private static final class Key {
+        private final UUID problemId;
+        private final int testSetVersion;
+        private final Language language;
+        private final UUID codeHash;
+
+        private Key(UUID problemId, int testSetVersion, Language language, UUID codeHash) {
+            this.problemId = problemId;
+            this.testSetVersion = testSetVersion;
+            this.language = language;
+            this.codeHash = codeHash;
+        }
+    }
+
+    private static final class Entry {
+        private final SubmissionStatus status;
+        private final Integer executionTimeMs;
+        private final Integer memoryUsedKb;
+        private final Integer testCasesPassed;
+        private final Integer totalTestCases;
+        private final String errorMessage;
+        private final long judgeNanos;
+        private final int weight;
+
+        private Entry(JudgeResult result, long judgeNanos) {
+            this.status = result.getStatus();
+            this.executionTimeMs = result.getExecutionTimeMs();
+            this.memoryUsedKb = result.getMemoryUsedKb();
+            this.testCasesPassed = result.getTestCasesPassed();
+            this.totalTestCases = result.getTotalTestCases();
+            this.errorMessage = result.getErrorMessage();
+            this.judgeNanos = judgeNanos;
+            this.weight = ENTRY_OVERHEAD_BYTES + (errorMessage != null ? 40 + errorMessage.length() * 2 : 0);
+        }
+    }
+}
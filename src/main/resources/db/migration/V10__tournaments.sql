@@ -0,0 +1,56 @@
+-- Multi-round tournaments; each round's matches are ordinary 1v1 battles created in one batch
+CREATE TABLE tournaments (
+    id                  UUID                        NOT NULL,
+    name                VARCHAR(255)                NOT NULL,
+    format              VARCHAR(255)                NOT NULL,
+    status              VARCHAR(255)                NOT NULL,
+    problem_id          UUID,
+    created_by          UUID                        NOT NULL,
+    winner_id           UUID,
+    max_players         INTEGER                     NOT NULL,
+    duration_seconds    INTEGER                     NOT NULL,
+    total_rounds        INTEGER                     NOT NULL,
+    current_round       INTEGER                     NOT NULL,
+    created_at          TIMESTAMP(6) WITH TIME ZONE NOT NULL,
+    started_at          TIMESTAMP(6) WITH TIME ZONE,
+    finished_at         TIMESTAMP(6) WITH TIME ZONE,
+    CONSTRAINT pk_tournaments PRIMARY KEY (id),
+    CONSTRAINT fk_tournaments_created_by FOREIGN KEY (created_by) REFERENCES users (id),
+    CONSTRAINT fk_tournaments_winner FOREIGN KEY (winner_id) REFERENCES users (id)
+);
+
+CREATE INDEX idx_tournaments_status ON tournaments (status);
+
+CREATE TABLE tournament_players (
+    id              UUID                        NOT NULL,
+    tournament_id   UUID                        NOT NULL,
+    user_id         UUID                        NOT NULL,
+    seed            INTEGER                     NOT NULL,
+    points          INTEGER                     NOT NULL,
+    eliminated      BOOLEAN                     NOT NULL,
+    joined_at       TIMESTAMP(6) WITH TIME ZONE,
+    CONSTRAINT pk_tournament_players PRIMARY KEY (id),
+    CONSTRAINT uk_tournament_players_tournament_user UNIQUE (tournament_id, user_id),
+    CONSTRAINT fk_tournament_players_tournament FOREIGN KEY (tournament_id) REFERENCES tournaments (id),
+    CONSTRAINT fk_tournament_players_user FOREIGN KEY (user_id) REFERENCES users (id)
+);
+
+-- battle_id has no foreign key: finished battles move to the archive
+CREATE TABLE tournament_matches (
+    id              UUID                        NOT NULL,
+    tournament_id   UUID                        NOT NULL,
+    round           INTEGER                     NOT NULL,
+    slot            INTEGER                     NOT NULL,
+    battle_id       UUID,
+    player_one_id   UUID                        NOT NULL,
+    player_two_id   UUID,
+    winner_id       UUID,
+    finished        BOOLEAN                     NOT NULL,
+    created_at      TIMESTAMP(6) WITH TIME ZONE NOT NULL,
+    finished_at     TIMESTAMP(6) WITH TIME ZONE,
+    CONSTRAINT pk_tournament_matches PRIMARY KEY (id),
+    CONSTRAINT uk_tournament_matches_battle UNIQUE (battle_id),
+    CONSTRAINT fk_tournament_matches_tournament FOREIGN KEY (tournament_id) REFERENCES tournaments (id)
+);
+
+CREATE INDEX idx_tournament_matches_round ON tournament_matches (tournament_id, round, slot);
@@ -0,0 +1,6 @@
+-- The node judging a RUNNING submission, so a restarted or departed node's unfinished judgments can be requeued
+ALTER TABLE submissions ADD COLUMN judge_node VARCHAR(255);
+
+-- Submissions waiting for a verdict, oldest first, swept at startup and whenever a node leaves.
+-- A plain index rather than a partial one, which H2 (the load-test database) cannot create
+CREATE INDEX idx_submissions_unjudged ON submissions (status, submitted_at, id);
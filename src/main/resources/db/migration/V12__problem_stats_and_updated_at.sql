@@ -0,0 +1,14 @@
+-- Added by entities after the pre-Flyway baseline, so ddl-auto may already have created them
+-- on a database baselined at V1; IF NOT EXISTS leaves those as they are
+
+-- When a problem was last edited, the version behind its cached response
+ALTER TABLE problems ADD COLUMN IF NOT EXISTS updated_at TIMESTAMP(6) WITH TIME ZONE;
+
+-- Submission totals per problem, flushed from in-memory counters
+CREATE TABLE IF NOT EXISTS problem_stats (
+    problem_id            UUID                        NOT NULL,
+    total_submissions     BIGINT                      NOT NULL,
+    accepted_submissions  BIGINT                      NOT NULL,
+    updated_at            TIMESTAMP(6) WITH TIME ZONE,
+    CONSTRAINT pk_problem_stats PRIMARY KEY (problem_id)
+);
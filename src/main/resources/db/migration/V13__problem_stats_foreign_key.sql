@@ -0,0 +1,5 @@
+-- A flush racing a problem's deletion could write its totals back after they were removed;
+-- with the key that insert fails instead, and deleting a problem takes its totals with it
+DELETE FROM problem_stats WHERE problem_id NOT IN (SELECT id FROM problems);
+ALTER TABLE problem_stats ADD CONSTRAINT fk_problem_stats_problem
+    FOREIGN KEY (problem_id) REFERENCES problems (id) ON DELETE CASCADE;
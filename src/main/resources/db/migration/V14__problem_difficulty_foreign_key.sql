@@ -0,0 +1,4 @@
+-- Same race as problem_stats: a rating flush must not outlive the problem it belongs to
+DELETE FROM problem_difficulty WHERE problem_id NOT IN (SELECT id FROM problems);
+ALTER TABLE problem_difficulty ADD CONSTRAINT fk_problem_difficulty_problem
+    FOREIGN KEY (problem_id) REFERENCES problems (id) ON DELETE CASCADE;
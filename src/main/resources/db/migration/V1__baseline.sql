@@ -0,0 +1,101 @@
+-- Schema as previously created by spring.jpa.hibernate.ddl-auto=update.
+-- Existing databases are baselined at this version (spring.flyway.baseline-on-migrate).
+
+CREATE TABLE users (
+    id              UUID                        NOT NULL,
+    username        VARCHAR(255)                NOT NULL,
+    email           VARCHAR(255)                NOT NULL,
+    password_hash   VARCHAR(255)                NOT NULL,
+    rating_score    INTEGER                     NOT NULL,
+    battles_played  INTEGER                     NOT NULL,
+    battles_won     INTEGER                     NOT NULL,
+    role            VARCHAR(255)                NOT NULL CHECK (role IN ('PLAYER', 'ADMIN')),
+    status          VARCHAR(255)                NOT NULL CHECK (status IN ('ACTIVE', 'BLOCKED')),
+    created_at      TIMESTAMP(6) WITH TIME ZONE NOT NULL,
+    last_login_at   TIMESTAMP(6) WITH TIME ZONE,
+    CONSTRAINT pk_users PRIMARY KEY (id),
+    CONSTRAINT uk_users_username UNIQUE (username),
+    CONSTRAINT uk_users_email UNIQUE (email)
+);
+
+CREATE TABLE user_languages (
+    user_id   UUID         NOT NULL,
+    language  VARCHAR(255) CHECK (language IN ('JAVA', 'PYTHON', 'JAVASCRIPT', 'TYPESCRIPT', 'CPP', 'C', 'GO', 'RUST', 'KOTLIN', 'RUBY', 'CSHARP')),
+    CONSTRAINT fk_user_languages_user FOREIGN KEY (user_id) REFERENCES users (id)
+);
+
+CREATE TABLE problems (
+    id                  UUID                        NOT NULL,
+    title               VARCHAR(255)                NOT NULL,
+    description         TEXT                        NOT NULL,
+    constraints         TEXT,
+    example_input       TEXT,
+    example_output      TEXT,
+    difficulty          VARCHAR(255)                NOT NULL CHECK (difficulty IN ('EASY', 'MEDIUM', 'HARD')),
+    time_limit_seconds  INTEGER                     NOT NULL,
+    memory_limit_mb     INTEGER                     NOT NULL,
+    created_at          TIMESTAMP(6) WITH TIME ZONE NOT NULL,
+    CONSTRAINT pk_problems PRIMARY KEY (id)
+);
+
+CREATE TABLE test_cases (
+    id               UUID    NOT NULL,
+    problem_id       UUID    NOT NULL,
+    input            TEXT    NOT NULL,
+    expected_output  TEXT    NOT NULL,
+    is_hidden        BOOLEAN NOT NULL,
+    order_index      INTEGER NOT NULL,
+    CONSTRAINT pk_test_cases PRIMARY KEY (id),
+    CONSTRAINT fk_test_cases_problem FOREIGN KEY (problem_id) REFERENCES problems (id)
+);
+
+CREATE TABLE battles (
+    id                UUID                        NOT NULL,
+    room_code         VARCHAR(255),
+    problem_id        UUID                        NOT NULL,
+    winner_id         UUID,
+    status            VARCHAR(255)                NOT NULL CHECK (status IN ('WAITING', 'READY', 'IN_PROGRESS', 'COMPLETED', 'CANCELLED')),
+    is_private        BOOLEAN                     NOT NULL,
+    max_participants  INTEGER                     NOT NULL,
+    duration_seconds  INTEGER                     NOT NULL,
+    created_at        TIMESTAMP(6) WITH TIME ZONE NOT NULL,
+    started_at        TIMESTAMP(6) WITH TIME ZONE,
+    finished_at       TIMESTAMP(6) WITH TIME ZONE,
+    CONSTRAINT pk_battles PRIMARY KEY (id),
+    CONSTRAINT uk_battles_room_code UNIQUE (room_code),
+    CONSTRAINT fk_battles_problem FOREIGN KEY (problem_id) REFERENCES problems (id),
+    CONSTRAINT fk_battles_winner FOREIGN KEY (winner_id) REFERENCES users (id)
+);
+
+CREATE TABLE battle_participants (
+    id             UUID                        NOT NULL,
+    battle_id      UUID                        NOT NULL,
+    user_id        UUID                        NOT NULL,
+    score          INTEGER                     NOT NULL,
+    is_ready       BOOLEAN                     NOT NULL,
+    has_submitted  BOOLEAN                     NOT NULL,
+    joined_at      TIMESTAMP(6) WITH TIME ZONE,
+    CONSTRAINT pk_battle_participants PRIMARY KEY (id),
+    CONSTRAINT uk_battle_participants_battle_user UNIQUE (battle_id, user_id),
+    CONSTRAINT fk_battle_participants_battle FOREIGN KEY (battle_id) REFERENCES battles (id),
+    CONSTRAINT fk_battle_participants_user FOREIGN KEY (user_id) REFERENCES users (id)
+);
+
+CREATE TABLE submissions (
+    id                 UUID                        NOT NULL,
+    battle_id          UUID                        NOT NULL,
+    user_id            UUID                        NOT NULL,
+    code               TEXT                        NOT NULL,
+    language           VARCHAR(255)                NOT NULL CHECK (language IN ('JAVA', 'PYTHON', 'JAVASCRIPT', 'TYPESCRIPT', 'CPP', 'C', 'GO', 'RUST', 'KOTLIN', 'RUBY', 'CSHARP')),
+    status             VARCHAR(255)                NOT NULL CHECK (status IN ('PENDING', 'RUNNING', 'ACCEPTED', 'WRONG_ANSWER', 'TIME_LIMIT_EXCEEDED', 'MEMORY_LIMIT_EXCEEDED', 'RUNTIME_ERROR', 'COMPILATION_ERROR')),
+    execution_time_ms  INTEGER,
+    memory_used_kb     INTEGER,
+    test_cases_passed  INTEGER,
+    total_test_cases   INTEGER,
+    error_message      TEXT,
+    submitted_at       TIMESTAMP(6) WITH TIME ZONE NOT NULL,
+    judged_at          TIMESTAMP(6) WITH TIME ZONE,
+    CONSTRAINT pk_submissions PRIMARY KEY (id),
+    CONSTRAINT fk_submissions_battle FOREIGN KEY (battle_id) REFERENCES battles (id),
+    CONSTRAINT fk_submissions_user FOREIGN KEY (user_id) REFERENCES users (id)
+);
@@ -0,0 +1,9 @@
+-- Samples for players and test-case pages for the judge are both read by (problem, visibility, order)
+CREATE INDEX idx_test_cases_problem_hidden_order ON test_cases (problem_id, is_hidden, order_index);
+
+-- Submissions reference their problem directly so practice submissions need no battle
+ALTER TABLE submissions ADD COLUMN problem_id UUID;
+UPDATE submissions SET problem_id = (SELECT b.problem_id FROM battles b WHERE b.id = submissions.battle_id);
+ALTER TABLE submissions ALTER COLUMN problem_id SET NOT NULL;
+ALTER TABLE submissions ALTER COLUMN battle_id DROP NOT NULL;
+ALTER TABLE submissions ADD CONSTRAINT fk_submissions_problem FOREIGN KEY (problem_id) REFERENCES problems (id);
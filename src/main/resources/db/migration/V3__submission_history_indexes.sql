@@ -0,0 +1,4 @@
+-- Submission history is listed newest first per user, battle and problem; id breaks ties for the keyset cursor
+CREATE INDEX idx_submissions_user_submitted ON submissions (user_id, submitted_at, id);
+CREATE INDEX idx_submissions_battle_submitted ON submissions (battle_id, submitted_at, id);
+CREATE INDEX idx_submissions_problem_submitted ON submissions (problem_id, submitted_at, id);
@@ -0,0 +1,17 @@
+-- Source code and judge output stored once per distinct text, deflate-compressed when that is smaller
+CREATE TABLE submission_contents (
+    id              UUID                        NOT NULL,
+    encoding        VARCHAR(255)                NOT NULL CHECK (encoding IN ('RAW', 'DEFLATE')),
+    original_bytes  INTEGER                     NOT NULL,
+    data            BYTEA                       NOT NULL,
+    created_at      TIMESTAMP(6) WITH TIME ZONE NOT NULL,
+    CONSTRAINT pk_submission_contents PRIMARY KEY (id)
+);
+
+-- Plain code/error_message columns stay for rows not yet moved by the storage migration job
+ALTER TABLE submissions ADD COLUMN code_content_id UUID;
+ALTER TABLE submissions ADD COLUMN error_content_id UUID;
+ALTER TABLE submissions ALTER COLUMN code DROP NOT NULL;
+ALTER TABLE submissions ADD CONSTRAINT fk_submissions_code_content FOREIGN KEY (code_content_id) REFERENCES submission_contents (id);
+ALTER TABLE submissions ADD CONSTRAINT fk_submissions_error_content FOREIGN KEY (error_content_id) REFERENCES submission_contents (id);
+ALTER TABLE submissions ADD CONSTRAINT ck_submissions_code_present CHECK (code IS NOT NULL OR code_content_id IS NOT NULL);
@@ -0,0 +1,55 @@
+-- Finished battles with their participants and submissions, and old practice submissions, are moved
+-- here by BattleArchiver so the hot tables and their indexes only hold recent data.
+-- No foreign keys: rows arrive in batches and are never updated.
+CREATE TABLE archived_battles (
+    id                UUID                        NOT NULL,
+    room_code         VARCHAR(255),
+    problem_id        UUID                        NOT NULL,
+    winner_id         UUID,
+    status            VARCHAR(255)                NOT NULL,
+    is_private        BOOLEAN                     NOT NULL,
+    max_participants  INTEGER                     NOT NULL,
+    duration_seconds  INTEGER                     NOT NULL,
+    created_at        TIMESTAMP(6) WITH TIME ZONE NOT NULL,
+    started_at        TIMESTAMP(6) WITH TIME ZONE,
+    finished_at       TIMESTAMP(6) WITH TIME ZONE,
+    CONSTRAINT pk_archived_battles PRIMARY KEY (id)
+);
+
+CREATE TABLE archived_battle_participants (
+    id             UUID                        NOT NULL,
+    battle_id      UUID                        NOT NULL,
+    user_id        UUID                        NOT NULL,
+    score          INTEGER                     NOT NULL,
+    is_ready       BOOLEAN                     NOT NULL,
+    has_submitted  BOOLEAN                     NOT NULL,
+    joined_at      TIMESTAMP(6) WITH TIME ZONE,
+    CONSTRAINT pk_archived_battle_participants PRIMARY KEY (id)
+);
+CREATE INDEX idx_archived_battle_participants_battle ON archived_battle_participants (battle_id);
+
+CREATE TABLE archived_submissions (
+    id                 UUID                        NOT NULL,
+    battle_id          UUID,
+    problem_id         UUID                        NOT NULL,
+    user_id            UUID                        NOT NULL,
+    language           VARCHAR(255)                NOT NULL,
+    code               TEXT,
+    code_content_id    UUID,
+    status             VARCHAR(255)                NOT NULL,
+    execution_time_ms  INTEGER,
+    memory_used_kb     INTEGER,
+    test_cases_passed  INTEGER,
+    total_test_cases   INTEGER,
+    error_message      TEXT,
+    error_content_id   UUID,
+    submitted_at       TIMESTAMP(6) WITH TIME ZONE NOT NULL,
+    judged_at          TIMESTAMP(6) WITH TIME ZONE,
+    CONSTRAINT pk_archived_submissions PRIMARY KEY (id)
+);
+CREATE INDEX idx_archived_submissions_user_submitted ON archived_submissions (user_id, submitted_at, id);
+CREATE INDEX idx_archived_submissions_battle_submitted ON archived_submissions (battle_id, submitted_at, id);
+CREATE INDEX idx_archived_submissions_problem_submitted ON archived_submissions (problem_id, submitted_at, id);
+
+-- Finds the next finished battles to archive without scanning live ones
+CREATE INDEX idx_battles_status_finished ON battles (status, finished_at);
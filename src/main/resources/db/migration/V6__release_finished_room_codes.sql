@@ -0,0 +1,2 @@
+-- Room codes are now recycled from an in-memory pool: finished battles no longer hold theirs
+UPDATE battles SET room_code = NULL WHERE status IN ('COMPLETED', 'CANCELLED') AND room_code IS NOT NULL;
@@ -0,0 +1,2 @@
+-- Bumped whenever a problem's test cases change, so verdicts cached for older test sets are never reused
+ALTER TABLE problems ADD COLUMN test_set_version INTEGER NOT NULL DEFAULT 0;
@@ -0,0 +1,10 @@
+-- Running totals behind each problem's calibrated difficulty; every column only ever grows by deltas
+CREATE TABLE problem_difficulty (
+    problem_id          UUID                        NOT NULL,
+    rating_delta        DOUBLE PRECISION            NOT NULL,
+    samples             BIGINT                      NOT NULL,
+    solves              BIGINT                      NOT NULL,
+    solve_seconds_sum   DOUBLE PRECISION            NOT NULL,
+    updated_at          TIMESTAMP(6) WITH TIME ZONE,
+    CONSTRAINT pk_problem_difficulty PRIMARY KEY (problem_id)
+);
@@ -0,0 +1,31 @@
+-- Winnowed token fingerprints of accepted submissions, loaded into the in-memory similarity index at startup
+CREATE TABLE submission_fingerprints (
+    submission_id   UUID                        NOT NULL,
+    problem_id      UUID                        NOT NULL,
+    user_id         UUID                        NOT NULL,
+    language        VARCHAR(255)                NOT NULL,
+    fingerprints    BYTEA                       NOT NULL,
+    created_at      TIMESTAMP(6) WITH TIME ZONE NOT NULL,
+    CONSTRAINT pk_submission_fingerprints PRIMARY KEY (submission_id)
+);
+
+CREATE INDEX idx_submission_fingerprints_problem ON submission_fingerprints (problem_id);
+
+-- Accepted submissions that were near-duplicates of an earlier one by another user
+CREATE TABLE plagiarism_matches (
+    id                      UUID                        NOT NULL,
+    submission_id           UUID                        NOT NULL,
+    matched_submission_id   UUID                        NOT NULL,
+    problem_id              UUID                        NOT NULL,
+    battle_id               UUID,
+    user_id                 UUID                        NOT NULL,
+    matched_user_id         UUID                        NOT NULL,
+    similarity              DOUBLE PRECISION            NOT NULL,
+    created_at              TIMESTAMP(6) WITH TIME ZONE NOT NULL,
+    CONSTRAINT pk_plagiarism_matches PRIMARY KEY (id)
+);
+
+CREATE INDEX idx_plagiarism_matches_battle ON plagiarism_matches (battle_id, user_id);
+
+ALTER TABLE battles ADD COLUMN winner_suspected BOOLEAN NOT NULL DEFAULT FALSE;
+ALTER TABLE archived_battles ADD COLUMN winner_suspected BOOLEAN NOT NULL DEFAULT FALSE;
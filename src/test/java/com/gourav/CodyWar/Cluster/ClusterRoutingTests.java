@@ -0,0 +1,348 @@
+package com.gourav.CodyWar.Cluster;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.gourav.CodyWar.CodyWarApplication;
+import com.gourav.CodyWar.Domain.Entity.Difficulty;
+import com.gourav.CodyWar.Domain.Entity.Language;
+import com.gourav.CodyWar.Domain.Entity.Problem;
+import com.gourav.CodyWar.Domain.Entity.TestCase;
+import com.gourav.CodyWar.Domain.Event.BattleEventType;
+import com.gourav.CodyWar.Repository.ProblemRepository;
+import com.gourav.CodyWar.Repository.SubmissionRepository;
+import com.gourav.CodyWar.Repository.TestCaseRepository;
+import com.gourav.CodyWar.Service.BattleService;
+import com.gourav.CodyWar.Service.CodeRunner;
+import com.gourav.CodyWar.Service.LiveBattleRegistry;
+import com.gourav.CodyWar.TestDatabase;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Primary;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Path;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Two nodes of a local cluster on one database: requests reach the node that owns the battle or
+ * judges the submission, a client cannot skip that by faking the forwarding header or make a node
+ * buffer an oversized body to route it, and the remaining node takes the battles over when the
+ * other one stops.
+ */
+class ClusterRoutingTests {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+    private static final String SECRET = "cluster-test-secret";
+
+    @TempDir
+    Path workDir;
+
+    private final HttpClient client = HttpClient.newHttpClient();
+    private TestDatabase database;
+    private ConfigurableApplicationContext nodeA;
+    private ConfigurableApplicationContext nodeB;
+    private String urlA;
+    private String urlB;
+
+    @BeforeEach
+    void startCluster() throws IOException {
+        database = TestDatabase.create();
+        int portA = freePort();
+        int portB = freePort();
+        urlA = "http://localhost:" + portA;
+        urlB = "http://localhost:" + portB;
+        nodeA = start("node-a", portA);
+        nodeB = start("node-b", portB);
+        awaitTrue(() -> members(nodeA) == 2 && members(nodeB) == 2, "both nodes to see each other");
+    }
+
+    @AfterEach
+    void stopCluster() throws SQLException {
+        HeldCodeRunner.release.countDown();
+        for (ConfigurableApplicationContext node : new ConfigurableApplicationContext[]{nodeA, nodeB}) {
+            if (node != null && node.isActive()) {
+                node.close();
+            }
+        }
+        database.close();
+        HeldCodeRunner.release = new CountDownLatch(1);
+    }
+
+    @Test
+    void battleRequestsAreHandledByTheOwnerAndTakenOverWhenItLeaves() throws Exception {
+        UUID problemId = createProblem();
+        String creator = register(urlA, "creator");
+        String joiner = register(urlB, "joiner");
+
+        JsonNode battle = json(send(urlA, "POST", "/api/battles", creator,
+                Map.of("problemId", problemId.toString(), "durationSeconds", 600)));
+        UUID battleId = UUID.fromString(battle.path("id").asText());
+        assertTrue(router(nodeA).isLocal(battleId));
+
+        // A faked forwarding header without the cluster secret is still routed to the owner
+        HttpResponse<String> joined = client.send(request(urlB, "POST", "/api/battles/" + battleId + "/join", joiner, null)
+                .header(ClusterTransport.FORWARDED_BY, "node-b")
+                .build(), HttpResponse.BodyHandlers.ofString());
+        assertEquals(200, joined.statusCode(), joined.body());
+        // The creator's and the joiner's
+        assertEquals(2, joinedEvents(nodeA, battleId));
+        assertEquals(0, joinedEvents(nodeB, battleId));
+        assertEquals(2, json(send(urlB, "GET", "/api/battles/" + battleId, joiner, null)).path("participants").size());
+
+        // Read to find the owner before authentication, so an oversized body is refused before it is buffered
+        HttpResponse<String> oversized = client.send(request(urlB, "POST", "/api/submissions", null,
+                Map.of("battleId", battleId.toString(), "code", "x".repeat(600_000))).build(), HttpResponse.BodyHandlers.ofString());
+        assertEquals(413, oversized.statusCode(), oversized.body());
+
+        nodeA.close();
+        awaitTrue(() -> members(nodeB) == 1, "node-b to notice node-a left");
+        awaitTrue(() -> nodeB.getBean(LiveBattleRegistry.class).get(battleId).isPresent(), "node-b to take the battle over");
+        assertTrue(router(nodeB).isLocal(battleId));
+        assertEquals(200, client.send(request(urlB, "POST", "/api/battles/" + battleId + "/leave", joiner, null).build(),
+                HttpResponse.BodyHandlers.ofString()).statusCode());
+    }
+
+    @Test
+    void practiceSubmissionStreamIsRoutedToTheJudgingNode() throws Exception {
+        UUID problemId = createProblem();
+        String token = register(urlA, "practice");
+        UUID submissionId = submit(urlA, token, problemId);
+        awaitTrue(() -> HeldCodeRunner.held.get() > 0, "node-a to start judging");
+
+        CompletableFuture<List<String>> events = CompletableFuture.supplyAsync(() -> events(urlB, token, submissionId, 2));
+        awaitTrue(() -> openStreams(nodeA) == 1, "the stream to reach node-a");
+        assertEquals(0, openStreams(nodeB));
+        HeldCodeRunner.release.countDown();
+
+        List<String> received = events.get(30, TimeUnit.SECONDS);
+        assertEquals("progress", received.get(0));
+        assertEquals("verdict", received.get(1));
+    }
+
+    @Test
+    void streamIsClosedWhenAnotherNodeTakesTheSubmissionOver() throws Exception {
+        UUID problemId = createProblem();
+        String token = register(urlA, "requeued");
+        UUID submissionId = submit(urlA, token, problemId);
+        awaitTrue(() -> HeldCodeRunner.held.get() > 0, "node-a to start judging");
+
+        CompletableFuture<List<String>> events = CompletableFuture.supplyAsync(() -> events(urlA, token, submissionId, 2));
+        awaitTrue(() -> openStreams(nodeA) == 1, "the stream to open");
+
+        // As if node-a had been given up for gone and node-b had claimed the requeued submission
+        nodeA.getBean(TransactionTemplate.class).executeWithoutResult(status ->
+                nodeA.getBean(SubmissionRepository.class).findById(submissionId).orElseThrow().setJudgeNode("node-b"));
+
+        List<String> received = events.get(30, TimeUnit.SECONDS);
+        assertEquals(List.of("progress"), received);
+    }
+
+    private ConfigurableApplicationContext start(String nodeId, int port) {
+        return new SpringApplicationBuilder(CodyWarApplication.class, HeldCodeRunnerConfig.class).run(database.args(
+                "--server.port=" + port,
+                "--management.server.port=0",
+                "--cluster.membership=local",
+                "--cluster.node-id=" + nodeId,
+                "--cluster.secret=" + SECRET,
+                "--cluster.local-dir=" + workDir.resolve("cluster"),
+                "--cluster.heartbeat-interval-ms=200",
+                "--cluster.failure-timeout-ms=2000",
+                "--battle.event-log.dir=" + workDir.resolve(nodeId + "-events"),
+                "--submission.stream.moved-check-interval-ms=200",
+                "--judge.workers=1",
+                "--judge.verdict-cache.enabled=false",
+                "--judge.drain-timeout-ms=200",
+                "--rate-limit.enabled=false"));
+    }
+
+    private UUID createProblem() {
+        ProblemRepository problemRepository = nodeA.getBean(ProblemRepository.class);
+        TestCaseRepository testCaseRepository = nodeA.getBean(TestCaseRepository.class);
+        return nodeA.getBean(TransactionTemplate.class).execute(status -> {
+            Problem problem = problemRepository.save(Problem.builder()
+                    .title("Cluster test")
+                    .description("Print pong")
+                    .difficulty(Difficulty.EASY)
+                    .build());
+            testCaseRepository.save(TestCase.builder().problem(problem).input("ping").expectedOutput("pong").build());
+            return problem.getId();
+        });
+    }
+
+    private String register(String url, String username) throws Exception {
+        JsonNode auth = json(send(url, "POST", "/api/auth/register", null,
+                Map.of("username", username, "email", username + "@cluster.test", "password", "cluster-password")));
+        return auth.path("data").path("access_token").asText();
+    }
+
+    private UUID submit(String url, String token, UUID problemId) throws Exception {
+        JsonNode submission = json(send(url, "POST", "/api/submissions", token,
+                Map.of("problemId", problemId.toString(), "language", Language.PYTHON.name(), "code", "print('pong')")));
+        return UUID.fromString(submission.path("id").asText());
+    }
+
+    // Names of the events the stream sends until it closes, or until max have arrived
+    private List<String> events(String url, String token, UUID submissionId, int max) {
+        List<String> names = new ArrayList<>();
+        try {
+            HttpResponse<Stream<String>> response = client.send(
+                    request(url, "GET", "/api/submissions/" + submissionId + "/events", token, null).build(),
+                    HttpResponse.BodyHandlers.ofLines());
+            assertEquals(200, response.statusCode());
+            try (Stream<String> lines = response.body()) {
+                Iterator<String> iterator = lines.iterator();
+                while (names.size() < max && iterator.hasNext()) {
+                    String line = iterator.next();
+                    if (line.startsWith("event:")) {
+                        names.add(line.substring("event:".length()).trim());
+                    }
+                }
+            }
+        } catch (IOException e) {
+            // Closed by the server
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return names;
+    }
+
+    private String send(String url, String method, String path, String token, Object body) throws Exception {
+        HttpResponse<String> response = client.send(request(url, method, path, token, body).build(),
+                HttpResponse.BodyHandlers.ofString());
+        assertTrue(response.statusCode() / 100 == 2, method + " " + path + " returned " + response.statusCode() + ": " + response.body());
+        return response.body();
+    }
+
+    private static HttpRequest.Builder request(String url, String method, String path, String token, Object body) throws IOException {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(url + path))
+                .timeout(Duration.ofSeconds(30))
+                .header("Content-Type", "application/json")
+                .method(method, body == null
+                        ? HttpRequest.BodyPublishers.noBody()
+                        : HttpRequest.BodyPublishers.ofString(MAPPER.writeValueAsString(body)));
+        if (token != null) {
+            builder.header("Authorization", "Bearer " + token);
+        }
+        return builder;
+    }
+
+    private static JsonNode json(String body) throws IOException {
+        return MAPPER.readTree(body);
+    }
+
+    private static long joinedEvents(ConfigurableApplicationContext node, UUID battleId) {
+        return node.getBean(BattleService.class).getLocalTimeline(battleId).stream()
+                .filter(event -> BattleEventType.JOINED.name().equals(event.getType()))
+                .count();
+    }
+
+    private static BattleRouter router(ConfigurableApplicationContext node) {
+        return node.getBean(BattleRouter.class);
+    }
+
+    private static int members(ConfigurableApplicationContext node) {
+        return node.getBean(ClusterMembership.class).members().size();
+    }
+
+    private static double openStreams(ConfigurableApplicationContext node) {
+        return node.getBean(MeterRegistry.class).get("codywar.submission.streams").gauge().value();
+    }
+
+    private static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+
+    private static void awaitTrue(BooleanSupplier condition, String what) {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(30);
+        while (!condition.getAsBoolean()) {
+            assertTrue(System.nanoTime() < deadline, "timed out waiting for " + what);
+            try {
+                Thread.sleep(20);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException(e);
+            }
+        }
+    }
+
+    // Not annotated, so component scanning never picks it up for other tests
+    static class HeldCodeRunnerConfig {
+
+        @Bean
+        @Primary
+        CodeRunner heldCodeRunner() {
+            return new HeldCodeRunner();
+        }
+    }
+
+    /**
+     * Echoes the input once released; every node's runner shares the latch
+     */
+    static class HeldCodeRunner implements CodeRunner {
+
+        static volatile CountDownLatch release = new CountDownLatch(1);
+        static final AtomicInteger held = new AtomicInteger();
+
+        @Override
+        public boolean supports(Language language) {
+            return true;
+        }
+
+        @Override
+        public Program prepare(Language language, String code) {
+            return new Program() {
+                @Override
+                public String getCompileError() {
+                    return null;
+                }
+
+                @Override
+                public void close() {
+                }
+            };
+        }
+
+        @Override
+        public RunResult run(Program program, String input, long timeLimitMs, int memoryLimitMb) throws IOException {
+            held.incrementAndGet();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IOException("Interrupted while running", e);
+            } finally {
+                held.decrementAndGet();
+            }
+            return RunResult.builder().exitCode(0).stdout(input).stderr("").elapsedMs(1).build();
+        }
+    }
+}
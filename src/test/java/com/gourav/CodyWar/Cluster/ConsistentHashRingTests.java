@@ -0,0 +1,99 @@
+package com.gourav.CodyWar.Cluster;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Ownership over a batch of random keys: the same on every member, spread evenly, and only the
+ * joining or leaving node's share moves.
+ */
+class ConsistentHashRingTests {
+
+    private static final int VIRTUAL_NODES = 128;
+    private static final int KEYS = 20000;
+
+    private final List<UUID> keys = keys();
+
+    @Test
+    void everyMemberBuildsTheSameRingWhateverTheListOrder() {
+        List<ClusterNode> nodes = nodes(4);
+        List<ClusterNode> reversed = new ArrayList<>(nodes);
+        Collections.reverse(reversed);
+
+        ConsistentHashRing ring = new ConsistentHashRing(nodes, VIRTUAL_NODES);
+        ConsistentHashRing other = new ConsistentHashRing(reversed, VIRTUAL_NODES);
+        for (UUID key : keys) {
+            assertEquals(ring.ownerOf(key), other.ownerOf(key));
+        }
+        assertEquals(ring.ownerOf("node-a"), other.ownerOf("node-a"));
+    }
+
+    @Test
+    void keysAreSpreadEvenly() {
+        List<ClusterNode> nodes = nodes(4);
+        ConsistentHashRing ring = new ConsistentHashRing(nodes, VIRTUAL_NODES);
+        Map<ClusterNode, Integer> owned = new HashMap<>();
+        for (UUID key : keys) {
+            owned.merge(ring.ownerOf(key), 1, Integer::sum);
+        }
+
+        assertEquals(nodes.size(), owned.size());
+        for (int count : owned.values()) {
+            // Within a third of the fair share with 128 points per node
+            assertTrue(Math.abs(count - KEYS / nodes.size()) < KEYS / nodes.size() / 3, "owns " + count);
+        }
+    }
+
+    @Test
+    void onlyTheChangedNodesShareMoves() {
+        List<ClusterNode> four = nodes(4);
+        List<ClusterNode> five = nodes(5);
+        ConsistentHashRing before = new ConsistentHashRing(four, VIRTUAL_NODES);
+        ConsistentHashRing after = new ConsistentHashRing(five, VIRTUAL_NODES);
+        ClusterNode joined = five.get(4);
+
+        int moved = 0;
+        for (UUID key : keys) {
+            ClusterNode owner = after.ownerOf(key);
+            if (!owner.equals(before.ownerOf(key))) {
+                moved++;
+                // Keys only ever move to the new node, and back to their old owners when it leaves
+                assertEquals(joined, owner);
+            }
+        }
+        assertTrue(moved > KEYS / 5 / 2 && moved < KEYS / 5 * 3 / 2, "moved " + moved);
+    }
+
+    @Test
+    void emptyRingIsRejected() {
+        assertThrows(IllegalArgumentException.class, () -> new ConsistentHashRing(List.of(), VIRTUAL_NODES));
+    }
+
+    private static List<ClusterNode> nodes(int count) {
+        List<ClusterNode> nodes = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            nodes.add(new ClusterNode("node-" + (char) ('a' + i), "http://10.0.0." + (i + 1) + ":8000"));
+        }
+        return nodes;
+    }
+
+    private static List<UUID> keys() {
+        Random random = new Random(42);
+        List<UUID> keys = new ArrayList<>(KEYS);
+        for (int i = 0; i < KEYS; i++) {
+            keys.add(new UUID(random.nextLong(), random.nextLong()));
+        }
+        return keys;
+    }
+}
@@ -0,0 +1,147 @@
+package com.gourav.CodyWar.Configuration;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Routes over two in-memory databases, each holding a row naming itself, so every query shows
+ * which one it reached. The replica reports its replication lag through a stand-in for
+ * PostgreSQL's pg_last_xact_replay_timestamp() that the test controls.
+ */
+class ReplicaRoutingDataSourceTests {
+
+    private static final long MAX_LAG_MS = 10000;
+    private static final long READ_YOUR_WRITES_WINDOW_MS = 60000;
+
+    private HikariDataSource primaryPool;
+    private HikariDataSource replicaPool;
+    private ReplicaRoutingDataSource routing;
+    private JdbcTemplate jdbcTemplate;
+    private TransactionTemplate writes;
+    private TransactionTemplate reads;
+
+    @BeforeEach
+    void open() {
+        ReplayClock.lagMs = 0;
+        primaryPool = pool("primary");
+        replicaPool = pool("replica");
+        new JdbcTemplate(replicaPool).execute("CREATE ALIAS pg_last_xact_replay_timestamp FOR \""
+                + ReplayClock.class.getName() + ".replayedAt\"");
+
+        routing = new ReplicaRoutingDataSource(primaryPool,
+                List.of(new ReplicaRoutingDataSource.Replica("replica-0", replicaPool)),
+                MAX_LAG_MS, READ_YOUR_WRITES_WINDOW_MS, new SimpleMeterRegistry());
+        DataSource dataSource = new LazyConnectionDataSourceProxy(routing);
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        DataSourceTransactionManager transactionManager = new DataSourceTransactionManager(dataSource);
+        writes = new TransactionTemplate(transactionManager);
+        reads = new TransactionTemplate(transactionManager);
+        reads.setReadOnly(true);
+    }
+
+    @AfterEach
+    void close() {
+        SecurityContextHolder.clearContext();
+        for (HikariDataSource pool : List.of(primaryPool, replicaPool)) {
+            if (!pool.isClosed()) {
+                new JdbcTemplate(pool).execute("SHUTDOWN");
+            }
+        }
+        routing.close();
+        primaryPool.close();
+    }
+
+    @Test
+    void readOnlyTransactionsGoToTheReplica() {
+        assertEquals("replica", reads.execute(status -> target()));
+        assertEquals("primary", writes.execute(status -> target()));
+        // Outside a transaction there is no read-only flag to go by
+        assertEquals("primary", target());
+    }
+
+    @Test
+    void laggingOrUnreachableReplicaFallsBackToThePrimary() {
+        ReplayClock.lagMs = MAX_LAG_MS * 2;
+        routing.checkReplicas();
+        assertEquals("primary", reads.execute(status -> target()));
+
+        ReplayClock.lagMs = 0;
+        routing.checkReplicas();
+        assertEquals("replica", reads.execute(status -> target()));
+
+        // A failed connection takes it out straight away, without waiting for the next probe
+        replicaPool.close();
+        assertEquals("primary", reads.execute(status -> target()));
+        assertEquals("primary", reads.execute(status -> target()));
+    }
+
+    @Test
+    void writerReadsFromThePrimaryAfterTheirWriteCommits() {
+        login("writer");
+        assertEquals("replica", reads.execute(status -> target()));
+        writes.execute(status -> jdbcTemplate.update("UPDATE marker SET name = name"));
+        assertEquals("primary", reads.execute(status -> target()));
+
+        // A rolled back write leaves nothing to read back
+        login("rolled-back");
+        writes.execute(status -> {
+            jdbcTemplate.update("UPDATE marker SET name = name");
+            status.setRollbackOnly();
+            return null;
+        });
+        assertEquals("replica", reads.execute(status -> target()));
+
+        login("reader");
+        assertEquals("replica", reads.execute(status -> target()));
+    }
+
+    private String target() {
+        return jdbcTemplate.queryForObject("SELECT name FROM marker", String.class);
+    }
+
+    private static void login(String username) {
+        SecurityContextHolder.getContext().setAuthentication(
+                UsernamePasswordAuthenticationToken.authenticated(username, null, List.of()));
+    }
+
+    private static HikariDataSource pool(String name) {
+        HikariDataSource pool = new HikariDataSource();
+        pool.setPoolName(name);
+        pool.setJdbcUrl("jdbc:h2:mem:routing-" + UUID.randomUUID() + ";MODE=PostgreSQL;DB_CLOSE_DELAY=-1");
+        pool.setUsername("sa");
+        pool.setPassword("");
+        pool.setMaximumPoolSize(2);
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(pool);
+        jdbcTemplate.execute("CREATE TABLE marker (name VARCHAR(16))");
+        jdbcTemplate.update("INSERT INTO marker VALUES (?)", name);
+        return pool;
+    }
+
+    /**
+     * Called by H2, so public
+     */
+    public static class ReplayClock {
+
+        static volatile long lagMs;
+
+        public static OffsetDateTime replayedAt() {
+            return OffsetDateTime.now().minusNanos(lagMs * 1_000_000);
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package com.gourav.CodyWar.Security;
+
+import com.gourav.CodyWar.Configuration.RateLimitProperties;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Policies scoped to a method leave the other methods on the same path to the next policy.
+ */
+class RateLimitFilterTests {
+
+    @Test
+    void exhaustedSubmitPolicyDoesNotThrottleReads() throws Exception {
+        RateLimitProperties properties = new RateLimitProperties();
+        properties.getPolicies().put("submissions", policy("POST", 2));
+        properties.getPolicies().put("submission-reads", policy(null, 5));
+        RateLimitFilter filter = new RateLimitFilter(properties, Jackson2ObjectMapperBuilder.json().build());
+
+        assertEquals(200, status(filter, "POST"));
+        assertEquals(200, status(filter, "POST"));
+        assertEquals(429, status(filter, "POST"));
+        for (int i = 0; i < 5; i++) {
+            assertEquals(200, status(filter, "GET"), "read " + i);
+        }
+        MockHttpServletResponse response = send(filter, "GET");
+        assertEquals(429, response.getStatus());
+        assertEquals("submission-reads", response.getHeader("X-RateLimit-Policy"));
+    }
+
+    private static RateLimitProperties.Policy policy(String method, int capacity) {
+        RateLimitProperties.Policy policy = new RateLimitProperties.Policy();
+        policy.setPathPrefix("/api/submissions");
+        policy.setMethod(method);
+        policy.setCapacity(capacity);
+        policy.setRefillPerMinute(1);
+        return policy;
+    }
+
+    private static int status(RateLimitFilter filter, String method) throws Exception {
+        return send(filter, method).getStatus();
+    }
+
+    private static MockHttpServletResponse send(RateLimitFilter filter, String method) throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(new MockHttpServletRequest(method, "/api/submissions"), response, new MockFilterChain());
+        return response;
+    }
+}
@@ -0,0 +1,86 @@
+package com.gourav.CodyWar.Security;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Drives the bucket with an explicit clock: bursts up to capacity, refill at the emission
+ * interval, and no token handed out twice under contention.
+ */
+class TokenBucketTests {
+
+    private static final long INTERVAL = TimeUnit.SECONDS.toNanos(1);
+    private static final int CAPACITY = 5;
+    private static final long CAPACITY_NANOS = INTERVAL * CAPACITY;
+
+    @Test
+    void burstUpToCapacityThenWaitForTheNextToken() {
+        long now = 1_000_000_000L;
+        TokenBucket bucket = new TokenBucket(now);
+        for (int i = 0; i < CAPACITY; i++) {
+            assertEquals(0, bucket.tryConsume(now, INTERVAL, CAPACITY_NANOS), "request " + i);
+        }
+        assertEquals(INTERVAL, bucket.tryConsume(now, INTERVAL, CAPACITY_NANOS));
+        // A rejected request takes nothing
+        assertEquals(INTERVAL / 2, bucket.tryConsume(now + INTERVAL / 2, INTERVAL, CAPACITY_NANOS));
+
+        assertEquals(0, bucket.tryConsume(now + INTERVAL, INTERVAL, CAPACITY_NANOS));
+        assertEquals(INTERVAL, bucket.tryConsume(now + INTERVAL, INTERVAL, CAPACITY_NANOS));
+    }
+
+    @Test
+    void idleBucketRefillsToCapacityAndNoFurther() {
+        long now = 0;
+        TokenBucket bucket = new TokenBucket(now);
+        assertEquals(0, bucket.tryConsume(now, INTERVAL, CAPACITY_NANOS));
+        assertFalse(bucket.isIdle(now));
+        assertTrue(bucket.isIdle(now + INTERVAL));
+
+        long later = now + 100 * INTERVAL;
+        for (int i = 0; i < CAPACITY; i++) {
+            assertEquals(0, bucket.tryConsume(later, INTERVAL, CAPACITY_NANOS), "request " + i);
+        }
+        assertTrue(bucket.tryConsume(later, INTERVAL, CAPACITY_NANOS) > 0);
+    }
+
+    @Test
+    void concurrentRequestsShareExactlyCapacityTokens() throws Exception {
+        int threads = 8;
+        long now = System.nanoTime();
+        TokenBucket bucket = new TokenBucket(now);
+        AtomicInteger accepted = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            for (int t = 0; t < threads; t++) {
+                executor.execute(() -> {
+                    try {
+                        start.await();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        return;
+                    }
+                    for (int i = 0; i < 1000; i++) {
+                        if (bucket.tryConsume(now, INTERVAL, CAPACITY_NANOS) == 0) {
+                            accepted.incrementAndGet();
+                        }
+                    }
+                });
+            }
+            start.countDown();
+        } finally {
+            executor.shutdown();
+            assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+        }
+        assertEquals(CAPACITY, accepted.get());
+    }
+}
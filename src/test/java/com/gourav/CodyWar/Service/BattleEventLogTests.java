@@ -0,0 +1,114 @@
+package com.gourav.CodyWar.Service;
+
+import com.gourav.CodyWar.Domain.Event.BattleEvent;
+import com.gourav.CodyWar.Domain.Event.BattleEventType;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Reopens the event log over the segment files a previous run left, as after a restart or crash,
+ * and deletes expired segments under it.
+ */
+class BattleEventLogTests {
+
+    @TempDir
+    Path directory;
+
+    private BattleEventLog eventLog;
+
+    @AfterEach
+    void close() throws Exception {
+        if (eventLog != null) {
+            eventLog.close();
+        }
+    }
+
+    @Test
+    void sequenceCarriesOnAfterCrashLeftAnEmptySegment() throws Exception {
+        UUID battleId = UUID.randomUUID();
+        eventLog = open();
+        for (int i = 0; i < 3; i++) {
+            assertEquals(i + 1, eventLog.append(event(battleId, BattleEventType.JOINED)).get());
+        }
+        eventLog.close();
+
+        // A crash right after rolling leaves a new, empty segment named after the next sequence
+        Files.createFile(directory.resolve(String.format("segment-%020d.log", 4)));
+
+        eventLog = open();
+        assertEquals(4, eventLog.append(event(battleId, BattleEventType.FINISHED)).get());
+        assertEquals(5, eventLog.append(event(battleId, BattleEventType.VERDICT)).get());
+        assertEquals(List.of(1L, 2L, 3L, 4L, 5L), sequences(eventLog.replay(battleId)));
+    }
+
+    @Test
+    void expiredSegmentsAreDeletedUnlessAnUnfinishedBattleNeedsThem() throws Exception {
+        UUID finished = UUID.randomUUID();
+        UUID unfinished = UUID.randomUUID();
+        eventLog = open();
+        eventLog.append(event(finished, BattleEventType.JOINED)).get();
+        eventLog.append(event(finished, BattleEventType.FINISHED)).get();
+        eventLog.append(event(unfinished, BattleEventType.JOINED)).get();
+        eventLog.append(event(UUID.randomUUID(), BattleEventType.JOINED)).get();
+        try (Stream<Path> files = Files.list(directory)) {
+            for (Path file : files.toList()) {
+                Files.setLastModifiedTime(file, FileTime.from(Instant.now().minus(2, ChronoUnit.DAYS)));
+            }
+        }
+
+        // The finished battle's two segments go; the unfinished one's and the active one stay
+        assertEquals(2, eventLog.deleteExpiredSegments());
+        assertEquals(2, segmentFiles());
+        assertEquals(List.of(), eventLog.replay(finished));
+        assertEquals(List.of(3L), sequences(eventLog.replay(unfinished)));
+
+        // Positions of later segments still resolve, before and after a restart renumbers them
+        assertEquals(5, eventLog.append(event(unfinished, BattleEventType.FINISHED)).get());
+        assertEquals(List.of(3L, 5L), sequences(eventLog.replay(unfinished)));
+        eventLog.close();
+        eventLog = open();
+        assertEquals(List.of(3L, 5L), sequences(eventLog.replay(unfinished)));
+        assertEquals(6, eventLog.append(event(unfinished, BattleEventType.VERDICT)).get());
+    }
+
+    private BattleEventLog open() throws IOException {
+        BattleEventLog opened = new BattleEventLog(new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(opened, "directory", directory);
+        // Every batch after the first rolls to a new segment
+        ReflectionTestUtils.setField(opened, "segmentBytes", 1L);
+        ReflectionTestUtils.setField(opened, "maxBatchSize", 16);
+        ReflectionTestUtils.setField(opened, "fsync", false);
+        ReflectionTestUtils.setField(opened, "retentionDays", 1);
+        opened.open();
+        return opened;
+    }
+
+    private long segmentFiles() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(file -> file.getFileName().toString().endsWith(".log")).count();
+        }
+    }
+
+    private static BattleEvent event(UUID battleId, BattleEventType type) {
+        return BattleEvent.builder().type(type).battleId(battleId).occurredAt(Instant.now()).build();
+    }
+
+    private static List<Long> sequences(List<BattleEvent> events) {
+        return events.stream().map(BattleEvent::getSequence).toList();
+    }
+}
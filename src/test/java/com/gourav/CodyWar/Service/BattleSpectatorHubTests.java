@@ -0,0 +1,159 @@
+package com.gourav.CodyWar.Service;
+
+import com.gourav.CodyWar.Domain.Entity.Battle;
+import com.gourav.CodyWar.Domain.Event.BattleEvent;
+import com.gourav.CodyWar.Domain.Event.BattleEventType;
+import com.gourav.CodyWar.Repository.BattleParticipantRepository;
+import com.gourav.CodyWar.Repository.BattleRepository;
+import com.gourav.CodyWar.Repository.UserRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * A viewer that stops reading must not hold up the other rooms sharing the sender threads.
+ */
+class BattleSpectatorHubTests {
+
+    private static final long WRITE_TIMEOUT_MS = 200;
+
+    private final CountDownLatch unblock = new CountDownLatch(1);
+    private final UUID player = UUID.randomUUID();
+    private BattleSpectatorHub hub;
+
+    @AfterEach
+    void close() {
+        unblock.countDown();
+        if (hub != null) {
+            hub.shutdown();
+        }
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void slowViewerIsDroppedWithoutStallingOtherRooms() throws Exception {
+        UUID slowBattle = UUID.randomUUID();
+        UUID fastBattle = UUID.randomUUID();
+        LiveBattleRegistry liveBattleRegistry = new LiveBattleRegistry(mock(BattleEventLog.class), new SimpleMeterRegistry());
+        liveBattleRegistry.adopt(slowBattle, List.of(event(BattleEventType.CREATED, slowBattle), event(BattleEventType.JOINED, slowBattle)));
+        liveBattleRegistry.adopt(fastBattle, List.of(event(BattleEventType.CREATED, fastBattle), event(BattleEventType.JOINED, fastBattle)));
+        BattleRepository battleRepository = mock(BattleRepository.class);
+        when(battleRepository.findById(any())).thenReturn(Optional.of(Battle.builder().isPrivate(false).build()));
+        BattleEventLog battleEventLog = mock(BattleEventLog.class);
+
+        SlowEmitter slow = new SlowEmitter();
+        RecordingEmitter fast = new RecordingEmitter();
+        SseEmitter[] next = {slow};
+        // One sender thread, so without the write timeout the fast room would wait behind the slow one
+        hub = new BattleSpectatorHub(liveBattleRegistry, battleEventLog, battleRepository,
+                mock(BattleParticipantRepository.class), mock(UserRepository.class),
+                Jackson2ObjectMapperBuilder.json().build(), new SimpleMeterRegistry(), 60000, 100, 1, WRITE_TIMEOUT_MS) {
+            @Override
+            SseEmitter createEmitter() {
+                return next[0];
+            }
+        };
+        hub.start();
+        ArgumentCaptor<Consumer<BattleEvent>> subscriber = ArgumentCaptor.forClass(Consumer.class);
+        verify(battleEventLog).subscribe(subscriber.capture());
+        Consumer<BattleEvent> events = subscriber.getValue();
+
+        hub.subscribe(slowBattle, UUID.randomUUID());
+        assertTrue(slow.snapshotSent.await(5, TimeUnit.SECONDS), "snapshot on subscribing");
+        next[0] = fast;
+        hub.subscribe(fastBattle, UUID.randomUUID());
+        assertNotNull(fast.sent.poll(5, TimeUnit.SECONDS), "snapshot on subscribing");
+
+        events.accept(event(BattleEventType.READY, slowBattle));
+        assertTrue(slow.blocked.await(5, TimeUnit.SECONDS), "slow viewer's write blocks");
+        events.accept(event(BattleEventType.READY, fastBattle));
+        assertNull(fast.sent.poll(WRITE_TIMEOUT_MS / 2, TimeUnit.MILLISECONDS), "queued behind the slow viewer");
+
+        Thread.sleep(WRITE_TIMEOUT_MS);
+        hub.dropSlowViewers();
+        assertNotNull(fast.sent.poll(5, TimeUnit.SECONDS), "delta once the slow viewer is dropped");
+
+        // Dropped: later deltas are not written to it, and it is closed once its write returns
+        events.accept(event(BattleEventType.SUBMITTED, slowBattle));
+        unblock.countDown();
+        assertTrue(slow.completed.await(5, TimeUnit.SECONDS), "slow viewer closed");
+        Thread.sleep(100);
+        assertEquals(2, slow.sends.get());
+    }
+
+    private BattleEvent event(BattleEventType type, UUID battleId) {
+        return BattleEvent.builder()
+                .type(type)
+                .battleId(battleId)
+                .userId(player)
+                .occurredAt(Instant.now())
+                .build();
+    }
+
+    private static class RecordingEmitter extends SseEmitter {
+
+        final BlockingQueue<Set<DataWithMediaType>> sent = new LinkedBlockingQueue<>();
+
+        @Override
+        public void send(Set<DataWithMediaType> items) throws IOException {
+            sent.add(items);
+        }
+    }
+
+    /**
+     * Takes the snapshot, then blocks on every further write until the test ends, like a viewer
+     * that stopped reading with its socket buffers full
+     */
+    private class SlowEmitter extends SseEmitter {
+
+        final AtomicInteger sends = new AtomicInteger();
+        final CountDownLatch snapshotSent = new CountDownLatch(1);
+        final CountDownLatch blocked = new CountDownLatch(1);
+        final CountDownLatch completed = new CountDownLatch(1);
+
+        @Override
+        public void send(Set<DataWithMediaType> items) throws IOException {
+            if (sends.incrementAndGet() == 1) {
+                snapshotSent.countDown();
+                return;
+            }
+            blocked.countDown();
+            try {
+                unblock.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IOException(e);
+            }
+        }
+
+        @Override
+        public void complete() {
+            completed.countDown();
+        }
+    }
+}
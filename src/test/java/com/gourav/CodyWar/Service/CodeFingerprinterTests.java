@@ -0,0 +1,88 @@
+package com.gourav.CodyWar.Service;
+
+import com.gourav.CodyWar.Domain.Entity.Language;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Fingerprints survive renaming, comments and layout, and a long enough shared run of tokens
+ * always shows up as a shared fingerprint.
+ */
+class CodeFingerprinterTests {
+
+    private static final String SOLUTION = """
+            n = int(input())
+            nums = list(map(int, input().split()))
+            best = nums[0]
+            current = 0
+            for x in nums:
+                current = max(x, current + x)
+                if current > best:
+                    best = current
+            print(best)
+            """;
+
+    private static final String RENAMED = """
+            # Kadane's algorithm
+            size = int(input())
+            values = list(map(int, input().split()))
+            answer = values[0]   # at least one element
+            running = 0
+            for v in values:
+                running = max(v, running + v)
+                if running > answer: answer = running
+            print(answer)
+            """;
+
+    private final CodeFingerprinter fingerprinter = new CodeFingerprinter(5, 4);
+
+    @Test
+    void renamingCommentsAndLayoutChangeNothing() {
+        int[] fingerprints = fingerprinter.fingerprint(Language.PYTHON, SOLUTION);
+        assertTrue(fingerprints.length > 5, "fingerprints " + fingerprints.length);
+        assertArrayEquals(fingerprints, fingerprinter.fingerprint(Language.PYTHON, RENAMED));
+        // Sorted and distinct
+        assertArrayEquals(IntStream.of(fingerprints).distinct().sorted().toArray(), fingerprints);
+    }
+
+    @Test
+    void differentProgramSharesLittle() {
+        String other = """
+                s = input()
+                seen = set()
+                while s:
+                    if s in seen:
+                        break
+                    seen.add(s)
+                    s = s[1:]
+                print(len(seen))
+                """;
+        int[] fingerprints = fingerprinter.fingerprint(Language.PYTHON, SOLUTION);
+        int[] others = fingerprinter.fingerprint(Language.PYTHON, other);
+        long shared = Arrays.stream(others).filter(f -> Arrays.binarySearch(fingerprints, f) >= 0).count();
+        assertTrue(shared * 4 < others.length, "shared " + shared + " of " + others.length);
+    }
+
+    @Test
+    void sharedRunOfWindowPlusKTokensIsAlwaysFound() {
+        // Eight tokens, k + window - 1, copied into unrelated code on either side
+        String run = "best = max ( best , x )";
+        int[] copied = fingerprinter.fingerprint(Language.C, run);
+        int[] embedded = fingerprinter.fingerprint(Language.C, "while (n--) { scanf(\"%d\", &x); " + run + "; } return 0;");
+        assertTrue(Arrays.stream(copied).anyMatch(f -> Arrays.binarySearch(embedded, f) >= 0));
+    }
+
+    @Test
+    void codeShorterThanKTokensHasNoFingerprints() {
+        assertEquals(0, fingerprinter.fingerprint(Language.JAVA, "return x;").length);
+        assertEquals(0, fingerprinter.fingerprint(Language.JAVA, "// only a comment\n/* and another */").length);
+        assertThrows(IllegalArgumentException.class, () -> new CodeFingerprinter(0, 4));
+    }
+}
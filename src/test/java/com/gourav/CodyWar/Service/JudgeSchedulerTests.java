@@ -0,0 +1,149 @@
+package com.gourav.CodyWar.Service;
+
+import com.gourav.CodyWar.Configuration.JudgeProperties;
+import com.gourav.CodyWar.Domain.Entity.Language;
+import com.gourav.CodyWar.Repository.BattleRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Order in which queued submissions are taken. Each test first occupies the workers with a held
+ * task, queues the submissions behind it, then lets them run and records the order.
+ */
+class JudgeSchedulerTests {
+
+    private final UUID alice = UUID.randomUUID();
+    private final UUID bob = UUID.randomUUID();
+    private final List<String> ran = Collections.synchronizedList(new ArrayList<>());
+    private final CountDownLatch release = new CountDownLatch(1);
+    private final CountDownLatch holding = new CountDownLatch(1);
+    private JudgeScheduler scheduler;
+
+    @AfterEach
+    void close() throws InterruptedException {
+        release.countDown();
+        if (scheduler != null) {
+            scheduler.shutdown();
+            scheduler.awaitTermination(5, TimeUnit.SECONDS);
+        }
+    }
+
+    @Test
+    void floodingUserOnlyDelaysTheirOwnSubmissions() throws Exception {
+        scheduler = scheduler(1, new JudgeProperties());
+        hold(Language.PYTHON);
+        for (int i = 1; i <= 4; i++) {
+            submit(alice, Language.PYTHON, JudgeScheduler.Lane.PRACTICE, "alice-" + i);
+        }
+        submit(bob, Language.PYTHON, JudgeScheduler.Lane.PRACTICE, "bob-1");
+
+        assertEquals(List.of("alice-1", "bob-1", "alice-2", "alice-3", "alice-4"), runAll(5));
+    }
+
+    @Test
+    void battleSubmissionsGoFirstUntilPracticeHasWaitedTooLong() throws Exception {
+        JudgeProperties properties = new JudgeProperties();
+        properties.setAgingMs(200);
+        scheduler = scheduler(1, properties);
+        hold(Language.PYTHON);
+        submit(alice, Language.PYTHON, JudgeScheduler.Lane.PRACTICE, "practice-1");
+        submit(bob, Language.PYTHON, JudgeScheduler.Lane.BATTLE, "battle-1");
+        Thread.sleep(300);
+        // Queued after practice-1 aged, so still behind the battle lane
+        submit(alice, Language.PYTHON, JudgeScheduler.Lane.PRACTICE, "practice-2");
+        submit(bob, Language.PYTHON, JudgeScheduler.Lane.BATTLE, "battle-2");
+
+        assertEquals(List.of("practice-1", "battle-1", "battle-2", "practice-2"), runAll(4));
+    }
+
+    @Test
+    void cappedLanguageWaitsWhileOthersRun() throws Exception {
+        JudgeProperties properties = new JudgeProperties();
+        JudgeProperties.Toolchain java = new JudgeProperties.Toolchain();
+        java.setMaxConcurrent(1);
+        properties.getLanguages().put(Language.JAVA, java);
+        scheduler = scheduler(2, properties);
+        hold(Language.JAVA);
+        submit(alice, Language.JAVA, JudgeScheduler.Lane.BATTLE, "java");
+        submit(bob, Language.PYTHON, JudgeScheduler.Lane.PRACTICE, "python");
+
+        // The free worker skips the queued Java submission for the Python one
+        assertTrue(awaitRan(1), "python judged");
+        assertEquals(List.of("python"), List.copyOf(ran));
+        assertEquals(1, scheduler.size());
+
+        release.countDown();
+        assertTrue(awaitRan(2), "java judged");
+        assertEquals(List.of("python", "java"), List.copyOf(ran));
+    }
+
+    @Test
+    void drainDropsQueuedSubmissionsAndRefusesNewOnes() throws Exception {
+        scheduler = scheduler(1, new JudgeProperties());
+        hold(Language.PYTHON);
+        submit(alice, Language.PYTHON, JudgeScheduler.Lane.PRACTICE, "queued-1");
+        submit(bob, Language.PYTHON, JudgeScheduler.Lane.BATTLE, "queued-2");
+
+        assertEquals(2, scheduler.drain());
+        assertThrows(RejectedExecutionException.class,
+                () -> submit(alice, Language.PYTHON, JudgeScheduler.Lane.PRACTICE, "late"));
+        // The running submission still finishes
+        assertEquals(1, scheduler.running());
+        release.countDown();
+        assertTrue(scheduler.awaitTermination(5, TimeUnit.SECONDS));
+        assertEquals(List.of(), List.copyOf(ran));
+    }
+
+    private JudgeScheduler scheduler(int workers, JudgeProperties properties) {
+        properties.setWorkers(workers);
+        return new JudgeScheduler(properties, new JudgeMetrics(new SimpleMeterRegistry(), mock(BattleRepository.class)));
+    }
+
+    // Occupies a worker until the test releases it
+    private void hold(Language language) throws InterruptedException {
+        scheduler.submit(UUID.randomUUID(), language, JudgeScheduler.Lane.BATTLE, () -> {
+            holding.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        assertTrue(holding.await(5, TimeUnit.SECONDS), "worker held");
+    }
+
+    private void submit(UUID userId, Language language, JudgeScheduler.Lane lane, String name) {
+        scheduler.submit(userId, language, lane, () -> ran.add(name));
+    }
+
+    private List<String> runAll(int count) throws InterruptedException {
+        release.countDown();
+        assertTrue(awaitRan(count), "ran " + ran);
+        return List.copyOf(ran);
+    }
+
+    private boolean awaitRan(int count) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (ran.size() < count) {
+            if (System.nanoTime() > deadline) {
+                return false;
+            }
+            Thread.sleep(5);
+        }
+        return true;
+    }
+}
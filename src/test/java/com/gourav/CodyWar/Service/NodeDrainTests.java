@@ -0,0 +1,269 @@
+package com.gourav.CodyWar.Service;
+
+import com.gourav.CodyWar.CodyWarApplication;
+import com.gourav.CodyWar.TestDatabase;
+import com.gourav.CodyWar.Domain.Dto.BattleRequestDto;
+import com.gourav.CodyWar.Domain.Dto.DrainReportDto;
+import com.gourav.CodyWar.Domain.Dto.SubmissionRequestDto;
+import com.gourav.CodyWar.Domain.Entity.BattleStatus;
+import com.gourav.CodyWar.Domain.Entity.Difficulty;
+import com.gourav.CodyWar.Domain.Entity.Language;
+import com.gourav.CodyWar.Domain.Entity.Problem;
+import com.gourav.CodyWar.Domain.Entity.Submission;
+import com.gourav.CodyWar.Domain.Entity.SubmissionStatus;
+import com.gourav.CodyWar.Domain.Entity.TestCase;
+import com.gourav.CodyWar.Domain.Entity.User;
+import com.gourav.CodyWar.Domain.Event.BattleEventType;
+import com.gourav.CodyWar.Repository.ProblemRepository;
+import com.gourav.CodyWar.Repository.SubmissionRepository;
+import com.gourav.CodyWar.Repository.TestCaseRepository;
+import com.gourav.CodyWar.Repository.UserRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Primary;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.sql.SQLException;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Drains a node in the middle of a battle, with submissions both running and queued, then starts
+ * it again on the same database and event log, and checks the battle and every submission carry
+ * on from where they were. The drain and the time until every submission has its verdict again
+ * are measured and logged. Each test gets its own in-memory database, dropped afterwards.
+ */
+@Slf4j
+class NodeDrainTests {
+
+    private static final String MARKER = "# drain test ";
+    private static final int WORKERS = 2;
+    private static final int SUBMISSIONS = 6;
+    private static final long JUDGE_DRAIN_TIMEOUT_MS = 500;
+
+    @TempDir
+    Path eventLogDir;
+
+    private TestDatabase database;
+    private ConfigurableApplicationContext context;
+
+    @BeforeEach
+    void createDatabase() {
+        database = TestDatabase.create();
+    }
+
+    @AfterEach
+    void close() throws SQLException {
+        if (context != null) {
+            context.close();
+        }
+        database.close();
+        HeldCodeRunner.hold = true;
+        HeldCodeRunner.runs.clear();
+    }
+
+    @Test
+    void drainedNodeResumesBattleAndSubmissionsAfterRestart() {
+        context = start();
+        UUID problemId = createProblem();
+        UUID playerOne = createUser("drain1");
+        UUID playerTwo = createUser("drain2");
+
+        BattleService battleService = context.getBean(BattleService.class);
+        UUID battleId = battleService.startBattles(problemId, 600, List.of(List.of(playerOne, playerTwo))).get(0);
+
+        SubmissionService submissionService = context.getBean(SubmissionService.class);
+        List<UUID> submissionIds = new ArrayList<>();
+        for (int i = 0; i < SUBMISSIONS; i++) {
+            submissionIds.add(submissionService.createSubmission(SubmissionRequestDto.builder()
+                    .battleId(battleId)
+                    .language(Language.PYTHON)
+                    .code(MARKER + i)
+                    .build(), i % 2 == 0 ? playerOne : playerTwo).getId());
+        }
+        awaitTrue(() -> HeldCodeRunner.held.get() == WORKERS, "judge workers busy");
+        Instant deadline = context.getBean(LiveBattleRegistry.class).get(battleId).orElseThrow().getDeadline();
+
+        DrainReportDto report = context.getBean(NodeDrainer.class).drain();
+        log.info("Drained in {} ms: {}", report.getDurationMs(), report);
+
+        assertEquals(SUBMISSIONS - WORKERS, report.getQueuedSubmissions());
+        assertEquals(WORKERS, report.getRequeuedJudgments());
+        assertEquals(0, report.getFinishedJudgments());
+        assertTrue(report.getEventLogFlushed());
+        assertTrue(report.getDurationMs() < JUDGE_DRAIN_TIMEOUT_MS + 5000, "drain took " + report.getDurationMs() + " ms");
+        // Interrupted judgments are released; queued ones stay with the node they were submitted to
+        for (Submission submission : submissions(submissionIds)) {
+            assertEquals(SubmissionStatus.PENDING, submission.getStatus());
+        }
+        assertEquals(WORKERS, submissions(submissionIds).stream().filter(submission -> submission.getJudgeNode() == null).count());
+        assertThrows(RejectedExecutionException.class, () -> submissionService.createSubmission(SubmissionRequestDto.builder()
+                .battleId(battleId).language(Language.PYTHON).code(MARKER + "late").build(), playerOne));
+        assertThrows(RejectedExecutionException.class, () -> battleService.createBattle(
+                BattleRequestDto.builder().problemId(problemId).build(), playerOne));
+
+        context.close();
+        HeldCodeRunner.hold = false;
+        long restart = System.nanoTime();
+        context = start();
+
+        LiveBattleRegistry.LiveBattle battle = context.getBean(LiveBattleRegistry.class).get(battleId).orElseThrow();
+        assertEquals(BattleStatus.IN_PROGRESS, battle.getStatus());
+        // The event log keeps milliseconds
+        assertEquals(deadline.truncatedTo(ChronoUnit.MILLIS), battle.getDeadline());
+
+        awaitTrue(() -> submissions(submissionIds).stream().allMatch(submission -> submission.getStatus().isFinal()),
+                "verdicts after the restart");
+        log.info("All {} submissions judged {} ms after the restart began", SUBMISSIONS,
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - restart));
+
+        for (Submission submission : submissions(submissionIds)) {
+            assertEquals(SubmissionStatus.WRONG_ANSWER, submission.getStatus());
+        }
+        for (int i = 0; i < SUBMISSIONS; i++) {
+            assertEquals(1, HeldCodeRunner.runs.get(MARKER + i).get(), "runs of submission " + i);
+        }
+        // Logged before the drain, so only on disk if the flush worked
+        assertEquals(SUBMISSIONS, context.getBean(BattleService.class).getLocalTimeline(battleId).stream()
+                .filter(event -> BattleEventType.SUBMITTED.name().equals(event.getType()))
+                .count());
+    }
+
+    private ConfigurableApplicationContext start() {
+        // Arguments rather than default properties, which application.properties would override
+        return new SpringApplicationBuilder(CodyWarApplication.class, HeldCodeRunnerConfig.class).run(database.args(
+                "--server.port=0",
+                "--management.server.port=0",
+                "--battle.event-log.dir=" + eventLogDir,
+                "--judge.workers=" + WORKERS,
+                "--judge.verdict-cache.enabled=false",
+                "--judge.drain-timeout-ms=" + JUDGE_DRAIN_TIMEOUT_MS));
+    }
+
+    private UUID createProblem() {
+        ProblemRepository problemRepository = context.getBean(ProblemRepository.class);
+        TestCaseRepository testCaseRepository = context.getBean(TestCaseRepository.class);
+        return context.getBean(TransactionTemplate.class).execute(status -> {
+            Problem problem = problemRepository.save(Problem.builder()
+                    .title("Drain test")
+                    .description("Print pong")
+                    .difficulty(Difficulty.EASY)
+                    .build());
+            testCaseRepository.save(TestCase.builder().problem(problem).input("ping").expectedOutput("pong").build());
+            return problem.getId();
+        });
+    }
+
+    private UUID createUser(String username) {
+        return context.getBean(UserRepository.class).save(User.builder()
+                .username(username)
+                .email(username + "@drain.test")
+                .passwordHash("unused")
+                .build()).getId();
+    }
+
+    private List<Submission> submissions(List<UUID> ids) {
+        return context.getBean(SubmissionRepository.class).findAllById(ids);
+    }
+
+    private static void awaitTrue(BooleanSupplier condition, String what) {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(60);
+        while (!condition.getAsBoolean()) {
+            assertTrue(System.nanoTime() < deadline, "timed out waiting for " + what);
+            try {
+                Thread.sleep(20);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException(e);
+            }
+        }
+    }
+
+    // Not annotated, so component scanning never picks it up for other tests
+    static class HeldCodeRunnerConfig {
+
+        @Bean
+        @Primary
+        CodeRunner heldCodeRunner() {
+            return new HeldCodeRunner();
+        }
+    }
+
+    /**
+     * Echoes the input, blocking until interrupted while held
+     */
+    static class HeldCodeRunner implements CodeRunner {
+
+        static volatile boolean hold = true;
+        static final AtomicInteger held = new AtomicInteger();
+        static final Map<String, AtomicInteger> runs = new ConcurrentHashMap<>();
+
+        @Override
+        public boolean supports(Language language) {
+            return true;
+        }
+
+        @Override
+        public Program prepare(Language language, String code) {
+            return new EchoProgram(code);
+        }
+
+        @Override
+        public RunResult run(Program program, String input, long timeLimitMs, int memoryLimitMb) throws IOException {
+            EchoProgram echo = (EchoProgram) program;
+            if (hold) {
+                held.incrementAndGet();
+                try {
+                    new CountDownLatch(1).await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new IOException("Interrupted while running", e);
+                } finally {
+                    held.decrementAndGet();
+                }
+            }
+            runs.computeIfAbsent(echo.code, code -> new AtomicInteger()).incrementAndGet();
+            return RunResult.builder().exitCode(0).stdout(input).stderr("").elapsedMs(1).build();
+        }
+    }
+
+    private static final class EchoProgram implements CodeRunner.Program {
+
+        private final String code;
+
+        private EchoProgram(String code) {
+            this.code = code;
+        }
+
+        @Override
+        public String getCompileError() {
+            return null;
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package com.gourav.CodyWar.Service;
+
+import com.gourav.CodyWar.Domain.Entity.Language;
+import org.junit.jupiter.api.Test;
+
+import java.util.UUID;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Lookups over hand-made fingerprint sets: who counts as a match, boilerplate left out, and
+ * removal of a deleted problem's shards.
+ */
+class PlagiarismIndexTests {
+
+    private static final double MIN_SIMILARITY = 0.6;
+    private static final int MIN_FINGERPRINTS = 4;
+
+    private final UUID problemId = UUID.randomUUID();
+    private final UUID alice = UUID.randomUUID();
+    private final UUID bob = UUID.randomUUID();
+
+    @Test
+    void copyByAnotherUserOfTheSameProblemAndLanguageMatches() {
+        PlagiarismIndex index = new PlagiarismIndex(0.2, 50);
+        UUID original = UUID.randomUUID();
+        index.add(problemId, Language.PYTHON, original, alice, range(0, 20));
+        index.add(problemId, Language.PYTHON, UUID.randomUUID(), alice, range(100, 120));
+
+        // 15 of 20 shared
+        PlagiarismIndex.Match match = find(index, problemId, Language.PYTHON, bob, range(5, 25));
+        assertEquals(original, match.getSubmissionId());
+        assertEquals(alice, match.getUserId());
+        assertEquals(0.75, match.getSimilarity(), 1e-9);
+
+        assertNull(find(index, problemId, Language.PYTHON, alice, range(5, 25)), "own submission");
+        assertNull(find(index, problemId, Language.JAVA, bob, range(5, 25)), "other language");
+        assertNull(find(index, UUID.randomUUID(), Language.PYTHON, bob, range(5, 25)), "other problem");
+        assertNull(find(index, problemId, Language.PYTHON, bob, range(10, 30)), "half shared");
+        assertNull(find(index, problemId, Language.PYTHON, bob, range(0, 3)), "too short to tell");
+    }
+
+    @Test
+    void boilerplateEverySubmissionHasIsLeftOut() {
+        PlagiarismIndex index = new PlagiarismIndex(0.2, 2);
+        // Ten submissions sharing the input parsing, each with code of its own
+        for (int i = 0; i < 10; i++) {
+            index.add(problemId, Language.PYTHON, UUID.randomUUID(), alice, concat(range(0, 10), range(1000 * (i + 1), 1000 * (i + 1) + 5)));
+        }
+
+        // Would be 10 of 15 shared with every one of them if the boilerplate counted
+        assertNull(find(index, problemId, Language.PYTHON, bob, concat(range(0, 10), range(50, 55))));
+        assertNotNull(find(index, problemId, Language.PYTHON, bob, concat(range(0, 10), range(1000, 1005))));
+    }
+
+    @Test
+    void submissionIsIndexedOnceAndGoesWithItsProblem() {
+        PlagiarismIndex index = new PlagiarismIndex(0.2, 50);
+        UUID submissionId = UUID.randomUUID();
+        UUID otherProblem = UUID.randomUUID();
+        assertTrue(index.add(problemId, Language.PYTHON, submissionId, alice, range(0, 20)));
+        assertFalse(index.add(problemId, Language.PYTHON, submissionId, alice, range(0, 20)));
+        index.add(problemId, Language.CPP, UUID.randomUUID(), alice, range(0, 20));
+        index.add(otherProblem, Language.PYTHON, UUID.randomUUID(), alice, range(0, 20));
+        assertEquals(3, index.size());
+
+        index.removeProblem(problemId);
+        assertEquals(1, index.size());
+        assertNull(find(index, problemId, Language.PYTHON, bob, range(0, 20)));
+        assertNotNull(find(index, otherProblem, Language.PYTHON, bob, range(0, 20)));
+        // Refreshing from the database after a removal indexes it again
+        assertTrue(index.add(problemId, Language.PYTHON, submissionId, alice, range(0, 20)));
+    }
+
+    private static PlagiarismIndex.Match find(PlagiarismIndex index, UUID problemId, Language language, UUID userId,
+                                              int[] fingerprints) {
+        return index.findMostSimilar(problemId, language, userId, fingerprints, MIN_SIMILARITY, MIN_FINGERPRINTS);
+    }
+
+    // Fingerprints are well mixed hashes; spread these out the same way
+    private static int[] range(int from, int to) {
+        return IntStream.range(from, to).map(i -> i * 0x9E3779B1).toArray();
+    }
+
+    private static int[] concat(int[] first, int[] second) {
+        return IntStream.concat(IntStream.of(first), IntStream.of(second)).toArray();
+    }
+}
@@ -0,0 +1,108 @@
+package com.gourav.CodyWar.Service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.gourav.CodyWar.Domain.Dto.ProblemImportItemDto;
+import com.gourav.CodyWar.Domain.Dto.ProblemImportResultDto;
+import com.gourav.CodyWar.Domain.Dto.ProblemResponseDto;
+import com.gourav.CodyWar.Repository.ProblemRepository;
+import com.gourav.CodyWar.Repository.TestCaseRepository;
+import jakarta.validation.Validator;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Test files that wait for their counterpart are held in memory, so an archive listing every
+ * input before every output has to fail rather than buffer all of them.
+ */
+class ProblemImportServiceTests {
+
+    private static final int TESTS = 8;
+    private static final String CONTENT = "x".repeat(100);
+
+    private final ProblemService problemService = mock(ProblemService.class);
+    private final UUID problemId = UUID.randomUUID();
+    private ProblemImportService importService;
+
+    @BeforeEach
+    void create() {
+        when(problemService.createProblem(any())).thenReturn(ProblemResponseDto.builder().id(problemId).title("Echo").build());
+        importService = new ProblemImportService(problemService, mock(ProblemRepository.class),
+                mock(TestCaseRepository.class), mock(TransactionTemplate.class), new ObjectMapper(), mock(Validator.class));
+        ReflectionTestUtils.setField(importService, "batchSize", 200);
+        ReflectionTestUtils.setField(importService, "batchMaxBytes", 8388608L);
+        ReflectionTestUtils.setField(importService, "maxFileBytes", 16777216L);
+        // Room for a few halves, not all of them
+        ReflectionTestUtils.setField(importService, "maxPendingBytes", 3L * CONTENT.length());
+    }
+
+    @Test
+    void pairedEntriesImportWhateverTheirCount() throws IOException {
+        List<String> names = new ArrayList<>();
+        for (int i = 0; i < TESTS; i++) {
+            names.add("echo/tests/" + i + ".in");
+            names.add("echo/tests/" + i + ".out");
+        }
+
+        ProblemImportItemDto item = single(importService.importArchive(archive(names)));
+        assertNull(item.getError());
+        assertTrue(item.isImported());
+        assertEquals(TESTS, item.getTestCasesImported());
+        verify(problemService, never()).deleteProblem(any());
+    }
+
+    @Test
+    void allInputsBeforeAllOutputsFailsWithAnOrderingError() throws IOException {
+        List<String> names = new ArrayList<>();
+        for (int i = 0; i < TESTS; i++) {
+            names.add("echo/tests/" + i + ".in");
+        }
+        for (int i = 0; i < TESTS; i++) {
+            names.add("echo/tests/" + i + ".out");
+        }
+
+        ProblemImportItemDto item = single(importService.importArchive(archive(names)));
+        assertFalse(item.isImported());
+        assertTrue(item.getError().contains("list each .in next to its .out"), item.getError());
+        verify(problemService).deleteProblem(problemId);
+    }
+
+    private static ProblemImportItemDto single(ProblemImportResultDto result) {
+        assertEquals(1, result.getItems().size());
+        return result.getItems().get(0);
+    }
+
+    private static ByteArrayInputStream archive(List<String> testFiles) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ZipOutputStream zip = new ZipOutputStream(bytes)) {
+            zip.putNextEntry(new ZipEntry("echo/problem.json"));
+            zip.write("{\"title\":\"Echo\"}".getBytes(StandardCharsets.UTF_8));
+            for (String name : testFiles) {
+                zip.putNextEntry(new ZipEntry(name));
+                zip.write(CONTENT.getBytes(StandardCharsets.UTF_8));
+            }
+        }
+        return new ByteArrayInputStream(bytes.toByteArray());
+    }
+}
@@ -0,0 +1,107 @@
+package com.gourav.CodyWar.Service;
+
+import com.gourav.CodyWar.Domain.Dto.ProblemSearchResponseDto;
+import com.gourav.CodyWar.Domain.Dto.ProblemSearchResultDto;
+import com.gourav.CodyWar.Domain.Entity.Difficulty;
+import com.gourav.CodyWar.Domain.Entity.Problem;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Ranking, filtering and paging over a handful of problems, and an index kept current through
+ * enough edits and removals to compact it.
+ */
+class ProblemSearchIndexTests {
+
+    private final ProblemSearchIndex index = new ProblemSearchIndex(null);
+
+    @Test
+    void titleMatchOutranksBodyMatch() {
+        Problem inTitle = problem("Longest palindrome", "Find the longest substring that reads the same both ways.", Difficulty.MEDIUM);
+        Problem inBody = problem("Mirror strings", "Check whether the string is a palindrome after one deletion.", Difficulty.EASY);
+        Problem neither = problem("Two sum", "Return indices of the two numbers adding up to the target.", Difficulty.EASY);
+        index.index(inBody);
+        index.index(inTitle);
+        index.index(neither);
+
+        ProblemSearchResponseDto response = index.search("palindrome", null, 0, 10);
+        assertEquals(2, response.getTotalResults());
+        assertEquals(List.of(inTitle.getId(), inBody.getId()), ids(response));
+        assertEquals("Check whether the string is a <mark>palindrome</mark> after one deletion.",
+                response.getResults().get(1).getSnippet());
+
+        assertEquals(List.of(inBody.getId()), ids(index.search("Palindrome", Difficulty.EASY, 0, 10)));
+        assertEquals(0, index.search("the of a", null, 0, 10).getTotalResults());
+    }
+
+    @Test
+    void pagesAreDisjointAndCoverEveryMatch() {
+        for (int i = 0; i < 25; i++) {
+            index.index(problem("Graph problem " + i, "Traverse the graph " + "edge ".repeat(i % 5), Difficulty.HARD));
+        }
+
+        Set<UUID> seen = new HashSet<>();
+        for (int page = 0; page < 3; page++) {
+            ProblemSearchResponseDto response = index.search("graph edge", null, page, 10);
+            assertEquals(25, response.getTotalResults());
+            assertEquals(page < 2 ? 10 : 5, response.getResults().size());
+            response.getResults().forEach(result -> assertTrue(seen.add(result.getId()), "on two pages: " + result.getId()));
+        }
+        assertEquals(25, seen.size());
+    }
+
+    @Test
+    void editsAndRemovalsStayConsistentThroughCompaction() {
+        Problem kept = problem("Coin change", "Fewest coins making up the amount.", Difficulty.MEDIUM);
+        Problem edited = problem("Knapsack", "Maximise value under a weight capacity.", Difficulty.HARD);
+        index.index(kept);
+        List<Problem> removed = new ArrayList<>();
+        // Enough dead slots to trigger a compaction more than once
+        for (int i = 0; i < 1500; i++) {
+            edited.setDescription("Maximise value under a weight capacity, revision " + i + ".");
+            index.index(edited);
+            Problem temporary = problem("Coin toss " + i, "Simulate coins.", Difficulty.EASY);
+            index.index(temporary);
+            removed.add(temporary);
+        }
+        removed.forEach(problem -> index.remove(problem.getId()));
+        edited.setTitle("Bounded knapsack");
+        edited.setDescription("Pack items under a weight limit.");
+        index.index(edited);
+
+        assertEquals(2, index.size());
+        assertEquals(List.of(kept.getId()), ids(index.search("coins", null, 0, 10)));
+        assertEquals(List.of(edited.getId()), ids(index.search("knapsack weight", null, 0, 10)));
+        assertEquals(0, index.search("capacity", null, 0, 10).getTotalResults());
+        assertEquals(0, index.search("revision", null, 0, 10).getTotalResults());
+    }
+
+    @Test
+    void tokensDropStopWordsAndSingleCharacters() {
+        assertEquals(List.of("sum", "subarray", "k2"), ProblemSearchIndex.tokenize("The sum of a subarray, k2!"));
+        assertNull(ProblemSearchIndex.highlight("No match here", Set.of("graph")));
+        assertEquals("a &lt; <mark>b</mark>", ProblemSearchIndex.highlight("a < b", Set.of("b")));
+    }
+
+    private static Problem problem(String title, String description, Difficulty difficulty) {
+        return Problem.builder()
+                .id(UUID.randomUUID())
+                .title(title)
+                .description(description)
+                .difficulty(difficulty)
+                .build();
+    }
+
+    private static List<UUID> ids(ProblemSearchResponseDto response) {
+        return response.getResults().stream().map(ProblemSearchResultDto::getId).toList();
+    }
+}
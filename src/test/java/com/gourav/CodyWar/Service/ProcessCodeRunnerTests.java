@@ -0,0 +1,84 @@
+package com.gourav.CodyWar.Service;
+
+import com.gourav.CodyWar.Configuration.JudgeProperties;
+import com.gourav.CodyWar.Domain.Entity.Language;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ProcessCodeRunnerTests {
+
+    @TempDir
+    Path workDir;
+
+    @Test
+    void refusesEveryLanguageUnlessSandboxed() {
+        JudgeProperties properties = properties("cat main.py");
+        properties.setSandboxed(false);
+        ProcessCodeRunner runner = new ProcessCodeRunner(properties);
+
+        assertFalse(runner.supports(Language.PYTHON));
+        assertThrows(IllegalArgumentException.class, () -> runner.prepare(Language.PYTHON, "print(1)"));
+    }
+
+    @Test
+    void programSeesOnlyAllowlistedEnvironment() throws Exception {
+        ProcessCodeRunner runner = new ProcessCodeRunner(properties("env"));
+
+        try (CodeRunner.Program program = runner.prepare(Language.PYTHON, "")) {
+            CodeRunner.RunResult result = runner.run(program, "", 5000, 256);
+
+            Set<String> names = Arrays.stream(result.getStdout().split("\n"))
+                    .map(line -> line.substring(0, line.indexOf('=')))
+                    .collect(Collectors.toSet());
+            // The shell adds PWD and may add SHLVL and _ itself
+            names.removeAll(Set.of("PWD", "SHLVL", "_", "OLDPWD"));
+            assertTrue(Set.of("PATH", "LANG", "HOME").containsAll(names), "environment " + names);
+            assertTrue(result.getStdout().contains("HOME=" + workDir));
+        }
+    }
+
+    @Test
+    void stderrIsCutShortAndStrippedOfTheWorkingDirectory() throws Exception {
+        ProcessCodeRunner runner = new ProcessCodeRunner(properties("sh main.py"));
+
+        try (CodeRunner.Program program = runner.prepare(Language.PYTHON,
+                "printf '%s/main.py failed\\033[31m\\n' \"$PWD\" >&2; seq 1 1000 >&2; exit 1")) {
+            CodeRunner.RunResult result = runner.run(program, "", 5000, 256);
+
+            String[] lines = result.getStderr().split("\n");
+            assertEquals("./main.py failed[31m", lines[0]);
+            assertFalse(result.getStderr().contains(workDir.toString()));
+            assertEquals(41, lines.length);
+            assertEquals("...", lines[40]);
+        }
+    }
+
+    @Test
+    void sanitizeCapsLongLines() {
+        String sanitized = ProcessCodeRunner.sanitize("x".repeat(10_000), workDir);
+
+        assertEquals(2000 + "\n...".length(), sanitized.length());
+    }
+
+    private JudgeProperties properties(String run) {
+        JudgeProperties.Toolchain toolchain = new JudgeProperties.Toolchain();
+        toolchain.setSourceFile("main.py");
+        toolchain.setRun(run);
+        toolchain.setLimitAddressSpace(false);
+        JudgeProperties properties = new JudgeProperties();
+        properties.setSandboxed(true);
+        properties.setWorkDir(workDir.toString());
+        properties.getLanguages().put(Language.PYTHON, toolchain);
+        return properties;
+    }
+}
@@ -0,0 +1,106 @@
+package com.gourav.CodyWar.Service;
+
+import com.gourav.CodyWar.Domain.Dto.BattleRoomCode;
+import com.gourav.CodyWar.Domain.Event.BattleEvent;
+import com.gourav.CodyWar.Domain.Event.BattleEventType;
+import com.gourav.CodyWar.Repository.BattleRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * A small pool, not a multiple of the bitmap word size, filled to the last slot and drained again.
+ */
+class RoomCodeAllocatorTests {
+
+    private static final int CAPACITY = 200;
+
+    private final BattleRepository battleRepository = mock(BattleRepository.class);
+    private final BattleEventLog battleEventLog = mock(BattleEventLog.class);
+
+    @Test
+    void everySlotHandsOutADistinctCodeUntilThePoolIsFull() {
+        RoomCodeAllocator allocator = open(List.of());
+        Set<String> codes = new HashSet<>();
+        for (int i = 0; i < CAPACITY; i++) {
+            String code = allocator.allocate();
+            assertTrue(code.matches("[A-HJ-NP-Z2-9]{6}"), code);
+            assertTrue(codes.add(code), "handed out twice: " + code);
+        }
+        assertEquals(CAPACITY, allocator.size());
+        assertThrows(IllegalStateException.class, allocator::allocate);
+
+        String returned = codes.iterator().next();
+        allocator.discard(returned);
+        assertEquals(returned, allocator.allocate());
+    }
+
+    @Test
+    void boundCodeFindsItsBattleUntilReleased() {
+        RoomCodeAllocator allocator = open(List.of());
+        UUID battleId = UUID.randomUUID();
+        String code = allocator.allocate();
+        // Allocated but not yet bound to a battle
+        assertNull(allocator.find(code));
+
+        allocator.bind(code, battleId);
+        assertEquals(battleId, allocator.find(code));
+        assertEquals(battleId, allocator.find(code.toLowerCase()));
+        assertNull(allocator.find(null));
+        assertNull(allocator.find("SHORT"));
+        assertNull(allocator.find("O0O0O0"));
+
+        allocator.release(battleId);
+        assertNull(allocator.find(code));
+        assertEquals(0, allocator.size());
+    }
+
+    @Test
+    void rebuildKeepsHeldCodesAndReleasesThemWhenTheirBattleEnds() {
+        // Any well-formed code; the new pool's key decides whether it lands inside its slot range
+        UUID inPool = UUID.randomUUID();
+        String code = open(List.of(), mock(BattleEventLog.class)).allocate();
+        // From before the pool, with characters outside its alphabet
+        UUID legacy = UUID.randomUUID();
+
+        RoomCodeAllocator allocator = open(List.of(new BattleRoomCode(inPool, code), new BattleRoomCode(legacy, "AB10OI")));
+        assertEquals(2, allocator.size());
+        assertEquals(inPool, allocator.find(code));
+        assertEquals(legacy, allocator.find("ab10oi"));
+        assertEquals(Set.of(inPool, legacy), allocator.battleIds());
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<Consumer<BattleEvent>> subscriber = ArgumentCaptor.forClass(Consumer.class);
+        verify(battleEventLog).subscribe(subscriber.capture());
+        subscriber.getValue().accept(BattleEvent.builder().type(BattleEventType.FINISHED).battleId(inPool).build());
+        subscriber.getValue().accept(BattleEvent.builder().type(BattleEventType.CANCELLED).battleId(legacy).build());
+        assertNull(allocator.find(code));
+        assertNull(allocator.find("AB10OI"));
+        assertEquals(0, allocator.size());
+    }
+
+    private RoomCodeAllocator open(List<BattleRoomCode> held) {
+        return open(held, battleEventLog);
+    }
+
+    private RoomCodeAllocator open(List<BattleRoomCode> held, BattleEventLog eventLog) {
+        when(battleRepository.findRoomCodes()).thenReturn(held);
+        RoomCodeAllocator allocator = new RoomCodeAllocator(battleRepository, eventLog, new SimpleMeterRegistry(), CAPACITY);
+        allocator.rebuild();
+        return allocator;
+    }
+}
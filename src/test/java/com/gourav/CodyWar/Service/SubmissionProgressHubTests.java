@@ -0,0 +1,137 @@
+package com.gourav.CodyWar.Service;
+
+import com.gourav.CodyWar.Cluster.ClusterMembership;
+import com.gourav.CodyWar.Domain.Dto.SubmissionProgressDto;
+import com.gourav.CodyWar.Domain.Entity.SubmissionStatus;
+import com.gourav.CodyWar.Repository.ArchivedSubmissionRepository;
+import com.gourav.CodyWar.Repository.SubmissionRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * A client that stops reading must not hold up the other streams sharing the sender threads.
+ */
+class SubmissionProgressHubTests {
+
+    private static final long WRITE_TIMEOUT_MS = 200;
+
+    private final CountDownLatch unblock = new CountDownLatch(1);
+    private SubmissionProgressHub hub;
+
+    @AfterEach
+    void close() {
+        unblock.countDown();
+        if (hub != null) {
+            hub.shutdown();
+        }
+    }
+
+    @Test
+    void slowClientIsDroppedWithoutStallingOtherStreams() throws Exception {
+        UUID slowSubmission = UUID.randomUUID();
+        UUID fastSubmission = UUID.randomUUID();
+        SubmissionRepository submissionRepository = mock(SubmissionRepository.class);
+        when(submissionRepository.findProgress(any(), any())).thenAnswer(invocation -> Optional.of(progress(invocation.getArgument(0))));
+
+        SlowEmitter slow = new SlowEmitter();
+        RecordingEmitter fast = new RecordingEmitter();
+        SseEmitter[] next = {slow};
+        // One sender thread, so without the write timeout the fast stream would wait behind the slow one
+        hub = new SubmissionProgressHub(submissionRepository, mock(ArchivedSubmissionRepository.class),
+                mock(ClusterMembership.class), new SimpleMeterRegistry(), 60000, 100, 1, WRITE_TIMEOUT_MS) {
+            @Override
+            SseEmitter createEmitter() {
+                return next[0];
+            }
+        };
+
+        hub.subscribe(slowSubmission, UUID.randomUUID());
+        next[0] = fast;
+        hub.subscribe(fastSubmission, UUID.randomUUID());
+        assertNotNull(fast.sent.poll(1, TimeUnit.SECONDS), "current status on subscribing");
+
+        hub.progress(slowSubmission, 1, 10);
+        assertTrue(slow.blocked.await(5, TimeUnit.SECONDS), "slow client's write blocks");
+        hub.progress(fastSubmission, 1, 10);
+        assertNull(fast.sent.poll(WRITE_TIMEOUT_MS / 2, TimeUnit.MILLISECONDS), "queued behind the slow client");
+
+        Thread.sleep(WRITE_TIMEOUT_MS);
+        hub.dropSlowClients();
+        assertNotNull(fast.sent.poll(5, TimeUnit.SECONDS), "progress once the slow client is dropped");
+
+        // Dropped: later updates are not written to it, and it is closed once its write returns
+        hub.progress(slowSubmission, 2, 10);
+        unblock.countDown();
+        assertTrue(slow.completed.await(5, TimeUnit.SECONDS), "slow client closed");
+        Thread.sleep(100);
+        assertEquals(2, slow.sends.get());
+    }
+
+    private static SubmissionProgressDto progress(UUID submissionId) {
+        return SubmissionProgressDto.builder()
+                .submissionId(submissionId)
+                .status(SubmissionStatus.RUNNING)
+                .testCasesPassed(0)
+                .totalTestCases(10)
+                .build();
+    }
+
+    private static class RecordingEmitter extends SseEmitter {
+
+        final BlockingQueue<SseEventBuilder> sent = new LinkedBlockingQueue<>();
+
+        @Override
+        public void send(SseEventBuilder builder) throws IOException {
+            sent.add(builder);
+        }
+    }
+
+    /**
+     * Takes the current status, then blocks on every further write until the test ends, like a
+     * client that stopped reading with its socket buffers full
+     */
+    private class SlowEmitter extends SseEmitter {
+
+        final AtomicInteger sends = new AtomicInteger();
+        final CountDownLatch blocked = new CountDownLatch(1);
+        final CountDownLatch completed = new CountDownLatch(1);
+
+        @Override
+        public void send(SseEventBuilder builder) throws IOException {
+            if (sends.incrementAndGet() == 1) {
+                return;
+            }
+            blocked.countDown();
+            try {
+                unblock.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IOException(e);
+            }
+        }
+
+        @Override
+        public void complete() {
+            completed.countDown();
+        }
+    }
+}
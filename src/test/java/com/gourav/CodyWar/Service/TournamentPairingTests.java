@@ -0,0 +1,95 @@
+package com.gourav.CodyWar.Service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Seeding, byes and rematch avoidance, with players named p1, p2, ... by seed or standing.
+ */
+class TournamentPairingTests {
+
+    @Test
+    void eliminationRoundsCoverTheField() {
+        assertEquals(1, TournamentPairing.eliminationRounds(2));
+        assertEquals(2, TournamentPairing.eliminationRounds(3));
+        assertEquals(3, TournamentPairing.eliminationRounds(8));
+        assertEquals(4, TournamentPairing.eliminationRounds(9));
+    }
+
+    @Test
+    void bracketPairsTopSeedsWithBottomOnesInOppositeHalves() {
+        assertEquals(List.of("p1-p8", "p4-p5", "p2-p7", "p3-p6"), names(TournamentPairing.bracket(players(8))));
+    }
+
+    @Test
+    void byesOfAShortFieldGoToTheTopSeeds() {
+        assertEquals(List.of("p1-bye", "p4-p5", "p2-bye", "p3-p6"), names(TournamentPairing.bracket(players(6))));
+        assertEquals(List.of("p1-bye", "p2-p3"), names(TournamentPairing.bracket(players(3))));
+    }
+
+    @Test
+    void nextBracketRoundPairsNeighbouringSlots() {
+        List<UUID> winners = players(4);
+        assertEquals(List.of("p1-p2", "p3-p4"), names(TournamentPairing.nextBracketRound(winners)));
+    }
+
+    @Test
+    void swissPairsDownTheStandingsAvoidingRematches() {
+        List<UUID> standings = players(6);
+        Map<UUID, Set<UUID>> opponents = new HashMap<>();
+        played(opponents, standings.get(0), standings.get(1));
+        played(opponents, standings.get(3), standings.get(4));
+
+        assertEquals(List.of("p1-p3", "p2-p4", "p5-p6"), names(TournamentPairing.swiss(standings, opponents, Set.of())));
+    }
+
+    @Test
+    void swissRematchesOnlyWhenNobodyElseIsLeft() {
+        List<UUID> standings = players(2);
+        Map<UUID, Set<UUID>> opponents = new HashMap<>();
+        played(opponents, standings.get(0), standings.get(1));
+
+        assertEquals(List.of("p1-p2"), names(TournamentPairing.swiss(standings, opponents, Set.of())));
+    }
+
+    @Test
+    void swissByeGoesToTheLowestRankedWithoutOneSoFar() {
+        List<UUID> standings = players(5);
+        assertEquals(List.of("p1-p2", "p3-p4", "p5-bye"), names(TournamentPairing.swiss(standings, Map.of(), Set.of())));
+
+        Set<UUID> hadBye = new HashSet<>(List.of(standings.get(4), standings.get(3)));
+        assertEquals(List.of("p1-p2", "p4-p5", "p3-bye"), names(TournamentPairing.swiss(standings, Map.of(), hadBye)));
+    }
+
+    private static void played(Map<UUID, Set<UUID>> opponents, UUID one, UUID two) {
+        opponents.computeIfAbsent(one, id -> new HashSet<>()).add(two);
+        opponents.computeIfAbsent(two, id -> new HashSet<>()).add(one);
+    }
+
+    private static List<UUID> players(int count) {
+        List<UUID> players = new ArrayList<>();
+        for (int i = 1; i <= count; i++) {
+            players.add(new UUID(0, i));
+        }
+        return players;
+    }
+
+    private static List<String> names(List<TournamentPairing.Pairing> pairings) {
+        return pairings.stream()
+                .map(pairing -> name(pairing.getPlayerOne()) + "-" + (pairing.isBye() ? "bye" : name(pairing.getPlayerTwo())))
+                .toList();
+    }
+
+    private static String name(UUID player) {
+        return "p" + player.getLeastSignificantBits();
+    }
+}
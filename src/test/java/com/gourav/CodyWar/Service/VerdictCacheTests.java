@@ -0,0 +1,100 @@
+package com.gourav.CodyWar.Service;
+
+import com.gourav.CodyWar.Configuration.JudgeProperties;
+import com.gourav.CodyWar.Domain.Dto.JudgeResult;
+import com.gourav.CodyWar.Domain.Entity.Language;
+import com.gourav.CodyWar.Domain.Entity.SubmissionStatus;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+/**
+ * What is cached, what a changed test set or a deleted problem makes unreachable, and eviction
+ * under the byte budget.
+ */
+class VerdictCacheTests {
+
+    // VerdictCache's estimate for an entry without an error message
+    private static final int ENTRY_BYTES = 240;
+
+    private final UUID problemId = UUID.randomUUID();
+    private final UUID codeHash = UUID.randomUUID();
+
+    @Test
+    void verdictIsServedForTheSameCodeAndTestSetOnly() {
+        VerdictCache cache = cache(1 << 20);
+        cache.put(problemId, 1, Language.PYTHON, codeHash, result(SubmissionStatus.WRONG_ANSWER, "line 3 differs"), 1_000_000);
+
+        JudgeResult cached = cache.get(problemId, 1, Language.PYTHON, codeHash);
+        assertEquals(SubmissionStatus.WRONG_ANSWER, cached.getStatus());
+        assertEquals(7, cached.getTestCasesPassed());
+        assertEquals("line 3 differs", cached.getErrorMessage());
+
+        assertNull(cache.get(problemId, 2, Language.PYTHON, codeHash), "test set changed");
+        assertNull(cache.get(problemId, 1, Language.JAVA, codeHash), "other language");
+        assertNull(cache.get(problemId, 1, Language.PYTHON, UUID.randomUUID()), "other code");
+        assertNull(cache.get(UUID.randomUUID(), 1, Language.PYTHON, codeHash), "other problem");
+    }
+
+    @Test
+    void verdictsThatMayComeOutDifferentlyAreNotCached() {
+        VerdictCache cache = cache(1 << 20);
+        cache.put(problemId, 1, Language.PYTHON, codeHash, result(SubmissionStatus.TIME_LIMIT_EXCEEDED, null), 1);
+        cache.put(problemId, 2, Language.PYTHON, codeHash, result(SubmissionStatus.RUNNING, null), 1);
+        cache.put(problemId, 3, Language.PYTHON, codeHash, result(SubmissionStatus.RUNTIME_ERROR, "x".repeat(4096)), 1);
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    void deletedProblemsVerdictsAreDropped() {
+        VerdictCache cache = cache(1 << 20);
+        UUID otherProblem = UUID.randomUUID();
+        cache.put(problemId, 1, Language.PYTHON, codeHash, result(SubmissionStatus.ACCEPTED, null), 1);
+        cache.put(problemId, 2, Language.CPP, codeHash, result(SubmissionStatus.ACCEPTED, null), 1);
+        cache.put(otherProblem, 1, Language.PYTHON, codeHash, result(SubmissionStatus.ACCEPTED, null), 1);
+
+        cache.evictProblem(problemId);
+        assertEquals(1, cache.size());
+        assertNotNull(cache.get(otherProblem, 1, Language.PYTHON, codeHash));
+        // One entry without a message left
+        assertEquals(ENTRY_BYTES, cache.estimatedBytes());
+    }
+
+    @Test
+    void leastRecentlyUsedIsEvictedOverTheByteBudget() {
+        VerdictCache cache = cache(3 * ENTRY_BYTES);
+        UUID[] hashes = {UUID.randomUUID(), UUID.randomUUID(), UUID.randomUUID(), UUID.randomUUID()};
+        for (int i = 0; i < 3; i++) {
+            cache.put(problemId, 1, Language.PYTHON, hashes[i], result(SubmissionStatus.ACCEPTED, null), 1);
+        }
+        assertNotNull(cache.get(problemId, 1, Language.PYTHON, hashes[0]));
+
+        cache.put(problemId, 1, Language.PYTHON, hashes[3], result(SubmissionStatus.ACCEPTED, null), 1);
+        assertEquals(3, cache.size());
+        assertNull(cache.get(problemId, 1, Language.PYTHON, hashes[1]), "least recently used");
+        assertNotNull(cache.get(problemId, 1, Language.PYTHON, hashes[0]));
+        assertNotNull(cache.get(problemId, 1, Language.PYTHON, hashes[3]));
+    }
+
+    private static VerdictCache cache(long maxBytes) {
+        JudgeProperties properties = new JudgeProperties();
+        properties.getVerdictCache().setMaxBytes(maxBytes);
+        return new VerdictCache(properties, new SimpleMeterRegistry());
+    }
+
+    private static JudgeResult result(SubmissionStatus status, String errorMessage) {
+        return JudgeResult.builder()
+                .status(status)
+                .executionTimeMs(12)
+                .memoryUsedKb(2048)
+                .testCasesPassed(7)
+                .totalTestCases(10)
+                .errorMessage(errorMessage)
+                .build();
+    }
+}
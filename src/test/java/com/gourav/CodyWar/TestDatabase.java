@@ -0,0 +1,51 @@
+package com.gourav.CodyWar;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * A fresh in-memory H2 database in PostgreSQL mode, the same stand-in the load-test profile uses.
+ * It outlives the application contexts started on it, so a test can restart a node or run two,
+ * and is dropped on close.
+ */
+public final class TestDatabase implements AutoCloseable {
+
+    private final String url;
+
+    private TestDatabase(String url) {
+        this.url = url;
+    }
+
+    public static TestDatabase create() {
+        return new TestDatabase("jdbc:h2:mem:codywar-" + UUID.randomUUID()
+                + ";MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DEFAULT_NULL_ORDERING=HIGH;DB_CLOSE_DELAY=-1");
+    }
+
+    /**
+     * Command line arguments pointing an application at this database, followed by the given ones
+     */
+    public String[] args(String... extra) {
+        List<String> args = new ArrayList<>(List.of(
+                "--spring.datasource.url=" + url,
+                "--spring.datasource.driver-class-name=org.h2.Driver",
+                "--spring.datasource.username=sa",
+                "--spring.datasource.password=",
+                "--spring.jpa.database-platform=org.hibernate.dialect.H2Dialect"));
+        args.addAll(Arrays.asList(extra));
+        return args.toArray(String[]::new);
+    }
+
+    @Override
+    public void close() throws SQLException {
+        try (Connection connection = DriverManager.getConnection(url, "sa", "");
+             Statement statement = connection.createStatement()) {
+            statement.execute("SHUTDOWN");
+        }
+    }
+}